@@ -0,0 +1,32 @@
+SET NAMES utf8mb4;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- ----------------------------
+-- Table structure for system_dept_closure
+-- ----------------------------
+DROP TABLE IF EXISTS `system_dept_closure`;
+CREATE TABLE `system_dept_closure`  (
+                                        `id` bigint NOT NULL AUTO_INCREMENT COMMENT '自增编号',
+                                        `ancestor_id` bigint NOT NULL COMMENT '祖先部门编号',
+                                        `descendant_id` bigint NOT NULL COMMENT '后代部门编号',
+                                        `depth` int NOT NULL COMMENT '层级距离',
+                                        PRIMARY KEY (`id`) USING BTREE,
+                                        UNIQUE INDEX `uk_ancestor_descendant`(`ancestor_id` ASC, `descendant_id` ASC) USING BTREE,
+                                        INDEX `idx_descendant`(`descendant_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '部门闭包表';
+
+-- ----------------------------
+-- Records of system_dept_closure，基于 system_dept 初始化
+-- ----------------------------
+INSERT INTO `system_dept_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE `closure` (`ancestor_id`, `descendant_id`, `depth`) AS (
+    SELECT `id`, `id`, 0 FROM `system_dept` WHERE `deleted` = b'0'
+    UNION ALL
+    SELECT `d`.`parent_id`, `c`.`descendant_id`, `c`.`depth` + 1
+    FROM `closure` `c`
+    JOIN `system_dept` `d` ON `d`.`id` = `c`.`ancestor_id` AND `d`.`deleted` = b'0'
+    WHERE `d`.`parent_id` <> 0
+)
+SELECT `ancestor_id`, `descendant_id`, `depth` FROM `closure`;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -2,7 +2,6 @@ package cn.iocoder.yudao.framework.common.biz.system.logger;
 
 import cn.iocoder.yudao.framework.common.biz.system.logger.dto.OperateLogCreateReqDTO;
 import jakarta.validation.Valid;
-import org.springframework.scheduling.annotation.Async;
 
 /**
  * 操作日志 API 接口
@@ -21,9 +20,10 @@ public interface OperateLogCommonApi {
     /**
      * 【异步】创建操作日志
      *
+     * 实现类需要保证不阻塞调用方，例如说放入缓冲区批量写入，见 OperateLogApiImpl。默认实现为同步写入
+     *
      * @param createReqDTO 请求
      */
-    @Async
     default void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO) {
         createOperateLog(createReqDTO);
     }
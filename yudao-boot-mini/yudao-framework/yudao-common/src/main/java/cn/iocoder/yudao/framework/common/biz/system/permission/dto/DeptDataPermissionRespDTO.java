@@ -26,10 +26,25 @@ public class DeptDataPermissionRespDTO {
      */
     private Set<Long> deptIds;
 
+    /**
+     * 可查看的根部门编号数组，即可查看该部门及其所有子部门
+     *
+     * 注意：它们及其子部门，也都包含在 {@link #deptIds} 中
+     */
+    private Set<Long> rootDeptIds;
+    /**
+     * 可单独查看的部门编号数组，即不包含子部门
+     *
+     * 注意：它们也都包含在 {@link #deptIds} 中。{@link #rootDeptIds} + singleDeptIds 可以完整表达 {@link #deptIds}
+     */
+    private Set<Long> singleDeptIds;
+
     public DeptDataPermissionRespDTO() {
         this.all = false;
         this.self = false;
         this.deptIds = new HashSet<>();
+        this.rootDeptIds = new HashSet<>();
+        this.singleDeptIds = new HashSet<>();
     }
 
 }
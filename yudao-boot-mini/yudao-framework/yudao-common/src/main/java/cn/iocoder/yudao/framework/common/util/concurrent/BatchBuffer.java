@@ -0,0 +1,212 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 批量写入的缓冲区
+ *
+ * 调用方通过 {@link #offer(Object)} 投递数据，由单个后台线程从有界队列中取出，每次最多 batchSize 条，交给 handler 批量处理。
+ * 队列中积压越多，每批越大，从而在高峰期自动合并写入；低峰期则逐条及时写入，无需等待。
+ * 如果设置了 lingerMillis，则取到第一条后，最多再等待 lingerMillis，凑满一批再处理，以换取更少的写入次数
+ *
+ * 注意：
+ * 1. 队列已满时，{@link #offer(Object)} 返回 false，由调用方决定降级策略，例如说同步写入、丢弃
+ * 2. handler 在后台线程执行，不存在请求上下文（租户、登录用户等），需要的话，由调用方放到数据中
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class BatchBuffer<T> {
+
+    /**
+     * 后台线程拉取数据的等待时长，单位：毫秒
+     */
+    private static final long POLL_TIMEOUT_MILLIS = 1000;
+    /**
+     * 关闭时，等待后台线程结束的时长，单位：毫秒
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * 名字，用于线程名、日志
+     */
+    private final String name;
+    /**
+     * 每批的最大数量
+     */
+    private final int batchSize;
+    /**
+     * 凑批的最长等待时长，单位：毫秒。为 0 时，不等待
+     */
+    private final long lingerMillis;
+    /**
+     * 批量处理逻辑
+     */
+    private final Consumer<List<T>> handler;
+
+    private final BlockingQueue<T> queue;
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * 被拒绝（队列已满）的数量
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+    /**
+     * 已处理的数量
+     */
+    private final LongAdder handledCount = new LongAdder();
+
+    public BatchBuffer(String name, int capacity, int batchSize, Consumer<List<T>> handler) {
+        this(name, capacity, batchSize, 0, handler);
+    }
+
+    public BatchBuffer(String name, int capacity, int batchSize, long lingerMillis, Consumer<List<T>> handler) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "batch-buffer-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 启动后台线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * 投递数据
+     *
+     * @param item 数据
+     * @return 是否成功。队列已满，或者未启动时，返回 false
+     */
+    public boolean offer(T item) {
+        if (!running || !queue.offer(item)) {
+            rejectedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 投递数据，队列已满时，最多阻塞等待 timeout，实现背压
+     *
+     * @param item 数据
+     * @param timeout 最长等待时长
+     * @param unit 时长单位
+     * @return 是否成功。等待超时，或者未启动时，返回 false
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!running || !queue.offer(item, timeout, unit)) {
+            rejectedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 关闭：等待后台线程处理完队列中的数据；超时后，在当前线程处理剩余数据
+     */
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<T> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += batchSize) {
+            handle(remaining.subList(i, Math.min(i + batchSize, remaining.size())));
+        }
+        log.info("[shutdown][缓冲区({}) 已关闭，共处理({}) 条，拒绝({}) 条]", name, handledCount.sum(), rejectedCount.sum());
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                linger(batch);
+                handle(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void linger(List<T> batch) {
+        if (lingerMillis <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < batchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (InterruptedException e) {
+                // 被中断时，不再等待，已取出的数据仍然处理，避免丢失
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handle(List<T> batch) {
+        try {
+            handler.accept(batch);
+            handledCount.add(batch.size());
+        } catch (Throwable ex) {
+            log.error("[handle][缓冲区({}) 批量处理({}) 条失败]", name, batch.size(), ex);
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getHandledCount() {
+        return handledCount.sum();
+    }
+
+}
@@ -0,0 +1,188 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 熔断器
+ *
+ * 连续失败达到阈值后「打开」，在打开时长内直接拒绝调用，让调用方快速失败，避免请求线程阻塞在不可用的下游服务上。
+ * 打开时长结束后进入「半开」，只放行一次探测调用：成功则「关闭」，失败则重新「打开」
+ *
+ * 使用方式：
+ * 1. 调用前 {@link #tryAcquire()}，返回 {@link #REJECTED} 时直接走降级逻辑
+ * 2. 否则，必须在调用结束后，使用返回的凭证 {@link #onSuccess(long)} 或 {@link #onFailure(long)}，否则半开状态的探测无法结束
+ *
+ * 凭证为申请时的状态版本号，每次状态切换时递增。调用结束时，只有版本号与当前状态一致的结果才生效，
+ * 避免打开前发起、打开后才返回的调用，关闭熔断器或者重新打开熔断器。所以，只有半开状态的探测调用，才能关闭熔断器
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+
+        /**
+         * 关闭：正常放行
+         */
+        CLOSED,
+        /**
+         * 打开：全部拒绝
+         */
+        OPEN,
+        /**
+         * 半开：放行一次探测调用
+         */
+        HALF_OPEN
+
+    }
+
+    /**
+     * 拒绝调用时，{@link #tryAcquire()} 返回的凭证
+     */
+    public static final long REJECTED = -1;
+
+    private final String name;
+    /**
+     * 打开熔断器的连续失败次数
+     */
+    private final int failureThreshold;
+    /**
+     * 打开的时长，单位：毫秒
+     */
+    private final long openDurationMillis;
+
+    private final AtomicReference<Status> status = new AtomicReference<>(new Status(State.CLOSED, 0, 0));
+    /**
+     * 关闭状态下的连续失败次数
+     */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * 被拒绝的调用数量
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * 申请调用
+     *
+     * @return 调用凭证，调用结束后传给 {@link #onSuccess(long)} 或 {@link #onFailure(long)}；拒绝调用时，返回 {@link #REJECTED}
+     */
+    public long tryAcquire() {
+        Status current = status.get();
+        if (current.state == State.CLOSED) {
+            return current.version;
+        }
+        // 打开时长结束，只允许一个调用转为半开，作为探测
+        if (current.state == State.OPEN && System.currentTimeMillis() - current.openedAt >= openDurationMillis) {
+            Status halfOpen = new Status(State.HALF_OPEN, current.version + 1, current.openedAt);
+            if (status.compareAndSet(current, halfOpen)) {
+                log.info("[tryAcquire][熔断器({}) 进入半开状态，放行探测调用]", name);
+                return halfOpen.version;
+            }
+        }
+        rejectedCount.increment();
+        return REJECTED;
+    }
+
+    /**
+     * 记录调用成功
+     *
+     * @param permit {@link #tryAcquire()} 返回的凭证
+     */
+    public void onSuccess(long permit) {
+        Status current = status.get();
+        // 过期的调用结果（例如说，打开前发起的调用），忽略
+        if (current.version != permit) {
+            return;
+        }
+        // 情况一：关闭状态，重置连续失败次数即可
+        if (current.state == State.CLOSED) {
+            consecutiveFailures.set(0);
+            return;
+        }
+        // 情况二：半开状态的探测成功，关闭
+        if (current.state == State.HALF_OPEN) {
+            consecutiveFailures.set(0);
+            if (status.compareAndSet(current, new Status(State.CLOSED, current.version + 1, 0))) {
+                log.info("[onSuccess][熔断器({}) 已关闭]", name);
+            }
+        }
+    }
+
+    /**
+     * 记录调用失败
+     *
+     * @param permit {@link #tryAcquire()} 返回的凭证
+     */
+    public void onFailure(long permit) {
+        Status current = status.get();
+        // 过期的调用结果，忽略
+        if (current.version != permit) {
+            return;
+        }
+        // 情况一：半开状态的探测失败，重新打开
+        if (current.state == State.HALF_OPEN) {
+            open(current, consecutiveFailures.incrementAndGet());
+            return;
+        }
+        // 情况二：连续失败达到阈值，打开
+        if (current.state == State.CLOSED) {
+            int failures = consecutiveFailures.incrementAndGet();
+            if (failures >= failureThreshold) {
+                open(current, failures);
+            }
+        }
+    }
+
+    private void open(Status expect, int failures) {
+        if (status.compareAndSet(expect, new Status(State.OPEN, expect.version + 1, System.currentTimeMillis()))) {
+            log.warn("[open][熔断器({}) 连续失败({}) 次，已打开({} ms)]", name, failures, openDurationMillis);
+        }
+    }
+
+    public State getState() {
+        return status.get().state;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 熔断器的状态快照，不可变。状态、版本号、打开时间一起通过 CAS 切换
+     */
+    private static final class Status {
+
+        private final State state;
+        /**
+         * 版本号，每次状态切换时递增
+         */
+        private final long version;
+        /**
+         * 打开的时间，单位：毫秒
+         */
+        private final long openedAt;
+
+        private Status(State state, long version, long openedAt) {
+            this.state = state;
+            this.version = version;
+            this.openedAt = openedAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import com.alibaba.ttl.TtlRunnable;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按照 key 限流的执行器
+ *
+ * 每个 key（例如说短信渠道、邮箱账号）拥有独立的并发数、每秒速率限制，避免某个渠道的大批量发送，压垮第三方平台或触发其限流。
+ *
+ * 调用 {@link #execute(Object, Runnable)} 只是将任务放入该 key 的队列，不会阻塞，可以在共享的 @Async 线程池、MQ Consumer 中调用。
+ * 每个 key 最多 concurrencyPerKey 个「派发者」在内部线程池中运行：派发者取出任务，等待速率许可，然后执行。
+ * 因此，等待许可的只有内部线程池的线程，不会占用调用方的线程
+ *
+ * 注意：
+ * 1. 每个派发者执行完一个任务后，重新提交到内部线程池的队尾，让出线程，避免大批量的 key 饿死其它 key
+ * 2. 速率按照均匀间隔控制，不允许突发
+ * 3. 任务通过 {@link TtlRunnable} 包装，与 @Async 一致，会传递调用线程的上下文（租户等）
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class KeyedThrottleExecutor<K> {
+
+    /**
+     * 关闭时，等待任务执行完成的时长，单位：毫秒
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    private final String name;
+    /**
+     * 每个 key 的最大并发数
+     */
+    private final int concurrencyPerKey;
+    /**
+     * 每个 key 相邻两次执行的最小间隔，单位：纳秒
+     */
+    private final long intervalNanos;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<K, KeyQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 排队中的数量
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    /**
+     * 已执行的数量
+     */
+    private final LongAdder executedCount = new LongAdder();
+
+    public KeyedThrottleExecutor(String name, int threads, int concurrencyPerKey, double permitsPerSecond) {
+        this.name = name;
+        this.concurrencyPerKey = concurrencyPerKey;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        // 由于每个 key 的派发者数量有上限，所以队列无需有界
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("throttle-" + name + "-", true));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 执行任务：放入 key 的队列后立即返回，由内部线程池按照限制执行
+     *
+     * @param key 限流的 key
+     * @param task 任务
+     * @throws RejectedExecutionException 执行器已关闭
+     */
+    public void execute(K key, Runnable task) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("执行器(" + name + ") 已关闭");
+        }
+        KeyQueue queue = queues.computeIfAbsent(key, KeyQueue::new);
+        queue.tasks.offer(TtlRunnable.get(task));
+        pendingCount.incrementAndGet();
+        queue.startDispatcher();
+    }
+
+    /**
+     * 关闭：不再接收新任务，并等待已提交的任务执行完成
+     */
+    public void shutdown() {
+        shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * 关闭：不再接收新任务，并等待已提交的任务执行完成。超时后，中断等待许可的派发者，剩余任务不再执行
+     *
+     * @param timeoutMillis 等待时长，单位：毫秒
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                log.warn("[shutdown][执行器({}) 关闭超时，仍有({}) 个任务未执行]", name, pendingCount.get());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueSize() {
+        return pendingCount.get();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * 每个 key 的任务队列，同时作为该 key 的派发者，提交到内部线程池执行
+     */
+    private final class KeyQueue implements Runnable {
+
+        private final K key;
+        private final Deque<Runnable> tasks = new ConcurrentLinkedDeque<>();
+        /**
+         * 已提交到内部线程池的派发者数量，不超过 concurrencyPerKey
+         */
+        private final AtomicInteger dispatchers = new AtomicInteger();
+        /**
+         * 下一次允许执行的时间，单位：纳秒
+         */
+        private long nextFreeNanos = System.nanoTime();
+
+        private KeyQueue(K key) {
+            this.key = key;
+        }
+
+        /**
+         * 有任务、且派发者未达上限时，启动一个派发者
+         */
+        private void startDispatcher() {
+            while (!tasks.isEmpty()) {
+                int count = dispatchers.get();
+                if (count >= concurrencyPerKey) {
+                    return;
+                }
+                if (!dispatchers.compareAndSet(count, count + 1)) {
+                    continue;
+                }
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    // 已关闭：由仍在运行的派发者继续处理
+                    dispatchers.decrementAndGet();
+                }
+                return;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                // 1. 取出任务。没有任务时退出，并再次检查，避免与 execute 竞争导致任务无人处理
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    dispatchers.decrementAndGet();
+                    startDispatcher();
+                    return;
+                }
+                // 2. 等待速率许可。被中断时（关闭超时），放回任务后退出
+                try {
+                    long waitNanos = reserve();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                } catch (InterruptedException e) {
+                    tasks.offerFirst(task);
+                    dispatchers.decrementAndGet();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                // 3. 执行任务
+                pendingCount.decrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable ex) {
+                    log.error("[run][执行器({}) key({}) 执行任务异常]", name, key, ex);
+                } finally {
+                    executedCount.increment();
+                }
+
+                // 4. 重新提交到线程池的队尾，让出线程给其它 key。已关闭时，在当前线程继续处理剩余任务
+                if (tasks.isEmpty()) {
+                    continue;
+                }
+                try {
+                    executor.execute(this);
+                    return;
+                } catch (RejectedExecutionException ignored) {
+                }
+            }
+        }
+
+        /**
+         * 预约下一次执行的时间
+         *
+         * @return 需要等待的时长，单位：纳秒
+         */
+        private synchronized long reserve() {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+            return slot - now;
+        }
+
+    }
+
+}
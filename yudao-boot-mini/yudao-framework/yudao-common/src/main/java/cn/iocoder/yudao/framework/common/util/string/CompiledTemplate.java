@@ -0,0 +1,139 @@
+package cn.iocoder.yudao.framework.common.util.string;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的 {key} 占位符模板
+ *
+ * 编译时将模板拆分为「文本片段」与「参数槽位」交替的数组：literals[0] keys[0] literals[1] keys[1] ... literals[n]。
+ * 渲染时只需按顺序拼接，无需每次重新扫描模板、执行正则，适合模板内容不变、渲染次数多的场景，例如说站内信、短信、邮件模板
+ *
+ * 渲染规则与 {@link StrUtil#format(CharSequence, Map)} 保持一致：
+ * 1. 参数不存在或为 null 时，保留原始的 {key} 占位符
+ * 2. 模板内容为 null 时，渲染结果也为 null
+ *
+ * 差异：参数值中包含的 {key} 不会被再次替换，而 StrUtil 按照参数的遍历顺序逐个替换，结果取决于 Map 的顺序
+ *
+ * @author 芋道源码
+ */
+public final class CompiledTemplate {
+
+    /**
+     * 渲染时，每个参数值的预估长度，用于预分配 {@link StringBuilder} 的容量
+     */
+    private static final int ESTIMATED_PARAM_LENGTH = 16;
+
+    /**
+     * 模板内容为 null 时的编译结果，渲染结果为 null
+     */
+    private static final CompiledTemplate NULL = new CompiledTemplate(new String[]{null}, new String[0], 0);
+
+    /**
+     * 文本片段，长度为 keys.length + 1
+     */
+    private final String[] literals;
+    /**
+     * 参数槽位，即每个占位符的参数名
+     */
+    private final String[] keys;
+    /**
+     * 文本片段的总长度
+     */
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] keys, int literalLength) {
+        this.literals = literals;
+        this.keys = keys;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * 编译模板
+     *
+     * 占位符的匹配规则：从 { 开始，到第一个 } 结束，中间不允许换行，也不允许再出现 {。
+     * 例如说，{{name}} 中的占位符为 {name}，外层的 { } 作为普通文本保留，与 StrUtil 的渲染结果一致
+     *
+     * @param content 模板内容
+     * @return 编译后的模板
+     */
+    public static CompiledTemplate compile(String content) {
+        if (content == null) {
+            return NULL;
+        }
+        if (content.isEmpty()) {
+            return new CompiledTemplate(new String[]{content}, new String[0], 0);
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int literalStart = 0;
+        int i = 0;
+        while (i < content.length()) {
+            if (content.charAt(i) != '{') {
+                i++;
+                continue;
+            }
+            // 查找匹配的 }，遇到换行、{ 则说明不是占位符
+            int end = i + 1;
+            while (end < content.length() && content.charAt(end) != '}' && content.charAt(end) != '{'
+                    && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+                end++;
+            }
+            if (end >= content.length() || content.charAt(end) != '}') {
+                // 从 end 继续查找：如果是 {，则作为新的占位符起点
+                i = end;
+                continue;
+            }
+            literals.add(content.substring(literalStart, i));
+            keys.add(content.substring(i + 1, end));
+            literalStart = end + 1;
+            i = end + 1;
+        }
+        literals.add(content.substring(literalStart));
+        int literalLength = content.length();
+        for (String key : keys) {
+            literalLength -= key.length() + 2;
+        }
+        return new CompiledTemplate(literals.toArray(new String[0]), keys.toArray(new String[0]), literalLength);
+    }
+
+    /**
+     * 获得模板中的参数名，按照出现顺序，不去重
+     *
+     * @return 参数名列表
+     */
+    public List<String> getParams() {
+        return keys.length == 0 ? Collections.emptyList() : Arrays.asList(keys.clone());
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param params 参数
+     * @return 渲染后的内容。模板内容为 null 时，返回 null
+     */
+    public String format(Map<String, ?> params) {
+        if (keys.length == 0) {
+            return literals[0];
+        }
+        StringBuilder builder = new StringBuilder(literalLength + keys.length * ESTIMATED_PARAM_LENGTH);
+        builder.append(literals[0]);
+        for (int i = 0; i < keys.length; i++) {
+            String value = params != null ? StrUtil.utf8Str(params.get(keys[i])) : null;
+            if (value != null) {
+                builder.append(value);
+            } else {
+                // 参数不存在时，保留原始的占位符
+                builder.append('{').append(keys[i]).append('}');
+            }
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+}
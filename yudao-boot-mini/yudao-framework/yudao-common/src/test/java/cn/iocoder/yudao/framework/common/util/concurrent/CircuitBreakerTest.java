@@ -0,0 +1,149 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link CircuitBreaker} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MILLIS = 50;
+
+    @Test
+    public void testOnFailure_open() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 3, OPEN_DURATION_MILLIS);
+
+        // 调用：连续失败 3 次
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        }
+
+        // 断言：打开后，拒绝调用
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+        assertEquals(1, circuitBreaker.getRejectedCount());
+    }
+
+    @Test
+    public void testOnSuccess_closedResetFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 3, OPEN_DURATION_MILLIS);
+
+        // 调用：失败 2 次、成功 1 次、再失败 2 次
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+        // 断言：不是连续失败，不打开
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpen_probeSuccess() throws InterruptedException {
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+
+        // 调用：打开时长结束，只放行一次探测调用
+        long probe = circuitBreaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+        // 调用：探测成功
+        circuitBreaker.onSuccess(probe);
+
+        // 断言：关闭，且连续失败次数已重置
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpen_probeFailure() throws InterruptedException {
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+
+        // 调用：探测失败
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+        // 断言：重新打开，并重新计算打开时长
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void testOnSuccess_staleWhenOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, OPEN_DURATION_MILLIS);
+        // 准备参数：关闭时发起的慢调用
+        long slowCall = circuitBreaker.tryAcquire();
+        // 其它调用连续失败，打开
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // 调用：慢调用在打开后才成功返回
+        circuitBreaker.onSuccess(slowCall);
+
+        // 断言：不能关闭熔断器
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOnSuccess_staleWhenHalfOpen() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, OPEN_DURATION_MILLIS);
+        // 准备参数：关闭时发起的慢调用；其它调用连续失败，打开
+        long slowCall = circuitBreaker.tryAcquire();
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+        long probe = circuitBreaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        // 调用：慢调用在半开时成功返回
+        circuitBreaker.onSuccess(slowCall);
+        // 断言：只有探测调用可以关闭熔断器
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        // 调用：慢调用失败返回，也不影响探测
+        circuitBreaker.onFailure(slowCall);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        // 调用：探测成功
+        circuitBreaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOnFailure_staleAfterClosed() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, OPEN_DURATION_MILLIS);
+        // 准备参数：打开前发起的两个慢调用
+        long slowCall1 = circuitBreaker.tryAcquire();
+        long slowCall2 = circuitBreaker.tryAcquire();
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        // 半开探测成功，重新关闭
+        Thread.sleep(OPEN_DURATION_MILLIS * 2);
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // 调用：两个慢调用在重新关闭后才失败返回
+        circuitBreaker.onFailure(slowCall1);
+        circuitBreaker.onFailure(slowCall2);
+
+        // 断言：不计入新的连续失败次数
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private static CircuitBreaker openCircuitBreaker() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, OPEN_DURATION_MILLIS);
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        return circuitBreaker;
+    }
+
+}
@@ -0,0 +1,162 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link KeyedThrottleExecutor} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class KeyedThrottleExecutorTest {
+
+    private KeyedThrottleExecutor<String> executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown(0);
+        }
+    }
+
+    @Test
+    public void testExecute_notBlock() {
+        // 准备参数：每秒 2 次
+        executor = new KeyedThrottleExecutor<>("test", 2, 1, 2);
+
+        // 调用：提交远超速率的任务
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            executor.execute("a", () -> {});
+        }
+
+        // 断言：调用方不等待许可
+        assertTrue(System.nanoTime() - startTime < TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(executor.getQueueSize() > 90);
+    }
+
+    @Test
+    public void testExecute_ratePerKey() throws InterruptedException {
+        // 准备参数：每秒 20 次，即间隔 50 毫秒
+        executor = new KeyedThrottleExecutor<>("test", 4, 4, 20);
+        List<Long> times = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(6);
+
+        // 调用
+        for (int i = 0; i < 6; i++) {
+            executor.execute("a", () -> {
+                times.add(System.nanoTime());
+                latch.countDown();
+            });
+        }
+
+        // 断言：6 次执行至少跨越 5 个间隔
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(times.stream().mapToLong(Long::longValue).max().getAsLong()
+                - times.stream().mapToLong(Long::longValue).min().getAsLong());
+        assertTrue(elapsedMillis >= 5 * 50 - 10, "elapsed " + elapsedMillis);
+        assertEquals(6, executor.getExecutedCount());
+    }
+
+    @Test
+    public void testExecute_rateIsolatedBetweenKeys() throws InterruptedException {
+        // 准备参数：每秒 1 次，key a 排队大量任务
+        executor = new KeyedThrottleExecutor<>("test", 2, 1, 1);
+        for (int i = 0; i < 10; i++) {
+            executor.execute("a", () -> {});
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // 调用
+        executor.execute("b", latch::countDown);
+
+        // 断言：key b 不受 key a 的影响
+        assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testExecute_concurrencyPerKey() throws InterruptedException {
+        // 准备参数：每个 key 并发 2，速率足够大
+        executor = new KeyedThrottleExecutor<>("test", 8, 2, 1000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger totalRunning = new AtomicInteger();
+        AtomicInteger maxTotalRunning = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(20);
+
+        // 调用：key a、b 各 10 个任务
+        for (int i = 0; i < 20; i++) {
+            boolean keyA = i % 2 == 0;
+            executor.execute(keyA ? "a" : "b", () -> {
+                if (keyA) {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                }
+                maxTotalRunning.accumulateAndGet(totalRunning.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    totalRunning.decrementAndGet();
+                    if (keyA) {
+                        running.decrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+
+        // 断言：单个 key 不超过并发数，不同 key 之间可以并发
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertTrue(maxTotalRunning.get() > 2);
+        assertTrue(maxTotalRunning.get() <= 4);
+    }
+
+    @Test
+    public void testShutdown_interruptWaiting() {
+        // 准备参数：每秒 1 次，排队 10 个任务
+        executor = new KeyedThrottleExecutor<>("test", 2, 1, 1);
+        AtomicInteger runCount = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute("a", runCount::incrementAndGet);
+        }
+
+        // 调用：关闭超时后，中断等待许可的派发者
+        long startTime = System.nanoTime();
+        executor.shutdown(200);
+
+        // 断言：不等待剩余任务的许可，剩余任务不再执行
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(runCount.get() < 10);
+        assertEquals(10 - runCount.get(), executor.getQueueSize());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute("a", () -> {}));
+    }
+
+    @Test
+    public void testShutdown_drain() {
+        // 准备参数：速率足够大
+        executor = new KeyedThrottleExecutor<>("test", 2, 1, 1000);
+        AtomicInteger runCount = new AtomicInteger();
+        for (int i = 0; i < 50; i++) {
+            executor.execute("a", runCount::incrementAndGet);
+        }
+
+        // 调用
+        executor.shutdown(5000);
+
+        // 断言：已提交的任务全部执行完成
+        assertEquals(50, runCount.get());
+        assertEquals(0, executor.getQueueSize());
+    }
+
+}
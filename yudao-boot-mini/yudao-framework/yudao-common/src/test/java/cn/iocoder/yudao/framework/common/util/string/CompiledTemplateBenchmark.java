@@ -0,0 +1,81 @@
+package cn.iocoder.yudao.framework.common.util.string;
+
+import cn.hutool.core.util.ReUtil;
+import cn.hutool.core.util.StrUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * {@link CompiledTemplate} 与 {@link StrUtil#format(CharSequence, Map)} 的基准测试
+ *
+ * 模拟站内信、短信模板：模板内容不变，每次发送时渲染、或解析参数
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledTemplateBenchmark {
+
+    private static final Pattern PATTERN_PARAMS = Pattern.compile("\\{(.*?)}");
+
+    /**
+     * 模板中的参数数量
+     */
+    @Param({"2", "8"})
+    public int paramCount;
+
+    private String content;
+    private Map<String, Object> params;
+    private CompiledTemplate template;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("【校园门户】尊敬的用户，");
+        params = new HashMap<>();
+        for (int i = 0; i < paramCount; i++) {
+            builder.append("参数").append(i).append(" 为 {param").append(i).append("}，");
+            params.put("param" + i, "value-" + i);
+        }
+        content = builder.append("请及时处理。").toString();
+        template = CompiledTemplate.compile(content);
+    }
+
+    @Benchmark
+    public String strUtilFormat() {
+        return StrUtil.format(content, params);
+    }
+
+    @Benchmark
+    public String compiledFormat() {
+        return template.format(params);
+    }
+
+    @Benchmark
+    public List<String> regexParams() {
+        return ReUtil.findAllGroup1(PATTERN_PARAMS, content);
+    }
+
+    @Benchmark
+    public List<String> compiledParams() {
+        return template.getParams();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CompiledTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
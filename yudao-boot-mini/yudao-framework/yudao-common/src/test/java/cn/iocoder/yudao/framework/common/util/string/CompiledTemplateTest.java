@@ -0,0 +1,100 @@
+package cn.iocoder.yudao.framework.common.util.string;
+
+import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.util.ReUtil;
+import cn.hutool.core.util.StrUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link CompiledTemplate} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class CompiledTemplateTest {
+
+    @Test
+    public void testFormat() {
+        CompiledTemplate template = CompiledTemplate.compile("您好 {name}，验证码为 {code}，{name} 请勿泄露");
+
+        // 断言：正常替换，重复的参数都替换
+        assertEquals("您好 芋艿，验证码为 1024，芋艿 请勿泄露",
+                template.format(MapUtil.<String, Object>builder("name", "芋艿").put("code", 1024).build()));
+        // 断言：参数不存在或为 null 时，保留占位符
+        Map<String, Object> params = new HashMap<>();
+        params.put("code", null);
+        assertEquals("您好 {name}，验证码为 {code}，{name} 请勿泄露", template.format(params));
+        assertEquals("您好 {name}，验证码为 {code}，{name} 请勿泄露", template.format(null));
+        // 断言：参数名按照出现顺序，不去重
+        assertEquals(Arrays.asList("name", "code", "name"), template.getParams());
+    }
+
+    @Test
+    public void testFormat_nullOrEmpty() {
+        // 断言：null 渲染为 null，与 StrUtil.format 一致
+        assertNull(CompiledTemplate.compile(null).format(Collections.singletonMap("a", 1)));
+        assertTrue(CompiledTemplate.compile(null).getParams().isEmpty());
+        // 断言：空字符串、没有占位符时，原样返回
+        assertEquals("", CompiledTemplate.compile("").format(Collections.singletonMap("a", 1)));
+        assertEquals("没有占位符", CompiledTemplate.compile("没有占位符").format(Collections.singletonMap("a", 1)));
+    }
+
+    @Test
+    public void testFormat_edgeCases() {
+        Map<String, Object> params = MapUtil.<String, Object>builder("name", "芋艿").put("", "空").build();
+        // 断言：占位符在开头、结尾、相邻
+        assertEquals("芋艿芋艿", CompiledTemplate.compile("{name}{name}").format(params));
+        // 断言：空参数名
+        assertEquals("[空]", CompiledTemplate.compile("[{}]").format(params));
+        // 断言：未闭合、多余的 }，作为普通文本
+        assertEquals("{name 芋艿}", CompiledTemplate.compile("{name {name}}").format(params));
+        assertEquals("a } b {", CompiledTemplate.compile("a } b {").format(params));
+        // 断言：嵌套的 {{name}}，只替换内层
+        CompiledTemplate nested = CompiledTemplate.compile("{{name}}");
+        assertEquals("{芋艿}", nested.format(params));
+        assertEquals(Collections.singletonList("name"), nested.getParams());
+        // 断言：占位符中间不允许换行
+        assertEquals("{na\nme} 芋艿", CompiledTemplate.compile("{na\nme} {name}").format(
+                MapUtil.<String, Object>builder("na\nme", "x").put("name", "芋艿").build()));
+        // 断言：参数值中的占位符、正则特殊字符，不会被再次处理
+        assertEquals("$1 {name} \\", CompiledTemplate.compile("{a} {b} {c}").format(
+                MapUtil.<String, Object>builder("a", "$1").put("b", "{name}").put("c", "\\").put("name", "芋艿").build()));
+    }
+
+    @Test
+    public void testFormat_sameAsStrUtil() {
+        Random random = new Random(1024);
+        char[] chars = {'a', 'b', '{', '}', ' ', '中'};
+        for (int round = 0; round < 2000; round++) {
+            // 准备参数：随机模板；参数值不包含 { }，避免 StrUtil 的逐个替换，导致结果依赖参数顺序
+            StringBuilder content = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                content.append(chars[random.nextInt(chars.length)]);
+            }
+            Map<String, Object> params = new HashMap<>();
+            for (String key : Arrays.asList("", "a", "b", "ab", "a b", "中")) {
+                if (random.nextBoolean()) {
+                    params.put(key, random.nextBoolean() ? key.length() : null);
+                }
+            }
+
+            // 调用，并断言
+            assertEquals(StrUtil.format(content, params), CompiledTemplate.compile(content.toString()).format(params),
+                    "content(" + content + ") params(" + params + ")");
+        }
+    }
+
+    @Test
+    public void testGetParams_sameAsRegex() {
+        // 原有实现：正则匹配 {} 中的变量。不包含嵌套的 { 时，结果一致
+        Pattern pattern = Pattern.compile("\\{(.*?)}");
+        for (String content : Arrays.asList("{a}", "x{a}y{b}z", "{a}{a}", "{}", "{a", "a}", "{a\n}{b}", "}{a}{")) {
+            assertEquals(ReUtil.findAllGroup1(pattern, content), CompiledTemplate.compile(content).getParams(), content);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.framework.datapermission.core.db;
+
+import cn.iocoder.yudao.framework.mybatis.core.parser.SqlParserCache;
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import lombok.Getter;
+
+/**
+ * 带 {@link SqlParserCache} 缓存的 {@link DataPermissionInterceptor} 实现类
+ *
+ * 改写结果只与「mappedStatementId + 原始 SQL + 规则指纹」相关，规则指纹由 {@link DataPermissionRuleHandler#getFingerprint(String)} 计算
+ *
+ * @author 芋道源码
+ */
+public class DataPermissionCacheInterceptor extends DataPermissionInterceptor {
+
+    private final DataPermissionRuleHandler ruleHandler;
+
+    @Getter
+    private final SqlParserCache sqlParserCache;
+
+    public DataPermissionCacheInterceptor(DataPermissionRuleHandler ruleHandler, SqlParserCache sqlParserCache) {
+        super(ruleHandler);
+        this.ruleHandler = ruleHandler;
+        this.sqlParserCache = sqlParserCache;
+    }
+
+    @Override
+    public String parserSingle(String sql, Object obj) {
+        String mappedStatementId = (String) obj;
+        return sqlParserCache.get(mappedStatementId, sql, ruleHandler.getFingerprint(mappedStatementId),
+                s -> super.parserSingle(s, obj));
+    }
+
+    @Override
+    public String parserMulti(String sql, Object obj) {
+        String mappedStatementId = (String) obj;
+        return sqlParserCache.get(mappedStatementId, sql, ruleHandler.getFingerprint(mappedStatementId),
+                s -> super.parserMulti(s, obj));
+    }
+
+}
@@ -10,6 +10,8 @@ import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.schema.Table;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.skipPermissionCheck;
@@ -25,6 +27,11 @@ import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUti
 @RequiredArgsConstructor
 public class DataPermissionRuleHandler implements MultiDataPermissionHandler {
 
+    /**
+     * 跨租户访问时的规则指纹
+     */
+    private static final String FINGERPRINT_SKIP = "skip";
+
     private final DataPermissionRuleFactory ruleFactory;
 
     @Override
@@ -61,4 +68,35 @@ public class DataPermissionRuleHandler implements MultiDataPermissionHandler {
         return allExpression;
     }
 
+    /**
+     * 获得规则指纹，作为 {@link DataPermissionCacheInterceptor} 的缓存 Key 的一部分
+     *
+     * @param mappedStatementId Mapper 方法编号
+     * @return 指纹；如果为 null，说明存在不支持缓存的规则
+     */
+    public Object getFingerprint(String mappedStatementId) {
+        // 特殊：跨租户访问
+        if (skipPermissionCheck()) {
+            return FINGERPRINT_SKIP;
+        }
+
+        // 获得 Mapper 对应的数据权限的规则
+        List<DataPermissionRule> rules = ruleFactory.getDataPermissionRule(mappedStatementId);
+        if (CollUtil.isEmpty(rules)) {
+            return Collections.emptyList();
+        }
+
+        // 逐个规则，拼接指纹
+        List<Object> fingerprints = new ArrayList<>(rules.size() * 2);
+        for (DataPermissionRule rule : rules) {
+            Object fingerprint = rule.getFingerprint();
+            if (fingerprint == null) {
+                return null;
+            }
+            fingerprints.add(rule);
+            fingerprints.add(fingerprint);
+        }
+        return fingerprints;
+    }
+
 }
@@ -33,4 +33,15 @@ public interface DataPermissionRule {
      */
     Expression getExpression(String tableName, Alias tableAlias);
 
+    /**
+     * 获得当前上下文的规则指纹，用于缓存改写后的 SQL
+     *
+     * 要求：指纹相同时，{@link #getExpression(String, Alias)} 对相同的表生成的条件必须相同，并且实现 equals 和 hashCode 方法
+     *
+     * @return 指纹；默认返回 null，表示不支持缓存
+     */
+    default Object getFingerprint() {
+        return null;
+    }
+
 }
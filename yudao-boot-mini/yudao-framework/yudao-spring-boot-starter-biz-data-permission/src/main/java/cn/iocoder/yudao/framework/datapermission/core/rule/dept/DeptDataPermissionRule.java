@@ -14,7 +14,7 @@ import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jsqlparser.expression.Alias;
 import net.sf.jsqlparser.expression.Expression;
@@ -25,7 +25,13 @@ import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.SelectItem;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -48,7 +54,7 @@ import java.util.Set;
  *
  * @author 芋道源码
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Slf4j
 public class DeptDataPermissionRule implements DataPermissionRule {
 
@@ -56,12 +62,27 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      * LoginUser 的 Context 缓存 Key
      */
     protected static final String CONTEXT_KEY = DeptDataPermissionRule.class.getSimpleName();
+    /**
+     * 规则指纹的 Context 缓存 Key
+     */
+    private static final String FINGERPRINT_CONTEXT_KEY = CONTEXT_KEY + ".fingerprint";
 
     private static final String DEPT_COLUMN_NAME = "dept_id";
     private static final String USER_COLUMN_NAME = "user_id";
 
+    private static final int DEPT_CLOSURE_THRESHOLD_DEFAULT = 100;
+
     static final Expression EXPRESSION_NULL = new NullValue();
 
+    /**
+     * 无需处理数据权限时的规则指纹
+     */
+    private static final String FINGERPRINT_NONE = "none";
+    /**
+     * 可查看全部数据时的规则指纹
+     */
+    private static final String FINGERPRINT_ALL = "all";
+
     private final PermissionCommonApi permissionApi;
 
     /**
@@ -85,6 +106,27 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      */
     private final Set<String> TABLE_NAMES = new HashSet<>();
 
+    /**
+     * 部门闭包表的表名，格式为 (ancestor, descendant)，包含部门自身到自身的记录
+     *
+     * 配置后，当可查看的部门数量超过 {@link #deptClosureThreshold} 时，不再拼接所有部门编号，而是基于根部门子查询闭包表。
+     * 即 WHERE dept_id IN (SELECT descendant FROM closure WHERE ancestor IN (?, ?)) OR dept_id IN (?, ?)
+     * 好处是：条件不会随着部门树的增长而变长，并且同一根部门的用户生成的 SQL 相同，便于 SQL 缓存
+     */
+    private String deptClosureTable;
+    /**
+     * 部门闭包表的祖先部门字段名
+     */
+    private String deptClosureAncestorColumn;
+    /**
+     * 部门闭包表的后代部门字段名
+     */
+    private String deptClosureDescendantColumn;
+    /**
+     * 使用部门闭包表的部门数量阈值
+     */
+    private int deptClosureThreshold = DEPT_CLOSURE_THRESHOLD_DEFAULT;
+
     @Override
     public Set<String> getTableNames() {
         return TABLE_NAMES;
@@ -93,28 +135,13 @@ public class DeptDataPermissionRule implements DataPermissionRule {
     @Override
     public Expression getExpression(String tableName, Alias tableAlias) {
         // 只有有登陆用户的情况下，才进行数据权限的处理
-        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        LoginUser loginUser = getAdminLoginUser();
         if (loginUser == null) {
             return null;
         }
-        // 只有管理员类型的用户，才进行数据权限的处理
-        if (ObjectUtil.notEqual(loginUser.getUserType(), UserTypeEnum.ADMIN.getValue())) {
-            return null;
-        }
 
         // 获得数据权限
-        DeptDataPermissionRespDTO deptDataPermission = loginUser.getContext(CONTEXT_KEY, DeptDataPermissionRespDTO.class);
-        // 从上下文中拿不到，则调用逻辑进行获取
-        if (deptDataPermission == null) {
-            deptDataPermission = permissionApi.getDeptDataPermission(loginUser.getId());
-            if (deptDataPermission == null) {
-                log.error("[getExpression][LoginUser({}) 获取数据权限为 null]", JsonUtils.toJsonString(loginUser));
-                throw new NullPointerException(String.format("LoginUser(%d) Table(%s/%s) 未返回数据权限",
-                        loginUser.getId(), tableName, tableAlias.getName()));
-            }
-            // 添加到上下文中，避免重复计算
-            loginUser.setContext(CONTEXT_KEY, deptDataPermission);
-        }
+        DeptDataPermissionRespDTO deptDataPermission = getDeptDataPermission(loginUser);
 
         // 情况一，如果是 ALL 可查看全部，则无需拼接条件
         if (deptDataPermission.getAll()) {
@@ -128,7 +155,7 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         }
 
         // 情况三，拼接 Dept 和 User 的条件，最后组合
-        Expression deptExpression = buildDeptExpression(tableName,tableAlias, deptDataPermission.getDeptIds());
+        Expression deptExpression = buildDeptExpression(tableName,tableAlias, deptDataPermission);
         Expression userExpression = buildUserExpression(tableName, tableAlias, deptDataPermission.getSelf(), loginUser.getId());
         if (deptExpression == null && userExpression == null) {
             // TODO 芋艿：获得不到条件的时候，暂时不抛出异常，而是不返回数据
@@ -148,20 +175,121 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         return new ParenthesedExpressionList(new OrExpression(deptExpression, userExpression));
     }
 
-    private Expression buildDeptExpression(String tableName, Alias tableAlias, Set<Long> deptIds) {
+    @Override
+    public Object getFingerprint() {
+        LoginUser loginUser = getAdminLoginUser();
+        if (loginUser == null) {
+            return FINGERPRINT_NONE;
+        }
+        // 优先从上下文中获取，避免每条 SQL 都重新计算（部门编号较多时，拼接、计算 hashCode 的开销不小）
+        String fingerprint = loginUser.getContext(FINGERPRINT_CONTEXT_KEY, String.class);
+        if (fingerprint == null) {
+            fingerprint = buildFingerprint(loginUser, getDeptDataPermission(loginUser));
+            loginUser.setContext(FINGERPRINT_CONTEXT_KEY, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private String buildFingerprint(LoginUser loginUser, DeptDataPermissionRespDTO deptDataPermission) {
+        if (deptDataPermission.getAll()) {
+            return FINGERPRINT_ALL;
+        }
+        // 不可查看自己时，条件与 userId 无关，所以不拼接，使相同部门权限的用户可共享缓存
+        Long userId = Boolean.FALSE.equals(deptDataPermission.getSelf()) ? null : loginUser.getId();
+        if (isDeptClosureEnable(deptDataPermission)) {
+            return StrUtil.format("closure:{}:{}:{}", joinSorted(deptDataPermission.getRootDeptIds()),
+                    joinSorted(deptDataPermission.getSingleDeptIds()), userId);
+        }
+        return StrUtil.format("dept:{}:{}", joinSorted(deptDataPermission.getDeptIds()), userId);
+    }
+
+    /**
+     * 排序后拼接，保证相同的部门编号集合，得到相同的指纹
+     */
+    private static String joinSorted(Set<Long> values) {
+        if (CollUtil.isEmpty(values)) {
+            return "";
+        }
+        return CollUtil.join(CollUtil.sort(values, null), ",");
+    }
+
+    /**
+     * 获得需要进行数据权限处理的登录用户
+     *
+     * @return 登录用户；如果为 null，说明无需处理
+     */
+    private static LoginUser getAdminLoginUser() {
+        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        if (loginUser == null) {
+            return null;
+        }
+        // 只有管理员类型的用户，才进行数据权限的处理
+        if (ObjectUtil.notEqual(loginUser.getUserType(), UserTypeEnum.ADMIN.getValue())) {
+            return null;
+        }
+        return loginUser;
+    }
+
+    private DeptDataPermissionRespDTO getDeptDataPermission(LoginUser loginUser) {
+        DeptDataPermissionRespDTO deptDataPermission = loginUser.getContext(CONTEXT_KEY, DeptDataPermissionRespDTO.class);
+        // 从上下文中拿不到，则调用逻辑进行获取
+        if (deptDataPermission == null) {
+            deptDataPermission = permissionApi.getDeptDataPermission(loginUser.getId());
+            if (deptDataPermission == null) {
+                log.error("[getDeptDataPermission][LoginUser({}) 获取数据权限为 null]", JsonUtils.toJsonString(loginUser));
+                throw new NullPointerException(String.format("LoginUser(%d) 未返回数据权限", loginUser.getId()));
+            }
+            // 添加到上下文中，避免重复计算
+            loginUser.setContext(CONTEXT_KEY, deptDataPermission);
+        }
+        return deptDataPermission;
+    }
+
+    private Expression buildDeptExpression(String tableName, Alias tableAlias, DeptDataPermissionRespDTO deptDataPermission) {
         // 如果不存在配置，则无需作为条件
         String columnName = deptColumns.get(tableName);
         if (StrUtil.isEmpty(columnName)) {
             return null;
         }
         // 如果为空，则无条件
-        if (CollUtil.isEmpty(deptIds)) {
+        if (CollUtil.isEmpty(deptDataPermission.getDeptIds())) {
             return null;
         }
         // 拼接条件
-        return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, columnName),
-                // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
-                new ParenthesedExpressionList(new ExpressionList<LongValue>(CollectionUtils.convertList(deptIds, LongValue::new))));
+        Column column = MyBatisUtils.buildColumn(tableName, tableAlias, columnName);
+        if (isDeptClosureEnable(deptDataPermission)) {
+            return buildDeptClosureExpression(column, deptDataPermission);
+        }
+        return new InExpression(column, buildLongList(deptDataPermission.getDeptIds()));
+    }
+
+    private boolean isDeptClosureEnable(DeptDataPermissionRespDTO deptDataPermission) {
+        return StrUtil.isNotEmpty(deptClosureTable)
+                && CollUtil.isNotEmpty(deptDataPermission.getRootDeptIds())
+                && CollUtil.size(deptDataPermission.getDeptIds()) > deptClosureThreshold;
+    }
+
+    private Expression buildDeptClosureExpression(Column column, DeptDataPermissionRespDTO deptDataPermission) {
+        // 根部门的条件，即 dept_id IN (SELECT descendant FROM closure WHERE ancestor IN (?, ?))
+        PlainSelect select = new PlainSelect();
+        select.setSelectItems(Collections.singletonList(new SelectItem<>(new Column(deptClosureDescendantColumn))));
+        select.setFromItem(new Table(deptClosureTable));
+        select.setWhere(new InExpression(new Column(deptClosureAncestorColumn),
+                buildLongList(deptDataPermission.getRootDeptIds())));
+        ParenthesedSelect subSelect = new ParenthesedSelect();
+        subSelect.setSelect(select);
+        Expression rootExpression = new InExpression(column, subSelect);
+        if (CollUtil.isEmpty(deptDataPermission.getSingleDeptIds())) {
+            return rootExpression;
+        }
+        // 单独部门的条件，即 dept_id IN (?, ?)，两者采用 OR 条件
+        Expression singleExpression = new InExpression(column, buildLongList(deptDataPermission.getSingleDeptIds()));
+        return new ParenthesedExpressionList(new OrExpression(rootExpression, singleExpression));
+    }
+
+    private static Expression buildLongList(Set<Long> values) {
+        // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
+        return new ParenthesedExpressionList(new ExpressionList<LongValue>(CollectionUtils.convertList(values, LongValue::new)));
     }
 
     private Expression buildUserExpression(String tableName, Alias tableAlias, Boolean self, Long userId) {
@@ -207,4 +335,14 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         TABLE_NAMES.add(tableName);
     }
 
+    public void setDeptClosure(String tableName, String ancestorColumn, String descendantColumn) {
+        this.deptClosureTable = tableName;
+        this.deptClosureAncestorColumn = ancestorColumn;
+        this.deptClosureDescendantColumn = descendantColumn;
+    }
+
+    public void setDeptClosureThreshold(int deptClosureThreshold) {
+        this.deptClosureThreshold = deptClosureThreshold;
+    }
+
 }
@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.tenant.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -54,4 +55,28 @@ public class TenantProperties {
      */
     private Set<String> ignoreCaches = Collections.emptySet();
 
+    /**
+     * 多租户 Job 的配置
+     */
+    private Job job = new Job();
+
+    @Data
+    public static class Job {
+
+        /**
+         * 每个 Job 并行执行租户的最大线程数
+         *
+         * 每次执行时，会创建该 Job 专属的线程池，执行完成后销毁，不会占用 ForkJoinPool 公共线程池
+         */
+        private Integer threads = 4;
+
+        /**
+         * 每个租户的执行超时时间，从租户开始执行（而不是提交）时计算
+         *
+         * 超时后，会中断该租户的执行，并记为失败
+         */
+        private Duration timeout = Duration.ofMinutes(10);
+
+    }
+
 }
@@ -2,12 +2,15 @@ package cn.iocoder.yudao.framework.tenant.config;
 
 import cn.iocoder.yudao.framework.common.biz.system.tenant.TenantCommonApi;
 import cn.iocoder.yudao.framework.common.enums.WebFilterOrderEnum;
+import cn.iocoder.yudao.framework.mybatis.core.parser.SqlParserCache;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
+import cn.iocoder.yudao.framework.redis.core.TimeoutRedisCacheManager;
 import cn.iocoder.yudao.framework.security.core.service.SecurityFrameworkService;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnoreAspect;
 import cn.iocoder.yudao.framework.tenant.core.db.TenantDatabaseInterceptor;
+import cn.iocoder.yudao.framework.tenant.core.db.TenantLineCacheInnerInterceptor;
 import cn.iocoder.yudao.framework.tenant.core.job.TenantJobAspect;
 import cn.iocoder.yudao.framework.tenant.core.mq.rabbitmq.TenantRabbitMQInitializer;
 import cn.iocoder.yudao.framework.tenant.core.mq.redis.TenantRedisMessageInterceptor;
@@ -33,7 +36,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -71,10 +73,17 @@ public class YudaoTenantAutoConfiguration {
 
     // ========== DB ==========
 
+    @Bean
+    public SqlParserCache tenantSqlParserCache() {
+        return new SqlParserCache("tenant");
+    }
+
     @Bean
     public TenantLineInnerInterceptor tenantLineInnerInterceptor(TenantProperties properties,
-                                                                 MybatisPlusInterceptor interceptor) {
-        TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(new TenantDatabaseInterceptor(properties));
+                                                                 MybatisPlusInterceptor interceptor,
+                                                                 SqlParserCache tenantSqlParserCache) {
+        TenantLineInnerInterceptor inner = new TenantLineCacheInnerInterceptor(new TenantDatabaseInterceptor(properties),
+                tenantSqlParserCache);
         // 添加到 interceptor 中
         // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
         MyBatisUtils.addInterceptor(interceptor, inner, 0);
@@ -174,15 +183,16 @@ public class YudaoTenantAutoConfiguration {
     // ========== Job ==========
 
     @Bean
-    public TenantJobAspect tenantJobAspect(TenantFrameworkService tenantFrameworkService) {
-        return new TenantJobAspect(tenantFrameworkService);
+    public TenantJobAspect tenantJobAspect(TenantFrameworkService tenantFrameworkService,
+                                           TenantProperties tenantProperties) {
+        return new TenantJobAspect(tenantFrameworkService, tenantProperties.getJob());
     }
 
     // ========== Redis ==========
 
     @Bean
     @Primary // 引入租户时，tenantRedisCacheManager 为主 Bean
-    public RedisCacheManager tenantRedisCacheManager(RedisTemplate<String, Object> redisTemplate,
+    public TimeoutRedisCacheManager tenantRedisCacheManager(RedisTemplate<String, Object> redisTemplate,
                                                      RedisCacheConfiguration redisCacheConfiguration,
                                                      YudaoCacheProperties yudaoCacheProperties,
                                                      TenantProperties tenantProperties) {
@@ -191,7 +201,8 @@ public class YudaoTenantAutoConfiguration {
         RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
                 BatchStrategies.scan(yudaoCacheProperties.getRedisScanBatchSize()));
         // 创建 TenantRedisCacheManager 对象
-        return new TenantRedisCacheManager(cacheWriter, redisCacheConfiguration, tenantProperties.getIgnoreCaches());
+        return new TenantRedisCacheManager(cacheWriter, redisCacheConfiguration, connectionFactory,
+                tenantProperties.getIgnoreCaches());
     }
 
 }
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.framework.tenant.config;
+
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJobAspect;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJobMeterBinder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 多租户的 Metrics 配置类
+ *
+ * 引入 micrometer-core 时生效，注册多租户 Job 的排队、超时等指标
+ *
+ * @author 芋道源码
+ */
+@AutoConfiguration(after = YudaoTenantAutoConfiguration.class)
+@ConditionalOnClass(MeterRegistry.class)
+public class YudaoTenantMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(TenantJobAspect.class)
+    public TenantJobMeterBinder tenantJobMeterBinder(TenantJobAspect tenantJobAspect) {
+        return new TenantJobMeterBinder(tenantJobAspect);
+    }
+
+}
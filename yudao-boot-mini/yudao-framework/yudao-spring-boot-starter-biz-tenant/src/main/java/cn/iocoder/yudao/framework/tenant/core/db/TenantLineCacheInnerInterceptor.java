@@ -0,0 +1,53 @@
+package cn.iocoder.yudao.framework.tenant.core.db;
+
+import cn.iocoder.yudao.framework.mybatis.core.parser.SqlParserCache;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import lombok.Getter;
+
+/**
+ * 带 {@link SqlParserCache} 缓存的 {@link TenantLineInnerInterceptor} 实现类
+ *
+ * 改写结果只与「原始 SQL + 租户编号 + 是否忽略租户」相关，所以相同 SQL 无需重复 JSqlParser 解析
+ *
+ * @author 芋道源码
+ */
+public class TenantLineCacheInnerInterceptor extends TenantLineInnerInterceptor {
+
+    /**
+     * 忽略租户时的规则指纹
+     */
+    private static final String FINGERPRINT_IGNORE = "ignore";
+
+    @Getter
+    private final SqlParserCache sqlParserCache;
+
+    public TenantLineCacheInnerInterceptor(TenantLineHandler tenantLineHandler, SqlParserCache sqlParserCache) {
+        super(tenantLineHandler);
+        this.sqlParserCache = sqlParserCache;
+    }
+
+    @Override
+    public String parserSingle(String sql, Object obj) {
+        return sqlParserCache.get(null, sql, buildFingerprint(), s -> super.parserSingle(s, obj));
+    }
+
+    @Override
+    public String parserMulti(String sql, Object obj) {
+        return sqlParserCache.get(null, sql, buildFingerprint(), s -> super.parserMulti(s, obj));
+    }
+
+    /**
+     * 构建规则指纹
+     *
+     * @return 指纹；如果为 null，说明无法缓存（例如说，没有租户编号时，需要由改写逻辑抛出异常）
+     */
+    private static Object buildFingerprint() {
+        if (TenantContextHolder.isIgnore()) {
+            return FINGERPRINT_IGNORE;
+        }
+        return TenantContextHolder.getTenantId();
+    }
+
+}
@@ -2,34 +2,71 @@ package cn.iocoder.yudao.framework.tenant.core.job;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.exceptions.ExceptionUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
 import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
 import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 多租户 JobHandler AOP
  * 任务执行时，会按照租户逐个执行 Job 的逻辑
  *
+ * 1. 每次执行时，创建该 Job 专属的有界线程池并行执行各租户，不占用 ForkJoinPool 公共线程池，执行完成后销毁
+ * 2. 每个租户从开始执行时计算超时，超时后中断并记为失败
+ * 3. 汇总为 {@link TenantJobResult}：全部成功时，作为 Job 的返回值；存在失败时，抛出异常，由 JobHandlerInvoker 记录失败并重试
+ *
  * 注意，需要保证 JobHandler 的幂等性。因为 Job 因为某个租户执行失败重试时，之前执行成功的租户也会再次执行。
  *
  * @author 芋道源码
  */
 @Aspect
-@RequiredArgsConstructor
 @Slf4j
 public class TenantJobAspect {
 
+    /**
+     * 检查租户是否超时的间隔，单位：毫秒
+     */
+    private static final long TIMEOUT_CHECK_INTERVAL_MILLIS = 1000;
+
     private final TenantFrameworkService tenantFrameworkService;
+    private final TenantProperties.Job jobProperties;
+
+    /**
+     * 已执行的租户数
+     */
+    private final LongAdder executedCount = new LongAdder();
+    /**
+     * 超时的租户数
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+    /**
+     * 累计排队时长，单位：纳秒
+     */
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    /**
+     * 最大排队时长，单位：纳秒
+     */
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+
+    public TenantJobAspect(TenantFrameworkService tenantFrameworkService, TenantProperties.Job jobProperties) {
+        this.tenantFrameworkService = tenantFrameworkService;
+        this.jobProperties = jobProperties;
+    }
 
     @Around("@annotation(tenantJob)")
     public String around(ProceedingJoinPoint joinPoint, TenantJob tenantJob) {
@@ -39,21 +76,175 @@ public class TenantJobAspect {
             return null;
         }
 
-        // 逐个租户，执行 Job
-        Map<Long, String> results = new ConcurrentHashMap<>();
-        tenantIds.parallelStream().forEach(tenantId -> {
-            // TODO 芋艿：先通过 parallel 实现并行；1）多个租户，是一条执行日志；2）异常的情况
-            TenantUtils.execute(tenantId, () -> {
+        // 1. 创建该 Job 专属的线程池：线程数有上限，队列恰好容纳所有租户
+        String jobName = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        int threads = Math.max(1, Math.min(jobProperties.getThreads(), tenantIds.size()));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tenantIds.size()), new NamedThreadFactory("tenant-job-" + jobName + "-", true));
+        long startTime = System.currentTimeMillis();
+        CountDownLatch latch = new CountDownLatch(tenantIds.size());
+        List<TenantTask> tasks = new ArrayList<>(tenantIds.size());
+        try {
+            // 2. 逐个租户，提交 Job
+            for (Long tenantId : tenantIds) {
+                TenantTask task = new TenantTask(tenantId, joinPoint, latch);
+                tasks.add(task);
+                executor.execute(task);
+            }
+            // 3. 等待执行完成，期间中断超时的租户
+            awaitTasks(jobName, tasks, latch);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 4. 汇总结果
+        TenantJobResult result = buildResult(tasks);
+        log.info("[around][Job({}) 租户数({}) 成功({}) 失败({}) 超时({}) 平均排队({} ms) 最大排队({} ms) 耗时({} ms)]",
+                jobName, tenantIds.size(), result.getSuccessCount(), result.getFailureCount(), result.getTimeoutCount(),
+                result.getAvgQueueWaitMillis(), result.getMaxQueueWaitMillis(), System.currentTimeMillis() - startTime);
+        String json = JsonUtils.toJsonString(result);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(StrUtil.format("多租户 Job({}) 存在执行失败的租户：{}", jobName, json));
+        }
+        return json;
+    }
+
+    private void awaitTasks(String jobName, List<TenantTask> tasks, CountDownLatch latch) {
+        long timeoutNanos = jobProperties.getTimeout().toNanos();
+        long checkIntervalMillis = Math.max(1, Math.min(TIMEOUT_CHECK_INTERVAL_MILLIS, jobProperties.getTimeout().toMillis()));
+        try {
+            while (!latch.await(checkIntervalMillis, TimeUnit.MILLISECONDS)) {
+                long now = System.nanoTime();
+                for (TenantTask task : tasks) {
+                    // 排队中的租户，不计算超时
+                    if (task.isDone() || task.startNanos == 0 || now - task.startNanos < timeoutNanos) {
+                        continue;
+                    }
+                    if (task.cancel(true)) {
+                        log.warn("[awaitTasks][Job({}) 租户({}) 执行超时({} ms)，已中断]",
+                                jobName, task.tenantId, jobProperties.getTimeout().toMillis());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Job 被中断（例如说应用关闭）时，取消所有未完成的租户
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private TenantJobResult buildResult(List<TenantTask> tasks) {
+        Map<Long, String> results = new TreeMap<>();
+        int successCount = 0;
+        int timeoutCount = 0;
+        long totalWaitNanos = 0;
+        long maxWaitNanos = 0;
+        for (TenantTask task : tasks) {
+            // 结果
+            if (task.isCancelled()) {
+                timeoutCount++;
+                results.put(task.tenantId, "执行超时");
+            } else {
+                try {
+                    results.put(task.tenantId, StrUtil.toStringOrEmpty(task.get()));
+                    successCount++;
+                } catch (ExecutionException e) {
+                    log.error("[execute][租户({}) 执行 Job 发生异常", task.tenantId, e.getCause());
+                    results.put(task.tenantId, ExceptionUtil.getRootCauseMessage(e.getCause()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.put(task.tenantId, "执行被中断");
+                }
+            }
+            // 排队时长：未开始执行的，计算到当前
+            long waitNanos = (task.startNanos != 0 ? task.startNanos : System.nanoTime()) - task.submitNanos;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        }
+        // 累计统计
+        executedCount.add(tasks.size());
+        this.timeoutCount.add(timeoutCount);
+        totalQueueWaitNanos.add(totalWaitNanos);
+        maxQueueWaitNanos.accumulate(maxWaitNanos);
+
+        TenantJobResult result = new TenantJobResult();
+        result.setSuccessCount(successCount);
+        result.setFailureCount(tasks.size() - successCount);
+        result.setTimeoutCount(timeoutCount);
+        result.setAvgQueueWaitMillis(TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / tasks.size()));
+        result.setMaxQueueWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        result.setResults(results);
+        return result;
+    }
+
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * @return 累计排队时长，单位：纳秒
+     */
+    public long getTotalQueueWaitNanos() {
+        return totalQueueWaitNanos.sum();
+    }
+
+    /**
+     * @return 平均排队时长，单位：毫秒
+     */
+    public long getAvgQueueWaitMillis() {
+        long count = executedCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalQueueWaitNanos.sum() / count);
+    }
+
+    /**
+     * @return 最大排队时长，单位：毫秒
+     */
+    public long getMaxQueueWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get());
+    }
+
+    /**
+     * 单个租户的执行任务，记录提交、开始执行的时间，用于计算排队时长、超时
+     */
+    private static class TenantTask extends FutureTask<Object> {
+
+        private final Long tenantId;
+        private final CountDownLatch latch;
+        private final long submitNanos = System.nanoTime();
+        /**
+         * 开始执行的时间。为 0 时，表示仍在排队
+         */
+        private volatile long startNanos;
+
+        TenantTask(Long tenantId, ProceedingJoinPoint joinPoint, CountDownLatch latch) {
+            super(() -> TenantUtils.execute(tenantId, () -> {
                 try {
-                    Object result = joinPoint.proceed();
-                    results.put(tenantId, StrUtil.toStringOrEmpty(result));
+                    return joinPoint.proceed();
+                } catch (Exception | Error e) {
+                    throw e;
                 } catch (Throwable e) {
-                    log.error("[execute][租户({}) 执行 Job 发生异常", tenantId, e);
-                    results.put(tenantId, ExceptionUtil.getRootCauseMessage(e));
+                    throw new UndeclaredThrowableException(e);
                 }
-            });
-        });
-        return JsonUtils.toJsonString(results);
+            }));
+            this.tenantId = tenantId;
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            startNanos = System.nanoTime();
+            super.run();
+        }
+
+        @Override
+        protected void done() {
+            latch.countDown();
+        }
+
     }
 
 }
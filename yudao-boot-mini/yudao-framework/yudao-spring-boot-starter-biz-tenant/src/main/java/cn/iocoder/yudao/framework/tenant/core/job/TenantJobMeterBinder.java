@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TenantJobAspect} 的 Metrics 指标
+ *
+ * 1. tenant.job.timeouts：执行超时的租户数
+ * 2. tenant.job.queue.wait：租户的执行次数与累计排队时长，可计算平均排队时长
+ * 3. tenant.job.queue.wait.max：最大排队时长，持续偏大时，需要调大 yudao.tenant.job.threads 配置项
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class TenantJobMeterBinder implements MeterBinder {
+
+    private final TenantJobAspect tenantJobAspect;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tenant.job.timeouts", tenantJobAspect, TenantJobAspect::getTimeoutCount)
+                .description("多租户 Job 执行超时的租户数")
+                .register(registry);
+        FunctionTimer.builder("tenant.job.queue.wait", tenantJobAspect,
+                        TenantJobAspect::getExecutedCount, TenantJobAspect::getTotalQueueWaitNanos, TimeUnit.NANOSECONDS)
+                .description("多租户 Job 的租户排队时长")
+                .register(registry);
+        Gauge.builder("tenant.job.queue.wait.max", tenantJobAspect, TenantJobAspect::getMaxQueueWaitMillis)
+                .baseUnit("milliseconds")
+                .description("多租户 Job 的租户最大排队时长")
+                .register(registry);
+    }
+
+}
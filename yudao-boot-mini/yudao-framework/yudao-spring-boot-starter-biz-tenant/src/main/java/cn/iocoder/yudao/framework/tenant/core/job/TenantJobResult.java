@@ -0,0 +1,51 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 多租户 Job 的执行结果，汇总每个租户的执行情况
+ *
+ * @author 芋道源码
+ */
+@Data
+public class TenantJobResult {
+
+    /**
+     * 成功的租户数
+     */
+    private Integer successCount;
+    /**
+     * 失败的租户数，包括超时
+     */
+    private Integer failureCount;
+    /**
+     * 超时的租户数
+     */
+    private Integer timeoutCount;
+
+    /**
+     * 平均排队时长，单位：毫秒
+     *
+     * 即租户从提交到开始执行的等待时长，持续偏大时，需要调大 yudao.tenant.job.threads 配置项
+     */
+    private Long avgQueueWaitMillis;
+    /**
+     * 最大排队时长，单位：毫秒
+     */
+    private Long maxQueueWaitMillis;
+
+    /**
+     * 每个租户的执行结果
+     *
+     * key：租户编号
+     * value：成功时，为 Job 的返回值；失败时，为异常信息
+     */
+    private Map<Long, String> results;
+
+    public boolean isSuccess() {
+        return failureCount == 0;
+    }
+
+}
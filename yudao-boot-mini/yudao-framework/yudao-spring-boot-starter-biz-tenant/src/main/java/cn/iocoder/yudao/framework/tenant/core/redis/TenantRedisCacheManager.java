@@ -8,6 +8,7 @@ import org.springframework.cache.Cache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 
 import java.util.Set;
 
@@ -25,8 +26,9 @@ public class TenantRedisCacheManager extends TimeoutRedisCacheManager {
 
     public TenantRedisCacheManager(RedisCacheWriter cacheWriter,
                                    RedisCacheConfiguration defaultCacheConfiguration,
+                                   RedisConnectionFactory connectionFactory,
                                    Set<String> ignoreCaches) {
-        super(cacheWriter, defaultCacheConfiguration);
+        super(cacheWriter, defaultCacheConfiguration, connectionFactory);
         this.ignoreCaches = ignoreCaches;
     }
 
@@ -0,0 +1,141 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TenantJobAspect} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TenantJobAspectTest {
+
+    /**
+     * 慢租户的执行时长，远大于超时时间，只能被中断
+     */
+    private static final long SLOW_TENANT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    public void testAround_slowTenantIsolated() {
+        // 准备参数：2 个线程，租户 1 一直执行，直到超时被中断；其它租户各执行 10 ms
+        TenantJobAspect aspect = buildAspect(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), 2, Duration.ofMillis(300));
+        Map<Long, Long> finishTimes = new ConcurrentHashMap<>();
+        long startTime = System.currentTimeMillis();
+        ProceedingJoinPoint joinPoint = buildJoinPoint(tenantId -> {
+            sleep(tenantId == 1L ? SLOW_TENANT_MILLIS : 10);
+            finishTimes.put(tenantId, System.currentTimeMillis());
+            return "ok";
+        });
+
+        // 调用
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> aspect.around(joinPoint, null));
+        long costTime = System.currentTimeMillis() - startTime;
+
+        // 断言：租户 1 超时，不影响其它租户
+        assertTrue(exception.getMessage().contains("\"1\":\"执行超时\""), exception.getMessage());
+        assertFalse(finishTimes.containsKey(1L));
+        assertEquals(5, finishTimes.size());
+        // 断言：其它租户在租户 1 超时之前，就已经通过另一个线程执行完成
+        finishTimes.values().forEach(finishTime -> assertTrue(finishTime - startTime < 300,
+                "finishTime(" + (finishTime - startTime) + ")"));
+        // 断言：租户 1 被中断后，Job 立即返回，不会等待其执行完成
+        assertTrue(costTime < SLOW_TENANT_MILLIS / 2, "costTime(" + costTime + ")");
+        // 断言：统计
+        assertEquals(6, aspect.getExecutedCount());
+        assertEquals(1, aspect.getTimeoutCount());
+    }
+
+    @Test
+    public void testAround_success() {
+        // 准备参数
+        TenantJobAspect aspect = buildAspect(Arrays.asList(1L, 2L, 3L), 4, Duration.ofSeconds(10));
+        ProceedingJoinPoint joinPoint = buildJoinPoint(tenantId -> "tenant-" + tenantId);
+
+        // 调用
+        String result = aspect.around(joinPoint, null);
+
+        // 断言：每个租户，都在自己的租户上下文中执行
+        assertTrue(result.contains("\"1\":\"tenant-1\""), result);
+        assertTrue(result.contains("\"2\":\"tenant-2\""), result);
+        assertTrue(result.contains("\"3\":\"tenant-3\""), result);
+        assertTrue(result.contains("\"successCount\":3"), result);
+    }
+
+    @Test
+    public void testMeterBinder() {
+        // 准备参数：1 个线程，租户 2 需要等待租户 1 执行完成
+        TenantJobAspect aspect = buildAspect(Arrays.asList(1L, 2L), 1, Duration.ofMillis(100));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new TenantJobMeterBinder(aspect).bindTo(registry);
+
+        // 调用：租户 1 超时
+        assertThrows(IllegalStateException.class, () -> aspect.around(buildJoinPoint(tenantId -> {
+            sleep(tenantId == 1L ? SLOW_TENANT_MILLIS : 0);
+            return "ok";
+        }), null));
+
+        // 断言
+        assertEquals(1, registry.get("tenant.job.timeouts").functionCounter().count());
+        assertEquals(2, registry.get("tenant.job.queue.wait").functionTimer().count());
+        assertTrue(registry.get("tenant.job.queue.wait").functionTimer().totalTime(TimeUnit.MILLISECONDS) >= 100);
+        assertTrue(registry.get("tenant.job.queue.wait.max").gauge().value() >= 100);
+    }
+
+    private static TenantJobAspect buildAspect(List<Long> tenantIds, int threads, Duration timeout) {
+        TenantFrameworkService tenantFrameworkService = (TenantFrameworkService) Proxy.newProxyInstance(
+                TenantJobAspectTest.class.getClassLoader(), new Class[]{TenantFrameworkService.class},
+                (proxy, method, args) -> "getTenantIds".equals(method.getName()) ? tenantIds : null);
+        TenantProperties.Job jobProperties = new TenantProperties.Job();
+        jobProperties.setThreads(threads);
+        jobProperties.setTimeout(timeout);
+        return new TenantJobAspect(tenantFrameworkService, jobProperties);
+    }
+
+    /**
+     * 创建 {@link ProceedingJoinPoint}，proceed 时按照当前租户执行 job
+     */
+    private static ProceedingJoinPoint buildJoinPoint(Function<Long, Object> job) {
+        Signature signature = (Signature) Proxy.newProxyInstance(TenantJobAspectTest.class.getClassLoader(),
+                new Class[]{Signature.class},
+                (proxy, method, args) -> "getDeclaringType".equals(method.getName()) ? TenantJobAspectTest.class : null);
+        return (ProceedingJoinPoint) Proxy.newProxyInstance(TenantJobAspectTest.class.getClassLoader(),
+                new Class[]{ProceedingJoinPoint.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "proceed":
+                            return job.apply(TenantContextHolder.getRequiredTenantId());
+                        case "getSignature":
+                            return signature;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+    }
+
+}
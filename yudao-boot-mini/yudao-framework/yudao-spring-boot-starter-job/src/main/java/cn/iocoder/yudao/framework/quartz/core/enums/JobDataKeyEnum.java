@@ -10,5 +10,6 @@ public enum JobDataKeyEnum {
     JOB_HANDLER_PARAM,
     JOB_RETRY_COUNT, // 最大重试次数
     JOB_RETRY_INTERVAL, // 每次重试间隔
+    JOB_REFIRE_COUNT, // 已重试次数，由重试 Trigger 携带
 
 }
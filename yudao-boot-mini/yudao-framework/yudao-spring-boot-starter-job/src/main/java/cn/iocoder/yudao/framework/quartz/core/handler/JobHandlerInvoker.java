@@ -2,19 +2,16 @@ package cn.iocoder.yudao.framework.quartz.core.handler;
 
 import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.lang.Assert;
-import cn.hutool.core.thread.ThreadUtil;
 import cn.iocoder.yudao.framework.quartz.core.enums.JobDataKeyEnum;
 import cn.iocoder.yudao.framework.quartz.core.service.JobLogFrameworkService;
 import lombok.extern.slf4j.Slf4j;
-import org.quartz.DisallowConcurrentExecution;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobExecutionException;
-import org.quartz.PersistJobDataAfterExecution;
+import org.quartz.*;
 import org.springframework.context.ApplicationContext;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 
 import jakarta.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.Date;
 
 import static cn.hutool.core.exceptions.ExceptionUtil.getRootCauseMessage;
 
@@ -28,6 +25,11 @@ import static cn.hutool.core.exceptions.ExceptionUtil.getRootCauseMessage;
 @Slf4j
 public class JobHandlerInvoker extends QuartzJobBean {
 
+    /**
+     * 重试 Trigger 的分组
+     */
+    private static final String RETRY_TRIGGER_GROUP = "RETRY";
+
     @Resource
     private ApplicationContext applicationContext;
 
@@ -40,7 +42,7 @@ public class JobHandlerInvoker extends QuartzJobBean {
         Long jobId = executionContext.getMergedJobDataMap().getLong(JobDataKeyEnum.JOB_ID.name());
         String jobHandlerName = executionContext.getMergedJobDataMap().getString(JobDataKeyEnum.JOB_HANDLER_NAME.name());
         String jobHandlerParam = executionContext.getMergedJobDataMap().getString(JobDataKeyEnum.JOB_HANDLER_PARAM.name());
-        int refireCount  = executionContext.getRefireCount();
+        int refireCount = (Integer) executionContext.getMergedJobDataMap().getOrDefault(JobDataKeyEnum.JOB_REFIRE_COUNT.name(), 0);
         int retryCount = (Integer) executionContext.getMergedJobDataMap().getOrDefault(JobDataKeyEnum.JOB_RETRY_COUNT.name(), 0);
         int retryInterval = (Integer) executionContext.getMergedJobDataMap().getOrDefault(JobDataKeyEnum.JOB_RETRY_INTERVAL.name(), 0);
 
@@ -62,7 +64,7 @@ public class JobHandlerInvoker extends QuartzJobBean {
         this.updateJobLogResultAsync(jobLogId, startTime, data, exception, executionContext);
 
         // 第四步，处理有异常的情况
-        handleException(exception, refireCount, retryCount, retryInterval);
+        handleException(exception, executionContext, refireCount, retryCount, retryInterval);
     }
 
     private String executeInternal(String jobHandlerName, String jobHandlerParam) throws Exception {
@@ -90,7 +92,7 @@ public class JobHandlerInvoker extends QuartzJobBean {
         }
     }
 
-    private void handleException(Throwable exception,
+    private void handleException(Throwable exception, JobExecutionContext executionContext,
                                  int refireCount, int retryCount, int retryInterval) throws JobExecutionException {
         // 如果有异常，则进行重试
         if (exception == null) {
@@ -101,13 +103,32 @@ public class JobHandlerInvoker extends QuartzJobBean {
             throw new JobExecutionException(exception);
         }
 
-        // 情况二：如果未到达重试上限，则 sleep 一定间隔时间，然后重试
-        // 这里使用 sleep 来实现，主要还是希望实现比较简单。因为，同一时间，不会存在大量失败的 Job。
-        if (retryInterval > 0) {
-            ThreadUtil.sleep(retryInterval);
+        // 情况二：如果未到达重试上限，则调度一个 retryInterval 后触发的一次性 Trigger 进行重试
+        // 不使用 sleep 等待，避免失败的 Job 在重试间隔内一直占用 Quartz 的线程
+        try {
+            scheduleRetry(executionContext, refireCount + 1, retryInterval);
+        } catch (SchedulerException ex) {
+            log.error("[handleException][Job({}) 第({}) 次重试调度失败]",
+                    executionContext.getJobDetail().getKey(), refireCount + 1, ex);
         }
-        // 第二个参数，refireImmediately = true，表示立即重试
-        throw new JobExecutionException(exception, true);
+        throw new JobExecutionException(exception);
+    }
+
+    private void scheduleRetry(JobExecutionContext executionContext, int refireCount, int retryInterval)
+            throws SchedulerException {
+        // 携带原 Trigger 的参数（处理器参数、重试次数、重试间隔等），并记录已重试次数
+        JobDataMap jobDataMap = new JobDataMap(executionContext.getTrigger().getJobDataMap());
+        jobDataMap.put(JobDataKeyEnum.JOB_REFIRE_COUNT.name(), refireCount);
+        // 使用 fireInstanceId 作为标识，保证每次执行的重试 Trigger 唯一
+        JobKey jobKey = executionContext.getJobDetail().getKey();
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withIdentity(jobKey.getName() + "#" + executionContext.getFireInstanceId(), RETRY_TRIGGER_GROUP)
+                .forJob(jobKey)
+                .startAt(new Date(System.currentTimeMillis() + Math.max(retryInterval, 0)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                .usingJobData(jobDataMap)
+                .build();
+        executionContext.getScheduler().scheduleJob(trigger);
     }
 
 }
@@ -0,0 +1,249 @@
+package cn.iocoder.yudao.framework.quartz.core.handler;
+
+import cn.iocoder.yudao.framework.quartz.core.enums.JobDataKeyEnum;
+import cn.iocoder.yudao.framework.quartz.core.scheduler.SchedulerManager;
+import cn.iocoder.yudao.framework.quartz.core.service.JobLogFrameworkService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.*;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.context.ApplicationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link JobHandlerInvoker} 的单元测试
+ *
+ * 基于 Quartz 的 RAMJobStore 真实调度，验证失败后通过一次性的重试 Trigger 重试
+ *
+ * @author 芋道源码
+ */
+public class JobHandlerInvokerTest {
+
+    /**
+     * 永不触发的 CRON 表达式，Job 只通过 {@link Scheduler#triggerJob(JobKey, JobDataMap)} 触发
+     */
+    private static final String CRON_NEVER = "0 0 0 1 1 ? 2099";
+
+    private static final AtomicInteger SCHEDULER_INDEX = new AtomicInteger();
+
+    private Scheduler scheduler;
+    private SchedulerManager schedulerManager;
+
+    private final Map<String, JobHandler> jobHandlers = new ConcurrentHashMap<>();
+    /**
+     * 执行完成的记录，按照完成顺序
+     */
+    private final BlockingQueue<Execution> finishedExecutions = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // 单个 Quartz 线程：重试等待期间如果占用线程，其它 Job 无法执行
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "JobHandlerInvokerTest-" + SCHEDULER_INDEX.incrementAndGet());
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, "org.quartz.simpl.RAMJobStore");
+        properties.setProperty("org.quartz.threadPool.threadCount", "1");
+        properties.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+        scheduler = new StdSchedulerFactory(properties).getScheduler();
+        ApplicationContext applicationContext = buildApplicationContext();
+        JobLogFrameworkService jobLogFrameworkService = buildJobLogFrameworkService();
+        scheduler.setJobFactory((bundle, ignore) -> {
+            JobHandlerInvoker invoker = new JobHandlerInvoker();
+            setField(invoker, "applicationContext", applicationContext);
+            setField(invoker, "jobLogFrameworkService", jobLogFrameworkService);
+            return invoker;
+        });
+        scheduler.start();
+        schedulerManager = new SchedulerManager(scheduler);
+    }
+
+    @AfterEach
+    public void tearDown() throws SchedulerException {
+        scheduler.shutdown(true);
+    }
+
+    @Test
+    public void testRetry_untilSuccess() throws Exception {
+        // 准备参数：前 2 次失败，第 3 次成功
+        AtomicInteger count = new AtomicInteger();
+        addJob(1L, "retryJob", param -> {
+            if (count.incrementAndGet() <= 2) {
+                throw new IllegalStateException("fail-" + count.get());
+            }
+            return "ok";
+        }, 3, 200);
+
+        // 调用
+        triggerJob(1L, "retryJob");
+
+        // 断言：第几次执行依次递增，最后一次成功
+        Execution first = pollExecution();
+        Execution second = pollExecution();
+        Execution third = pollExecution();
+        assertEquals(1, first.executeIndex);
+        assertFalse(first.success);
+        assertEquals(2, second.executeIndex);
+        assertFalse(second.success);
+        assertEquals(3, third.executeIndex);
+        assertTrue(third.success);
+        assertEquals("ok", third.result);
+        // 断言：间隔 retryInterval 后重试
+        assertTrue(second.startNanos - first.endNanos >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(third.startNanos - second.endNanos >= TimeUnit.MILLISECONDS.toNanos(200));
+        // 断言：成功后不再重试
+        assertNull(finishedExecutions.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(3, count.get());
+        assertRetryTriggersEmpty();
+    }
+
+    @Test
+    public void testRetry_reachRetryCount() throws Exception {
+        // 准备参数：一直失败，最多重试 2 次
+        addJob(1L, "failJob", param -> {
+            throw new IllegalStateException("fail");
+        }, 2, 50);
+
+        // 调用
+        triggerJob(1L, "failJob");
+
+        // 断言：执行 1 + 2 次后，不再重试
+        for (int i = 1; i <= 3; i++) {
+            Execution execution = pollExecution();
+            assertEquals(i, execution.executeIndex);
+            assertFalse(execution.success);
+            assertEquals("IllegalStateException: fail", execution.result);
+        }
+        assertNull(finishedExecutions.poll(500, TimeUnit.MILLISECONDS));
+        assertRetryTriggersEmpty();
+    }
+
+    @Test
+    public void testRetry_notBlockWorker() throws Exception {
+        // 准备参数：retryJob 第 1 次失败，1 秒后重试；otherJob 在其失败后触发
+        AtomicInteger count = new AtomicInteger();
+        addJob(1L, "retryJob", param -> {
+            if (count.incrementAndGet() == 1) {
+                throw new IllegalStateException("fail");
+            }
+            return "ok";
+        }, 1, 1000);
+        addJob(2L, "otherJob", param -> "other", 0, 0);
+
+        // 调用
+        triggerJob(1L, "retryJob");
+        Execution first = pollExecution();
+        triggerJob(2L, "otherJob");
+
+        // 断言：唯一的 Quartz 线程没有被重试间隔占用，otherJob 在 retryJob 重试之前执行
+        Execution other = pollExecution();
+        Execution retry = pollExecution();
+        assertEquals(Long.valueOf(2L), other.jobId);
+        assertTrue(other.success);
+        assertTrue(other.startNanos - first.endNanos < TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(Long.valueOf(1L), retry.jobId);
+        assertEquals(2, retry.executeIndex);
+        assertTrue(retry.success);
+    }
+
+    private void addJob(Long jobId, String jobHandlerName, JobHandler jobHandler,
+                        int retryCount, int retryInterval) throws SchedulerException {
+        jobHandlers.put(jobHandlerName, jobHandler);
+        schedulerManager.addJob(jobId, jobHandlerName, null, CRON_NEVER, retryCount, retryInterval);
+    }
+
+    /**
+     * 立即触发一次 Job，与 {@link SchedulerManager#triggerJob(Long, String, String)} 不同，携带重试参数
+     */
+    private void triggerJob(Long jobId, String jobHandlerName) throws SchedulerException {
+        Trigger trigger = scheduler.getTrigger(new TriggerKey(jobHandlerName));
+        JobDataMap data = new JobDataMap(trigger.getJobDataMap());
+        data.put(JobDataKeyEnum.JOB_ID.name(), jobId);
+        data.put(JobDataKeyEnum.JOB_HANDLER_NAME.name(), jobHandlerName);
+        scheduler.triggerJob(new JobKey(jobHandlerName), data);
+    }
+
+    private Execution pollExecution() throws InterruptedException {
+        Execution execution = finishedExecutions.poll(10, TimeUnit.SECONDS);
+        assertNotNull(execution, "执行超时");
+        return execution;
+    }
+
+    private void assertRetryTriggersEmpty() throws SchedulerException {
+        assertTrue(scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals("RETRY")).isEmpty());
+    }
+
+    private ApplicationContext buildApplicationContext() {
+        return (ApplicationContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ApplicationContext.class}, (proxy, method, args) -> {
+                    if ("getBean".equals(method.getName()) && args.length == 2) {
+                        return jobHandlers.get((String) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private JobLogFrameworkService buildJobLogFrameworkService() {
+        AtomicLong logIdGenerator = new AtomicLong();
+        Map<Long, Execution> runningExecutions = new ConcurrentHashMap<>();
+        return new JobLogFrameworkService() {
+
+            @Override
+            public Long createJobLog(Long jobId, LocalDateTime beginTime, String jobHandlerName,
+                                     String jobHandlerParam, Integer executeIndex) {
+                Execution execution = new Execution(jobId, executeIndex);
+                Long logId = logIdGenerator.incrementAndGet();
+                runningExecutions.put(logId, execution);
+                return logId;
+            }
+
+            @Override
+            public void updateJobLogResultAsync(Long logId, LocalDateTime endTime, Integer duration,
+                                                boolean success, String result) {
+                Execution execution = runningExecutions.remove(logId);
+                execution.endNanos = System.nanoTime();
+                execution.success = success;
+                execution.result = result;
+                finishedExecutions.add(execution);
+            }
+
+        };
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = JobHandlerInvoker.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Execution {
+
+        private final Long jobId;
+        private final int executeIndex;
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private volatile boolean success;
+        private volatile String result;
+
+        Execution(Long jobId, int executeIndex) {
+            this.jobId = jobId;
+            this.executeIndex = executeIndex;
+        }
+
+    }
+
+}
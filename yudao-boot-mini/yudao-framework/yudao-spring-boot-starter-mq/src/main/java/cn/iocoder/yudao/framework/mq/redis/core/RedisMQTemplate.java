@@ -36,10 +36,20 @@ public class RedisMQTemplate {
      * @param message 消息
      */
     public <T extends AbstractRedisChannelMessage> void send(T message) {
+        send(message.getChannel(), message);
+    }
+
+    /**
+     * 发送 Redis 消息到指定 Channel，基于 Redis pub/sub 实现
+     *
+     * @param channel Channel
+     * @param message 消息
+     */
+    public <T extends AbstractRedisChannelMessage> void send(String channel, T message) {
         try {
             sendMessageBefore(message);
             // 发送消息
-            redisTemplate.convertAndSend(message.getChannel(), JsonUtils.toJsonString(message));
+            redisTemplate.convertAndSend(channel, JsonUtils.toJsonString(message));
         } finally {
             sendMessageAfter(message);
         }
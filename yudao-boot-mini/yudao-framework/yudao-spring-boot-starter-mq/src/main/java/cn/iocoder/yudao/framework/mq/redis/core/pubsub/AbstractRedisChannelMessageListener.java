@@ -42,6 +42,18 @@ public abstract class AbstractRedisChannelMessageListener<T extends AbstractRedi
         this.channel = messageType.getDeclaredConstructor().newInstance().getChannel();
     }
 
+    /**
+     * 使用指定的 Redis Channel 创建监听器
+     *
+     * 适用于同一种消息，需要订阅多个 Channel 的场景，例如说：发送给指定节点的消息
+     *
+     * @param channel Redis Channel
+     */
+    protected AbstractRedisChannelMessageListener(String channel) {
+        this.messageType = getMessageClass();
+        this.channel = channel;
+    }
+
     /**
      * 获得 Sub 订阅的 Redis Channel 通道
      *
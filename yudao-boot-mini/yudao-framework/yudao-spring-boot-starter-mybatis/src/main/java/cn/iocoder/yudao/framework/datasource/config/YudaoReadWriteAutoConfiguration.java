@@ -0,0 +1,62 @@
+package cn.iocoder.yudao.framework.datasource.config;
+
+import cn.iocoder.yudao.framework.datasource.core.routing.DataSourceMetrics;
+import cn.iocoder.yudao.framework.datasource.core.routing.*;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离配置类
+ *
+ * @author 芋道源码
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "yudao.datasource.read-write", value = "enable", matchIfMissing = true) // 允许使用 yudao.datasource.read-write.enable=false 禁用读写分离
+@EnableConfigurationProperties(YudaoReadWriteProperties.class)
+public class YudaoReadWriteAutoConfiguration {
+
+    /**
+     * 会话解析器的默认实现。security、servlet 都是可选依赖，按照是否引入选择，避免 NoClassDefFoundError
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReadYourWritesSessionResolver readYourWritesSessionResolver() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        if (!ClassUtils.isPresent("jakarta.servlet.http.HttpServletRequest", classLoader)) {
+            return () -> null;
+        }
+        if (!ClassUtils.isPresent("cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils", classLoader)) {
+            return new TokenSessionResolver();
+        }
+        return new LoginUserSessionResolver();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(YudaoReadWriteProperties properties,
+                                                       ReadYourWritesSessionResolver readYourWritesSessionResolver) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow(), readYourWritesSessionResolver);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public DataSourceMetrics dataSourceMetrics(YudaoReadWriteProperties properties) {
+        return new DataSourceMetrics(properties.getMetricsLogInterval());
+    }
+
+    @Bean
+    public DataSourceRoutingInterceptor dataSourceRoutingInterceptor(ReadYourWritesTracker readYourWritesTracker,
+                                                                     DataSourceMetrics dataSourceMetrics) {
+        return new DataSourceRoutingInterceptor(readYourWritesTracker, dataSourceMetrics);
+    }
+
+    @Bean
+    public SlaveReadAspect slaveReadAspect(DataSource dataSource, ReadYourWritesTracker readYourWritesTracker) {
+        return new SlaveReadAspect(dataSource, readYourWritesTracker);
+    }
+
+}
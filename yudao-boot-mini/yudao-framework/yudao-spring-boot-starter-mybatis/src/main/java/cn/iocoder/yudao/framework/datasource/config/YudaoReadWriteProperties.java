@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.framework.datasource.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 读写分离配置
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.datasource.read-write")
+@Data
+public class YudaoReadWriteProperties {
+
+    /**
+     * 是否开启
+     *
+     * 关闭后，{@link cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead} 注解不生效，全部读取主库
+     */
+    private Boolean enable = true;
+
+    /**
+     * 「读己之写」窗口，需要大于主从复制的延迟
+     *
+     * 会话写入数据后，在该时间内的读取，全部走主库
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * 数据源统计日志的输出间隔。为 0 时，不输出
+     */
+    private Duration metricsLogInterval = Duration.ofMinutes(1);
+
+}
@@ -0,0 +1,24 @@
+package cn.iocoder.yudao.framework.datasource.core.annotation;
+
+import cn.iocoder.yudao.framework.datasource.core.enums.DataSourceEnum;
+
+import java.lang.annotation.*;
+
+/**
+ * 读从库的注解，用于列表、分页等读多写少的查询
+ *
+ * 与 {@link com.baomidou.dynamic.datasource.annotation.Slave} 直接切换到从库不同，满足以下任一条件时，仍然读取 {@link DataSourceEnum#MASTER} 主库：
+ * 1. 处于事务中，保证事务内读写一致
+ * 2. 已经通过 {@link com.baomidou.dynamic.datasource.annotation.DS} 等方式，显式指定了数据源
+ * 3. 未配置 {@link DataSourceEnum#SLAVE} 从库（或从库分组）
+ * 4. 当前会话在「读己之写」窗口内写过数据，避免主从复制延迟导致读不到刚写入的数据
+ *
+ * 注意：只能添加在只读的方法上
+ *
+ * @author 芋道源码
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SlaveRead {
+}
@@ -16,6 +16,8 @@ public interface DataSourceEnum {
     String MASTER = "master";
     /**
      * 从库，推荐使用 {@link com.baomidou.dynamic.datasource.annotation.Slave} 注解
+     *
+     * 列表、分页等读多写少的查询，推荐使用 {@link cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead} 注解，支持「读己之写」
      */
     String SLAVE = "slave";
 
@@ -0,0 +1,193 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 数据源的 SQL 执行统计，按照数据源（或数据源分组）维度，统计读写次数、失败次数、耗时
+ *
+ * 1. {@link #getStats()} 获得累计值，由 DataSourceMetricsMeterBinder 注册到 Micrometer，用于监控采集
+ * 2. {@link #logStats()} 输出距离上次输出的 QPS、平均耗时、最大耗时，在 {@link #start()} 后定时执行
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class DataSourceMetrics {
+
+    /**
+     * 统计日志的输出间隔
+     */
+    private final Duration logInterval;
+    private ScheduledExecutorService scheduler;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    /**
+     * 新数据源的监听器，首次执行 SQL 时回调，用于注册监控指标
+     */
+    private volatile Consumer<String> dataSourceListener;
+
+    /**
+     * 上次输出日志时的统计，用于计算差值
+     */
+    private final Map<String, Stat> lastStats = new ConcurrentHashMap<>();
+    private volatile long lastLogTime = System.nanoTime();
+
+    public DataSourceMetrics(Duration logInterval) {
+        this.logInterval = logInterval;
+    }
+
+    /**
+     * 启动统计日志的定时输出。间隔为空或 0 时，不输出
+     */
+    public void start() {
+        if (logInterval == null || logInterval.isZero() || logInterval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("datasource-metrics-", true));
+        scheduler.scheduleWithFixedDelay(this::logStats, logInterval.toMillis(), logInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 记录一次 SQL 执行
+     *
+     * @param dataSource 数据源
+     * @param write 是否为写操作
+     * @param costNanos 耗时，单位：纳秒
+     * @param success 是否成功
+     */
+    public void record(String dataSource, boolean write, long costNanos, boolean success) {
+        Counter counter = counters.get(dataSource);
+        if (counter == null) {
+            counter = createCounter(dataSource);
+        }
+        (write ? counter.writeCount : counter.readCount).increment();
+        if (!success) {
+            counter.errorCount.increment();
+        }
+        counter.totalNanos.add(costNanos);
+        counter.maxNanos.accumulate(costNanos);
+    }
+
+    private Counter createCounter(String dataSource) {
+        Counter counter = counters.computeIfAbsent(dataSource, key -> new Counter());
+        // 并发时可能回调多次，由监听器保证幂等
+        Consumer<String> listener = dataSourceListener;
+        if (listener != null) {
+            listener.accept(dataSource);
+        }
+        return counter;
+    }
+
+    /**
+     * 设置新数据源的监听器，并对已有的数据源回调一次
+     *
+     * @param listener 监听器，参数为数据源
+     */
+    public void setDataSourceListener(Consumer<String> listener) {
+        this.dataSourceListener = listener;
+        counters.keySet().forEach(listener);
+    }
+
+    /**
+     * 获得指定数据源的累计统计
+     *
+     * @param dataSource 数据源
+     * @return 统计。不存在时，各项均为 0
+     */
+    public Stat getStat(String dataSource) {
+        Counter counter = counters.get(dataSource);
+        return counter != null ? counter.toStat() : new Stat();
+    }
+
+    /**
+     * 获得每个数据源的累计统计
+     *
+     * @return 统计，key 为数据源
+     */
+    public Map<String, Stat> getStats() {
+        Map<String, Stat> stats = new TreeMap<>();
+        counters.forEach((dataSource, counter) -> stats.put(dataSource, counter.toStat()));
+        return stats;
+    }
+
+    /**
+     * 输出距离上次输出的统计
+     */
+    public synchronized void logStats() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - lastLogTime));
+        lastLogTime = now;
+        counters.forEach((dataSource, counter) -> {
+            Stat stat = counter.toStat();
+            Stat last = lastStats.getOrDefault(dataSource, new Stat());
+            lastStats.put(dataSource, stat);
+            long count = stat.getReadCount() + stat.getWriteCount() - last.getReadCount() - last.getWriteCount();
+            if (count <= 0) {
+                return;
+            }
+            long maxMillis = TimeUnit.NANOSECONDS.toMillis(counter.maxNanos.getThenReset());
+            log.info("[logStats][数据源({}) QPS({}) 读({}) 写({}) 失败({}) 平均耗时({} ms) 最大耗时({} ms)]", dataSource,
+                    String.format("%.1f", count / seconds),
+                    stat.getReadCount() - last.getReadCount(), stat.getWriteCount() - last.getWriteCount(),
+                    stat.getErrorCount() - last.getErrorCount(),
+                    TimeUnit.NANOSECONDS.toMillis((stat.getTotalNanos() - last.getTotalNanos()) / count), maxMillis);
+        });
+    }
+
+    private static class Counter {
+
+        private final LongAdder readCount = new LongAdder();
+        private final LongAdder writeCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Stat toStat() {
+            return new Stat().setReadCount(readCount.sum()).setWriteCount(writeCount.sum())
+                    .setErrorCount(errorCount.sum()).setTotalNanos(totalNanos.sum());
+        }
+
+    }
+
+    /**
+     * 数据源的累计统计
+     */
+    @Data
+    public static class Stat {
+
+        /**
+         * 读次数
+         */
+        private long readCount;
+        /**
+         * 写次数
+         */
+        private long writeCount;
+        /**
+         * 失败次数
+         */
+        private long errorCount;
+        /**
+         * 总耗时，单位：纳秒
+         */
+        private long totalNanos;
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataSourceMetrics} 的 Metrics 指标，tag datasource 为数据源（或数据源分组）
+ *
+ * 1. datasource.sql.calls：SQL 执行次数，tag type 为 read、write
+ * 2. datasource.sql.errors：SQL 执行失败的次数
+ * 3. datasource.sql：SQL 执行的次数与总耗时，可计算平均耗时
+ *
+ * 数据源在首次执行 SQL 时才注册，所以通过 {@link DataSourceMetrics#setDataSourceListener} 动态注册
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class DataSourceMetricsMeterBinder implements MeterBinder {
+
+    private final DataSourceMetrics dataSourceMetrics;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSourceMetrics.setDataSourceListener(dataSource -> bindTo(registry, dataSource));
+    }
+
+    private void bindTo(MeterRegistry registry, String dataSource) {
+        // Micrometer 对相同名字、tag 的指标，返回已注册的，所以重复注册也没关系
+        FunctionCounter.builder("datasource.sql.calls", dataSourceMetrics,
+                        metrics -> metrics.getStat(dataSource).getReadCount())
+                .tags("datasource", dataSource, "type", "read")
+                .description("SQL 读操作的执行次数")
+                .register(registry);
+        FunctionCounter.builder("datasource.sql.calls", dataSourceMetrics,
+                        metrics -> metrics.getStat(dataSource).getWriteCount())
+                .tags("datasource", dataSource, "type", "write")
+                .description("SQL 写操作的执行次数")
+                .register(registry);
+        FunctionCounter.builder("datasource.sql.errors", dataSourceMetrics,
+                        metrics -> metrics.getStat(dataSource).getErrorCount())
+                .tags("datasource", dataSource)
+                .description("SQL 执行失败的次数")
+                .register(registry);
+        FunctionTimer.builder("datasource.sql", dataSourceMetrics,
+                        metrics -> {
+                            DataSourceMetrics.Stat stat = metrics.getStat(dataSource);
+                            return stat.getReadCount() + stat.getWriteCount();
+                        },
+                        metrics -> metrics.getStat(dataSource).getTotalNanos(), TimeUnit.NANOSECONDS)
+                .tags("datasource", dataSource)
+                .description("SQL 执行的耗时")
+                .register(registry);
+    }
+
+}
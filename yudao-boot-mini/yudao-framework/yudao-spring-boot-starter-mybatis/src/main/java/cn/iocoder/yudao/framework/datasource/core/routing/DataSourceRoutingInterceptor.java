@@ -0,0 +1,58 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.datasource.core.enums.DataSourceEnum;
+import com.baomidou.dynamic.datasource.toolkit.DynamicDataSourceContextHolder;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 读写分离的 MyBatis 拦截器
+ *
+ * 1. 写操作（INSERT、UPDATE、DELETE）时，通过 {@link ReadYourWritesTracker} 标记当前会话，使其后续的读取走主库
+ * 2. 按照当前数据源，记录 SQL 的执行统计到 {@link DataSourceMetrics}
+ *
+ * @author 芋道源码
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class,
+                RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class,
+                RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+@RequiredArgsConstructor
+public class DataSourceRoutingInterceptor implements Interceptor {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final DataSourceMetrics dataSourceMetrics;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        boolean write = "update".equals(invocation.getMethod().getName());
+        if (write) {
+            readYourWritesTracker.markWrite();
+        }
+        // 未指定数据源时，使用的是默认的主库
+        String dataSource = StrUtil.blankToDefault(DynamicDataSourceContextHolder.peek(), DataSourceEnum.MASTER);
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            dataSourceMetrics.record(dataSource, write, System.nanoTime() - startTime, success);
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+
+/**
+ * 基于登录用户的 {@link ReadYourWritesSessionResolver} 实现
+ *
+ * 优先使用登录用户编号；未登录时，使用 {@link TokenSessionResolver} 的 Authorization 请求头
+ *
+ * 注意：依赖 yudao-spring-boot-starter-security，只有引入时才使用
+ *
+ * @author 芋道源码
+ */
+public class LoginUserSessionResolver extends TokenSessionResolver {
+
+    @Override
+    public String getSessionKey() {
+        Long userId = SecurityFrameworkUtils.getLoginUserId();
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        return super.getSessionKey();
+    }
+
+}
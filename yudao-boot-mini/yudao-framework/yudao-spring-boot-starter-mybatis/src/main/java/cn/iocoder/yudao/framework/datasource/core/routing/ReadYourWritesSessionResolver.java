@@ -0,0 +1,20 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+/**
+ * 「读己之写」的会话解析器，用于 {@link ReadYourWritesTracker} 识别当前会话
+ *
+ * 默认实现见 {@link LoginUserSessionResolver}、{@link TokenSessionResolver}，业务也可以自定义该 Bean 覆盖
+ *
+ * @author 芋道源码
+ */
+@FunctionalInterface
+public interface ReadYourWritesSessionResolver {
+
+    /**
+     * 获得当前会话的标识
+     *
+     * @return 会话标识。为空时，说明无法识别会话，不记录
+     */
+    String getSessionKey();
+
+}
@@ -0,0 +1,60 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.Duration;
+
+/**
+ * 「读己之写」的记录器
+ *
+ * 记录每个会话最近一次写入数据库的时间，在窗口内的读取需要走主库，避免主从复制延迟导致读不到刚写入的数据。
+ * 会话由 {@link ReadYourWritesSessionResolver} 识别，默认优先使用登录用户编号，其次是 Authorization 请求头；都没有时，不记录
+ *
+ * 注意：记录保存在本地内存，多节点部署时，需要保证窗口内的请求落在同一节点（例如说会话保持），或者适当调大窗口
+ *
+ * @author 芋道源码
+ */
+public class ReadYourWritesTracker {
+
+    /**
+     * 最大记录的会话数量
+     */
+    private static final long MAXIMUM_SIZE = 100000;
+
+    /**
+     * 会话与写入标记的缓存，过期即说明已经不在窗口内
+     */
+    private final Cache<String, Boolean> recentWrites;
+
+    private final ReadYourWritesSessionResolver sessionResolver;
+
+    public ReadYourWritesTracker(Duration window, ReadYourWritesSessionResolver sessionResolver) {
+        this.sessionResolver = sessionResolver;
+        this.recentWrites = CacheBuilder.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * 标记当前会话写入了数据
+     */
+    public void markWrite() {
+        String sessionKey = sessionResolver.getSessionKey();
+        if (sessionKey != null) {
+            recentWrites.put(sessionKey, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 判断当前会话，是否在「读己之写」窗口内
+     *
+     * @return 是否在窗口内
+     */
+    public boolean isInWindow() {
+        String sessionKey = sessionResolver.getSessionKey();
+        return sessionKey != null && recentWrites.getIfPresent(sessionKey) != null;
+    }
+
+}
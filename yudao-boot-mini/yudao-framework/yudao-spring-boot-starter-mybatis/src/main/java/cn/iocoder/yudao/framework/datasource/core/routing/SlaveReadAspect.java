@@ -0,0 +1,63 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead;
+import cn.iocoder.yudao.framework.datasource.core.enums.DataSourceEnum;
+import com.baomidou.dynamic.datasource.DynamicRoutingDataSource;
+import com.baomidou.dynamic.datasource.toolkit.DynamicDataSourceContextHolder;
+import com.baomidou.dynamic.datasource.tx.TransactionContext;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+/**
+ * 拦截声明了 {@link SlaveRead} 注解的方法，按需切换到 {@link DataSourceEnum#SLAVE} 从库
+ *
+ * @author 芋道源码
+ */
+@Aspect
+@RequiredArgsConstructor
+public class SlaveReadAspect {
+
+    private final DataSource dataSource;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Around("@within(cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead)"
+            + " || @annotation(cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!isSlaveReadable()) {
+            return joinPoint.proceed();
+        }
+        DynamicDataSourceContextHolder.push(DataSourceEnum.SLAVE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DynamicDataSourceContextHolder.poll();
+        }
+    }
+
+    private boolean isSlaveReadable() {
+        // 1. 事务中，包括 Spring 事务、@DSTransactional 事务，保持读写一致
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || StrUtil.isNotEmpty(TransactionContext.getXID())) {
+            return false;
+        }
+        // 2. 已经显式指定数据源，不进行覆盖
+        if (StrUtil.isNotEmpty(DynamicDataSourceContextHolder.peek())) {
+            return false;
+        }
+        // 3. 未配置从库
+        if (!(dataSource instanceof DynamicRoutingDataSource routingDataSource)
+                || (!routingDataSource.getDataSources().containsKey(DataSourceEnum.SLAVE)
+                    && !routingDataSource.getGroupDataSources().containsKey(DataSourceEnum.SLAVE))) {
+            return false;
+        }
+        // 4. 「读己之写」窗口内
+        return !readYourWritesTracker.isInWindow();
+    }
+
+}
@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.framework.datasource.core.routing;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.servlet.ServletUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 基于 Authorization 请求头的 {@link ReadYourWritesSessionResolver} 实现
+ *
+ * 适用于未登录（例如说门户的 Token 认证）的请求；非 HTTP 请求时，无法识别会话
+ *
+ * @author 芋道源码
+ */
+public class TokenSessionResolver implements ReadYourWritesSessionResolver {
+
+    @Override
+    public String getSessionKey() {
+        HttpServletRequest request = ServletUtils.getRequest();
+        if (request == null) {
+            return null;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return StrUtil.isNotEmpty(authorization) ? "token:" + authorization : null;
+    }
+
+}
@@ -0,0 +1,37 @@
+package cn.iocoder.yudao.framework.mybatis.config;
+
+import cn.iocoder.yudao.framework.datasource.config.YudaoReadWriteAutoConfiguration;
+import cn.iocoder.yudao.framework.datasource.core.routing.DataSourceMetrics;
+import cn.iocoder.yudao.framework.datasource.core.routing.DataSourceMetricsMeterBinder;
+import cn.iocoder.yudao.framework.mybatis.core.parser.SqlParserCache;
+import cn.iocoder.yudao.framework.mybatis.core.parser.SqlParserCacheMeterBinder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * MyBatis Metrics 配置类
+ *
+ * 只有引入 Micrometer 时（例如说，yudao-spring-boot-starter-monitor），才注册相关指标
+ *
+ * @author 芋道源码
+ */
+@AutoConfiguration(after = YudaoReadWriteAutoConfiguration.class)
+@ConditionalOnClass(MeterRegistry.class)
+public class YudaoMybatisMetricsAutoConfiguration {
+
+    @Bean
+    public SqlParserCacheMeterBinder sqlParserCacheMeterBinder(ObjectProvider<SqlParserCache> sqlParserCaches) {
+        return new SqlParserCacheMeterBinder(sqlParserCaches.orderedStream().toList());
+    }
+
+    @Bean
+    @ConditionalOnBean(DataSourceMetrics.class)
+    public DataSourceMetricsMeterBinder dataSourceMetricsMeterBinder(DataSourceMetrics dataSourceMetrics) {
+        return new DataSourceMetricsMeterBinder(dataSourceMetrics);
+    }
+
+}
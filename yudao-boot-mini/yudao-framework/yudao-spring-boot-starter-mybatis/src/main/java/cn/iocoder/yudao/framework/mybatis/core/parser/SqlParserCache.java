@@ -0,0 +1,99 @@
+package cn.iocoder.yudao.framework.mybatis.core.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * 改写后 SQL 的缓存
+ *
+ * 多租户、数据权限等 MyBatis Plus 拦截器，每次执行都需要通过 JSqlParser 解析 SQL、拼接条件、再生成 SQL，CPU 开销较大。
+ * 对于相同的「mappedStatementId + 原始 SQL + 规则指纹」，改写结果是确定的，所以可以缓存起来，直接跳过 JSqlParser
+ *
+ * 注意：规则指纹必须包含所有影响改写结果的上下文，例如说租户编号、是否忽略租户、可查看的部门编号等
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class SqlParserCache {
+
+    /**
+     * 默认的最大缓存数量
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 缓存名，用于日志
+     */
+    @Getter
+    private final String name;
+
+    private final Cache<CacheKey, String> cache;
+
+    public SqlParserCache(String name) {
+        this(name, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public SqlParserCache(String name, long maximumSize) {
+        this.name = name;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获得改写后的 SQL，不存在时使用 parser 改写并缓存
+     *
+     * @param mappedStatementId Mapper 方法编号，允许为空
+     * @param sql 原始 SQL
+     * @param fingerprint 规则指纹。为 null 时，说明不可缓存，直接调用 parser
+     * @param parser SQL 改写逻辑
+     * @return 改写后的 SQL
+     */
+    public String get(String mappedStatementId, String sql, Object fingerprint, UnaryOperator<String> parser) {
+        if (fingerprint == null) {
+            return parser.apply(sql);
+        }
+        try {
+            return cache.get(new CacheKey(mappedStatementId, sql, fingerprint), () -> parser.apply(sql));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            // 解包 parser 抛出的异常，保持与不使用缓存时一致
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.info("[invalidateAll][SQL 缓存({}) 已清空]", name);
+    }
+
+    /**
+     * 获得缓存的统计信息，包括命中率等
+     *
+     * @return 统计信息
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private record CacheKey(String mappedStatementId, String sql, Object fingerprint) {
+    }
+
+}
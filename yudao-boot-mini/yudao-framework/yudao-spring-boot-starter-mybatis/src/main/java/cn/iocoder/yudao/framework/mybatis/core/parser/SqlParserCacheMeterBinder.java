@@ -0,0 +1,51 @@
+package cn.iocoder.yudao.framework.mybatis.core.parser;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * {@link SqlParserCache} 的 Metrics 指标
+ *
+ * 与 Micrometer 内置的缓存指标保持一致的命名，tag cache 为 sql_parser.{@link SqlParserCache#getName()}：
+ * 1. cache.gets：result 为 hit、miss，分别是命中、未命中（即 JSqlParser 解析）的次数
+ * 2. cache.evictions：因超过最大数量而淘汰的数量
+ * 3. cache.size：当前缓存的数量
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class SqlParserCacheMeterBinder implements MeterBinder {
+
+    private static final String CACHE_NAME_PREFIX = "sql_parser.";
+
+    private final List<SqlParserCache> caches;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        caches.forEach(cache -> {
+            String name = CACHE_NAME_PREFIX + cache.getName();
+            FunctionCounter.builder("cache.gets", cache, value -> value.getStats().hitCount())
+                    .tags("cache", name, "result", "hit")
+                    .description("SQL 改写缓存的命中次数")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, value -> value.getStats().missCount())
+                    .tags("cache", name, "result", "miss")
+                    .description("SQL 改写缓存的未命中次数")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, value -> value.getStats().evictionCount())
+                    .tags("cache", name)
+                    .description("SQL 改写缓存的淘汰数量")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, SqlParserCache::size)
+                    .tags("cache", name)
+                    .description("SQL 改写缓存的数量")
+                    .register(registry);
+        });
+    }
+
+}
@@ -7,6 +7,7 @@ import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.ClientIpRate
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.DefaultRateLimiterKeyResolver;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.ServerNodeRateLimiterKeyResolver;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.UserRateLimiterKeyResolver;
+import cn.iocoder.yudao.framework.ratelimiter.core.local.LocalRateLimiter;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -37,6 +38,14 @@ public @interface RateLimiter {
      */
     int count() default 100;
 
+    /**
+     * 本地令牌桶每次从 Redis 租借的令牌数
+     *
+     * 大于 1 时，使用 {@link LocalRateLimiter} 本地 + Redis 混合限流，大部分请求只需在内存中扣减令牌；
+     * 默认为 1，表示每次都访问 Redis 限流
+     */
+    int leaseCount() default 1;
+
     /**
      * 提示信息，请求过快的提示
      *
@@ -6,6 +6,7 @@ import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstant
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.ratelimiter.core.annotation.RateLimiter;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.RateLimiterKeyResolver;
+import cn.iocoder.yudao.framework.ratelimiter.core.local.LocalRateLimiter;
 import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -32,9 +33,13 @@ public class RateLimiterAspect {
 
     private final RateLimiterRedisDAO rateLimiterRedisDAO;
 
-    public RateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, RateLimiterRedisDAO rateLimiterRedisDAO) {
+    private final LocalRateLimiter localRateLimiter;
+
+    public RateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, RateLimiterRedisDAO rateLimiterRedisDAO,
+                             LocalRateLimiter localRateLimiter) {
         this.keyResolvers = CollectionUtils.convertMap(keyResolvers, RateLimiterKeyResolver::getClass);
         this.rateLimiterRedisDAO = rateLimiterRedisDAO;
+        this.localRateLimiter = localRateLimiter;
     }
 
     @Before("@annotation(rateLimiter)")
@@ -46,8 +51,11 @@ public class RateLimiterAspect {
         String key = keyResolver.resolver(joinPoint, rateLimiter);
 
         // 获取 1 次限流
-        boolean success = rateLimiterRedisDAO.tryAcquire(key,
-                rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit());
+        boolean success = rateLimiter.leaseCount() > 1
+                ? localRateLimiter.tryAcquire(key, rateLimiter.leaseCount(),
+                        rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit())
+                : rateLimiterRedisDAO.tryAcquire(key,
+                        rateLimiter.count(), rateLimiter.time(), rateLimiter.timeUnit());
         if (!success) {
             log.info("[beforePointCut][方法({}) 参数({}) 请求过于频繁]", joinPoint.getSignature().toString(), joinPoint.getArgs());
             String message = StrUtil.blankToDefault(rateLimiter.message(),
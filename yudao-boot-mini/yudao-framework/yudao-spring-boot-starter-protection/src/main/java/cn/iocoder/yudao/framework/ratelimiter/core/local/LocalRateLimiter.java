@@ -0,0 +1,104 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地 + Redis 混合的限流器
+ *
+ * 每个节点，按照限流 Key 维护一个 {@link LocalTokenBucket} 本地令牌桶：
+ * 1. 本地有令牌时，直接在内存中扣减，无需访问 Redis
+ * 2. 本地无令牌时，从 Redis 的 RRateLimiter 一次性租借 leaseCount 个令牌，从而将 Redis 的访问次数降低为 1/leaseCount
+ * 3. 同一个 Key 同一时刻只有一个线程租借，其它线程不加锁、不访问 Redis，等待该次租借完成后从本地令牌桶获取
+ * 4. 租借失败（全局令牌已用完）时，在一个平均发放间隔（time / count）内直接拒绝，过载时不会每个请求都访问 Redis
+ *
+ * 精度说明：全局的令牌总数仍由 Redis 保证，不会超过限流次数；
+ * 但是各节点租借后未使用完的令牌，会在过期（一个限流周期）后作废，极端情况下最多少放行「节点数 * leaseCount」个请求
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class LocalRateLimiter {
+
+    /**
+     * 本地令牌桶的最大数量，超过时清理长时间未访问的令牌桶
+     */
+    private static final int BUCKET_MAX_SIZE = 10000;
+    /**
+     * 令牌桶的空闲时间，超过后可被清理，单位：毫秒
+     */
+    private static final long BUCKET_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final RateLimiterRedisDAO rateLimiterRedisDAO;
+
+    /**
+     * 本地令牌桶
+     *
+     * KEY：限流 Key
+     */
+    private final Map<String, LocalTokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public boolean tryAcquire(String key, int leaseCount, int count, int time, TimeUnit timeUnit) {
+        // 1. 优先从本地令牌桶获取
+        LocalTokenBucket bucket = getBucket(key);
+        if (bucket.tryConsume()) {
+            return true;
+        }
+
+        // 2. 最近一次租借失败，在截止时间之前直接拒绝
+        if (bucket.isDenied(System.currentTimeMillis())) {
+            return false;
+        }
+
+        // 3. 本地令牌不足，从 Redis 租借。同一个 Key 只允许一个线程租借，其它线程等待租借完成后，再从本地获取
+        CompletableFuture<Void> refill = new CompletableFuture<>();
+        CompletableFuture<Void> current = bucket.startRefill(refill);
+        if (current != null) {
+            current.join();
+            return bucket.tryConsume();
+        }
+        try {
+            // 双重检查：等待期间，其它线程可能刚完成租借
+            if (bucket.tryConsume()) {
+                return true;
+            }
+            return lease(bucket, key, leaseCount, count, time, timeUnit);
+        } finally {
+            bucket.finishRefill(refill);
+        }
+    }
+
+    private boolean lease(LocalTokenBucket bucket, String key, int leaseCount, int count, int time, TimeUnit timeUnit) {
+        // 1. 批量租借，成功后自己消费 1 个，剩余放入本地
+        int permits = Math.min(leaseCount, count);
+        if (permits > 1 && rateLimiterRedisDAO.tryAcquire(key, permits, count, time, timeUnit)) {
+            bucket.refill(permits - 1, System.currentTimeMillis() + timeUnit.toMillis(time));
+            return true;
+        }
+        // 2. 批量租借失败（剩余令牌不足 leaseCount 个），退化为只获取 1 个
+        if (rateLimiterRedisDAO.tryAcquire(key, 1, count, time, timeUnit)) {
+            return true;
+        }
+        // 3. 全局令牌已用完，在一个平均发放间隔内直接拒绝
+        bucket.deny(System.currentTimeMillis() + Math.max(1, timeUnit.toMillis(time) / count));
+        return false;
+    }
+
+    private LocalTokenBucket getBucket(String key) {
+        LocalTokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= BUCKET_MAX_SIZE) {
+            long idleTime = System.currentTimeMillis() - BUCKET_IDLE_MILLIS;
+            buckets.values().removeIf(value -> value.getAccessTime() < idleTime);
+        }
+        return buckets.computeIfAbsent(key, k -> new LocalTokenBucket());
+    }
+
+}
@@ -0,0 +1,114 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 本地令牌桶，存放从 Redis 批量租借的令牌
+ *
+ * 1. 消费令牌：{@link #tryConsume()}，基于 CAS 实现，无锁
+ * 2. 补充令牌：{@link #refill(long, long)}，由 {@link LocalRateLimiter} 在租借成功后调用
+ * 3. 租借：{@link #startRefill(CompletableFuture)}，同一时刻只有一个线程访问 Redis，其它线程等待该次租借完成
+ * 4. 拒绝：租借失败（全局令牌已用完）后，在 {@link #deny(long)} 的时间之前直接拒绝，不访问 Redis
+ *
+ * 租借的令牌存在有效期，过期后作废，避免长时间占用全局配额
+ *
+ * @author 芋道源码
+ */
+public class LocalTokenBucket {
+
+    /**
+     * 剩余令牌数
+     */
+    private final AtomicLong permits = new AtomicLong();
+    /**
+     * 令牌过期时间，单位：毫秒
+     */
+    private volatile long expireTime;
+    /**
+     * 最后访问时间，单位：毫秒。用于清理长时间未使用的令牌桶
+     */
+    private volatile long accessTime = System.currentTimeMillis();
+    /**
+     * 正在进行的租借，为 null 时表示没有
+     */
+    private final AtomicReference<CompletableFuture<Void>> refilling = new AtomicReference<>();
+    /**
+     * 直接拒绝的截止时间，单位：毫秒
+     */
+    private volatile long deniedUntil;
+
+    /**
+     * 尝试消费 1 个令牌
+     *
+     * @return 是否成功
+     */
+    public boolean tryConsume() {
+        long now = System.currentTimeMillis();
+        accessTime = now;
+        if (now >= expireTime) {
+            return false;
+        }
+        while (true) {
+            long current = permits.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (permits.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 重新填充令牌，旧的令牌直接作废
+     *
+     * @param newPermits 令牌数
+     * @param newExpireTime 过期时间，单位：毫秒
+     */
+    public void refill(long newPermits, long newExpireTime) {
+        // 先置为 0，避免 expireTime 更新后，读到旧的 permits
+        permits.set(0);
+        expireTime = newExpireTime;
+        permits.set(newPermits);
+    }
+
+    /**
+     * 开始租借
+     *
+     * @param refill 当前线程的租借
+     * @return 已在进行的租借；返回 null 时，表示由当前线程租借，完成后需调用 {@link #finishRefill(CompletableFuture)}
+     */
+    public CompletableFuture<Void> startRefill(CompletableFuture<Void> refill) {
+        return refilling.compareAndExchange(null, refill);
+    }
+
+    /**
+     * 结束租借，唤醒等待的线程
+     *
+     * @param refill 当前线程的租借
+     */
+    public void finishRefill(CompletableFuture<Void> refill) {
+        refilling.compareAndSet(refill, null);
+        refill.complete(null);
+    }
+
+    /**
+     * 在指定时间之前，直接拒绝
+     *
+     * @param newDeniedUntil 截止时间，单位：毫秒
+     */
+    public void deny(long newDeniedUntil) {
+        deniedUntil = newDeniedUntil;
+    }
+
+    public boolean isDenied(long now) {
+        return now < deniedUntil;
+    }
+
+    public long getAccessTime() {
+        return accessTime;
+    }
+
+}
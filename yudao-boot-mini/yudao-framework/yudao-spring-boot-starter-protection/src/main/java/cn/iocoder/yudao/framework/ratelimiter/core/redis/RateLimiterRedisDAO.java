@@ -1,10 +1,14 @@
 package cn.iocoder.yudao.framework.ratelimiter.core.redis;
 
-import lombok.AllArgsConstructor;
+import cn.hutool.core.util.StrUtil;
+import lombok.RequiredArgsConstructor;
 import org.redisson.api.*;
+import org.redisson.client.RedisException;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -12,7 +16,7 @@ import java.util.concurrent.TimeUnit;
  *
  * @author 芋道源码
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RateLimiterRedisDAO {
 
     /**
@@ -24,13 +28,57 @@ public class RateLimiterRedisDAO {
      */
     private static final String RATE_LIMITER = "rate_limiter:%s";
 
+    /**
+     * Redisson 在 RRateLimiter 未初始化（例如说，已过期）时，Lua 脚本抛出的错误信息
+     */
+    private static final String NOT_INITIALIZED_MESSAGE = "RateLimiter is not initialized";
+
+    /**
+     * 本地配置缓存的最大数量，超过时整体清空，避免按用户、IP 限流时无限增长
+     */
+    private static final int CONFIG_CACHE_MAX_SIZE = 10000;
+
     private final RedissonClient redissonClient;
 
+    /**
+     * 已确认在 Redis 中配置过速率的 RRateLimiter 缓存
+     *
+     * KEY：Redis Key
+     * VALUE：速率配置，格式为 count:rateIntervalMillis
+     *
+     * 目的：避免每次 tryAcquire 前，都需要 getConfig 一次 Redis
+     */
+    private final Map<String, String> configCache = new ConcurrentHashMap<>();
+
     public Boolean tryAcquire(String key, int count, int time, TimeUnit timeUnit) {
+        return tryAcquire(key, 1, count, time, timeUnit);
+    }
+
+    /**
+     * 尝试获取 permits 个令牌
+     *
+     * @param key 限流 Key
+     * @param permits 令牌数量，不能超过 count
+     * @param count 限流次数
+     * @param time 限流的时间
+     * @param timeUnit 时间单位
+     * @return 是否获取成功
+     */
+    public Boolean tryAcquire(String key, long permits, int count, int time, TimeUnit timeUnit) {
         // 1. 获得 RRateLimiter，并设置 rate 速率
         RRateLimiter rateLimiter = getRRateLimiter(key, count, time, timeUnit);
-        // 2. 尝试获取 1 个
-        return rateLimiter.tryAcquire();
+        // 2. 尝试获取 permits 个
+        try {
+            return rateLimiter.tryAcquire(permits);
+        } catch (RedisException ex) {
+            // 情况一：其它异常，直接抛出
+            if (!StrUtil.contains(ex.getMessage(), NOT_INITIALIZED_MESSAGE)) {
+                throw ex;
+            }
+            // 情况二：本地缓存的配置已过期（Redis Key 已被 expire 掉），则重新设置 rate 速率后重试
+            configCache.remove(formatKey(key));
+            return getRRateLimiter(key, count, time, timeUnit).tryAcquire(permits);
+        }
     }
 
     private static String formatKey(String key) {
@@ -42,25 +90,40 @@ public class RateLimiterRedisDAO {
         RRateLimiter rateLimiter = redissonClient.getRateLimiter(redisKey);
         long rateInterval = timeUnit.toSeconds(time);
         Duration duration = Duration.ofSeconds(rateInterval);
+        // 0. 如果本地已确认过配置，则直接返回，无需再查询 Redis
+        String configValue = count + ":" + duration.toMillis();
+        if (Objects.equals(configCache.get(redisKey), configValue)) {
+            return rateLimiter;
+        }
         // 1. 如果不存在，设置 rate 速率
         RateLimiterConfig config = rateLimiter.getConfig();
         if (config == null) {
             rateLimiter.trySetRate(RateType.OVERALL, count, duration);
             // 原因参见 https://t.zsxq.com/lcR0W
             rateLimiter.expire(duration);
+            putConfigCache(redisKey, configValue);
             return rateLimiter;
         }
         // 2. 如果存在，并且配置相同，则直接返回
         if (config.getRateType() == RateType.OVERALL
                 && Objects.equals(config.getRate(), count)
                 && Objects.equals(config.getRateInterval(), TimeUnit.SECONDS.toMillis(rateInterval))) {
+            putConfigCache(redisKey, configValue);
             return rateLimiter;
         }
         // 3. 如果存在，并且配置不同，则进行新建
         rateLimiter.setRate(RateType.OVERALL, count, duration);
         // 原因参见 https://t.zsxq.com/lcR0W
         rateLimiter.expire(duration);
+        putConfigCache(redisKey, configValue);
         return rateLimiter;
     }
 
+    private void putConfigCache(String redisKey, String configValue) {
+        if (configCache.size() >= CONFIG_CACHE_MAX_SIZE) {
+            configCache.clear();
+        }
+        configCache.put(redisKey, configValue);
+    }
+
 }
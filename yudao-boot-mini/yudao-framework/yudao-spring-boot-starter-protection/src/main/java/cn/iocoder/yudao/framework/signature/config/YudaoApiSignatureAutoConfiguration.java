@@ -3,9 +3,12 @@ package cn.iocoder.yudao.framework.signature.config;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import cn.iocoder.yudao.framework.signature.core.aop.ApiSignatureAspect;
 import cn.iocoder.yudao.framework.signature.core.redis.ApiSignatureRedisDAO;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * HTTP API 签名的自动配置类
@@ -13,6 +16,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
  * @author Zhougang
  */
 @AutoConfiguration(after = YudaoRedisAutoConfiguration.class)
+@Slf4j
 public class YudaoApiSignatureAutoConfiguration {
 
     @Bean
@@ -25,4 +29,20 @@ public class YudaoApiSignatureAutoConfiguration {
         return new ApiSignatureRedisDAO(stringRedisTemplate);
     }
 
+    /**
+     * 监听签名密钥变更的广播，清理各节点的本地缓存，使密钥的修改、吊销立即生效
+     */
+    @Bean
+    public RedisMessageListenerContainer signatureRedisMessageListenerContainer(StringRedisTemplate stringRedisTemplate,
+                                                                                ApiSignatureRedisDAO signatureRedisDAO) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(stringRedisTemplate.getRequiredConnectionFactory());
+        container.addMessageListener((message, pattern) -> {
+            String appId = stringRedisTemplate.getStringSerializer().deserialize(message.getBody());
+            signatureRedisDAO.evictAppSecretCache(appId);
+            log.info("[signatureRedisMessageListenerContainer][应用({}) 的签名密钥已变更，清理本地缓存]", appId);
+        }, new ChannelTopic(ApiSignatureRedisDAO.SIGNATURE_APPID_CHANNEL));
+        return container;
+    }
+
 }
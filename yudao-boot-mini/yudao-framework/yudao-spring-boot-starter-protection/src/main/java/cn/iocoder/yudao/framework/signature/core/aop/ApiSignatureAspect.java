@@ -70,6 +70,7 @@ public class ApiSignatureAspect {
         }
 
         // 3. 将 nonce 记入缓存，防止重复使用（重点二：此处需要将 ttl 设定为允许 timestamp 时间差的值 x 2 ）
+        // 基于 SET NX 同时完成「是否使用过」的判断与记录，无需额外 GET 一次
         String nonce = request.getHeader(signature.nonce());
         if (BooleanUtil.isFalse(signatureRedisDAO.setNonce(appId, nonce, signature.timeout() * 2, signature.timeUnit()))) {
             String timestamp = request.getHeader(signature.timestamp());
@@ -84,7 +85,7 @@ public class ApiSignatureAspect {
      * <p>
      * 1. appId 是否为空
      * 2. timestamp 是否为空，请求是否已经超时，默认 10 分钟
-     * 3. nonce 是否为空，随机数是否 10 位以上，是否在规定时间内已经访问过了
+     * 3. nonce 是否为空，随机数是否 10 位以上（是否在规定时间内已经访问过，由 {@link ApiSignatureRedisDAO#setNonce} 校验）
      * 4. sign 是否为空
      *
      * @param signature signature
@@ -114,12 +115,7 @@ public class ApiSignatureAspect {
         long expireTime = signature.timeUnit().toMillis(signature.timeout());
         long requestTimestamp = Long.parseLong(timestamp);
         long timestampDisparity = Math.abs(System.currentTimeMillis() - requestTimestamp);
-        if (timestampDisparity > expireTime) {
-            return false;
-        }
-
-        // 3. 检查 nonce 是否存在，有且仅能使用一次
-        return signatureRedisDAO.getNonce(appId, nonce) == null;
+        return timestampDisparity <= expireTime;
     }
 
     /**
@@ -1,6 +1,8 @@
 package cn.iocoder.yudao.framework.signature.core.redis;
 
-import lombok.AllArgsConstructor;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.TimedCache;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.util.concurrent.TimeUnit;
@@ -10,7 +12,7 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Zhougang
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class ApiSignatureRedisDAO {
 
     private final StringRedisTemplate stringRedisTemplate;
@@ -34,12 +36,40 @@ public class ApiSignatureRedisDAO {
      */
     private static final String SIGNATURE_APPID = "api_signature_app";
 
+    /**
+     * 签名密钥变更的广播 Channel
+     *
+     * 消息格式：appId
+     */
+    public static final String SIGNATURE_APPID_CHANNEL = "api_signature_app_changed";
+
+    /**
+     * 签名密钥的本地缓存时间，单位：毫秒
+     *
+     * 1. 通过 {@link #setAppSecret(String, String)}、{@link #deleteAppSecret(String)} 修改密钥时，会广播到所有节点，立即生效
+     * 2. 直接修改 Redis（例如说，redis-cli HSET）时，无法广播，最多经过该时间后生效，即吊销密钥的延迟窗口
+     */
+    private static final long APP_SECRET_CACHE_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * 签名密钥的本地缓存
+     *
+     * KEY：appId
+     * VALUE：appSecret
+     */
+    private final TimedCache<String, String> appSecretCache = CacheUtil.newTimedCache(APP_SECRET_CACHE_TIMEOUT);
+
     // ========== 验签随机数 ==========
 
     public String getNonce(String appId, String nonce) {
         return stringRedisTemplate.opsForValue().get(formatNonceKey(appId, nonce));
     }
 
+    /**
+     * 记录随机数，基于 SET NX 实现，一次 Redis 操作即可完成「是否使用过」的判断 + 记录
+     *
+     * @return 是否记录成功。false 说明随机数已被使用过
+     */
     public Boolean setNonce(String appId, String nonce, int time, TimeUnit timeUnit) {
         return stringRedisTemplate.opsForValue().setIfAbsent(formatNonceKey(appId, nonce), "", time, timeUnit);
     }
@@ -51,7 +81,44 @@ public class ApiSignatureRedisDAO {
     // ========== 签名密钥 ==========
 
     public String getAppSecret(String appId) {
-        return (String) stringRedisTemplate.opsForHash().get(SIGNATURE_APPID, appId);
+        // 优先从本地缓存获取
+        String appSecret = appSecretCache.get(appId, false);
+        if (appSecret != null) {
+            return appSecret;
+        }
+        // 本地缓存不存在，从 Redis 获取
+        appSecret = (String) stringRedisTemplate.opsForHash().get(SIGNATURE_APPID, appId);
+        if (appSecret != null) {
+            appSecretCache.put(appId, appSecret);
+        }
+        return appSecret;
+    }
+
+    public void setAppSecret(String appId, String appSecret) {
+        stringRedisTemplate.opsForHash().put(SIGNATURE_APPID, appId, appSecret);
+        publishAppSecretChanged(appId);
+    }
+
+    public void deleteAppSecret(String appId) {
+        stringRedisTemplate.opsForHash().delete(SIGNATURE_APPID, appId);
+        publishAppSecretChanged(appId);
+    }
+
+    /**
+     * 广播签名密钥变更，各节点（包括当前节点）收到后清理本地缓存
+     */
+    private void publishAppSecretChanged(String appId) {
+        appSecretCache.remove(appId);
+        stringRedisTemplate.convertAndSend(SIGNATURE_APPID_CHANNEL, appId);
+    }
+
+    /**
+     * 清理签名密钥的本地缓存，由 {@link #SIGNATURE_APPID_CHANNEL} 的广播触发
+     *
+     * @param appId 应用编号
+     */
+    public void evictAppSecretCache(String appId) {
+        appSecretCache.remove(appId);
     }
 
 }
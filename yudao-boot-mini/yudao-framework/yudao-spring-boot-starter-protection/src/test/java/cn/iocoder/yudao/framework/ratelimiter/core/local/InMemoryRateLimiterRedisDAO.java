@@ -0,0 +1,70 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 内存实现的 {@link RateLimiterRedisDAO}，模拟 Redis 的固定窗口限流，用于单元测试与基准测试
+ *
+ * 1. 每次 tryAcquire 计为一次 Redis 访问，并可模拟网络往返耗时
+ * 2. 窗口内发放的令牌总数不超过 count，与 RRateLimiter 的 OVERALL 语义一致
+ *
+ * @author 芋道源码
+ */
+class InMemoryRateLimiterRedisDAO extends RateLimiterRedisDAO {
+
+    /**
+     * 模拟的 Redis 往返耗时，单位：纳秒
+     */
+    private final long rttNanos;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Redis 访问次数
+     */
+    private final LongAdder callCount = new LongAdder();
+
+    InMemoryRateLimiterRedisDAO(long rttNanos) {
+        super(null);
+        this.rttNanos = rttNanos;
+    }
+
+    @Override
+    public Boolean tryAcquire(String key, long permits, int count, int time, TimeUnit timeUnit) {
+        callCount.increment();
+        if (rttNanos > 0) {
+            LockSupport.parkNanos(rttNanos);
+        }
+        Window window = windows.computeIfAbsent(key, k -> new Window());
+        synchronized (window) {
+            long now = System.currentTimeMillis();
+            if (now >= window.endTime) {
+                window.endTime = now + timeUnit.toMillis(time);
+                window.used = 0;
+            }
+            if (window.used + permits > count) {
+                return false;
+            }
+            window.used += permits;
+            return true;
+        }
+    }
+
+    long getCallCount() {
+        return callCount.sum();
+    }
+
+    private static class Window {
+
+        private long endTime;
+        private long used;
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LocalRateLimiter} 与直接访问 Redis 限流的基准测试
+ *
+ * Redis 通过 {@link InMemoryRateLimiterRedisDAO} 模拟，每次访问耗时 rttMicros 微秒。
+ * 限流次数设置得足够大，对比的是「远低于限流阈值」这一常见情况下，单次限流检查的开销
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LocalRateLimiterBenchmark {
+
+    private static final int COUNT = Integer.MAX_VALUE;
+
+    @Param({"200"})
+    public long rttMicros;
+
+    @Param({"10", "100"})
+    public int leaseCount;
+
+    private RateLimiterRedisDAO rateLimiterRedisDAO;
+    private LocalRateLimiter localRateLimiter;
+
+    @Setup
+    public void setUp() {
+        rateLimiterRedisDAO = new InMemoryRateLimiterRedisDAO(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        localRateLimiter = new LocalRateLimiter(rateLimiterRedisDAO);
+    }
+
+    @Benchmark
+    public Boolean redis() {
+        return rateLimiterRedisDAO.tryAcquire("benchmark", COUNT, 1, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean local() {
+        return localRateLimiter.tryAcquire("benchmark", leaseCount, COUNT, 1, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LocalRateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
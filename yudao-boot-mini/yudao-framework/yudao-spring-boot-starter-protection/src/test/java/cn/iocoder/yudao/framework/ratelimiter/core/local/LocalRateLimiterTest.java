@@ -0,0 +1,137 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link LocalRateLimiter} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class LocalRateLimiterTest {
+
+    private InMemoryRateLimiterRedisDAO rateLimiterRedisDAO;
+    private LocalRateLimiter localRateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        rateLimiterRedisDAO = new InMemoryRateLimiterRedisDAO(0);
+        localRateLimiter = new LocalRateLimiter(rateLimiterRedisDAO);
+    }
+
+    @Test
+    public void testTryAcquire_leaseCount() {
+        // 调用：100 次，每次租借 10 个
+        for (int i = 0; i < 100; i++) {
+            assertTrue(localRateLimiter.tryAcquire("test", 10, 100, 60, TimeUnit.SECONDS));
+        }
+        // 断言：只访问 10 次 Redis
+        assertEquals(10, rateLimiterRedisDAO.getCallCount());
+        // 断言：超过限流次数后，拒绝
+        assertFalse(localRateLimiter.tryAcquire("test", 10, 100, 60, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTryAcquire_leaseCountGreaterThanCount() {
+        // 调用：租借数大于限流次数时，按限流次数租借
+        for (int i = 0; i < 10; i++) {
+            assertTrue(localRateLimiter.tryAcquire("test", 50, 10, 60, TimeUnit.SECONDS));
+        }
+        assertFalse(localRateLimiter.tryAcquire("test", 50, 10, 60, TimeUnit.SECONDS));
+        // 断言：1 次批量租借，1 次批量租借失败，1 次单个获取失败
+        assertEquals(3, rateLimiterRedisDAO.getCallCount());
+    }
+
+    @Test
+    public void testTryAcquire_remainingLessThanLeaseCount() {
+        // 调用：剩余令牌不足 leaseCount 个时，退化为逐个获取，直到用完
+        int success = 0;
+        for (int i = 0; i < 20; i++) {
+            if (localRateLimiter.tryAcquire("test", 10, 15, 60, TimeUnit.SECONDS)) {
+                success++;
+            }
+        }
+        // 断言：不多放，也不少放
+        assertEquals(15, success);
+    }
+
+    @Test
+    public void testTryAcquire_concurrent() throws InterruptedException {
+        int threadCount = 8;
+        AtomicInteger success = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (localRateLimiter.tryAcquire("test", 10, 100, 60, TimeUnit.SECONDS)) {
+                        success.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }));
+        }
+        threads.forEach(Thread::start);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        // 断言：全局放行数不超过限流次数
+        assertEquals(100, success.get());
+    }
+
+    @Test
+    public void testTryAcquire_deniedUntil() throws InterruptedException {
+        // 准备参数：用完全局令牌。限流为每 200 毫秒 2 次，即平均发放间隔 100 毫秒
+        assertTrue(localRateLimiter.tryAcquire("test", 2, 2, 200, TimeUnit.MILLISECONDS));
+        assertTrue(localRateLimiter.tryAcquire("test", 2, 2, 200, TimeUnit.MILLISECONDS));
+        assertFalse(localRateLimiter.tryAcquire("test", 2, 2, 200, TimeUnit.MILLISECONDS));
+        long callCount = rateLimiterRedisDAO.getCallCount();
+
+        // 调用：平均发放间隔内，直接拒绝
+        for (int i = 0; i < 100; i++) {
+            assertFalse(localRateLimiter.tryAcquire("test", 2, 2, 200, TimeUnit.MILLISECONDS));
+        }
+        // 断言：不访问 Redis
+        assertEquals(callCount, rateLimiterRedisDAO.getCallCount());
+
+        // 调用：窗口结束后，重新租借
+        Thread.sleep(250);
+        assertTrue(localRateLimiter.tryAcquire("test", 2, 2, 200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testTryAcquire_singleFlight() throws InterruptedException {
+        // 准备参数：Redis 往返 20 毫秒，且全局令牌已用完
+        rateLimiterRedisDAO = new InMemoryRateLimiterRedisDAO(TimeUnit.MILLISECONDS.toNanos(20));
+        localRateLimiter = new LocalRateLimiter(rateLimiterRedisDAO);
+        int threadCount = 8;
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger success = new AtomicInteger();
+        long startTime = System.currentTimeMillis();
+
+        // 调用：8 个线程同时请求
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    if (localRateLimiter.tryAcquire("test", 10, 10, 60, TimeUnit.SECONDS)) {
+                        success.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        // 断言：不多放；同一时刻只有一个线程访问 Redis，且全局令牌用完后不再访问 Redis
+        assertEquals(10, success.get());
+        assertTrue(rateLimiterRedisDAO.getCallCount() <= 10, "Redis 访问次数：" + rateLimiterRedisDAO.getCallCount());
+        assertTrue(System.currentTimeMillis() - startTime < 1000);
+    }
+
+}
@@ -0,0 +1,101 @@
+package cn.iocoder.yudao.framework.redis.core;
+
+import cn.hutool.core.collection.CollUtil;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 支持批量操作的 {@link RedisCache} 实现类
+ *
+ * Spring Cache 只支持单个 key 的操作，批量获取时需要 N 次 Redis 请求。
+ * 这里基于 MGET 实现 {@link #getAll(Collection)}，基于 Pipeline 实现 {@link #putAll(Map)}，将 N 次请求合并为 1 次
+ *
+ * @author 芋道源码
+ */
+public class BatchRedisCache extends RedisCache {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    public BatchRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                           RedisConnectionFactory connectionFactory) {
+        super(name, cacheWriter, cacheConfig);
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * 批量获得缓存
+     *
+     * @param keys 缓存 key 集合
+     * @return 命中的缓存。其中，缓存了 null 值的 key，对应的 value 为 null
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(Collection<K> keys) {
+        if (CollUtil.isEmpty(keys)) {
+            return new HashMap<>();
+        }
+        // 1. 执行 MGET
+        List<K> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        byte[][] binaryKeys = new byte[keyList.size()][];
+        for (int i = 0; i < keyList.size(); i++) {
+            binaryKeys[i] = serializeCacheKey(createCacheKey(keyList.get(i)));
+        }
+        List<byte[]> binaryValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            binaryValues = connection.stringCommands().mGet(binaryKeys);
+        }
+        if (binaryValues == null) {
+            return new HashMap<>();
+        }
+
+        // 2. 反序列化命中的缓存
+        Map<K, V> result = new HashMap<>(binaryValues.size() * 4 / 3 + 1);
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] binaryValue = binaryValues.get(i);
+            if (binaryValue == null) {
+                continue;
+            }
+            result.put(keyList.get(i), (V) fromStoreValue(deserializeCacheValue(binaryValue)));
+        }
+        return result;
+    }
+
+    /**
+     * 批量设置缓存
+     *
+     * @param values 缓存 key 与 value 的映射。value 为 null 时，遵循 {@link RedisCacheConfiguration#getAllowCacheNullValues()} 的配置
+     */
+    public void putAll(Map<?, ?> values) {
+        if (CollUtil.isEmpty(values)) {
+            return;
+        }
+        // 通过 Pipeline 批量 SET，保持与单个 put 一致的过期时间
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                values.forEach((key, value) -> {
+                    // 不允许缓存 null 值时，跳过
+                    if (value == null && !isAllowNullValues()) {
+                        return;
+                    }
+                    Duration ttl = getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+                    Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                            ? Expiration.persistent() : Expiration.from(ttl);
+                    connection.stringCommands().set(serializeCacheKey(createCacheKey(key)),
+                            serializeCacheValue(toStoreValue(value)), expiration,
+                            RedisStringCommands.SetOption.upsert());
+                });
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+}
@@ -1,14 +1,20 @@
 package cn.iocoder.yudao.framework.redis.core;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.NumberUtil;
 import cn.hutool.core.util.StrUtil;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 
 import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * 支持自定义过期时间的 {@link RedisCacheManager} 实现类
@@ -22,19 +28,23 @@ public class TimeoutRedisCacheManager extends RedisCacheManager {
 
     private static final String SPLIT = "#";
 
-    public TimeoutRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration) {
+    private final RedisConnectionFactory connectionFactory;
+
+    public TimeoutRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                    RedisConnectionFactory connectionFactory) {
         super(cacheWriter, defaultCacheConfiguration);
+        this.connectionFactory = connectionFactory;
     }
 
     @Override
     protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
         if (StrUtil.isEmpty(name)) {
-            return super.createRedisCache(name, cacheConfig);
+            return createBatchRedisCache(name, cacheConfig);
         }
         // 如果使用 # 分隔，大小不为 2，则说明不使用自定义过期时间
         String[] names = StrUtil.splitToArray(name, SPLIT);
         if (names.length != 2) {
-            return super.createRedisCache(name, cacheConfig);
+            return createBatchRedisCache(name, cacheConfig);
         }
 
         // 核心：通过修改 cacheConfig 的过期时间，实现自定义过期时间
@@ -48,7 +58,78 @@ public class TimeoutRedisCacheManager extends RedisCacheManager {
         }
 
         // 创建 RedisCache 对象，需要忽略掉 ttlStr
-        return super.createRedisCache(names[0] + names[1], cacheConfig);
+        return createBatchRedisCache(names[0] + names[1], cacheConfig);
+    }
+
+    private RedisCache createBatchRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        return new BatchRedisCache(name, getCacheWriter(),
+                cacheConfig != null ? cacheConfig : getDefaultCacheConfiguration(), connectionFactory);
+    }
+
+    // ========== 批量操作 ==========
+
+    /**
+     * 批量获得缓存，未命中的通过 loader 批量加载，并回填到缓存
+     *
+     * 相比循环调用 @Cacheable 方法，Redis 请求由 N 次降低为最多 2 次（MGET + Pipeline SET）
+     *
+     * @param cacheName 缓存名，与 {@link Cacheable#cacheNames()} 一致
+     * @param keys 缓存 key 集合
+     * @param loader 未命中的 key 的批量加载器，返回 key 与 value 的映射，不存在的 key 无需返回
+     * @return 缓存 key 与 value 的映射
+     */
+    public <K, V> Map<K, V> getAll(String cacheName, Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        if (CollUtil.isEmpty(keys)) {
+            return new HashMap<>();
+        }
+        BatchRedisCache cache = getBatchCache(cacheName);
+        // 1. 从缓存中批量获取
+        Map<K, V> result = cache.getAll(keys);
+        // 2. 未命中的，批量加载并回填
+        Set<K> missKeys = new LinkedHashSet<>(keys);
+        missKeys.removeAll(result.keySet());
+        if (CollUtil.isEmpty(missKeys)) {
+            return result;
+        }
+        Map<K, V> loadValues = loader.apply(missKeys);
+        if (CollUtil.isNotEmpty(loadValues)) {
+            cache.putAll(loadValues);
+            result.putAll(loadValues);
+        }
+        return result;
+    }
+
+    /**
+     * 批量获得缓存
+     *
+     * @param cacheName 缓存名
+     * @param keys 缓存 key 集合
+     * @return 命中的缓存
+     */
+    public <K, V> Map<K, V> getAll(String cacheName, Collection<K> keys) {
+        return getBatchCache(cacheName).getAll(keys);
+    }
+
+    /**
+     * 批量设置缓存
+     *
+     * @param cacheName 缓存名
+     * @param values 缓存 key 与 value 的映射
+     */
+    public void putAll(String cacheName, Map<?, ?> values) {
+        getBatchCache(cacheName).putAll(values);
+    }
+
+    private BatchRedisCache getBatchCache(String cacheName) {
+        // 使用 getCache 方法，保证与 @Cacheable 的缓存名（例如说，多租户的后缀）一致
+        Cache cache = getCache(cacheName);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache instanceof BatchRedisCache batchCache) {
+            return batchCache;
+        }
+        throw new IllegalStateException(StrUtil.format("缓存({}) 不支持批量操作", cacheName));
     }
 
     /**
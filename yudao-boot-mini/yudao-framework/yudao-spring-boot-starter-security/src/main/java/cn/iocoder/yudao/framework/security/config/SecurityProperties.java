@@ -39,6 +39,27 @@ public class SecurityProperties {
     @NotEmpty(message = "mock 模式的密钥不能为空") // 这里设置了一个默认值，因为实际上只有 mockEnable 为 true 时才需要配置。
     private String mockSecret = "test";
 
+    /**
+     * 是否跳过 JWT 格式的 token
+     *
+     * OAuth2 访问令牌是不透明的 UUID 字符串，而 JWT 格式的 token（例如说，学校统一认证颁发的）由业务自行校验，
+     * 所以无需查询 OAuth2 令牌存储，避免每次请求都 Redis + MySQL 未命中
+     */
+    @NotNull(message = "是否跳过 JWT 格式的 token 不能为空")
+    private Boolean jwtTokenSkipEnable = true;
+    /**
+     * 无效 token 的本地缓存时长，单位：秒。设置为 0 时，关闭缓存
+     *
+     * 校验不通过的 token（不存在、已过期），短时间内直接判定为无效，避免伪造或外部 token 反复穿透到 Redis、MySQL
+     */
+    @NotNull(message = "无效 token 的缓存时长不能为空")
+    private Integer invalidTokenCacheSeconds = 10;
+    /**
+     * 无效 token 的本地缓存最大数量
+     */
+    @NotNull(message = "无效 token 的缓存最大数量不能为空")
+    private Integer invalidTokenCacheSize = 10000;
+
     /**
      * 免登录的 URL 列表
      */
@@ -46,6 +67,27 @@ public class SecurityProperties {
 
     /**
      * PasswordEncoder 加密复杂度，越高开销越大
+     *
+     * 调高后，已有用户会在下次登录成功时，按照新的复杂度重新加密；调低时，不会降低已有密码的复杂度
      */
     private Integer passwordEncoderLength = 4;
+    /**
+     * 密码校验线程池的线程数，默认为 CPU 核数
+     *
+     * 密码校验（BCrypt）是 CPU 密集型操作，使用独立的线程池，避免登录高峰期占满 Tomcat 线程，影响其它请求
+     */
+    @NotNull(message = "密码校验线程池的线程数不能为空")
+    private Integer passwordVerifyThreads = Runtime.getRuntime().availableProcessors();
+    /**
+     * 密码校验线程池的队列容量，超过时直接返回服务繁忙
+     */
+    @NotNull(message = "密码校验线程池的队列容量不能为空")
+    private Integer passwordVerifyQueueCapacity = 200;
+    /**
+     * 密码校验的最长等待时长，单位：毫秒。超过时直接返回服务繁忙
+     *
+     * 包括在队列中的排队时长，避免线程池积压时，请求线程无限期等待
+     */
+    @NotNull(message = "密码校验的最长等待时长不能为空")
+    private Long passwordVerifyTimeoutMillis = 5000L;
 }
@@ -12,15 +12,17 @@ import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.framework.web.core.handler.GlobalExceptionHandler;
 import cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Token 过滤器，验证 token 的有效性
@@ -28,15 +30,40 @@ import java.io.IOException;
  *
  * @author 芋道源码
  */
-@RequiredArgsConstructor
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * JWT 的 Header 部分，Base64URL 编码后的前缀，即 {"
+     */
+    private static final String JWT_PREFIX = "eyJ";
+
     private final SecurityProperties securityProperties;
 
     private final GlobalExceptionHandler globalExceptionHandler;
 
     private final OAuth2TokenCommonApi oauth2TokenApi;
 
+    /**
+     * 无效 token 的本地缓存
+     *
+     * 为 null 时，说明关闭缓存
+     */
+    private final Cache<String, Boolean> invalidTokenCache;
+
+    public TokenAuthenticationFilter(SecurityProperties securityProperties,
+                                     GlobalExceptionHandler globalExceptionHandler,
+                                     OAuth2TokenCommonApi oauth2TokenApi) {
+        this.securityProperties = securityProperties;
+        this.globalExceptionHandler = globalExceptionHandler;
+        this.oauth2TokenApi = oauth2TokenApi;
+        this.invalidTokenCache = securityProperties.getInvalidTokenCacheSeconds() > 0
+                ? CacheBuilder.newBuilder()
+                    .maximumSize(securityProperties.getInvalidTokenCacheSize())
+                    .expireAfterWrite(securityProperties.getInvalidTokenCacheSeconds(), TimeUnit.SECONDS)
+                    .build()
+                : null;
+    }
+
     @Override
     @SuppressWarnings("NullableProblems")
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -69,6 +96,14 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private LoginUser buildLoginUserByToken(String token, Integer userType) {
+        // JWT 格式的 token，不是 OAuth2 访问令牌，无需查询
+        if (securityProperties.getJwtTokenSkipEnable() && isJwtToken(token)) {
+            return null;
+        }
+        // 近期校验不通过的 token，直接判定为无效
+        if (invalidTokenCache != null && invalidTokenCache.getIfPresent(token) != null) {
+            return null;
+        }
         try {
             OAuth2AccessTokenCheckRespDTO accessToken = oauth2TokenApi.checkAccessToken(token);
             if (accessToken == null) {
@@ -90,10 +125,31 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
                     .setExpiresTime(accessToken.getExpiresTime());
         } catch (ServiceException serviceException) {
             // 校验 Token 不通过时，考虑到一些接口是无需登录的，所以直接返回 null 即可
+            if (invalidTokenCache != null) {
+                invalidTokenCache.put(token, Boolean.TRUE);
+            }
             return null;
         }
     }
 
+    /**
+     * 判断 token 是否为 JWT 格式：以 eyJ 开头，且由两个 . 分隔为三段
+     *
+     * @param token token
+     * @return 是否为 JWT
+     */
+    private static boolean isJwtToken(String token) {
+        if (!token.startsWith(JWT_PREFIX)) {
+            return false;
+        }
+        int first = token.indexOf('.');
+        if (first < 0) {
+            return false;
+        }
+        int second = token.indexOf('.', first + 1);
+        return second > 0 && token.indexOf('.', second + 1) < 0;
+    }
+
     /**
      * 模拟登录用户，方便日常开发调试
      *
@@ -13,6 +13,9 @@ import cn.iocoder.yudao.framework.websocket.core.sender.rabbitmq.RabbitMQWebSock
 import cn.iocoder.yudao.framework.websocket.core.sender.rabbitmq.RabbitMQWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.redis.RedisWebSocketMessageConsumer;
 import cn.iocoder.yudao.framework.websocket.core.sender.redis.RedisWebSocketMessageSender;
+import cn.iocoder.yudao.framework.websocket.core.sender.redis.RedisWebSocketNodeMessageConsumer;
+import cn.iocoder.yudao.framework.websocket.core.sender.redis.RedisWebSocketPresenceRegistry;
+import cn.iocoder.yudao.framework.websocket.core.sender.redis.RedisWebSocketSessionManager;
 import cn.iocoder.yudao.framework.websocket.core.sender.rocketmq.RocketMQWebSocketMessageConsumer;
 import cn.iocoder.yudao.framework.websocket.core.sender.rocketmq.RocketMQWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionHandlerDecorator;
@@ -23,10 +26,12 @@ import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -73,6 +78,7 @@ public class YudaoWebSocketAutoConfiguration {
     }
 
     @Bean
+    @ConditionalOnMissingBean(WebSocketSessionManager.class) // sender-type 为 redis 时，使用 RedisWebSocketSessionManager
     public WebSocketSessionManager webSocketSessionManager() {
         return new WebSocketSessionManagerImpl();
     }
@@ -99,10 +105,21 @@ public class YudaoWebSocketAutoConfiguration {
     @ConditionalOnProperty(prefix = "yudao.websocket", name = "sender-type", havingValue = "redis")
     public class RedisWebSocketMessageSenderConfiguration {
 
+        @Bean(initMethod = "start", destroyMethod = "shutdown")
+        public RedisWebSocketPresenceRegistry redisWebSocketPresenceRegistry(StringRedisTemplate stringRedisTemplate) {
+            return new RedisWebSocketPresenceRegistry(stringRedisTemplate);
+        }
+
+        @Bean
+        public RedisWebSocketSessionManager redisWebSocketSessionManager(RedisWebSocketPresenceRegistry presenceRegistry) {
+            return new RedisWebSocketSessionManager(presenceRegistry);
+        }
+
         @Bean
         public RedisWebSocketMessageSender redisWebSocketMessageSender(WebSocketSessionManager sessionManager,
-                                                                       RedisMQTemplate redisMQTemplate) {
-            return new RedisWebSocketMessageSender(sessionManager, redisMQTemplate);
+                                                                       RedisMQTemplate redisMQTemplate,
+                                                                       RedisWebSocketPresenceRegistry presenceRegistry) {
+            return new RedisWebSocketMessageSender(sessionManager, redisMQTemplate, presenceRegistry);
         }
 
         @Bean
@@ -111,6 +128,13 @@ public class YudaoWebSocketAutoConfiguration {
             return new RedisWebSocketMessageConsumer(redisWebSocketMessageSender);
         }
 
+        @Bean
+        public RedisWebSocketNodeMessageConsumer redisWebSocketNodeMessageConsumer(
+                RedisWebSocketMessageSender redisWebSocketMessageSender,
+                RedisWebSocketPresenceRegistry presenceRegistry) {
+            return new RedisWebSocketNodeMessageConsumer(redisWebSocketMessageSender, presenceRegistry);
+        }
+
     }
 
     @Configuration
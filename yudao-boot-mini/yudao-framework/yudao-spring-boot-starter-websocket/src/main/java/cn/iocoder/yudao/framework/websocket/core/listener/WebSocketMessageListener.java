@@ -28,4 +28,12 @@ public interface WebSocketMessageListener<T> {
      */
     String getType();
 
+    /**
+     * 连接关闭时的回调，用于清理 {@link #onMessage(WebSocketSession, Object)} 时登记的状态，例如说订阅
+     *
+     * @param session Session
+     */
+    default void onClose(WebSocketSession session) {
+    }
+
 }
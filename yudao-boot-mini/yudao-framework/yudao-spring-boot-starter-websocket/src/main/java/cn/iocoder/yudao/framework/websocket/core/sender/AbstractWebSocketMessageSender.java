@@ -13,7 +13,6 @@ import org.springframework.web.socket.WebSocketSession;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 /**
  * WebSocketMessageSender 实现类
@@ -52,16 +51,17 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
      */
     public void send(String sessionId, Integer userType, Long userId, String messageType, String messageContent) {
         // 1. 获得 Session 列表
-        List<WebSocketSession> sessions = Collections.emptyList();
+        Collection<WebSocketSession> sessions = Collections.emptyList();
         if (StrUtil.isNotEmpty(sessionId)) {
             WebSocketSession session = sessionManager.getSession(sessionId);
             if (session != null) {
                 sessions = Collections.singletonList(session);
             }
         } else if (userType != null && userId != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType, userId);
+            sessions = sessionManager.getSessionList(userType, userId);
         } else if (userType != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType);
+            // 直接使用按照「用户类型 + 租户」维护的索引，无需遍历过滤
+            sessions = sessionManager.getSessionList(userType);
         }
         if (CollUtil.isEmpty(sessions)) {
             if (log.isDebugEnabled()) {
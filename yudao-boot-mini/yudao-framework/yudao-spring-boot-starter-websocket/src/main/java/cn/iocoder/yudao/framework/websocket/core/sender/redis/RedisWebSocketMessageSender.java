@@ -1,14 +1,21 @@
 package cn.iocoder.yudao.framework.websocket.core.sender.redis;
 
+import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.websocket.core.sender.AbstractWebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
 import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * 基于 Redis 的 {@link WebSocketMessageSender} 实现类
  *
+ * 1. 单发给用户、Session 时：通过 {@link RedisWebSocketPresenceRegistry} 查询所在的节点，只发送到这些节点的 Channel；不在线时，不发送
+ * 2. 按照用户类型群发时：发送到所有节点共享的 Channel
+ *
  * @author 芋道源码
  */
 @Slf4j
@@ -16,10 +23,14 @@ public class RedisWebSocketMessageSender extends AbstractWebSocketMessageSender
 
     private final RedisMQTemplate redisMQTemplate;
 
+    private final RedisWebSocketPresenceRegistry presenceRegistry;
+
     public RedisWebSocketMessageSender(WebSocketSessionManager sessionManager,
-                                       RedisMQTemplate redisMQTemplate) {
+                                       RedisMQTemplate redisMQTemplate,
+                                       RedisWebSocketPresenceRegistry presenceRegistry) {
         super(sessionManager);
         this.redisMQTemplate = redisMQTemplate;
+        this.presenceRegistry = presenceRegistry;
     }
 
     @Override
@@ -38,7 +49,7 @@ public class RedisWebSocketMessageSender extends AbstractWebSocketMessageSender
     }
 
     /**
-     * 通过 Redis 广播消息
+     * 通过 Redis 发送消息
      *
      * @param sessionId Session 编号
      * @param userId 用户编号
@@ -51,7 +62,52 @@ public class RedisWebSocketMessageSender extends AbstractWebSocketMessageSender
         RedisWebSocketMessage mqMessage = new RedisWebSocketMessage()
                 .setSessionId(sessionId).setUserId(userId).setUserType(userType)
                 .setMessageType(messageType).setMessageContent(messageContent);
-        redisMQTemplate.send(mqMessage);
+        // 情况一：群发，发送到共享的 Channel
+        Set<String> nodeIds = getNodeIds(sessionId, userType, userId);
+        if (nodeIds == null) {
+            redisMQTemplate.send(mqMessage);
+            return;
+        }
+        // 情况二：单发，只发送到 Session 所在的节点
+        if (nodeIds.isEmpty()) {
+            log.debug("[sendRedisMessage][sessionId({}) userType({}) userId({}) 不在线，无需发送]",
+                    sessionId, userType, userId);
+            return;
+        }
+        nodeIds.forEach(nodeId -> redisMQTemplate.send(getNodeChannel(nodeId), mqMessage));
+    }
+
+    /**
+     * 获得消息需要发送到的节点
+     *
+     * @return 节点编号集合。返回 null 时，表示需要发送到共享的 Channel
+     */
+    private Set<String> getNodeIds(String sessionId, Integer userType, Long userId) {
+        try {
+            if (StrUtil.isNotEmpty(sessionId)) {
+                String nodeId = presenceRegistry.getSessionNodeId(sessionId);
+                return nodeId != null ? Collections.singleton(nodeId) : Collections.emptySet();
+            }
+            if (userType != null && userId != null) {
+                return presenceRegistry.getUserNodeIds(userType, userId);
+            }
+            return null;
+        } catch (Exception ex) {
+            // 查询失败时，降级为广播，保证消息不丢失
+            log.error("[getNodeIds][sessionId({}) userType({}) userId({}) 查询所在节点失败，降级为广播]",
+                    sessionId, userType, userId, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 获得指定节点的 Channel
+     *
+     * @param nodeId 节点编号
+     * @return Channel
+     */
+    public static String getNodeChannel(String nodeId) {
+        return RedisWebSocketMessage.class.getSimpleName() + ":" + nodeId;
     }
 
 }
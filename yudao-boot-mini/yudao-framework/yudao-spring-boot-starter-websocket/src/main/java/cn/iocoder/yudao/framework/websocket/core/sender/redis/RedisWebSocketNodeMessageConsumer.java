@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.framework.websocket.core.sender.redis;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+
+/**
+ * {@link RedisWebSocketMessage} 节点消息的消费者，只订阅当前节点的 Channel，真正把消息发送出去
+ *
+ * 与 {@link RedisWebSocketMessageConsumer} 的区别是：后者订阅所有节点共享的 Channel，用于广播
+ *
+ * @author 芋道源码
+ */
+public class RedisWebSocketNodeMessageConsumer extends AbstractRedisChannelMessageListener<RedisWebSocketMessage> {
+
+    private final RedisWebSocketMessageSender redisWebSocketMessageSender;
+
+    public RedisWebSocketNodeMessageConsumer(RedisWebSocketMessageSender redisWebSocketMessageSender,
+                                             RedisWebSocketPresenceRegistry presenceRegistry) {
+        super(RedisWebSocketMessageSender.getNodeChannel(presenceRegistry.getNodeId()));
+        this.redisWebSocketMessageSender = redisWebSocketMessageSender;
+    }
+
+    @Override
+    public void onMessage(RedisWebSocketMessage message) {
+        redisWebSocketMessageSender.send(message.getSessionId(),
+                message.getUserType(), message.getUserId(),
+                message.getMessageType(), message.getMessageContent());
+    }
+
+}
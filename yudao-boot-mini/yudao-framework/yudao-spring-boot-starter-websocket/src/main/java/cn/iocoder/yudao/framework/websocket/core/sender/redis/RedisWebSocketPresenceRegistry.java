@@ -0,0 +1,231 @@
+package cn.iocoder.yudao.framework.websocket.core.sender.redis;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.system.SystemUtil;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Redis 的 WebSocket 在线注册表，记录每个 Session 所在的节点
+ *
+ * 1. 用户：KEY 格式 websocket_user_node:{userType}:{userId}，Hash 结构，field 为 Session 编号，value 为节点编号
+ * 2. Session：KEY 格式 websocket_session_node:{sessionId}，String 结构，value 为节点编号
+ * 3. 节点：KEY 格式 websocket_node:{nodeId}，String 结构，value 为最近一次心跳的时间，表示该节点存活
+ *
+ * 每个节点定时续期本节点的 Session 与节点 KEY，节点宕机后，对应的 KEY 会自动过期。
+ * 注意：用户的 Hash 只要有任一存活节点的 Session，就会被续期，所以其中可能残留已宕机节点的 field。
+ * 因此，读取用户所在的节点时，过滤掉节点 KEY 已过期的节点，并删除其残留的 field
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisWebSocketPresenceRegistry {
+
+    private static final String USER_NODE_KEY = "websocket_user_node:%d:%d";
+    private static final String SESSION_NODE_KEY = "websocket_session_node:%s";
+    private static final String NODE_KEY = "websocket_node:%s";
+
+    /**
+     * 心跳（续期）的间隔，单位：秒
+     */
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 30;
+    /**
+     * KEY 的过期时间，单位：秒。为心跳间隔的 3 倍，允许偶尔的心跳失败
+     */
+    private static final long EXPIRE_SECONDS = HEARTBEAT_INTERVAL_SECONDS * 3;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 当前节点的编号
+     */
+    @Getter
+    private final String nodeId;
+
+    /**
+     * 当前节点的 Session 与用户 KEY 的映射，用于心跳续期
+     *
+     * key：Session 编号
+     * value：用户 KEY，未登录时为空字符串
+     */
+    private final ConcurrentMap<String, String> localSessions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("websocket-presence-heartbeat-", true));
+
+    public RedisWebSocketPresenceRegistry(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        // 主机名 + 进程号 + 随机串，避免同一主机多个进程、进程重启后复用旧编号
+        this.nodeId = SystemUtil.getHostInfo().getName() + "@" + SystemUtil.getCurrentPID()
+                + "@" + IdUtil.fastSimpleUUID().substring(0, 8);
+    }
+
+    public void start() {
+        // 先标记节点存活，再接收 Session，避免刚注册的 Session 被当作已宕机节点的残留
+        executePipelined(this::touchNode);
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat,
+                HEARTBEAT_INTERVAL_SECONDS, HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        log.info("[start][WebSocket 在线注册表启动，当前节点({})]", nodeId);
+    }
+
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        // 主动清理本节点的 Session，无需等待过期
+        Set<String> sessionIds = new HashSet<>(localSessions.keySet());
+        try {
+            executePipelined(connection -> {
+                sessionIds.forEach(sessionId -> unregister(connection, sessionId));
+                connection.del(formatNodeKey(nodeId));
+            });
+        } catch (Exception ex) {
+            log.warn("[shutdown][节点({}) 清理 Session({}) 个失败]", nodeId, sessionIds.size(), ex);
+        }
+    }
+
+    /**
+     * 注册 Session 到当前节点
+     *
+     * @param session Session
+     */
+    public void register(WebSocketSession session) {
+        String userKey = getUserKey(session);
+        localSessions.put(session.getId(), userKey);
+        executePipelined(connection -> register(connection, session.getId(), userKey));
+    }
+
+    /**
+     * 从当前节点移除 Session
+     *
+     * @param session Session
+     */
+    public void unregister(WebSocketSession session) {
+        if (!localSessions.containsKey(session.getId())) {
+            return;
+        }
+        executePipelined(connection -> unregister(connection, session.getId()));
+    }
+
+    /**
+     * 获得指定用户的 Session 所在的节点编号
+     *
+     * @param userType 用户类型
+     * @param userId 用户编号
+     * @return 节点编号集合。为空时，说明该用户不在线
+     */
+    public Set<String> getUserNodeIds(Integer userType, Long userId) {
+        // 1. 获得用户的 Session 与节点
+        String userKey = formatUserKey(userType, userId);
+        Map<Object, Object> sessionNodeIds = stringRedisTemplate.opsForHash().entries(userKey);
+        if (CollUtil.isEmpty(sessionNodeIds)) {
+            return Collections.emptySet();
+        }
+
+        // 2. 过滤掉已宕机的节点
+        List<String> nodeIds = new ArrayList<>(CollectionUtils.convertSet(sessionNodeIds.values(), String.class::cast));
+        List<String> aliveValues = stringRedisTemplate.opsForValue().multiGet(
+                CollectionUtils.convertList(nodeIds, RedisWebSocketPresenceRegistry::formatNodeKey));
+        if (aliveValues == null) {
+            return new HashSet<>(nodeIds);
+        }
+        Set<String> result = new HashSet<>(nodeIds.size());
+        for (int i = 0; i < nodeIds.size(); i++) {
+            if (aliveValues.get(i) != null) {
+                result.add(nodeIds.get(i));
+            }
+        }
+
+        // 3. 删除已宕机节点残留的 field
+        Object[] deadSessionIds = sessionNodeIds.entrySet().stream()
+                .filter(entry -> !result.contains(entry.getValue()))
+                .map(Map.Entry::getKey).toArray();
+        if (deadSessionIds.length > 0) {
+            stringRedisTemplate.opsForHash().delete(userKey, deadSessionIds);
+        }
+        return result;
+    }
+
+    /**
+     * 获得指定 Session 所在的节点编号
+     *
+     * @param sessionId Session 编号
+     * @return 节点编号。为空时，说明该 Session 不存在
+     */
+    public String getSessionNodeId(String sessionId) {
+        return stringRedisTemplate.opsForValue().get(formatSessionKey(sessionId));
+    }
+
+    private void heartbeat() {
+        try {
+            // 重新写入而不只是续期，从而修复被误删、已过期的 KEY。没有 Session 时，也需要续期节点 KEY
+            Map<String, String> sessions = new HashMap<>(localSessions);
+            executePipelined(connection -> {
+                touchNode(connection);
+                sessions.forEach((sessionId, userKey) -> register(connection, sessionId, userKey));
+            });
+        } catch (Exception ex) {
+            log.error("[heartbeat][节点({}) 续期 Session({}) 个失败]", nodeId, localSessions.size(), ex);
+        }
+    }
+
+    private void touchNode(StringRedisConnection connection) {
+        connection.setEx(formatNodeKey(nodeId), EXPIRE_SECONDS, String.valueOf(System.currentTimeMillis()));
+    }
+
+    private void register(StringRedisConnection connection, String sessionId, String userKey) {
+        connection.setEx(formatSessionKey(sessionId), EXPIRE_SECONDS, nodeId);
+        if (!userKey.isEmpty()) {
+            connection.hSet(userKey, sessionId, nodeId);
+            connection.expire(userKey, EXPIRE_SECONDS);
+        }
+    }
+
+    private void unregister(StringRedisConnection connection, String sessionId) {
+        String userKey = localSessions.remove(sessionId);
+        connection.del(formatSessionKey(sessionId));
+        if (userKey != null && !userKey.isEmpty()) {
+            connection.hDel(userKey, sessionId);
+        }
+    }
+
+    private void executePipelined(Consumer<StringRedisConnection> consumer) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            consumer.accept((StringRedisConnection) connection);
+            return null;
+        });
+    }
+
+    private static String getUserKey(WebSocketSession session) {
+        LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
+        return user != null ? formatUserKey(user.getUserType(), user.getId()) : "";
+    }
+
+    private static String formatUserKey(Integer userType, Long userId) {
+        return String.format(USER_NODE_KEY, userType, userId);
+    }
+
+    private static String formatSessionKey(String sessionId) {
+        return String.format(SESSION_NODE_KEY, sessionId);
+    }
+
+    private static String formatNodeKey(String nodeId) {
+        return String.format(NODE_KEY, nodeId);
+    }
+
+}
@@ -0,0 +1,44 @@
+package cn.iocoder.yudao.framework.websocket.core.sender.redis;
+
+import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManagerImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 基于 Redis 的 {@link cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager} 实现类
+ *
+ * 在本地管理 Session 的基础上，同步到 {@link RedisWebSocketPresenceRegistry}，用于单发消息时，只发送到 Session 所在的节点
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisWebSocketSessionManager extends WebSocketSessionManagerImpl {
+
+    private final RedisWebSocketPresenceRegistry presenceRegistry;
+
+    public RedisWebSocketSessionManager(RedisWebSocketPresenceRegistry presenceRegistry) {
+        this.presenceRegistry = presenceRegistry;
+    }
+
+    @Override
+    public void addSession(WebSocketSession session) {
+        super.addSession(session);
+        // 注册失败时，不影响连接建立，由心跳续期时重新注册
+        try {
+            presenceRegistry.register(session);
+        } catch (Exception ex) {
+            log.error("[addSession][session({}) 注册到 Redis 失败]", session.getId(), ex);
+        }
+    }
+
+    @Override
+    public void removeSession(WebSocketSession session) {
+        super.removeSession(session);
+        try {
+            presenceRegistry.unregister(session);
+        } catch (Exception ex) {
+            log.error("[removeSession][session({}) 从 Redis 移除失败]", session.getId(), ex);
+        }
+    }
+
+}
@@ -11,6 +11,7 @@ import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
  *
  * 1. {@link WebSocketSession} 连接或关闭时，使用 {@link #sessionManager} 进行管理
  * 2. 封装 {@link WebSocketSession} 支持并发操作
+ * 3. {@link WebSocketSession} 关闭时，通知被装饰的 {@link WebSocketHandler}
  *
  * @author 芋道源码
  */
@@ -42,8 +43,9 @@ public class WebSocketSessionHandlerDecorator extends WebSocketHandlerDecorator
     }
 
     @Override
-    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) {
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
         sessionManager.removeSession(session);
+        super.afterConnectionClosed(session, closeStatus);
     }
 
 }
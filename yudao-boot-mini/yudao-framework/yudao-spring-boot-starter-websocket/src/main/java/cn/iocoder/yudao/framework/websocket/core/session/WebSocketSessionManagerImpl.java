@@ -1,26 +1,36 @@
 package cn.iocoder.yudao.framework.websocket.core.session;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjectUtil;
 import cn.iocoder.yudao.framework.security.core.LoginUser;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 默认的 {@link WebSocketSessionManager} 实现类
  *
+ * 除了 userSessions 之外，额外维护 tenantSessions 索引，使按照用户类型广播时，
+ * 直接获得当前租户下的 Session 集合，无需遍历所有用户、逐个过滤租户
+ *
+ * 注意：
+ * 1. 索引的新增、移除，都通过 {@link ConcurrentMap#compute(Object, java.util.function.BiFunction)} 原子执行，
+ *    避免并发时，移除空集合与新增 Session 交错，导致 Session 丢失
+ * 2. 索引中的 Session 按照编号存储，移除时 O(1)，避免大量断开时，在 compute 的锁内遍历整个集合
+ *
  * @author 芋道源码
  */
 public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
 
+    /**
+     * 无租户时，在 tenantSessions 中使用的租户编号
+     */
+    private static final Long TENANT_ID_NULL = 0L;
+
     /**
      * id 与 WebSocketSession 映射
      *
@@ -34,53 +44,42 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
      * key1：用户类型
      * key2：用户编号
      */
-    private final ConcurrentMap<Integer, ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>>> userSessions
+    private final ConcurrentMap<Integer, ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>>> userSessions
+            = new ConcurrentHashMap<>();
+
+    /**
+     * tenant 与 WebSocketSession 映射
+     *
+     * key1：用户类型
+     * key2：租户编号
+     */
+    private final ConcurrentMap<Integer, ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>>> tenantSessions
             = new ConcurrentHashMap<>();
 
     @Override
     public void addSession(WebSocketSession session) {
         // 添加到 idSessions 中
         idSessions.put(session.getId(), session);
-        // 添加到 userSessions 中
+        // 添加到 userSessions、tenantSessions 中
         LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
         if (user == null) {
             return;
         }
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(user.getUserType());
-        if (userSessionsMap == null) {
-            userSessionsMap = new ConcurrentHashMap<>();
-            if (userSessions.putIfAbsent(user.getUserType(), userSessionsMap) != null) {
-                userSessionsMap = userSessions.get(user.getUserType());
-            }
-        }
-        CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
-        if (sessions == null) {
-            sessions = new CopyOnWriteArrayList<>();
-            if (userSessionsMap.putIfAbsent(user.getId(), sessions) != null) {
-                sessions = userSessionsMap.get(user.getId());
-            }
-        }
-        sessions.add(session);
+        addToIndex(userSessions, user.getUserType(), user.getId(), session);
+        addToIndex(tenantSessions, user.getUserType(), getTenantKey(user.getTenantId()), session);
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         // 移除从 idSessions 中
         idSessions.remove(session.getId());
-        // 移除从 idSessions 中
+        // 移除从 userSessions、tenantSessions 中
         LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
         if (user == null) {
             return;
         }
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(user.getUserType());
-        if (userSessionsMap == null) {
-            return;
-        }
-        CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
-        sessions.removeIf(session0 -> session0.getId().equals(session.getId()));
-        if (CollUtil.isEmpty(sessions)) {
-            userSessionsMap.remove(user.getId(), sessions);
-        }
+        removeFromIndex(userSessions, user.getUserType(), user.getId(), session);
+        removeFromIndex(tenantSessions, user.getUserType(), getTenantKey(user.getTenantId()), session);
     }
 
     @Override
@@ -90,36 +89,60 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
 
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType) {
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
-        if (CollUtil.isEmpty(userSessionsMap)) {
-            return new ArrayList<>();
+        ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> tenantSessionsMap = tenantSessions.get(userType);
+        if (CollUtil.isEmpty(tenantSessionsMap)) {
+            return Collections.emptyList();
         }
-        LinkedList<WebSocketSession> result = new LinkedList<>(); // 避免扩容
+        // 情况一：有租户上下文，直接返回该租户的 Session 集合
         Long contextTenantId = TenantContextHolder.getTenantId();
-        for (List<WebSocketSession> sessions : userSessionsMap.values()) {
-            if (CollUtil.isEmpty(sessions)) {
-                continue;
-            }
-            // 特殊：如果租户不匹配，则直接排除
-            if (contextTenantId != null) {
-                Long userTenantId = WebSocketFrameworkUtils.getTenantId(sessions.get(0));
-                if (!contextTenantId.equals(userTenantId)) {
-                    continue;
-                }
-            }
-            result.addAll(sessions);
+        if (contextTenantId != null) {
+            Map<String, WebSocketSession> sessions = tenantSessionsMap.get(contextTenantId);
+            return sessions != null ? Collections.unmodifiableCollection(sessions.values()) : Collections.emptyList();
         }
+        // 情况二：无租户上下文（例如说忽略租户），合并所有租户的 Session
+        List<WebSocketSession> result = new ArrayList<>();
+        tenantSessionsMap.values().forEach(sessions -> result.addAll(sessions.values()));
         return result;
     }
 
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType, Long userId) {
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
+        ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> userSessionsMap = userSessions.get(userType);
         if (CollUtil.isEmpty(userSessionsMap)) {
-            return new ArrayList<>();
+            return Collections.emptyList();
         }
-        CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(userId);
-        return CollUtil.isNotEmpty(sessions) ? new ArrayList<>(sessions) : new ArrayList<>();
+        Map<String, WebSocketSession> sessions = userSessionsMap.get(userId);
+        return sessions != null ? Collections.unmodifiableCollection(sessions.values()) : Collections.emptyList();
+    }
+
+    private static void addToIndex(ConcurrentMap<Integer, ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>>> index,
+                                   Integer userType, Long key, WebSocketSession session) {
+        index.computeIfAbsent(userType, k -> new ConcurrentHashMap<>())
+                .compute(key, (k, sessions) -> {
+                    if (sessions == null) {
+                        sessions = new ConcurrentHashMap<>();
+                    }
+                    sessions.put(session.getId(), session);
+                    return sessions;
+                });
+    }
+
+    private static void removeFromIndex(ConcurrentMap<Integer, ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>>> index,
+                                        Integer userType, Long key, WebSocketSession session) {
+        ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> sessionsMap = index.get(userType);
+        if (sessionsMap == null) {
+            return;
+        }
+        // 集合为空时，返回 null 移除 key，避免内存泄露
+        // 注意：按照编号移除，因为关闭时传入的是原始 Session，而添加的是 ConcurrentWebSocketSessionDecorator
+        sessionsMap.computeIfPresent(key, (k, sessions) -> {
+            sessions.remove(session.getId());
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private static Long getTenantKey(Long tenantId) {
+        return ObjectUtil.defaultIfNull(tenantId, TENANT_ID_NULL);
     }
 
 }
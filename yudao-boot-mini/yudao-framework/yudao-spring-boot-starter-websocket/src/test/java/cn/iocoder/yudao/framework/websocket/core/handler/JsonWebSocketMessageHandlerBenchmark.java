@@ -0,0 +1,136 @@
+package cn.iocoder.yudao.framework.websocket.core.handler;
+
+import cn.hutool.core.util.TypeUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.framework.websocket.core.listener.WebSocketMessageListener;
+import cn.iocoder.yudao.framework.websocket.core.message.JsonWebSocketMessage;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonWebSocketMessageHandler} 解析消息帧的基准测试，结果即每秒处理的消息帧数（fps）
+ *
+ * 1. legacy：原有实现，先解析 {@link JsonWebSocketMessage}，再解析 content 字符串，且每条消息都反射获取监听器的泛型
+ * 2. streaming：现有实现，content 为 JSON 字符串（前端 JSON.stringify 的默认格式），仍需解析 content 字符串，与 legacy 基本持平
+ * 3. streamingObject：现有实现，content 为 JSON 对象，直接绑定，无需二次解析，收益主要来自这种格式
+ *
+ * 消息帧使用字面量构造，而不是 Map 序列化，保证 type 在 content 之前
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonWebSocketMessageHandlerBenchmark {
+
+    private static final String TYPE = "demo-message-send";
+
+    private DemoMessageListener listener;
+    private JsonWebSocketMessageHandler handler;
+    private WebSocketSession session;
+
+    private TextMessage stringContentMessage;
+    private TextMessage objectContentMessage;
+
+    @Setup
+    public void setUp() {
+        listener = new DemoMessageListener();
+        handler = new JsonWebSocketMessageHandler(Collections.singletonList(listener));
+        session = buildSession();
+        stringContentMessage = new TextMessage("{\"type\":\"" + TYPE + "\",\"content\":"
+                + "\"{\\\"toUserId\\\":1024,\\\"text\\\":\\\"同学们好，明天上午第二节课调至 A-302 教室\\\"}\"}");
+        objectContentMessage = new TextMessage("{\"type\":\"" + TYPE + "\",\"content\":"
+                + "{\"toUserId\":1024,\"text\":\"同学们好，明天上午第二节课调至 A-302 教室\"}}");
+    }
+
+    @Benchmark
+    public Object legacy() throws Exception {
+        JsonWebSocketMessage jsonMessage = JsonUtils.parseObject(stringContentMessage.getPayload(), JsonWebSocketMessage.class);
+        WebSocketMessageListener<Object> messageListener = getListener(jsonMessage.getType());
+        Type type = TypeUtil.getTypeArgument(messageListener.getClass(), 0);
+        Object messageObj = JsonUtils.parseObject(jsonMessage.getContent(), type);
+        Long tenantId = WebSocketFrameworkUtils.getTenantId(session);
+        TenantUtils.execute(tenantId, () -> messageListener.onMessage(session, messageObj));
+        return listener.lastMessage;
+    }
+
+    @Benchmark
+    public Object streaming() throws Exception {
+        handler.handleTextMessage(session, stringContentMessage);
+        return listener.lastMessage;
+    }
+
+    @Benchmark
+    public Object streamingObject() throws Exception {
+        handler.handleTextMessage(session, objectContentMessage);
+        return listener.lastMessage;
+    }
+
+    @SuppressWarnings("unchecked")
+    private WebSocketMessageListener<Object> getListener(String type) {
+        return TYPE.equals(type) ? (WebSocketMessageListener<Object>) (WebSocketMessageListener<?>) listener : null;
+    }
+
+    private static WebSocketSession buildSession() {
+        Map<String, Object> attributes = new HashMap<>();
+        WebSocketFrameworkUtils.setLoginUser(new LoginUser().setId(1L).setUserType(2).setTenantId(1L), attributes);
+        return (WebSocketSession) Proxy.newProxyInstance(JsonWebSocketMessageHandlerBenchmark.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> "benchmark";
+                    case "getAttributes" -> attributes;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    @Data
+    public static class DemoMessage {
+
+        private Long toUserId;
+        private String text;
+
+    }
+
+    public static class DemoMessageListener implements WebSocketMessageListener<DemoMessage> {
+
+        private volatile Object lastMessage;
+
+        @Override
+        public void onMessage(WebSocketSession session, DemoMessage message) {
+            lastMessage = message;
+        }
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonWebSocketMessageHandlerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
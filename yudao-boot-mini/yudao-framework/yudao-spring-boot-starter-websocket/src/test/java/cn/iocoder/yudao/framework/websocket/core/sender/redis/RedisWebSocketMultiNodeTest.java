@@ -0,0 +1,307 @@
+package cn.iocoder.yudao.framework.websocket.core.sender.redis;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基于 Redis 的 WebSocket 多节点测试
+ *
+ * 在同一进程内模拟多个节点：{@link InMemoryRedisMQTemplate} 模拟 Redis Pub/Sub，{@link InMemoryPresenceRegistry} 模拟在线注册表，
+ * 验证单发只发送到 Session 所在的节点、群发发送到所有节点
+ *
+ * @author 芋道源码
+ */
+public class RedisWebSocketMultiNodeTest {
+
+    private static final Integer USER_TYPE = 2;
+    private static final String SHARED_CHANNEL = new RedisWebSocketMessage().getChannel();
+
+    private InMemoryRedisMQTemplate redisMQTemplate;
+    /**
+     * 模拟 Redis 中的在线注册表，所有节点共享
+     */
+    private Map<String, String> sessionNodes;
+    private Map<String, Map<String, String>> userNodes;
+
+    private Node nodeA;
+    private Node nodeB;
+    private Node nodeC;
+
+    @BeforeEach
+    public void setUp() {
+        redisMQTemplate = new InMemoryRedisMQTemplate();
+        sessionNodes = new ConcurrentHashMap<>();
+        userNodes = new ConcurrentHashMap<>();
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+        nodeC = new Node("node-c");
+    }
+
+    @Test
+    public void testSendToUser_onlyOwningNode() {
+        // 准备参数：用户 1 连接在节点 A 上
+        WebSocketSession session = nodeA.connect("s1", 1L);
+
+        // 调用：从节点 B 发送
+        nodeB.sender.send(USER_TYPE, 1L, "notice", "hello");
+
+        // 断言：只发布到节点 A 的 Channel，且送达
+        assertEquals(Collections.singletonList(RedisWebSocketMessageSender.getNodeChannel("node-a")),
+                redisMQTemplate.publishedChannels);
+        assertEquals(1, nodeA.nodeConsumer.consumedCount);
+        assertEquals(0, nodeB.nodeConsumer.consumedCount + nodeC.nodeConsumer.consumedCount);
+        assertEquals(Collections.singletonList("hello"), getReceivedContents(session));
+    }
+
+    @Test
+    public void testSendToUser_multiNode() {
+        // 准备参数：用户 1 同时连接在节点 A、C 上
+        WebSocketSession sessionA = nodeA.connect("s1", 1L);
+        WebSocketSession sessionC = nodeC.connect("s2", 1L);
+
+        // 调用
+        nodeB.sender.send(USER_TYPE, 1L, "notice", "hello");
+
+        // 断言：发布到节点 A、C，各自送达一次
+        assertEquals(new HashSet<>(Arrays.asList(RedisWebSocketMessageSender.getNodeChannel("node-a"),
+                RedisWebSocketMessageSender.getNodeChannel("node-c"))), new HashSet<>(redisMQTemplate.publishedChannels));
+        assertEquals(2, redisMQTemplate.publishedChannels.size());
+        assertEquals(Collections.singletonList("hello"), getReceivedContents(sessionA));
+        assertEquals(Collections.singletonList("hello"), getReceivedContents(sessionC));
+    }
+
+    @Test
+    public void testSendToSession() {
+        // 准备参数
+        nodeA.connect("s1", 1L);
+        WebSocketSession session = nodeC.connect("s2", 2L);
+
+        // 调用
+        nodeA.sender.send("s2", "notice", "hello");
+
+        // 断言
+        assertEquals(Collections.singletonList(RedisWebSocketMessageSender.getNodeChannel("node-c")),
+                redisMQTemplate.publishedChannels);
+        assertEquals(Collections.singletonList("hello"), getReceivedContents(session));
+    }
+
+    @Test
+    public void testSendToUser_offline() {
+        // 准备参数：用户 1 连接后断开
+        WebSocketSession session = nodeA.connect("s1", 1L);
+        nodeA.sessionManager.removeSession(session);
+
+        // 调用
+        nodeB.sender.send(USER_TYPE, 1L, "notice", "hello");
+        nodeB.sender.send("s1", "notice", "hello");
+
+        // 断言：不在线，不发布
+        assertTrue(redisMQTemplate.publishedChannels.isEmpty());
+        assertTrue(sessionNodes.isEmpty());
+        assertTrue(userNodes.values().stream().allMatch(Map::isEmpty));
+    }
+
+    @Test
+    public void testSendToUserType_broadcast() {
+        // 准备参数：每个节点各一个用户
+        WebSocketSession sessionA = nodeA.connect("s1", 1L);
+        WebSocketSession sessionB = nodeB.connect("s2", 2L);
+        WebSocketSession sessionC = nodeC.connect("s3", 3L);
+
+        // 调用
+        nodeA.sender.send(USER_TYPE, "notice", "hello");
+
+        // 断言：发布到共享的 Channel，所有节点送达各自的 Session
+        assertEquals(Collections.singletonList(SHARED_CHANNEL), redisMQTemplate.publishedChannels);
+        for (WebSocketSession session : Arrays.asList(sessionA, sessionB, sessionC)) {
+            assertEquals(Collections.singletonList("hello"), getReceivedContents(session));
+        }
+    }
+
+    @Test
+    public void testSendToUser_registryFailure() {
+        // 准备参数：节点 B 查询注册表失败
+        WebSocketSession session = nodeA.connect("s1", 1L);
+        nodeB.registry.failing = true;
+
+        // 调用
+        nodeB.sender.send(USER_TYPE, 1L, "notice", "hello");
+
+        // 断言：降级为广播，消息不丢失
+        assertEquals(Collections.singletonList(SHARED_CHANNEL), redisMQTemplate.publishedChannels);
+        assertEquals(Collections.singletonList("hello"), getReceivedContents(session));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getReceivedContents(WebSocketSession session) {
+        List<String> contents = new ArrayList<>();
+        ((List<String>) session.getAttributes().get("received")).forEach(payload ->
+                contents.add(JsonUtils.parseTree(payload).get("content").asText()));
+        return contents;
+    }
+
+    /**
+     * 模拟的节点，包括自己的 Session 管理、注册表、发送者、消费者
+     */
+    private class Node {
+
+        private final InMemoryPresenceRegistry registry;
+        private final RedisWebSocketSessionManager sessionManager;
+        private final RedisWebSocketMessageSender sender;
+        private final CountingNodeMessageConsumer nodeConsumer;
+
+        private Node(String nodeId) {
+            registry = new InMemoryPresenceRegistry(nodeId);
+            sessionManager = new RedisWebSocketSessionManager(registry);
+            sender = new RedisWebSocketMessageSender(sessionManager, redisMQTemplate, registry);
+            redisMQTemplate.subscribe(new RedisWebSocketMessageConsumer(sender));
+            nodeConsumer = new CountingNodeMessageConsumer(sender, registry);
+            redisMQTemplate.subscribe(nodeConsumer);
+        }
+
+        private WebSocketSession connect(String sessionId, Long userId) {
+            WebSocketSession session = buildSession(sessionId, userId);
+            sessionManager.addSession(session);
+            return session;
+        }
+
+    }
+
+    /**
+     * 内存实现的 {@link RedisWebSocketPresenceRegistry}，所有节点共享同一份数据，模拟 Redis
+     */
+    private class InMemoryPresenceRegistry extends RedisWebSocketPresenceRegistry {
+
+        private final String nodeId;
+        private volatile boolean failing;
+
+        private InMemoryPresenceRegistry(String nodeId) {
+            super(null);
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public void register(WebSocketSession session) {
+            LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
+            sessionNodes.put(session.getId(), nodeId);
+            userNodes.computeIfAbsent(user.getUserType() + ":" + user.getId(), key -> new ConcurrentHashMap<>())
+                    .put(session.getId(), nodeId);
+        }
+
+        @Override
+        public void unregister(WebSocketSession session) {
+            LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
+            sessionNodes.remove(session.getId());
+            userNodes.getOrDefault(user.getUserType() + ":" + user.getId(), Collections.emptyMap()).remove(session.getId());
+        }
+
+        @Override
+        public Set<String> getUserNodeIds(Integer userType, Long userId) {
+            checkFailing();
+            return new HashSet<>(userNodes.getOrDefault(userType + ":" + userId, Collections.emptyMap()).values());
+        }
+
+        @Override
+        public String getSessionNodeId(String sessionId) {
+            checkFailing();
+            return sessionNodes.get(sessionId);
+        }
+
+        private void checkFailing() {
+            if (failing) {
+                throw new IllegalStateException("模拟 Redis 访问失败");
+            }
+        }
+
+    }
+
+    /**
+     * 内存实现的 {@link RedisMQTemplate}，模拟 Redis Pub/Sub：消息序列化为 JSON 后，同步投递给订阅该 Channel 的监听器
+     */
+    private static class InMemoryRedisMQTemplate extends RedisMQTemplate {
+
+        private final Map<String, List<AbstractRedisChannelMessageListener<?>>> listeners = new HashMap<>();
+        private final List<String> publishedChannels = new ArrayList<>();
+
+        private InMemoryRedisMQTemplate() {
+            super(null);
+        }
+
+        private void subscribe(AbstractRedisChannelMessageListener<?> listener) {
+            listener.setRedisMQTemplate(this);
+            listeners.computeIfAbsent(listener.getChannel(), key -> new ArrayList<>()).add(listener);
+        }
+
+        @Override
+        public <T extends AbstractRedisChannelMessage> void send(String channel, T message) {
+            publishedChannels.add(channel);
+            byte[] body = JsonUtils.toJsonString(message).getBytes(StandardCharsets.UTF_8);
+            listeners.getOrDefault(channel, Collections.emptyList()).forEach(listener ->
+                    listener.onMessage(new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body), null));
+        }
+
+    }
+
+    /**
+     * 记录消费次数的 {@link RedisWebSocketNodeMessageConsumer}
+     */
+    private static class CountingNodeMessageConsumer extends RedisWebSocketNodeMessageConsumer {
+
+        private int consumedCount;
+
+        private CountingNodeMessageConsumer(RedisWebSocketMessageSender sender, RedisWebSocketPresenceRegistry registry) {
+            super(sender, registry);
+        }
+
+        @Override
+        public void onMessage(RedisWebSocketMessage message) {
+            consumedCount++;
+            super.onMessage(message);
+        }
+
+    }
+
+    private static WebSocketSession buildSession(String id, Long userId) {
+        LoginUser loginUser = new LoginUser().setId(userId).setUserType(USER_TYPE).setTenantId(1L);
+        Map<String, Object> attributes = new HashMap<>();
+        WebSocketFrameworkUtils.setLoginUser(loginUser, attributes);
+        List<String> received = new ArrayList<>();
+        attributes.put("received", received);
+        return (WebSocketSession) Proxy.newProxyInstance(RedisWebSocketMultiNodeTest.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> id;
+                    case "getAttributes" -> attributes;
+                    case "isOpen" -> true;
+                    case "sendMessage" -> {
+                        received.add(((TextMessage) args[0]).getPayload());
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "session(" + id + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
@@ -0,0 +1,188 @@
+package cn.iocoder.yudao.framework.websocket.core.sender.redis;
+
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link RedisWebSocketPresenceRegistry} 的单元测试
+ *
+ * 重点测试：节点宕机（未主动清理）后，即使用户的 Hash 被其它存活节点续期，也不会返回该节点，并清理其残留的 field
+ *
+ * @author 芋道源码
+ */
+public class RedisWebSocketPresenceRegistryTest {
+
+    private static final Integer USER_TYPE = 2;
+    private static final String USER_KEY = "websocket_user_node:2:1";
+
+    private InMemoryStringRedisTemplate redisTemplate;
+    private RedisWebSocketPresenceRegistry registryA;
+    private RedisWebSocketPresenceRegistry registryB;
+
+    @BeforeEach
+    public void setUp() {
+        redisTemplate = new InMemoryStringRedisTemplate();
+        registryA = new RedisWebSocketPresenceRegistry(redisTemplate);
+        registryB = new RedisWebSocketPresenceRegistry(redisTemplate);
+        registryA.start();
+        registryB.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registryA.shutdown();
+        registryB.shutdown();
+    }
+
+    @Test
+    public void testGetUserNodeIds() {
+        // 准备参数：用户 1 同时连接在节点 A、B 上
+        registryA.register(buildSession("s1", 1L));
+        registryB.register(buildSession("s2", 1L));
+
+        // 调用 + 断言
+        assertEquals(new HashSet<>(Arrays.asList(registryA.getNodeId(), registryB.getNodeId())),
+                registryA.getUserNodeIds(USER_TYPE, 1L));
+        assertEquals(registryB.getNodeId(), registryA.getSessionNodeId("s2"));
+    }
+
+    @Test
+    public void testGetUserNodeIds_filterDeadNode() {
+        // 准备参数：用户 1 同时连接在节点 A、B 上
+        registryA.register(buildSession("s1", 1L));
+        registryB.register(buildSession("s2", 1L));
+
+        // 调用：节点 B 宕机，未主动清理，节点 KEY 过期；用户的 Hash 仍被节点 A 续期
+        redisTemplate.values.remove("websocket_node:" + registryB.getNodeId());
+
+        // 断言：不返回节点 B，并删除其残留的 field
+        assertEquals(Collections.singleton(registryA.getNodeId()), registryA.getUserNodeIds(USER_TYPE, 1L));
+        assertEquals(Collections.singleton("s1"), redisTemplate.hashes.get(USER_KEY).keySet());
+    }
+
+    @Test
+    public void testShutdown() {
+        // 准备参数
+        registryA.register(buildSession("s1", 1L));
+        registryB.register(buildSession("s2", 1L));
+
+        // 调用：节点 B 正常关闭
+        registryB.shutdown();
+
+        // 断言：清理节点 B 的 Session 与节点 KEY
+        assertEquals(Collections.singleton(registryA.getNodeId()), registryA.getUserNodeIds(USER_TYPE, 1L));
+        assertNull(registryA.getSessionNodeId("s2"));
+        assertFalse(redisTemplate.values.containsKey("websocket_node:" + registryB.getNodeId()));
+    }
+
+    private static WebSocketSession buildSession(String id, Long userId) {
+        Map<String, Object> attributes = new HashMap<>();
+        WebSocketFrameworkUtils.setLoginUser(new LoginUser().setId(userId).setUserType(USER_TYPE), attributes);
+        return (WebSocketSession) Proxy.newProxyInstance(RedisWebSocketPresenceRegistryTest.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> id;
+                    case "getAttributes" -> attributes;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * 内存实现的 {@link StringRedisTemplate}，只实现注册表用到的命令，不模拟过期
+     */
+    private static class InMemoryStringRedisTemplate extends StringRedisTemplate {
+
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, String>> hashes = new ConcurrentHashMap<>();
+
+        @Override
+        public List<Object> executePipelined(RedisCallback<?> action) {
+            StringRedisConnection connection = (StringRedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{StringRedisConnection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setEx":
+                                values.put((String) args[0], (String) args[2]);
+                                return true;
+                            case "del":
+                                for (String key : (String[]) args[0]) {
+                                    values.remove(key);
+                                    hashes.remove(key);
+                                }
+                                return 1L;
+                            case "hSet":
+                                hashes.computeIfAbsent((String) args[0], key -> new ConcurrentHashMap<>())
+                                        .put((String) args[1], (String) args[2]);
+                                return true;
+                            case "hDel":
+                                for (String field : (String[]) args[1]) {
+                                    hashes.getOrDefault((String) args[0], new HashMap<>()).remove(field);
+                                }
+                                return 1L;
+                            case "expire":
+                                return true;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+            action.doInRedis(connection);
+            return Collections.emptyList();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ValueOperations<String, String> opsForValue() {
+            return (ValueOperations<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ValueOperations.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "get":
+                                return values.get((String) args[0]);
+                            case "multiGet":
+                                List<String> result = new ArrayList<>();
+                                ((Collection<String>) args[0]).forEach(key -> result.add(values.get(key)));
+                                return result;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+            return (HashOperations<String, HK, HV>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{HashOperations.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "entries":
+                                return new HashMap<Object, Object>(hashes.getOrDefault((String) args[0], new HashMap<>()));
+                            case "delete":
+                                Map<String, String> hash = hashes.getOrDefault((String) args[0], new HashMap<>());
+                                long count = 0;
+                                for (Object field : (Object[]) args[1]) {
+                                    count += hash.remove((String) field) != null ? 1 : 0;
+                                }
+                                return count;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+    }
+
+}
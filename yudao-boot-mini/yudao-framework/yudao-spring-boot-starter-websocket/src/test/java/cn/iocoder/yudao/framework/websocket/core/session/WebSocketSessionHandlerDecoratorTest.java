@@ -0,0 +1,94 @@
+package cn.iocoder.yudao.framework.websocket.core.session;
+
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.websocket.core.handler.JsonWebSocketMessageHandler;
+import cn.iocoder.yudao.framework.websocket.core.listener.WebSocketMessageListener;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link WebSocketSessionHandlerDecorator} 的单元测试
+ *
+ * 重点测试：连接关闭时，移除 Session，并回调监听器的 onClose 方法，用于清理订阅等状态
+ *
+ * @author 芋道源码
+ */
+public class WebSocketSessionHandlerDecoratorTest {
+
+    private final WebSocketSessionManagerImpl sessionManager = new WebSocketSessionManagerImpl();
+
+    @Test
+    public void testAfterConnectionClosed() throws Exception {
+        // 准备参数：两个监听器，其中一个回调时抛出异常
+        List<String> closedSessionIds = new ArrayList<>();
+        WebSocketSessionHandlerDecorator decorator = new WebSocketSessionHandlerDecorator(
+                new JsonWebSocketMessageHandler(Arrays.asList(
+                        new DemoMessageListener("fail", null),
+                        new DemoMessageListener("demo", closedSessionIds))),
+                sessionManager);
+        WebSocketSession session = buildSession("1");
+        decorator.afterConnectionEstablished(session);
+        assertNotNull(sessionManager.getSession("1"));
+
+        // 调用
+        decorator.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // 断言：移除 Session，且一个监听器异常时，不影响其它监听器
+        assertNull(sessionManager.getSession("1"));
+        assertEquals(Collections.singletonList("1"), closedSessionIds);
+    }
+
+    private static WebSocketSession buildSession(String id) {
+        Map<String, Object> attributes = new HashMap<>();
+        WebSocketFrameworkUtils.setLoginUser(new LoginUser().setId(10L).setUserType(2), attributes);
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSessionHandlerDecoratorTest.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> id;
+                    case "getAttributes" -> attributes;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static class DemoMessageListener implements WebSocketMessageListener<String> {
+
+        private final String type;
+        /**
+         * 已关闭的 Session 编号。为空时，回调抛出异常
+         */
+        private final List<String> closedSessionIds;
+
+        private DemoMessageListener(String type, List<String> closedSessionIds) {
+            this.type = type;
+            this.closedSessionIds = closedSessionIds;
+        }
+
+        @Override
+        public void onMessage(WebSocketSession session, String message) {
+        }
+
+        @Override
+        public void onClose(WebSocketSession session) {
+            if (closedSessionIds == null) {
+                throw new IllegalStateException("onClose 失败");
+            }
+            closedSessionIds.add(session.getId());
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+    }
+
+}
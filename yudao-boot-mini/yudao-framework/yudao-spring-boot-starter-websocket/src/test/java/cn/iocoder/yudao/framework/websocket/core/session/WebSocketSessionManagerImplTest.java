@@ -0,0 +1,167 @@
+package cn.iocoder.yudao.framework.websocket.core.session;
+
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link WebSocketSessionManagerImpl} 的单元测试
+ *
+ * 重点测试：并发新增、移除 Session 的同时广播，租户索引不丢失、不串租户
+ *
+ * @author 芋道源码
+ */
+public class WebSocketSessionManagerImplTest {
+
+    private static final Integer USER_TYPE = 2;
+
+    private final WebSocketSessionManagerImpl sessionManager = new WebSocketSessionManagerImpl();
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testGetSessionList_tenant() {
+        // 准备参数
+        WebSocketSession session1 = buildSession("1", 10L, 1L);
+        WebSocketSession session2 = buildSession("2", 20L, 2L);
+        WebSocketSession session3 = buildSession("3", 30L, null);
+        sessionManager.addSession(session1);
+        sessionManager.addSession(session2);
+        sessionManager.addSession(session3);
+
+        // 断言：有租户上下文时，只返回该租户的
+        assertEquals(Collections.singleton(session1), new HashSet<>(
+                TenantUtils.execute(1L, () -> sessionManager.getSessionList(USER_TYPE))));
+        assertEquals(Collections.singleton(session2), new HashSet<>(
+                TenantUtils.execute(2L, () -> sessionManager.getSessionList(USER_TYPE))));
+        // 断言：无租户上下文时，返回所有租户的
+        assertEquals(new HashSet<>(Arrays.asList(session1, session2, session3)),
+                new HashSet<>(sessionManager.getSessionList(USER_TYPE)));
+        // 断言：按照编号移除，与传入的 Session 实例无关
+        sessionManager.removeSession(buildSession("1", 10L, 1L));
+        assertTrue(TenantUtils.execute(1L, () -> sessionManager.getSessionList(USER_TYPE)).isEmpty());
+        assertTrue(sessionManager.getSessionList(USER_TYPE, 10L).isEmpty());
+        assertNull(sessionManager.getSession("1"));
+    }
+
+    @Test
+    public void testRemoveSession_massDisconnect() {
+        // 准备参数：同一租户、同一用户下大量 Session
+        int sessionCount = 50000;
+        for (int i = 0; i < sessionCount; i++) {
+            sessionManager.addSession(buildSession(String.valueOf(i), 10L, 1L));
+        }
+        assertEquals(sessionCount, sessionManager.getSessionList(USER_TYPE, 10L).size());
+
+        // 调用：全部断开，传入的是新的 Session 实例
+        for (int i = 0; i < sessionCount; i++) {
+            sessionManager.removeSession(buildSession(String.valueOf(i), 10L, 1L));
+        }
+
+        // 断言：按照编号移除，索引全部清空
+        assertTrue(sessionManager.getSessionList(USER_TYPE, 10L).isEmpty());
+        assertTrue(TenantUtils.execute(1L, () -> sessionManager.getSessionList(USER_TYPE)).isEmpty());
+    }
+
+    @Test
+    public void testAddAndRemoveSession_concurrent() throws InterruptedException {
+        int threadCount = 8;
+        int sessionCountPerThread = 2000;
+        // 准备参数：每个租户保留一个 Session，不会被移除，用于断言并发时没有丢失
+        WebSocketSession keepSession1 = buildSession("keep-1", 1L, 1L);
+        WebSocketSession keepSession2 = buildSession("keep-2", 2L, 2L);
+        sessionManager.addSession(keepSession1);
+        sessionManager.addSession(keepSession2);
+
+        // 调用：多个线程反复新增、移除 Session，其中一半保留；同时，另一组线程按照租户广播
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writersDone = new CountDownLatch(threadCount);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Map<Long, Set<WebSocketSession>> keptSessions = new ConcurrentHashMap<>();
+        keptSessions.computeIfAbsent(1L, key -> ConcurrentHashMap.newKeySet()).add(keepSession1);
+        keptSessions.computeIfAbsent(2L, key -> ConcurrentHashMap.newKeySet()).add(keepSession2);
+        for (int t = 0; t < threadCount; t++) {
+            int threadIndex = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < sessionCountPerThread; i++) {
+                        Long tenantId = (long) (1 + i % 2);
+                        WebSocketSession session = buildSession(threadIndex + "-" + i, (long) i, tenantId);
+                        sessionManager.addSession(session);
+                        if (i % 4 == 0) {
+                            keptSessions.computeIfAbsent(tenantId, key -> ConcurrentHashMap.newKeySet()).add(session);
+                        } else {
+                            sessionManager.removeSession(session);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                } finally {
+                    writersDone.countDown();
+                }
+            });
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    while (writersDone.getCount() > 0) {
+                        Long tenantId = (long) (1 + threadIndex % 2);
+                        Collection<WebSocketSession> sessions = TenantUtils.execute(tenantId,
+                                () -> sessionManager.getSessionList(USER_TYPE));
+                        // 断言：广播时，不会拿到其它租户的 Session
+                        for (WebSocketSession session : sessions) {
+                            assertEquals(tenantId, WebSocketFrameworkUtils.getLoginUser(session).getTenantId());
+                        }
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(writersDone.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 断言：并发过程中没有异常
+        assertNull(error.get(), String.valueOf(error.get()));
+        // 断言：最终每个租户的 Session，与保留的一致，没有丢失，也没有残留
+        for (Long tenantId : Arrays.asList(1L, 2L)) {
+            assertEquals(keptSessions.get(tenantId), new HashSet<>(
+                    TenantUtils.execute(tenantId, () -> sessionManager.getSessionList(USER_TYPE))));
+        }
+        assertEquals(threadCount * sessionCountPerThread / 4 + 2, sessionManager.getSessionList(USER_TYPE).size());
+    }
+
+    private static WebSocketSession buildSession(String id, Long userId, Long tenantId) {
+        LoginUser loginUser = new LoginUser().setId(userId).setUserType(USER_TYPE).setTenantId(tenantId);
+        Map<String, Object> attributes = new HashMap<>();
+        WebSocketFrameworkUtils.setLoginUser(loginUser, attributes);
+        return (WebSocketSession) Proxy.newProxyInstance(WebSocketSessionManagerImplTest.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> id;
+                    case "getAttributes" -> attributes;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "session(" + id + ")";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
@@ -4,7 +4,8 @@ import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
 import cn.iocoder.yudao.framework.quartz.core.handler.JobHandler;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
 import cn.iocoder.yudao.module.infra.enums.job.JobLogStatusEnum;
-import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.*;
 
@@ -16,7 +17,6 @@ import java.time.LocalDateTime;
  * @author 芋道源码
  */
 @TableName("infra_job_log")
-@KeySequence("infra_job_log_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
 @Data
 @EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
@@ -28,7 +28,10 @@ public class JobLogDO extends BaseDO {
 
     /**
      * 日志编号
+     *
+     * 使用雪花算法，在创建时即分配，从而支持批量写入，见 JobLogServiceImpl
      */
+    @TableId(type = IdType.ASSIGN_ID)
     private Long id;
     /**
      * 任务编号
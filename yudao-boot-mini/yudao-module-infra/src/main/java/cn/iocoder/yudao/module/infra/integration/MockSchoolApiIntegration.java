@@ -1,21 +1,18 @@
 package cn.iocoder.yudao.module.infra.integration;
 
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient.Endpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +22,7 @@ import java.util.Map;
  * Mock School API集成服务 - Infra模块版本
  * 负责与Mock School API进行通信，验证用户认证和权限
  * 🔄 从yudao-server模块迁移到yudao-module-infra，供NotificationController使用
+ * 🌐 HTTP 调用统一通过 {@link SchoolApiHttpClient}，复用连接池、超时、舱壁和熔断
  * 
  * @author Claude
  */
@@ -33,20 +31,14 @@ public class MockSchoolApiIntegration {
 
     private static final Logger log = LoggerFactory.getLogger(MockSchoolApiIntegration.class);
 
-    @Value("${mock.school-api.base-url:http://localhost:48082}")
-    private String mockApiBaseUrl;
-
     @Value("${mock.school-api.enabled:true}")
     private boolean mockApiEnabled;
 
-    private final RestTemplate restTemplate;
+    private final SchoolApiHttpClient schoolApiHttpClient;
     private final ObjectMapper objectMapper;
 
-    public MockSchoolApiIntegration(RestTemplateBuilder builder, ObjectMapper objectMapper) {
-        this.restTemplate = builder
-            .setConnectTimeout(Duration.ofSeconds(5))
-            .setReadTimeout(Duration.ofSeconds(10))
-            .build();
+    public MockSchoolApiIntegration(SchoolApiHttpClient schoolApiHttpClient, ObjectMapper objectMapper) {
+        this.schoolApiHttpClient = schoolApiHttpClient;
         this.objectMapper = objectMapper;
     }
 
@@ -62,8 +54,6 @@ public class MockSchoolApiIntegration {
         log.info("调用Mock School API认证用户: {}", username);
         
         try {
-            String url = mockApiBaseUrl + "/mock-school-api/auth/authenticate";
-            
             Map<String, String> request = new HashMap<>();
             request.put("username", username);
             request.put("password", password);
@@ -72,8 +62,8 @@ public class MockSchoolApiIntegration {
             headers.set("Content-Type", "application/json");
             HttpEntity<Map<String, String>> entity = new HttpEntity<>(request, headers);
             
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, String.class);
+            ResponseEntity<String> response = schoolApiHttpClient.exchange(
+                Endpoint.AUTHENTICATE, HttpMethod.POST, entity, String.class);
                 
             if (response.getStatusCode().is2xxSuccessful()) {
                 MockApiResponse<UserInfo> apiResponse = objectMapper.readValue(
@@ -118,8 +108,6 @@ public class MockSchoolApiIntegration {
         log.info("调用Mock School API验证token: {}", actualToken);
         
         try {
-            String url = mockApiBaseUrl + "/mock-school-api/auth/verify";
-            
             Map<String, String> request = new HashMap<>();
             request.put("token", actualToken);
             
@@ -127,8 +115,8 @@ public class MockSchoolApiIntegration {
             headers.set("Content-Type", "application/json");
             HttpEntity<Map<String, String>> entity = new HttpEntity<>(request, headers);
             
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, String.class);
+            ResponseEntity<String> response = schoolApiHttpClient.exchange(
+                Endpoint.VERIFY, HttpMethod.POST, entity, String.class);
                 
             if (response.getStatusCode().is2xxSuccessful()) {
                 MockApiResponse<UserInfo> apiResponse = objectMapper.readValue(
@@ -174,52 +162,32 @@ public class MockSchoolApiIntegration {
         log.info("🆕 调用Mock API获取用户信息: {}", actualToken);
         
         try {
-            String url = mockApiBaseUrl + "/mock-school-api/auth/user-info";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Content-Type", "application/json");
-            headers.set("Authorization", "Bearer " + actualToken);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, String.class);
-                
-            if (response.getStatusCode().is2xxSuccessful()) {
-                MockApiResponse<Map<String, Object>> apiResponse = objectMapper.readValue(
-                    response.getBody(), 
-                    new TypeReference<MockApiResponse<Map<String, Object>>>() {}
-                );
-                
-                if (apiResponse.isSuccess()) {
-                    Map<String, Object> userData = apiResponse.getData();
-                    
-                    // 转换为UserInfo对象
-                    UserInfo userInfo = new UserInfo();
-                    userInfo.setUserId((String) userData.get("employeeId")); // 使用employeeId作为userId
-                    userInfo.setUsername((String) userData.get("username"));
-                    userInfo.setRoleCode((String) userData.get("roleCode"));
-                    userInfo.setRoleName((String) userData.get("roleName"));
-                    userInfo.setDepartmentName((String) userData.get("departmentName"));
-                    userInfo.setEnabled(true);
-                    
-                    // 🆕 设置employeeId字段（关键字段）
-                    userInfo.setEmployeeId((String) userData.get("employeeId"));
-                    userInfo.setUserType((String) userData.get("userType"));
-                    
-                    if (userData.get("departmentId") != null) {
-                        userInfo.setDepartmentId(((Number) userData.get("departmentId")).longValue());
-                    }
-                    
-                    log.info("✅ 用户信息获取成功: employeeId={}, role={}", userInfo.getEmployeeId(), userInfo.getRoleCode());
-                    return userInfo;
-                } else {
-                    log.warn("获取用户信息失败: {}", apiResponse.getMessage());
-                    return null;
-                }
-            } else {
-                log.error("Mock API调用失败，状态码: {}", response.getStatusCode());
+            // 服务不可用时，由 SchoolApiHttpClient 降级使用最近一次的用户信息
+            Map<String, Object> userData = schoolApiHttpClient.getUserInfo(actualToken);
+            if (userData == null) {
+                log.warn("获取用户信息失败: Token无效");
                 return null;
             }
+
+            // 转换为UserInfo对象
+            UserInfo userInfo = new UserInfo();
+            userInfo.setUserId((String) userData.get("employeeId")); // 使用employeeId作为userId
+            userInfo.setUsername((String) userData.get("username"));
+            userInfo.setRoleCode((String) userData.get("roleCode"));
+            userInfo.setRoleName((String) userData.get("roleName"));
+            userInfo.setDepartmentName((String) userData.get("departmentName"));
+            userInfo.setEnabled(true);
+
+            // 🆕 设置employeeId字段（关键字段）
+            userInfo.setEmployeeId((String) userData.get("employeeId"));
+            userInfo.setUserType((String) userData.get("userType"));
+
+            if (userData.get("departmentId") != null) {
+                userInfo.setDepartmentId(((Number) userData.get("departmentId")).longValue());
+            }
+
+            log.info("✅ 用户信息获取成功: employeeId={}, role={}", userInfo.getEmployeeId(), userInfo.getRoleCode());
+            return userInfo;
             
         } catch (Exception e) {
             log.error("调用Mock API获取用户信息异常", e);
@@ -365,8 +333,8 @@ public class MockSchoolApiIntegration {
         }
 
         try {
-            String url = mockApiBaseUrl + "/mock-school-api/auth/health";
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = schoolApiHttpClient.exchange(
+                Endpoint.HEALTH, HttpMethod.GET, HttpEntity.EMPTY, String.class);
             return response.getStatusCode().is2xxSuccessful();
             
         } catch (Exception e) {
@@ -0,0 +1,340 @@
+package cn.iocoder.yudao.module.infra.integration;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.jwt.JWTUtil;
+import cn.hutool.jwt.RegisteredPayload;
+import cn.iocoder.yudao.framework.common.util.concurrent.CircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mock School API 共享 HTTP 客户端
+ *
+ * 替代各处自行 new RestTemplate() 的调用方式，统一提供：
+ * 1. 连接池：所有接口共享一个 JDK {@link HttpClient}，复用 keep-alive 连接，不再每次请求新建连接
+ * 2. 按接口的超时：认证类接口在请求线程调用，使用较短的读取超时；登录接口沿用原有的读取超时
+ * 3. 舱壁：每个接口限制最大并发数，超出时快速失败，避免 Mock School API 变慢时耗尽所有请求线程
+ * 4. 熔断：每个接口独立的 {@link CircuitBreaker}，连续失败后在打开时长内直接快速失败
+ * 5. 降级：默认关闭，即服务不可用时认证失败。开启后，获取用户信息时服务不可用，则使用该 Token 最近一次成功获取的用户信息，
+ *    缓存时长不超过 Token 自身的过期时间。注意，降级期间无法感知 Token 被吊销，所以缓存时长需要尽量短
+ *
+ * 注意：4xx 响应（例如说 Token 无效）说明服务可用，不计入熔断失败
+ *
+ * @author 芋道源码
+ */
+@Component
+public class SchoolApiHttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SchoolApiHttpClient.class);
+
+    /**
+     * Mock School API 接口
+     */
+    public enum Endpoint {
+
+        AUTHENTICATE("/mock-school-api/auth/authenticate"),
+        VERIFY("/mock-school-api/auth/verify"),
+        USER_INFO("/mock-school-api/auth/user-info"),
+        HEALTH("/mock-school-api/auth/health");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+    }
+
+    @Value("${mock.school-api.base-url:http://localhost:48082}")
+    private String baseUrl;
+    /**
+     * 连接超时，单位：秒
+     */
+    @Value("${mock.school-api.connect-timeout:5}")
+    private int connectTimeoutSeconds;
+    /**
+     * 登录接口的读取超时，单位：秒
+     */
+    @Value("${mock.school-api.read-timeout:10}")
+    private int readTimeoutSeconds;
+    /**
+     * Token 校验、用户信息、健康检查接口的读取超时，单位：毫秒
+     */
+    @Value("${mock.school-api.token-read-timeout-ms:3000}")
+    private int tokenReadTimeoutMillis;
+    /**
+     * 每个接口的最大并发数
+     */
+    @Value("${mock.school-api.max-concurrent-calls:32}")
+    private int maxConcurrentCalls;
+    /**
+     * 并发数已满时，等待的时长，单位：毫秒
+     */
+    @Value("${mock.school-api.bulkhead-wait-ms:50}")
+    private long bulkheadWaitMillis;
+    /**
+     * 打开熔断器的连续失败次数
+     */
+    @Value("${mock.school-api.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+    /**
+     * 熔断器打开的时长，单位：毫秒
+     */
+    @Value("${mock.school-api.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMillis;
+    /**
+     * 是否开启降级
+     */
+    @Value("${mock.school-api.fallback.enabled:false}")
+    private boolean fallbackEnabled;
+    /**
+     * 降级使用的用户信息，最多缓存的 Token 数量
+     */
+    @Value("${mock.school-api.fallback.capacity:10000}")
+    private int fallbackCapacity;
+    /**
+     * 降级使用的用户信息，缓存的时长，单位：毫秒。实际不超过 Token 的剩余有效期
+     */
+    @Value("${mock.school-api.fallback.ttl-ms:30000}")
+    private long fallbackTtlMillis;
+
+    private final Map<Endpoint, EndpointClient> clients = new EnumMap<>(Endpoint.class);
+
+    /**
+     * 最近一次成功获取的用户信息，key 为 Token（不带 Bearer 前缀）
+     */
+    private LRUCache<String, Map<String, Object>> lastUserInfos;
+
+    @PostConstruct
+    public void init() {
+        // 共享的 HttpClient，内置连接池。强制 HTTP/1.1，避免对 http:// 地址发起 h2c 升级
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Duration readTimeout = endpoint == Endpoint.AUTHENTICATE ? Duration.ofSeconds(readTimeoutSeconds)
+                    : Duration.ofMillis(tokenReadTimeoutMillis);
+            clients.put(endpoint, new EndpointClient(endpoint, httpClient, readTimeout));
+        }
+        lastUserInfos = CacheUtil.newLRUCache(fallbackCapacity, fallbackTtlMillis);
+        log.info("🌐 [SCHOOL-API] 共享客户端初始化完成: baseUrl={}, maxConcurrentCalls={}, tokenReadTimeout={}ms, fallbackEnabled={}",
+                baseUrl, maxConcurrentCalls, tokenReadTimeoutMillis, fallbackEnabled);
+    }
+
+    /**
+     * 调用 Mock School API 的接口
+     *
+     * @param endpoint 接口
+     * @param method 请求方法
+     * @param entity 请求
+     * @param responseType 响应类型
+     * @return 响应。4xx、5xx 响应，与 RestTemplate 一致抛出异常
+     * @throws SchoolApiUnavailableException 舱壁已满、熔断器打开时
+     */
+    public <T> ResponseEntity<T> exchange(Endpoint endpoint, HttpMethod method, HttpEntity<?> entity, Class<T> responseType) {
+        return clients.get(endpoint).exchange(method, entity, responseType);
+    }
+
+    /**
+     * 获取 Token 对应的用户信息
+     *
+     * 服务不可用（舱壁已满、熔断器打开、超时、5xx）时，默认抛出异常，即认证失败；
+     * 开启降级时，使用该 Token 最近一次成功获取、且未过期的用户信息
+     *
+     * @param authToken Token，可以带 Bearer 前缀
+     * @return 用户信息，即响应的 data 字段；Token 无效时，返回 null
+     * @throws SchoolApiUnavailableException 服务不可用，且未开启降级、或没有可降级的用户信息时
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getUserInfo(String authToken) {
+        if (StrUtil.isBlank(authToken)) {
+            return null;
+        }
+        String token = StrUtil.removePrefix(authToken, "Bearer ");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        HttpEntity<Map<String, String>> entity = new HttpEntity<>(new HashMap<>(), headers);
+        try {
+            ResponseEntity<Map> response = exchange(Endpoint.USER_INFO, HttpMethod.POST, entity, Map.class);
+            Map<String, Object> body = response.getBody();
+            Map<String, Object> data = body != null && isSuccess(body) ? (Map<String, Object>) body.get("data") : null;
+            if (data == null) {
+                lastUserInfos.remove(token);
+                return null;
+            }
+            putFallbackUserInfo(token, data);
+            return data;
+        } catch (HttpClientErrorException e) {
+            // Token 无效：服务可用，不降级
+            lastUserInfos.remove(token);
+            return null;
+        } catch (RuntimeException e) {
+            Map<String, Object> data = fallbackEnabled ? lastUserInfos.get(token, false) : null;
+            if (data == null) {
+                throw e instanceof SchoolApiUnavailableException ? (SchoolApiUnavailableException) e
+                        : new SchoolApiUnavailableException(Endpoint.USER_INFO, e.getMessage(), e);
+            }
+            log.warn("🛡️ [SCHOOL-API] 获取用户信息失败，降级使用最近一次的用户信息: username={}, error={}",
+                    data.get("username"), e.getMessage());
+            return data;
+        }
+    }
+
+    /**
+     * 缓存降级使用的用户信息，缓存时长为 fallbackTtlMillis 与 Token 剩余有效期的较小值
+     *
+     * Token 无法解析、或者没有过期时间时，不缓存，即不降级
+     */
+    private void putFallbackUserInfo(String token, Map<String, Object> data) {
+        if (!fallbackEnabled) {
+            return;
+        }
+        long timeout = Math.min(fallbackTtlMillis, getTokenRemainingMillis(token));
+        if (timeout <= 0) {
+            lastUserInfos.remove(token);
+            return;
+        }
+        lastUserInfos.put(token, data, timeout);
+    }
+
+    /**
+     * 获得 Token 的剩余有效期，单位：毫秒。只读取 exp 字段，签名由 Mock School API 校验
+     *
+     * @return 剩余有效期；Token 无法解析、或者没有过期时间时，返回 0
+     */
+    private static long getTokenRemainingMillis(String token) {
+        try {
+            Object expiresAt = JWTUtil.parseToken(token).getPayload(RegisteredPayload.EXPIRES_AT);
+            if (!(expiresAt instanceof Number)) {
+                return 0;
+            }
+            return TimeUnit.SECONDS.toMillis(((Number) expiresAt).longValue()) - System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Mock School API 返回的成功码为 Integer 200，同时兼容 success 字段
+     */
+    private static boolean isSuccess(Map<String, Object> body) {
+        Object code = body.get("code");
+        return Boolean.TRUE.equals(body.get("success"))
+                || (code instanceof Number && ((Number) code).intValue() == 200)
+                || "200".equals(code);
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState(Endpoint endpoint) {
+        return clients.get(endpoint).circuitBreaker.getState();
+    }
+
+    /**
+     * @return 因为舱壁已满被拒绝的调用数量
+     */
+    public long getBulkheadRejectedCount(Endpoint endpoint) {
+        return clients.get(endpoint).bulkheadRejectedCount.sum();
+    }
+
+    /**
+     * 单个接口的客户端：独立的读取超时、舱壁、熔断器，共享连接池
+     */
+    private class EndpointClient {
+
+        private final Endpoint endpoint;
+        private final RestTemplate restTemplate;
+        private final Semaphore bulkhead;
+        private final CircuitBreaker circuitBreaker;
+        private final LongAdder bulkheadRejectedCount = new LongAdder();
+
+        EndpointClient(Endpoint endpoint, HttpClient httpClient, Duration readTimeout) {
+            this.endpoint = endpoint;
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(readTimeout);
+            this.restTemplate = new RestTemplate(requestFactory);
+            this.bulkhead = new Semaphore(maxConcurrentCalls);
+            this.circuitBreaker = new CircuitBreaker("school-api-" + endpoint.name(), failureThreshold, openDurationMillis);
+        }
+
+        <T> ResponseEntity<T> exchange(HttpMethod method, HttpEntity<?> entity, Class<T> responseType) {
+            // 1. 舱壁：并发数已满时，快速失败
+            try {
+                if (!bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS)) {
+                    bulkheadRejectedCount.increment();
+                    throw new SchoolApiUnavailableException(endpoint, "并发数已满", null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SchoolApiUnavailableException(endpoint, "等待并发许可被中断", e);
+            }
+            try {
+                // 2. 熔断器：打开时，快速失败
+                long permit = circuitBreaker.tryAcquire();
+                if (permit == CircuitBreaker.REJECTED) {
+                    throw new SchoolApiUnavailableException(endpoint, "熔断器已打开", null);
+                }
+                // 3. 发起调用。4xx 说明服务可用，记为成功
+                try {
+                    ResponseEntity<T> response = restTemplate.exchange(baseUrl + endpoint.getPath(), method, entity, responseType);
+                    circuitBreaker.onSuccess(permit);
+                    return response;
+                } catch (HttpClientErrorException e) {
+                    circuitBreaker.onSuccess(permit);
+                    throw e;
+                } catch (RuntimeException e) {
+                    circuitBreaker.onFailure(permit);
+                    throw e;
+                }
+            } finally {
+                bulkhead.release();
+            }
+        }
+
+    }
+
+    /**
+     * Mock School API 不可用的异常：舱壁已满、熔断器打开，或者调用失败且不降级
+     */
+    public static class SchoolApiUnavailableException extends RuntimeException {
+
+        private final Endpoint endpoint;
+
+        public SchoolApiUnavailableException(Endpoint endpoint, String message, Throwable cause) {
+            super("Mock School API(" + endpoint.getPath() + ") 不可用: " + message, cause);
+            this.endpoint = endpoint;
+        }
+
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+    }
+
+}
@@ -1,21 +1,33 @@
 package cn.iocoder.yudao.module.infra.service.job;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.module.infra.controller.admin.job.vo.log.JobLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.job.JobLogDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.job.JobLogMapper;
 import cn.iocoder.yudao.module.infra.enums.job.JobLogStatusEnum;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Job 日志 Service 实现类
  *
+ * Job 日志的写入，通过 {@link BatchBuffer} 批量进行：
+ * 1. 创建时，使用雪花算法分配编号，日志放入缓冲区，等待批量插入
+ * 2. 更新结果时，如果日志还未插入，则直接合并到待插入的日志中，即「开始 + 结果」只需一次插入；否则，放入缓冲区，等待批量更新
+ * 3. 缓冲区已满时，降级为同步写入；应用关闭时，写入缓冲区中剩余的日志
+ *
  * @author 芋道源码
  */
 @Service
@@ -23,26 +35,81 @@ import java.time.LocalDateTime;
 @Slf4j
 public class JobLogServiceImpl implements JobLogService {
 
+    /**
+     * Job 日志缓冲区的容量
+     */
+    private static final int BUFFER_CAPACITY = 10000;
+    /**
+     * Job 日志每批写入的最大数量
+     */
+    private static final int BUFFER_BATCH_SIZE = 500;
+    /**
+     * Job 日志凑批的最长等待时长，单位：毫秒
+     *
+     * 执行时长小于该值的 Job，开始与结果会合并为一次插入
+     */
+    private static final long BUFFER_LINGER_MILLIS = 1000;
+
     @Resource
     private JobLogMapper jobLogMapper;
 
+    /**
+     * 缓冲区，包括待插入、待更新的日志
+     */
+    private final BatchBuffer<JobLogDO> jobLogBuffer = new BatchBuffer<>("job-log",
+            BUFFER_CAPACITY, BUFFER_BATCH_SIZE, BUFFER_LINGER_MILLIS, this::writeJobLogBatch);
+    /**
+     * 已创建、但还未插入的日志
+     *
+     * key：日志编号
+     */
+    private final Map<Long, JobLogDO> unflushedJobLogs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        jobLogBuffer.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        jobLogBuffer.shutdown();
+    }
+
     @Override
     public Long createJobLog(Long jobId, LocalDateTime beginTime,
                              String jobHandlerName, String jobHandlerParam, Integer executeIndex) {
-        JobLogDO log = JobLogDO.builder().jobId(jobId).handlerName(jobHandlerName)
+        JobLogDO log = JobLogDO.builder().id(IdWorker.getId()).jobId(jobId).handlerName(jobHandlerName)
                 .handlerParam(jobHandlerParam).executeIndex(executeIndex)
                 .beginTime(beginTime).status(JobLogStatusEnum.RUNNING.getStatus()).build();
-        jobLogMapper.insert(log);
+        unflushedJobLogs.put(log.getId(), log);
+        if (!jobLogBuffer.offer(log)) {
+            unflushedJobLogs.remove(log.getId());
+            jobLogMapper.insert(log);
+        }
         return log.getId();
     }
 
     @Override
-    @Async
     public void updateJobLogResultAsync(Long logId, LocalDateTime endTime, Integer duration, boolean success, String result) {
+        Integer status = success ? JobLogStatusEnum.SUCCESS.getStatus() : JobLogStatusEnum.FAILURE.getStatus();
+        // 情况一：日志还未插入，直接合并到待插入的日志中
+        JobLogDO unflushedLog = unflushedJobLogs.computeIfPresent(logId, (id, jobLog) -> {
+            jobLog.setEndTime(endTime);
+            jobLog.setDuration(duration);
+            jobLog.setStatus(status);
+            jobLog.setResult(result);
+            return jobLog;
+        });
+        if (unflushedLog != null) {
+            return;
+        }
+        // 情况二：日志已插入，放入缓冲区等待批量更新；缓冲区已满时，同步更新
+        JobLogDO updateObj = JobLogDO.builder().id(logId).endTime(endTime).duration(duration)
+                .status(status).result(result).build();
+        if (jobLogBuffer.offer(updateObj)) {
+            return;
+        }
         try {
-            JobLogDO updateObj = JobLogDO.builder().id(logId).endTime(endTime).duration(duration)
-                    .status(success ? JobLogStatusEnum.SUCCESS.getStatus() : JobLogStatusEnum.FAILURE.getStatus())
-                    .result(result).build();
             jobLogMapper.updateById(updateObj);
         } catch (Exception ex) {
             log.error("[updateJobLogResultAsync][logId({}) endTime({}) duration({}) success({}) result({})]",
@@ -50,6 +117,28 @@ public class JobLogServiceImpl implements JobLogService {
         }
     }
 
+    private void writeJobLogBatch(List<JobLogDO> jobLogs) {
+        // 1. 区分待插入、待更新的日志：仍在 unflushedJobLogs 中的为待插入。移除后，后续的结果只能走更新
+        // 由于缓冲区是单线程按顺序处理，所以同一日志的更新，一定在插入之后执行
+        List<JobLogDO> insertList = new ArrayList<>();
+        List<JobLogDO> updateList = new ArrayList<>();
+        jobLogs.forEach(jobLog -> {
+            if (unflushedJobLogs.remove(jobLog.getId()) != null) {
+                insertList.add(jobLog);
+            } else {
+                updateList.add(jobLog);
+            }
+        });
+
+        // 2. 批量写入
+        if (!insertList.isEmpty()) {
+            jobLogMapper.insertBatch(insertList);
+        }
+        if (!updateList.isEmpty()) {
+            jobLogMapper.updateBatch(updateList);
+        }
+    }
+
     @Override
     @SuppressWarnings("DuplicatedCode")
     public Integer cleanJobLog(Integer exceedDay, Integer deleteLimit) {
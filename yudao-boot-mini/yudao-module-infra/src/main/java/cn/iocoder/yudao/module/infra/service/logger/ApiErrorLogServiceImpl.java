@@ -4,6 +4,7 @@ import cn.iocoder.yudao.framework.common.biz.infra.logger.dto.ApiErrorLogCreateR
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.common.util.string.StrUtils;
+import cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apierrorlog.ApiErrorLogPageReqVO;
@@ -54,6 +55,7 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
     }
 
     @Override
+    @SlaveRead
     public PageResult<ApiErrorLogDO> getApiErrorLogPage(ApiErrorLogPageReqVO pageReqVO) {
         return apiErrorLogMapper.selectPage(pageReqVO);
     }
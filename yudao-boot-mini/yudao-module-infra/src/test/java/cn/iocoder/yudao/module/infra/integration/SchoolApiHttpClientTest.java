@@ -0,0 +1,277 @@
+package cn.iocoder.yudao.module.infra.integration;
+
+import cn.hutool.jwt.JWTUtil;
+import cn.hutool.jwt.RegisteredPayload;
+import cn.iocoder.yudao.framework.common.util.concurrent.CircuitBreaker;
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient.Endpoint;
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient.SchoolApiUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SchoolApiHttpClient} 的单元测试
+ *
+ * 基于 JDK 自带的 {@link HttpServer} 模拟 Mock School API，验证超时、5xx、熔断器半开与降级
+ *
+ * @author 芋道源码
+ */
+public class SchoolApiHttpClientTest {
+
+    private static final int TOKEN_READ_TIMEOUT_MILLIS = 200;
+    private static final int FAILURE_THRESHOLD = 2;
+    private static final long OPEN_DURATION_MILLIS = 300;
+
+    private static final String USER_INFO_BODY = "{\"code\":200,\"data\":{\"username\":\"teacher\"}}";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    /**
+     * 模拟的响应：状态码、延迟
+     */
+    private volatile int responseStatus = 200;
+    private volatile long responseDelayMillis;
+    /**
+     * 服务端收到的请求数
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private SchoolApiHttpClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/mock-school-api/auth/", this::handle);
+        server.start();
+        client = buildClient(false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testExchange_timeoutOpenCircuitBreaker() {
+        // 准备参数：响应超过读取超时
+        responseDelayMillis = TOKEN_READ_TIMEOUT_MILLIS * 5;
+
+        // 调用：连续超时，达到失败阈值
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            long startTime = System.currentTimeMillis();
+            assertThrows(ResourceAccessException.class, this::exchangeUserInfo);
+            // 断言：按照读取超时失败，不等待响应
+            assertTrue(System.currentTimeMillis() - startTime < responseDelayMillis);
+        }
+
+        // 断言：熔断器打开后，快速失败，不再请求服务端
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState(Endpoint.USER_INFO));
+        assertThrows(SchoolApiUnavailableException.class, this::exchangeUserInfo);
+        assertEquals(FAILURE_THRESHOLD, requestCount.get());
+        // 断言：每个接口独立熔断
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreakerState(Endpoint.VERIFY));
+    }
+
+    @Test
+    public void testExchange_serverError() {
+        // 准备参数：5xx 响应
+        responseStatus = 500;
+
+        // 调用：连续 5xx，达到失败阈值
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(HttpServerErrorException.class, this::exchangeUserInfo);
+        }
+
+        // 断言：打开熔断器
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState(Endpoint.USER_INFO));
+    }
+
+    @Test
+    public void testExchange_clientErrorNotFailure() {
+        // 准备参数：4xx 响应，说明服务可用
+        responseStatus = 401;
+
+        // 调用
+        for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+            assertThrows(HttpClientErrorException.class, this::exchangeUserInfo);
+        }
+
+        // 断言：不计入熔断失败
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreakerState(Endpoint.USER_INFO));
+    }
+
+    @Test
+    public void testExchange_halfOpen() throws InterruptedException {
+        // 准备参数：5xx 打开熔断器
+        responseStatus = 500;
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThrows(HttpServerErrorException.class, this::exchangeUserInfo);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState(Endpoint.USER_INFO));
+
+        // 调用：打开时长结束，探测调用仍然失败，重新打开
+        Thread.sleep(OPEN_DURATION_MILLIS + 100);
+        assertThrows(HttpServerErrorException.class, this::exchangeUserInfo);
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState(Endpoint.USER_INFO));
+        assertThrows(SchoolApiUnavailableException.class, this::exchangeUserInfo);
+        assertEquals(FAILURE_THRESHOLD + 1, requestCount.get());
+
+        // 调用：服务恢复后，探测调用成功，关闭
+        responseStatus = 200;
+        Thread.sleep(OPEN_DURATION_MILLIS + 100);
+        assertEquals(200, exchangeUserInfo());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreakerState(Endpoint.USER_INFO));
+        assertEquals(200, exchangeUserInfo());
+    }
+
+    @Test
+    public void testGetUserInfo_failClosed() {
+        // 准备参数：先成功获取一次
+        String token = buildToken(TimeUnit.HOURS.toMillis(1));
+        assertEquals("teacher", client.getUserInfo("Bearer " + token).get("username"));
+
+        // 调用：服务不可用
+        responseStatus = 500;
+
+        // 断言：默认不降级，认证失败
+        assertThrows(SchoolApiUnavailableException.class, () -> client.getUserInfo("Bearer " + token));
+    }
+
+    @Test
+    public void testGetUserInfo_fallback() throws Exception {
+        // 准备参数：开启降级，先成功获取一次
+        client = buildClient(true);
+        String token = buildToken(TimeUnit.HOURS.toMillis(1));
+        assertEquals("teacher", client.getUserInfo(token).get("username"));
+
+        // 调用：服务不可用
+        responseStatus = 500;
+
+        // 断言：降级使用最近一次的用户信息
+        assertEquals("teacher", client.getUserInfo(token).get("username"));
+    }
+
+    @Test
+    public void testGetUserInfo_fallbackCappedByTokenExpiry() throws Exception {
+        // 准备参数：开启降级，Token 的剩余有效期小于降级缓存时长
+        client = buildClient(true);
+        String token = buildToken(500);
+        assertEquals("teacher", client.getUserInfo(token).get("username"));
+
+        // 调用：Token 过期后，服务不可用
+        responseStatus = 500;
+        Thread.sleep(1500); // exp 精度为秒
+
+        // 断言：不再降级
+        assertThrows(SchoolApiUnavailableException.class, () -> client.getUserInfo(token));
+    }
+
+    @Test
+    public void testGetUserInfo_fallbackWithoutTokenExpiry() throws Exception {
+        // 准备参数：开启降级，Token 无法解析出过期时间
+        client = buildClient(true);
+        assertEquals("teacher", client.getUserInfo("opaque-token").get("username"));
+
+        // 调用：服务不可用
+        responseStatus = 500;
+
+        // 断言：不降级
+        assertThrows(SchoolApiUnavailableException.class, () -> client.getUserInfo("opaque-token"));
+    }
+
+    @Test
+    public void testGetUserInfo_invalidToken() throws Exception {
+        // 准备参数：开启降级，先成功获取一次
+        client = buildClient(true);
+        String token = buildToken(TimeUnit.HOURS.toMillis(1));
+        assertNotNull(client.getUserInfo(token));
+
+        // 调用：Token 被吊销，服务返回 401
+        responseStatus = 401;
+        assertNull(client.getUserInfo(token));
+        // 调用：随后服务不可用
+        responseStatus = 500;
+
+        // 断言：被吊销的 Token 不会通过降级认证
+        assertThrows(SchoolApiUnavailableException.class, () -> client.getUserInfo(token));
+    }
+
+    private int exchangeUserInfo() {
+        return client.exchange(Endpoint.USER_INFO, HttpMethod.POST, new HttpEntity<>(new HashMap<>()), Map.class)
+                .getStatusCode().value();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            if (responseDelayMillis > 0) {
+                Thread.sleep(responseDelayMillis);
+            }
+            byte[] body = USER_INFO_BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private SchoolApiHttpClient buildClient(boolean fallbackEnabled) throws Exception {
+        SchoolApiHttpClient client = new SchoolApiHttpClient();
+        setField(client, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        setField(client, "connectTimeoutSeconds", 1);
+        setField(client, "readTimeoutSeconds", 1);
+        setField(client, "tokenReadTimeoutMillis", TOKEN_READ_TIMEOUT_MILLIS);
+        setField(client, "maxConcurrentCalls", 8);
+        setField(client, "bulkheadWaitMillis", 50L);
+        setField(client, "failureThreshold", FAILURE_THRESHOLD);
+        setField(client, "openDurationMillis", OPEN_DURATION_MILLIS);
+        setField(client, "fallbackEnabled", fallbackEnabled);
+        setField(client, "fallbackCapacity", 100);
+        setField(client, "fallbackTtlMillis", TimeUnit.MINUTES.toMillis(1));
+        client.init();
+        return client;
+    }
+
+    private static String buildToken(long expiresInMillis) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put(RegisteredPayload.SUBJECT, "teacher");
+        payload.put(RegisteredPayload.EXPIRES_AT, (System.currentTimeMillis() + expiresInMillis) / 1000);
+        return JWTUtil.createToken(payload, "test-key".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = SchoolApiHttpClient.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+}
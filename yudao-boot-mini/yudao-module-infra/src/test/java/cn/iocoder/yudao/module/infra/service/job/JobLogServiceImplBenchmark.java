@@ -0,0 +1,118 @@
+package cn.iocoder.yudao.module.infra.service.job;
+
+import cn.iocoder.yudao.module.infra.dal.dataobject.job.JobLogDO;
+import cn.iocoder.yudao.module.infra.dal.mysql.job.JobLogMapper;
+import cn.iocoder.yudao.module.infra.enums.job.JobLogStatusEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Job 日志写入的基准测试，每次调用为一次 Job 执行的「开始 + 结果」两次写入
+ *
+ * 数据库通过 {@link JobLogMapper} 的代理模拟，每条 SQL 耗时 rttMicros 微秒：
+ * 1. direct：insert 开始日志，再 updateById 结果，即原有实现，每次执行 2 条 SQL
+ * 2. buffered：通过 {@link JobLogServiceImpl}，由 BatchBuffer 合并为批量插入
+ *
+ * 除吞吐量外，TearDown 时输出每次执行平均的 SQL 条数
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JobLogServiceImplBenchmark {
+
+    @Param({"500"})
+    public long rttMicros;
+
+    private final AtomicLong idGenerator = new AtomicLong();
+    /**
+     * 执行的 SQL 条数
+     */
+    private final LongAdder statementCount = new LongAdder();
+    /**
+     * Job 的执行次数
+     */
+    private final LongAdder runCount = new LongAdder();
+
+    private JobLogMapper jobLogMapper;
+    private JobLogServiceImpl jobLogService;
+
+    @Setup
+    public void setUp() throws Exception {
+        jobLogMapper = buildJobLogMapper(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+        jobLogService = new JobLogServiceImpl();
+        Field field = JobLogServiceImpl.class.getDeclaredField("jobLogMapper");
+        field.setAccessible(true);
+        field.set(jobLogService, jobLogMapper);
+        jobLogService.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        jobLogService.destroy();
+        System.out.printf("%n[tearDown] 执行(%d) 次，SQL(%d) 条，平均每次执行 %.3f 条%n", runCount.sum(),
+                statementCount.sum(), (double) statementCount.sum() / Math.max(1, runCount.sum()));
+    }
+
+    @Benchmark
+    public Long direct() {
+        LocalDateTime beginTime = LocalDateTime.now();
+        JobLogDO log = JobLogDO.builder().id(idGenerator.incrementAndGet()).jobId(1L).handlerName("benchmarkJob")
+                .executeIndex(1).beginTime(beginTime).status(JobLogStatusEnum.RUNNING.getStatus()).build();
+        jobLogMapper.insert(log);
+        jobLogMapper.updateById(JobLogDO.builder().id(log.getId()).endTime(LocalDateTime.now()).duration(0)
+                .status(JobLogStatusEnum.SUCCESS.getStatus()).result("ok").build());
+        runCount.increment();
+        return log.getId();
+    }
+
+    @Benchmark
+    public Long buffered() {
+        Long logId = jobLogService.createJobLog(1L, LocalDateTime.now(), "benchmarkJob", null, 1);
+        jobLogService.updateJobLogResultAsync(logId, LocalDateTime.now(), 0, true, "ok");
+        runCount.increment();
+        return logId;
+    }
+
+    private JobLogMapper buildJobLogMapper(long rttNanos) {
+        return (JobLogMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{JobLogMapper.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "insert":
+                        case "updateById":
+                            statementCount.increment();
+                            LockSupport.parkNanos(rttNanos);
+                            return 1;
+                        case "insertBatch":
+                        case "updateBatch":
+                            statementCount.increment();
+                            LockSupport.parkNanos(rttNanos);
+                            return true;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JobLogServiceImplBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -1,8 +1,10 @@
 package cn.iocoder.yudao.module.system.api.notify;
 
+import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendBatchToUserReqDTO;
 import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendSingleToUserReqDTO;
 
 import jakarta.validation.Valid;
+import java.util.List;
 
 /**
  * 站内信发送 API 接口
@@ -27,4 +29,12 @@ public interface NotifyMessageSendApi {
      */
     Long sendSingleMessageToMember(@Valid NotifySendSingleToUserReqDTO reqDTO);
 
+    /**
+     * 批量发送站内信给 Admin 用户
+     *
+     * @param reqDTO 发送请求
+     * @return 发送消息 ID 数组
+     */
+    List<Long> sendBatchMessageToAdmin(@Valid NotifySendBatchToUserReqDTO reqDTO);
+
 }
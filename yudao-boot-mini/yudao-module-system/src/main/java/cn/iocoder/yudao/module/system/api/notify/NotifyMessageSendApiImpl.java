@@ -1,10 +1,12 @@
 package cn.iocoder.yudao.module.system.api.notify;
 
+import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendBatchToUserReqDTO;
 import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendSingleToUserReqDTO;
 import cn.iocoder.yudao.module.system.service.notify.NotifySendService;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.Resource;
+import java.util.List;
 
 /**
  * 站内信发送 API 实现类
@@ -29,4 +31,10 @@ public class NotifyMessageSendApiImpl implements NotifyMessageSendApi {
                 reqDTO.getTemplateCode(), reqDTO.getTemplateParams());
     }
 
+    @Override
+    public List<Long> sendBatchMessageToAdmin(NotifySendBatchToUserReqDTO reqDTO) {
+        return notifySendService.sendBatchNotifyToAdmin(reqDTO.getUserIds(),
+                reqDTO.getTemplateCode(), reqDTO.getTemplateParams());
+    }
+
 }
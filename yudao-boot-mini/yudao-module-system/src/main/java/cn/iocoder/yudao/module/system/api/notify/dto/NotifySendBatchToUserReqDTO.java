@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.module.system.api.notify.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 站内信批量发送给 Admin 或者 Member 用户
+ *
+ * @author 芋道源码
+ */
+@Data
+public class NotifySendBatchToUserReqDTO {
+
+    /**
+     * 用户编号数组
+     */
+    @NotEmpty(message = "用户编号数组不能为空")
+    private List<Long> userIds;
+
+    /**
+     * 站内信模板编号
+     */
+    @NotEmpty(message = "站内信模板编号不能为空")
+    private String templateCode;
+
+    /**
+     * 站内信模板参数
+     */
+    private Map<String, Object> templateParams;
+}
@@ -0,0 +1,54 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.dept;
+
+import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 部门闭包表，记录部门之间的祖先、后代关系，包含部门自身到自身（depth = 0）的记录
+ *
+ * 用于数据权限基于根部门子查询所有子部门，避免拼接大量的部门编号。
+ * 注意：不继承 BaseDO，因为它会被数据权限拼接到子查询中，无法自动添加逻辑删除的条件；
+ * 不需要多租户，因为 {@link DeptDO#getId()} 全局唯一
+ *
+ * @author 芋道源码
+ */
+@TableName("system_dept_closure")
+@KeySequence("system_dept_closure_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@TenantIgnore
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeptClosureDO {
+
+    public static final String TABLE_NAME = "system_dept_closure";
+    public static final String COLUMN_ANCESTOR_ID = "ancestor_id";
+    public static final String COLUMN_DESCENDANT_ID = "descendant_id";
+
+    /**
+     * 自增主键
+     */
+    @TableId
+    private Long id;
+    /**
+     * 祖先部门编号
+     *
+     * 关联 {@link DeptDO#getId()}
+     */
+    private Long ancestorId;
+    /**
+     * 后代部门编号
+     *
+     * 关联 {@link DeptDO#getId()}
+     */
+    private Long descendantId;
+    /**
+     * 祖先到后代的层级距离，自身为 0
+     */
+    private Integer depth;
+
+}
@@ -0,0 +1,38 @@
+package cn.iocoder.yudao.module.system.dal.mysql.dept;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptClosureDO;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface DeptClosureMapper extends BaseMapperX<DeptClosureDO> {
+
+    default List<DeptClosureDO> selectListByDescendantId(Long descendantId) {
+        return selectList(DeptClosureDO::getDescendantId, descendantId);
+    }
+
+    default List<DeptClosureDO> selectListByAncestorId(Long ancestorId) {
+        return selectList(DeptClosureDO::getAncestorId, ancestorId);
+    }
+
+    default int deleteByDescendantIds(Collection<Long> descendantIds) {
+        return deleteBatch(DeptClosureDO::getDescendantId, descendantIds);
+    }
+
+    /**
+     * 删除子树与外部祖先的记录，保留子树内部的记录
+     *
+     * @param subtreeIds 子树的部门编号，包含子树的根部门
+     * @return 删除的数量
+     */
+    default int deleteByDescendantIdsAndAncestorIdsNotIn(Collection<Long> subtreeIds) {
+        return delete(new LambdaQueryWrapperX<DeptClosureDO>()
+                .in(DeptClosureDO::getDescendantId, subtreeIds)
+                .notIn(DeptClosureDO::getAncestorId, subtreeIds));
+    }
+
+}
@@ -25,6 +25,23 @@ public interface AdminUserMapper extends BaseMapperX<AdminUserDO> {
         return selectOne(AdminUserDO::getMobile, mobile);
     }
 
+    default int updateByIdAndPassword(Long id, String whenPassword, AdminUserDO updateObj) {
+        return update(updateObj, new LambdaQueryWrapperX<AdminUserDO>()
+                .eq(AdminUserDO::getId, id).eq(AdminUserDO::getPassword, whenPassword));
+    }
+
+    default List<AdminUserDO> selectListByUsernames(Collection<String> usernames) {
+        return selectList(AdminUserDO::getUsername, usernames);
+    }
+
+    default List<AdminUserDO> selectListByMobiles(Collection<String> mobiles) {
+        return selectList(AdminUserDO::getMobile, mobiles);
+    }
+
+    default List<AdminUserDO> selectListByEmails(Collection<String> emails) {
+        return selectList(AdminUserDO::getEmail, emails);
+    }
+
     default PageResult<AdminUserDO> selectPage(UserPageReqVO reqVO, Collection<Long> deptIds, Collection<Long> userIds) {
         return selectPage(reqVO, new LambdaQueryWrapperX<AdminUserDO>()
                 .likeIfPresent(AdminUserDO::getUsername, reqVO.getUsername())
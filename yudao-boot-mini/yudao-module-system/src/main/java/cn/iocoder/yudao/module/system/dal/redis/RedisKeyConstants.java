@@ -9,14 +9,6 @@ import cn.iocoder.yudao.module.system.dal.dataobject.oauth2.OAuth2AccessTokenDO;
  */
 public interface RedisKeyConstants {
 
-    /**
-     * 指定部门的所有子部门编号数组的缓存
-     * <p>
-     * KEY 格式：dept_children_ids:{id}
-     * VALUE 数据类型：String 子部门编号集合
-     */
-    String DEPT_CHILDREN_ID_LIST = "dept_children_ids";
-
     /**
      * 角色的缓存
      * <p>
@@ -75,6 +67,26 @@ public interface RedisKeyConstants {
      */
     String NOTIFY_TEMPLATE = "notify_template";
 
+    /**
+     * 站内信未读数量的缓存
+     * <p>
+     * KEY 格式：notify_message_unread_count:{userType}:{userId}
+     * VALUE 数据格式：String 未读数量
+     * <p>
+     * 未命中时从数据库统计后写入；发送、已读站内信后删除，并递增 {@link #NOTIFY_MESSAGE_UNREAD_COUNT_VERSION} 版本号
+     */
+    String NOTIFY_MESSAGE_UNREAD_COUNT = "notify_message_unread_count:%d:%d";
+
+    /**
+     * 站内信未读数量的版本号
+     * <p>
+     * KEY 格式：notify_message_unread_count_version:{userType}:{userId}
+     * VALUE 数据格式：String 版本号
+     * <p>
+     * 统计未读数量前读取，写入缓存时校验未变化，避免写入统计期间已经变化的旧数量
+     */
+    String NOTIFY_MESSAGE_UNREAD_COUNT_VERSION = "notify_message_unread_count_version:%d:%d";
+
     /**
      * 邮件账号的缓存
      * <p>
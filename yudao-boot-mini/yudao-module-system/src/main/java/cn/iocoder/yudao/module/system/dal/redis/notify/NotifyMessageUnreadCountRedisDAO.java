@@ -0,0 +1,142 @@
+package cn.iocoder.yudao.module.system.dal.redis.notify;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.NOTIFY_MESSAGE_UNREAD_COUNT;
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.NOTIFY_MESSAGE_UNREAD_COUNT_VERSION;
+
+/**
+ * 站内信未读数量的 RedisDAO
+ *
+ * 采用「先更新数据库，再删除缓存」的方式：未读数量变化时，删除缓存并递增版本号；未命中时，从数据库统计后写入。
+ * 为避免统计期间发生变化，导致写入旧的数量，统计前通过 {@link #getVersion(Long, Integer)} 读取版本号，
+ * 写入时通过 {@link #setIfVersion(Long, Integer, String, long)} 校验版本号未变化
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class NotifyMessageUnreadCountRedisDAO {
+
+    /**
+     * 缓存的过期时间
+     *
+     * 过期后，下次查询会从数据库重新统计，作为兜底的对账
+     */
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+    /**
+     * 版本号的过期时间，需要远大于一次统计的耗时
+     */
+    private static final Duration VERSION_TIMEOUT = Duration.ofHours(1);
+
+    /**
+     * 写入未读数量的脚本：版本号未变化、且 key 不存在时，才写入
+     *
+     * KEYS[1]：未读数量的 key
+     * KEYS[2]：版本号的 key
+     * ARGV[1]：统计前读取的版本号，不存在时为空字符串
+     * ARGV[2]：未读数量
+     * ARGV[3]：过期时间，单位：秒
+     */
+    private static final RedisScript<Long> SET_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('GET', KEYS[2]) or ''\n" +
+            "if version ~= ARGV[1] then\n" +
+            "  return 0\n" +
+            "end\n" +
+            "if redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3], 'NX') then\n" +
+            "  return 1\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    /**
+     * 删除未读数量的脚本：删除 key，并递增版本号，使统计中的旧数量无法写入
+     *
+     * KEYS：未读数量的 key、版本号的 key，两两一组
+     * ARGV[1]：版本号的过期时间，单位：秒
+     */
+    private static final RedisScript<Long> DELETE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do\n" +
+            "  redis.call('DEL', KEYS[i])\n" +
+            "  redis.call('INCR', KEYS[i + 1])\n" +
+            "  redis.call('EXPIRE', KEYS[i + 1], ARGV[1])\n" +
+            "end\n" +
+            "return #KEYS / 2", Long.class);
+
+    /**
+     * 批量删除时，每次脚本执行的用户数量，避免单个脚本执行过久，阻塞 Redis
+     */
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public Long get(Long userId, Integer userType) {
+        String value = stringRedisTemplate.opsForValue().get(formatKey(userId, userType));
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    /**
+     * 获得版本号，需要在统计未读数量之前调用
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @return 版本号，不存在时为空字符串
+     */
+    public String getVersion(Long userId, Integer userType) {
+        return StrUtil.nullToEmpty(stringRedisTemplate.opsForValue().get(formatVersionKey(userId, userType)));
+    }
+
+    /**
+     * 版本号未变化时，写入未读数量
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @param version 统计前读取的版本号
+     * @param count 未读数量
+     * @return 是否写入
+     */
+    public boolean setIfVersion(Long userId, Integer userType, String version, long count) {
+        Long result = stringRedisTemplate.execute(SET_IF_VERSION_SCRIPT,
+                Arrays.asList(formatKey(userId, userType), formatVersionKey(userId, userType)),
+                version, String.valueOf(count), String.valueOf(TIMEOUT.getSeconds()));
+        return result != null && result > 0;
+    }
+
+    public void delete(Long userId, Integer userType) {
+        deleteList(List.of(userId), userType);
+    }
+
+    public void deleteList(Collection<Long> userIds, Integer userType) {
+        if (CollUtil.isEmpty(userIds)) {
+            return;
+        }
+        for (List<Long> batchUserIds : CollUtil.split(userIds, DELETE_BATCH_SIZE)) {
+            List<String> keys = new ArrayList<>(batchUserIds.size() * 2);
+            batchUserIds.forEach(userId -> {
+                keys.add(formatKey(userId, userType));
+                keys.add(formatVersionKey(userId, userType));
+            });
+            stringRedisTemplate.execute(DELETE_SCRIPT, keys, String.valueOf(VERSION_TIMEOUT.getSeconds()));
+        }
+    }
+
+    private static String formatKey(Long userId, Integer userType) {
+        return String.format(NOTIFY_MESSAGE_UNREAD_COUNT, userType, userId);
+    }
+
+    private static String formatVersionKey(Long userId, Integer userType) {
+        return String.format(NOTIFY_MESSAGE_UNREAD_COUNT_VERSION, userType, userId);
+    }
+
+}
@@ -0,0 +1,14 @@
+package cn.iocoder.yudao.module.system.enums.logger;
+
+/**
+ * 操作日志缓冲区已满时的处理策略的枚举类
+ *
+ * 通过 yudao.operate-log.buffer-full-policy 配置项设置
+ */
+public enum OperateLogBufferFullPolicyEnum {
+
+    CALLER_RUNS, // 调用方同步写入，不丢失日志
+    BLOCK, // 调用方阻塞等待缓冲区有空间，实现背压；等待超时后丢弃
+    DROP, // 直接丢弃
+
+}
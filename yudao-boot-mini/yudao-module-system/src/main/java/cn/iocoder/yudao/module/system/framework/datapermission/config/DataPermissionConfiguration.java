@@ -1,8 +1,10 @@
 package cn.iocoder.yudao.module.system.framework.datapermission.config;
 
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptClosureDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.framework.datapermission.core.rule.dept.DeptDataPermissionRuleCustomizer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,13 +17,19 @@ import org.springframework.context.annotation.Configuration;
 public class DataPermissionConfiguration {
 
     @Bean
-    public DeptDataPermissionRuleCustomizer sysDeptDataPermissionRuleCustomizer() {
+    public DeptDataPermissionRuleCustomizer sysDeptDataPermissionRuleCustomizer(
+            @Value("${yudao.dept-closure.enable:false}") boolean deptClosureEnable) {
         return rule -> {
             // dept
             rule.addDeptColumn(AdminUserDO.class);
             rule.addDeptColumn(DeptDO.class, "id");
             // user
             rule.addUserColumn(AdminUserDO.class, "id");
+            // dept closure：可查看的部门较多时，基于闭包表子查询，避免拼接大量的部门编号
+            // 需要先执行 system_dept_closure.sql 创建闭包表，所以默认关闭，关闭时使用 IN 部门编号列表
+            if (deptClosureEnable) {
+                rule.setDeptClosure(DeptClosureDO.TABLE_NAME, DeptClosureDO.COLUMN_ANCESTOR_ID, DeptClosureDO.COLUMN_DESCENDANT_ID);
+            }
         };
     }
 
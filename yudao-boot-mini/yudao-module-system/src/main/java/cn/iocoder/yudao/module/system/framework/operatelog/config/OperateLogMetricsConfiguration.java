@@ -0,0 +1,26 @@
+package cn.iocoder.yudao.module.system.framework.operatelog.config;
+
+import cn.iocoder.yudao.module.system.service.logger.OperateLogMeterBinder;
+import cn.iocoder.yudao.module.system.service.logger.OperateLogServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 操作日志的 Metrics 配置类
+ *
+ * 引入 micrometer-core 时生效，注册操作日志缓冲区的积压、写入、丢弃等指标
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+public class OperateLogMetricsConfiguration {
+
+    @Bean
+    public OperateLogMeterBinder operateLogMeterBinder(OperateLogServiceImpl operateLogService) {
+        return new OperateLogMeterBinder(operateLogService);
+    }
+
+}
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.mq.consumer.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.dept.DeptRefreshMessage;
+import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link DeptRefreshMessage} 的消费者，广播消费，使每个节点的部门树失效
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class DeptRefreshConsumer extends AbstractRedisChannelMessageListener<DeptRefreshMessage> {
+
+    @Resource
+    private DeptService deptService;
+
+    @Override
+    public void onMessage(DeptRefreshMessage message) {
+        log.info("[onMessage][收到 Dept 刷新消息]");
+        deptService.invalidateDeptTree();
+    }
+
+}
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.mq.consumer.mail;
 
+import cn.iocoder.yudao.module.system.mq.message.mail.MailSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.mail.MailSendMessage;
 import cn.iocoder.yudao.module.system.service.mail.MailSendService;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +11,7 @@ import org.springframework.stereotype.Component;
 import jakarta.annotation.Resource;
 
 /**
- * 针对 {@link MailSendMessage} 的消费者
+ * 针对 {@link MailSendMessage}、{@link MailSendBatchMessage} 的消费者
  *
  * @author 芋道源码
  */
@@ -28,4 +29,12 @@ public class MailSendConsumer {
         mailSendService.doSendMail(message);
     }
 
+    @EventListener
+    @Async // Spring Event 默认在 Producer 发送的线程，通过 @Async 实现异步
+    public void onMessage(MailSendBatchMessage message) {
+        log.info("[onMessage][账号({}) 标题({}) 批量发送({}) 封]", message.getAccountId(),
+                message.getTitle(), message.getReceivers().size());
+        mailSendService.doSendBatchMail(message);
+    }
+
 }
@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.system.mq.consumer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionRefreshMessage;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 针对 {@link PermissionRefreshMessage} 的消费者，广播消费，使每个节点的权限索引失效
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PermissionRefreshConsumer extends AbstractRedisChannelMessageListener<PermissionRefreshMessage> {
+
+    @Resource
+    private PermissionService permissionService;
+
+    @Override
+    public void onMessage(PermissionRefreshMessage message) {
+        log.info("[onMessage][收到 Permission 刷新消息({})]", message.getUserId());
+        permissionService.invalidatePermissionIndex(message.getUserId());
+    }
+
+}
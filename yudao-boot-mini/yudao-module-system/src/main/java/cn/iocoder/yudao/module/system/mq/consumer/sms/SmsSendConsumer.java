@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.mq.consumer.sms;
 
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 import cn.iocoder.yudao.module.system.service.sms.SmsSendService;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +11,7 @@ import org.springframework.stereotype.Component;
 import jakarta.annotation.Resource;
 
 /**
- * 针对 {@link SmsSendMessage} 的消费者
+ * 针对 {@link SmsSendMessage}、{@link SmsSendBatchMessage} 的消费者
  *
  * @author zzf
  */
@@ -28,4 +29,12 @@ public class SmsSendConsumer {
         smsSendService.doSendSms(message);
     }
 
+    @EventListener
+    @Async // Spring Event 默认在 Producer 发送的线程，通过 @Async 实现异步
+    public void onMessage(SmsSendBatchMessage message) {
+        log.info("[onMessage][渠道({}) 模板({}) 批量发送({}) 条]", message.getChannelId(),
+                message.getApiTemplateId(), message.getReceivers().size());
+        smsSendService.doSendBatchSms(message);
+    }
+
 }
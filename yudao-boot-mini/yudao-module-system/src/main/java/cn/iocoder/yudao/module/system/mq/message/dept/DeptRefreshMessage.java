@@ -0,0 +1,18 @@
+package cn.iocoder.yudao.module.system.mq.message.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 部门数据刷新 Message
+ *
+ * 租户编号，通过 Header 传递，参见 TenantRedisMessageInterceptor
+ *
+ * @author 芋道源码
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class DeptRefreshMessage extends AbstractRedisChannelMessage {
+
+}
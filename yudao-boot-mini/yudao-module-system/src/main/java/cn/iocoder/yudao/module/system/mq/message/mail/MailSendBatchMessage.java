@@ -0,0 +1,49 @@
+package cn.iocoder.yudao.module.system.mq.message.mail;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * 邮箱批量发送消息
+ *
+ * 同一批次的邮件，使用相同的账号、标题、内容，只有收件人不同
+ *
+ * @author 芋道源码
+ */
+@Data
+public class MailSendBatchMessage {
+
+    /**
+     * 发送人
+     */
+    private String nickname;
+    /**
+     * 邮件标题
+     */
+    @NotEmpty(message = "邮件标题不能为空")
+    private String title;
+    /**
+     * 邮件内容
+     */
+    @NotEmpty(message = "邮件内容不能为空")
+    private String content;
+    /**
+     * 邮件账号的编号
+     */
+    @NotNull(message = "邮件账号的编号不能为空")
+    private Long accountId;
+
+    /**
+     * 收件人数组
+     *
+     * key：邮件日志编号
+     * value：接收邮件地址
+     */
+    @NotEmpty(message = "收件人不能为空")
+    private List<KeyValue<Long, String>> receivers;
+
+}
@@ -0,0 +1,23 @@
+package cn.iocoder.yudao.module.system.mq.message.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 权限数据刷新 Message
+ *
+ * @author 芋道源码
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PermissionRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 用户编号
+     *
+     * 非空时，只刷新该用户的角色；为空时，刷新整个权限索引
+     */
+    private Long userId;
+
+}
@@ -0,0 +1,44 @@
+package cn.iocoder.yudao.module.system.mq.message.sms;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * 短信批量发送消息
+ *
+ * 同一批次的短信，使用相同的渠道、模板、参数，只有接收人不同
+ *
+ * @author 芋道源码
+ */
+@Data
+public class SmsSendBatchMessage {
+
+    /**
+     * 短信渠道编号
+     */
+    @NotNull(message = "短信渠道编号不能为空")
+    private Long channelId;
+    /**
+     * 短信 API 的模板编号
+     */
+    @NotNull(message = "短信 API 的模板编号不能为空")
+    private String apiTemplateId;
+    /**
+     * 短信模板参数
+     */
+    private List<KeyValue<String, Object>> templateParams;
+
+    /**
+     * 接收人数组
+     *
+     * key：短信日志编号
+     * value：手机号
+     */
+    @NotEmpty(message = "接收人不能为空")
+    private List<KeyValue<Long, String>> receivers;
+
+}
@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.producer.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.dept.DeptRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dept 部门相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class DeptProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link DeptRefreshMessage} 消息，通知所有节点刷新部门树
+     */
+    public void sendDeptRefreshMessage() {
+        DeptRefreshMessage message = new DeptRefreshMessage();
+        redisMQTemplate.send(message);
+    }
+
+}
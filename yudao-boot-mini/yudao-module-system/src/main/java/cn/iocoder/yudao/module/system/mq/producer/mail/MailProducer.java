@@ -1,11 +1,14 @@
 package cn.iocoder.yudao.module.system.mq.producer.mail;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.module.system.mq.message.mail.MailSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.mail.MailSendMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.Resource;
+import java.util.List;
 
 /**
  * Mail 邮件相关消息的 Producer
@@ -38,4 +41,21 @@ public class MailProducer {
         applicationContext.publishEvent(message);
     }
 
+    /**
+     * 发送 {@link MailSendBatchMessage} 消息
+     *
+     * @param accountId 邮件账号编号
+     * @param nickname 邮件发件人
+     * @param title 邮件标题
+     * @param content 邮件内容
+     * @param receivers 收件人数组，key 为发送日志编号，value 为接收邮件地址
+     */
+    public void sendMailSendBatchMessage(Long accountId, String nickname, String title, String content,
+                                         List<KeyValue<Long, String>> receivers) {
+        MailSendBatchMessage message = new MailSendBatchMessage()
+                .setAccountId(accountId).setNickname(nickname).setTitle(title).setContent(content)
+                .setReceivers(receivers);
+        applicationContext.publishEvent(message);
+    }
+
 }
@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.system.mq.producer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionRefreshMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Permission 权限相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+@Component
+public class PermissionProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PermissionRefreshMessage} 消息，通知所有节点刷新权限索引
+     *
+     * @param userId 用户编号。为空时，刷新整个权限索引
+     */
+    public void sendPermissionRefreshMessage(Long userId) {
+        PermissionRefreshMessage message = new PermissionRefreshMessage().setUserId(userId);
+        redisMQTemplate.send(message);
+    }
+
+}
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.system.mq.producer.sms;
 
 import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
@@ -38,4 +39,19 @@ public class SmsProducer {
         applicationContext.publishEvent(message);
     }
 
+    /**
+     * 发送 {@link SmsSendBatchMessage} 消息
+     *
+     * @param channelId 渠道编号
+     * @param apiTemplateId 短信模板编号
+     * @param templateParams 短信模板参数
+     * @param receivers 接收人数组，key 为短信日志编号，value 为手机号
+     */
+    public void sendSmsSendBatchMessage(Long channelId, String apiTemplateId, List<KeyValue<String, Object>> templateParams,
+                                        List<KeyValue<Long, String>> receivers) {
+        SmsSendBatchMessage message = new SmsSendBatchMessage().setChannelId(channelId)
+                .setApiTemplateId(apiTemplateId).setTemplateParams(templateParams).setReceivers(receivers);
+        applicationContext.publishEvent(message);
+    }
+
 }
@@ -93,6 +93,8 @@ public class AdminAuthServiceImpl implements AdminAuthService {
             createLoginLog(user.getId(), username, logTypeEnum, LoginResultEnum.USER_DISABLED);
             throw exception(AUTH_LOGIN_USER_DISABLED);
         }
+        // 加密复杂度调高时，重新加密密码。放在禁用校验之后，避免为已禁用的用户写库
+        userService.upgradePasswordIfNecessary(user.getId(), password, user.getPassword());
         return user;
     }
 
@@ -158,10 +160,10 @@ public class AdminAuthServiceImpl implements AdminAuthService {
         reqDTO.setUserAgent(ServletUtils.getUserAgent());
         reqDTO.setUserIp(ServletUtils.getClientIP());
         reqDTO.setResult(loginResult.getResult());
-        loginLogService.createLoginLog(reqDTO);
+        loginLogService.createLoginLogAsync(reqDTO); // 异步批量写入，避免登录高峰期阻塞登录请求
         // 更新最后登录时间
         if (userId != null && Objects.equals(LoginResultEnum.SUCCESS.getResult(), loginResult.getResult())) {
-            userService.updateUserLogin(userId, ServletUtils.getClientIP());
+            userService.updateUserLoginAsync(userId, reqDTO.getUserIp());
         }
     }
 
@@ -105,6 +105,11 @@ public interface DeptService {
      */
     Set<Long> getChildDeptIdListFromCache(Long id);
 
+    /**
+     * 使当前节点、当前租户的部门树快照失效，下次访问时重新加载
+     */
+    void invalidateDeptTree();
+
     /**
      * 校验部门们是否有效。如下情况，视为无效：
      * 1. 部门编号不存在
@@ -114,4 +119,11 @@ public interface DeptService {
      */
     void validateDeptList(Collection<Long> ids);
 
+    /**
+     * 重建当前租户的部门闭包表
+     *
+     * 用于闭包表初始化时，或者闭包表与部门数据不一致时修复。修改父部门时，只移动子树的闭包，无需重建
+     */
+    void rebuildDeptClosure();
+
 }
@@ -4,23 +4,32 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
-import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.datapermission.core.util.DataPermissionUtils;
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptListReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptSaveReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptClosureDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptClosureMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptMapper;
-import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.system.mq.producer.dept.DeptProducer;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.annotation.Resource;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
@@ -36,10 +45,36 @@ public class DeptServiceImpl implements DeptService {
 
     @Resource
     private DeptMapper deptMapper;
+    @Resource
+    private DeptClosureMapper deptClosureMapper;
+
+    @Resource
+    private DeptProducer deptProducer;
+
+    /**
+     * 是否开启部门闭包表
+     *
+     * 关闭时，不维护 system_dept_closure 表，避免未执行 system_dept_closure.sql 时，部门的增删改失败
+     */
+    @Value("${yudao.dept-closure.enable:false}")
+    private boolean deptClosureEnable;
+
+    /**
+     * 部门树快照的缓存
+     *
+     * KEY：租户编号。未开启多租户时，为 0
+     * VALUE：部门树快照。部门变化时，通过 {@link DeptProducer} 广播，使所有节点失效后重新加载
+     */
+    private final Map<Long, DeptTreeSnapshot> deptTreeSnapshots = new ConcurrentHashMap<>();
+    /**
+     * 部门树快照的版本号，每次失效时递增
+     *
+     * 用于丢弃加载期间发生失效的快照，避免发布过期的部门树
+     */
+    private final AtomicLong deptTreeVersion = new AtomicLong();
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
+    @Transactional(rollbackFor = Exception.class)
     public Long createDept(DeptSaveReqVO createReqVO) {
         if (createReqVO.getParentId() == null) {
             createReqVO.setParentId(DeptDO.PARENT_ID_ROOT);
@@ -52,18 +87,23 @@ public class DeptServiceImpl implements DeptService {
         // 插入部门
         DeptDO dept = BeanUtils.toBean(createReqVO, DeptDO.class);
         deptMapper.insert(dept);
+
+        // 插入部门闭包：自身 + 父部门的所有祖先
+        createDeptClosure(dept.getId(), dept.getParentId());
+
+        // 刷新部门树
+        refreshDeptTree();
         return dept.getId();
     }
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
+    @Transactional(rollbackFor = Exception.class)
     public void updateDept(DeptSaveReqVO updateReqVO) {
         if (updateReqVO.getParentId() == null) {
             updateReqVO.setParentId(DeptDO.PARENT_ID_ROOT);
         }
         // 校验自己存在
-        validateDeptExists(updateReqVO.getId());
+        DeptDO oldDept = validateDeptExists(updateReqVO.getId());
         // 校验父部门的有效性
         validateParentDept(updateReqVO.getId(), updateReqVO.getParentId());
         // 校验部门名的唯一性
@@ -72,11 +112,18 @@ public class DeptServiceImpl implements DeptService {
         // 更新部门
         DeptDO updateObj = BeanUtils.toBean(updateReqVO, DeptDO.class);
         deptMapper.updateById(updateObj);
+
+        // 父部门变化时，移动子树的部门闭包
+        if (ObjectUtil.notEqual(oldDept.getParentId(), updateObj.getParentId())) {
+            moveDeptClosure(updateObj.getId(), updateObj.getParentId());
+        }
+
+        // 刷新部门树
+        refreshDeptTree();
     }
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
+    @Transactional(rollbackFor = Exception.class)
     public void deleteDept(Long id) {
         // 校验是否存在
         validateDeptExists(id);
@@ -86,17 +133,100 @@ public class DeptServiceImpl implements DeptService {
         }
         // 删除部门
         deptMapper.deleteById(id);
+        // 删除部门闭包。因为不存在子部门，所以只需删除以它为后代的记录
+        if (deptClosureEnable) {
+            deptClosureMapper.deleteByDescendantIds(Collections.singleton(id));
+        }
+
+        // 刷新部门树
+        refreshDeptTree();
+    }
+
+    private void createDeptClosure(Long id, Long parentId) {
+        if (!deptClosureEnable) {
+            return;
+        }
+        List<DeptClosureDO> closures = new ArrayList<>();
+        closures.add(new DeptClosureDO(null, id, id, 0));
+        deptClosureMapper.selectListByDescendantId(parentId).forEach(parent ->
+                closures.add(new DeptClosureDO(null, parent.getAncestorId(), id, parent.getDepth() + 1)));
+        deptClosureMapper.insertBatch(closures);
     }
 
+    /**
+     * 移动子树的部门闭包：只重写子树与外部祖先之间的记录，子树内部的记录不变
+     *
+     * @param id 移动的部门编号，即子树的根部门
+     * @param parentId 新的父部门编号
+     */
     @VisibleForTesting
-    void validateDeptExists(Long id) {
-        if (id == null) {
+    void moveDeptClosure(Long id, Long parentId) {
+        if (!deptClosureEnable) {
+            return;
+        }
+        // 1. 获得子树的所有部门，及其到子树根部门的距离
+        List<DeptClosureDO> subtree = deptClosureMapper.selectListByAncestorId(id);
+        if (CollUtil.isEmpty(subtree)) {
+            log.warn("[moveDeptClosure][部门({}) 不存在闭包，请执行 rebuildDeptClosure 重建]", id);
             return;
         }
+        Set<Long> subtreeIds = convertSet(subtree, DeptClosureDO::getDescendantId);
+
+        // 2. 删除子树与旧祖先的记录
+        deptClosureMapper.deleteByDescendantIdsAndAncestorIdsNotIn(subtreeIds);
+
+        // 3. 插入子树与新祖先的记录：新父部门的每个祖先（包含自身） x 子树的每个部门
+        List<DeptClosureDO> ancestors = DeptDO.PARENT_ID_ROOT.equals(parentId) ? Collections.emptyList()
+                : deptClosureMapper.selectListByDescendantId(parentId);
+        List<DeptClosureDO> closures = new ArrayList<>(ancestors.size() * subtree.size());
+        for (DeptClosureDO ancestor : ancestors) {
+            for (DeptClosureDO descendant : subtree) {
+                closures.add(new DeptClosureDO(null, ancestor.getAncestorId(), descendant.getDescendantId(),
+                        ancestor.getDepth() + 1 + descendant.getDepth()));
+            }
+        }
+        if (CollUtil.isNotEmpty(closures)) {
+            deptClosureMapper.insertBatch(closures);
+        }
+        log.info("[moveDeptClosure][部门({}) 移动子树({}) 个，插入闭包({}) 条]", id, subtree.size(), closures.size());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuildDeptClosure() {
+        if (!deptClosureEnable) {
+            log.warn("[rebuildDeptClosure][未开启部门闭包表（yudao.dept-closure.enable），忽略重建]");
+            return;
+        }
+        // 1. 基于 parentId，计算每个部门的所有祖先。禁用数据权限，避免建立不完整的闭包
+        List<DeptDO> depts = DataPermissionUtils.executeIgnore(() -> deptMapper.selectList());
+        Map<Long, Long> parentIds = new HashMap<>(depts.size());
+        depts.forEach(dept -> parentIds.put(dept.getId(), dept.getParentId()));
+        List<DeptClosureDO> closures = new ArrayList<>();
+        for (DeptDO dept : depts) {
+            Long ancestorId = dept.getId();
+            for (int depth = 0; ancestorId != null && depth < Short.MAX_VALUE; depth++) { // 使用 Short.MAX_VALUE 避免 bug 场景下，存在死循环
+                closures.add(new DeptClosureDO(null, ancestorId, dept.getId(), depth));
+                ancestorId = parentIds.get(ancestorId);
+            }
+        }
+
+        // 2. 删除旧的闭包，插入新的闭包
+        deptClosureMapper.deleteByDescendantIds(convertSet(depts, DeptDO::getId));
+        deptClosureMapper.insertBatch(closures);
+        log.info("[rebuildDeptClosure][部门({}) 重建闭包({}) 条]", depts.size(), closures.size());
+    }
+
+    @VisibleForTesting
+    DeptDO validateDeptExists(Long id) {
+        if (id == null) {
+            return null;
+        }
         DeptDO dept = deptMapper.selectById(id);
         if (dept == null) {
             throw exception(DEPT_NOT_FOUND);
         }
+        return dept;
     }
 
     @VisibleForTesting
@@ -171,21 +301,17 @@ public class DeptServiceImpl implements DeptService {
 
     @Override
     public List<DeptDO> getChildDeptList(Collection<Long> ids) {
-        List<DeptDO> children = new LinkedList<>();
-        // 遍历每一层
-        Collection<Long> parentIds = ids;
-        for (int i = 0; i < Short.MAX_VALUE; i++) { // 使用 Short.MAX_VALUE 避免 bug 场景下，存在死循环
-            // 查询当前层，所有的子部门
-            List<DeptDO> depts = deptMapper.selectListByParentId(parentIds);
-            // 1. 如果没有子部门，则结束遍历
-            if (CollUtil.isEmpty(depts)) {
-                break;
-            }
-            // 2. 如果有子部门，继续遍历
-            children.addAll(depts);
-            parentIds = convertSet(depts, DeptDO::getId);
+        // 1. 基于部门树快照，获得所有子部门
+        DeptTreeSnapshot snapshot = getDeptTreeSnapshot();
+        List<DeptDO> children = snapshot.getChildDeptList(ids);
+        if (CollUtil.isEmpty(children)) {
+            return new ArrayList<>();
         }
-        return children;
+        // 2. 一次性查询子部门：一方面，经过数据权限的过滤；另一方面，返回新的对象，避免调用方修改快照
+        Map<Long, DeptDO> deptMap = convertMap(deptMapper.selectByIds(convertSet(children, DeptDO::getId)), DeptDO::getId);
+        // 3. 与逐层查询 parentId 的结果保持一致：没有数据权限的部门，其子部门也不返回
+        return convertList(snapshot.getChildDeptList(ids, dept -> deptMap.containsKey(dept.getId())),
+                dept -> deptMap.get(dept.getId()));
     }
 
     @Override
@@ -194,11 +320,77 @@ public class DeptServiceImpl implements DeptService {
     }
 
     @Override
-    @DataPermission(enable = false) // 禁用数据权限，避免建立不正确的缓存
-    @Cacheable(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST, key = "#id")
     public Set<Long> getChildDeptIdListFromCache(Long id) {
-        List<DeptDO> children = getChildDeptList(id);
-        return convertSet(children, DeptDO::getId);
+        return getDeptTreeSnapshot().getChildDeptIds(id);
+    }
+
+    // ==================== 部门树快照 ====================
+
+    /**
+     * 获得当前租户的部门树快照，不存在时从 DB 加载
+     *
+     * 在 Map 之外加载，再通过 putIfAbsent 发布，避免加载时阻塞其它租户的查询。
+     * 并发加载同一租户时，以先发布的为准
+     *
+     * @return 部门树快照
+     */
+    @VisibleForTesting
+    DeptTreeSnapshot getDeptTreeSnapshot() {
+        // 1. 已加载，直接返回
+        Long key = getDeptTreeKey();
+        DeptTreeSnapshot snapshot = deptTreeSnapshots.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        // 2. 从 DB 加载。禁用数据权限，避免建立不完整的部门树
+        long version = deptTreeVersion.get();
+        List<DeptDO> depts = DataPermissionUtils.executeIgnore(() -> deptMapper.selectList());
+        snapshot = DeptTreeSnapshot.build(depts);
+
+        // 3. 发布快照
+        DeptTreeSnapshot existing = deptTreeSnapshots.putIfAbsent(key, snapshot);
+        if (existing != null) {
+            return existing;
+        }
+        // 加载期间部门发生变化，不保留可能过期的快照，下次重新加载
+        if (deptTreeVersion.get() != version) {
+            deptTreeSnapshots.remove(key, snapshot);
+        }
+        log.info("[getDeptTreeSnapshot][租户({}) 加载部门树({}) 个]", key, snapshot.size());
+        return snapshot;
+    }
+
+    @Override
+    public void invalidateDeptTree() {
+        deptTreeVersion.incrementAndGet();
+        deptTreeSnapshots.remove(getDeptTreeKey());
+    }
+
+    /**
+     * 刷新部门树：使本节点的部门树失效，并通知其它节点
+     *
+     * 需要在事务提交后执行，避免其它线程在提交前重建，读取到旧的部门数据
+     */
+    private void refreshDeptTree() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateDeptTree();
+            deptProducer.sendDeptRefreshMessage();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                invalidateDeptTree();
+                deptProducer.sendDeptRefreshMessage();
+            }
+
+        });
+    }
+
+    private static Long getDeptTreeKey() {
+        return ObjectUtil.defaultIfNull(TenantContextHolder.getTenantId(), 0L);
     }
 
     @Override
@@ -0,0 +1,163 @@
+package cn.iocoder.yudao.module.system.service.dept;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 部门树的不可变快照
+ *
+ * 按照先序遍历，将部门树展开为数组，每个部门的子树对应数组中的一段连续区间 [index + 1, end)。
+ * 因此，查询某个部门的所有子部门，只需截取对应区间，时间复杂度为 O(k)，k 为子部门数量
+ *
+ * 注意：
+ * 1. 快照创建后不允许修改，部门变化时，需要重新创建
+ * 2. 返回的 {@link DeptDO} 是快照内共享的对象，只读，调用方不允许修改
+ *
+ * @author 芋道源码
+ */
+public final class DeptTreeSnapshot {
+
+    /**
+     * 先序遍历后的部门数组
+     */
+    private final DeptDO[] depts;
+    /**
+     * 每个部门子树的结束位置（不包含）
+     */
+    private final int[] ends;
+    /**
+     * 部门编号与数组位置的映射
+     */
+    private final Map<Long, Integer> indexes;
+
+    private DeptTreeSnapshot(DeptDO[] depts, int[] ends, Map<Long, Integer> indexes) {
+        this.depts = depts;
+        this.ends = ends;
+        this.indexes = indexes;
+    }
+
+    /**
+     * 基于部门列表，创建部门树快照
+     *
+     * @param list 部门列表
+     * @return 部门树快照
+     */
+    public static DeptTreeSnapshot build(List<DeptDO> list) {
+        // 1. 构建父子关系
+        Map<Long, DeptDO> deptMap = new HashMap<>(list.size());
+        list.forEach(dept -> deptMap.put(dept.getId(), dept));
+        Map<Long, List<DeptDO>> childrenMap = new HashMap<>(list.size());
+        List<DeptDO> roots = new ArrayList<>();
+        for (DeptDO dept : list) {
+            // 父部门不存在（包括 PARENT_ID_ROOT），则视为根部门
+            if (dept.getParentId() == null || !deptMap.containsKey(dept.getParentId())) {
+                roots.add(dept);
+                continue;
+            }
+            childrenMap.computeIfAbsent(dept.getParentId(), key -> new ArrayList<>()).add(dept);
+        }
+
+        // 2. 先序遍历，记录每个部门的位置，以及其子树的结束位置
+        DeptDO[] depts = new DeptDO[list.size()];
+        int[] ends = new int[list.size()];
+        Map<Long, Integer> indexes = new HashMap<>(list.size());
+        int size = 0;
+        Deque<Object[]> stack = new ArrayDeque<>(); // [部门, 子部门迭代器]
+        for (DeptDO root : roots) {
+            indexes.put(root.getId(), size);
+            depts[size++] = root;
+            stack.push(new Object[]{root, childrenMap.getOrDefault(root.getId(), Collections.emptyList()).iterator()});
+            while (!stack.isEmpty()) {
+                Object[] top = stack.peek();
+                @SuppressWarnings("unchecked")
+                Iterator<DeptDO> iterator = (Iterator<DeptDO>) top[1];
+                if (!iterator.hasNext()) {
+                    stack.pop();
+                    ends[indexes.get(((DeptDO) top[0]).getId())] = size;
+                    continue;
+                }
+                DeptDO child = iterator.next();
+                if (indexes.containsKey(child.getId())) { // 避免 bug 场景下，存在环路
+                    continue;
+                }
+                indexes.put(child.getId(), size);
+                depts[size++] = child;
+                stack.push(new Object[]{child, childrenMap.getOrDefault(child.getId(), Collections.emptyList()).iterator()});
+            }
+        }
+        // 存在环路的部门，无法从根部门遍历到，直接丢弃
+        if (size < depts.length) {
+            depts = Arrays.copyOf(depts, size);
+            ends = Arrays.copyOf(ends, size);
+        }
+        return new DeptTreeSnapshot(depts, ends, indexes);
+    }
+
+    /**
+     * 获得指定部门们的所有子部门（不包括自身）
+     *
+     * @param ids 部门编号数组
+     * @return 子部门列表，按照先序遍历排序。只读，不允许修改其中的部门
+     */
+    public List<DeptDO> getChildDeptList(Collection<Long> ids) {
+        return getChildDeptList(ids, dept -> true);
+    }
+
+    /**
+     * 获得指定部门们的所有子部门（不包括自身），只遍历满足 filter 的部门
+     *
+     * 不满足 filter 的部门，其整个子树都会被跳过，与「逐层查询 parentId」的遍历方式结果一致
+     *
+     * @param ids 部门编号数组
+     * @param filter 部门过滤条件，例如说数据权限
+     * @return 子部门列表，按照先序遍历排序。只读，不允许修改其中的部门
+     */
+    public List<DeptDO> getChildDeptList(Collection<Long> ids, Predicate<DeptDO> filter) {
+        List<DeptDO> children = new ArrayList<>();
+        BitSet visited = new BitSet(depts.length);
+        for (Long id : ids) {
+            Integer index = indexes.get(id);
+            if (index == null) {
+                continue;
+            }
+            for (int i = index + 1; i < ends[index]; ) {
+                // 不满足过滤条件，跳过整个子树
+                if (!filter.test(depts[i])) {
+                    i = ends[i];
+                    continue;
+                }
+                if (!visited.get(i)) {
+                    visited.set(i);
+                    children.add(depts[i]);
+                }
+                i++;
+            }
+        }
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * 获得指定部门的所有子部门编号（不包括自身）
+     *
+     * @param id 部门编号
+     * @return 子部门编号集合
+     */
+    public Set<Long> getChildDeptIds(Long id) {
+        Integer index = indexes.get(id);
+        if (index == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> childIds = new HashSet<>(Math.max(16, (ends[index] - index) * 4 / 3));
+        for (int i = index + 1; i < ends[index]; i++) {
+            childIds.add(depts[i].getId());
+        }
+        return childIds;
+    }
+
+    public int size() {
+        return depts.length;
+    }
+
+}
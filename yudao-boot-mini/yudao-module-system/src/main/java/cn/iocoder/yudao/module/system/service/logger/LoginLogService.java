@@ -27,4 +27,13 @@ public interface LoginLogService {
      */
     void createLoginLog(@Valid LoginLogCreateReqDTO reqDTO);
 
+    /**
+     * 异步创建登录日志，由后台线程批量写入
+     *
+     * 适合登录高峰期，避免登录请求同步等待 INSERT；缓冲区已满时，退化为同步写入
+     *
+     * @param reqDTO 日志信息
+     */
+    void createLoginLogAsync(@Valid LoginLogCreateReqDTO reqDTO);
+
 }
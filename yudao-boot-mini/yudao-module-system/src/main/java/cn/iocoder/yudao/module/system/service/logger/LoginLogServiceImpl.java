@@ -1,16 +1,32 @@
 package cn.iocoder.yudao.module.system.service.logger;
 
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.api.logger.dto.LoginLogCreateReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.loginlog.LoginLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.LoginLogDO;
 import cn.iocoder.yudao.module.system.dal.mysql.logger.LoginLogMapper;
+import com.google.common.annotations.VisibleForTesting;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
 /**
  * 登录日志 Service 实现
  */
@@ -18,9 +34,37 @@ import jakarta.annotation.Resource;
 @Validated
 public class LoginLogServiceImpl implements LoginLogService {
 
+    /**
+     * 登录日志缓冲区的容量
+     */
+    private static final int BUFFER_CAPACITY = 10000;
+    /**
+     * 登录日志每批写入的最大数量
+     */
+    private static final int BUFFER_BATCH_SIZE = 500;
+
     @Resource
     private LoginLogMapper loginLogMapper;
 
+    /**
+     * 登录日志缓冲区
+     *
+     * KEY：租户编号。后台线程没有租户上下文，需要在投递时记录下来
+     * VALUE：登录日志
+     */
+    private final BatchBuffer<KeyValue<Long, LoginLogDO>> loginLogBuffer = new BatchBuffer<>("login-log",
+            BUFFER_CAPACITY, BUFFER_BATCH_SIZE, this::createLoginLogBatch);
+
+    @PostConstruct
+    public void init() {
+        loginLogBuffer.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        loginLogBuffer.shutdown();
+    }
+
     @Override
     public PageResult<LoginLogDO> getLoginLogPage(LoginLogPageReqVO pageReqVO) {
         return loginLogMapper.selectPage(pageReqVO);
@@ -32,4 +76,28 @@ public class LoginLogServiceImpl implements LoginLogService {
         loginLogMapper.insert(loginLog);
     }
 
+    @Override
+    public void createLoginLogAsync(LoginLogCreateReqDTO reqDTO) {
+        LoginLogDO loginLog = BeanUtils.toBean(reqDTO, LoginLogDO.class);
+        loginLog.setCreateTime(LocalDateTime.now()); // 记录登录时间，而不是写入时间
+        if (!loginLogBuffer.offer(new KeyValue<>(TenantContextHolder.getTenantId(), loginLog))) {
+            loginLogMapper.insert(loginLog);
+        }
+    }
+
+    @VisibleForTesting
+    void createLoginLogBatch(List<KeyValue<Long, LoginLogDO>> loginLogs) {
+        // 按照租户分组。未开启多租户时，租户编号为空，使用 0 作为分组
+        Map<Long, List<KeyValue<Long, LoginLogDO>>> tenantLoginLogs = new LinkedHashMap<>();
+        loginLogs.forEach(loginLog -> tenantLoginLogs
+                .computeIfAbsent(ObjUtil.defaultIfNull(loginLog.getKey(), 0L), key -> new ArrayList<>())
+                .add(loginLog));
+        // 逐个租户，批量插入
+        tenantLoginLogs.values().forEach(list -> {
+            Long tenantId = list.get(0).getKey();
+            List<LoginLogDO> insertList = convertList(list, KeyValue::getValue);
+            TenantUtils.execute(tenantId, () -> loginLogMapper.insertBatch(insertList));
+        });
+    }
+
 }
@@ -0,0 +1,36 @@
+package cn.iocoder.yudao.module.system.service.logger;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link OperateLogServiceImpl} 异步写入缓冲区的 Metrics 指标
+ *
+ * 1. operate.log.buffer.size：缓冲区当前积压的日志数量
+ * 2. operate.log.written：累计写入的日志数量
+ * 3. operate.log.dropped：缓冲区已满时，累计丢弃的日志数量
+ *
+ * @author 芋道源码
+ */
+@RequiredArgsConstructor
+public class OperateLogMeterBinder implements MeterBinder {
+
+    private final OperateLogServiceImpl operateLogService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("operate.log.buffer.size", operateLogService, OperateLogServiceImpl::getBufferQueueSize)
+                .description("操作日志缓冲区积压的数量")
+                .register(registry);
+        FunctionCounter.builder("operate.log.written", operateLogService, OperateLogServiceImpl::getWrittenCount)
+                .description("操作日志异步写入的数量")
+                .register(registry);
+        FunctionCounter.builder("operate.log.dropped", operateLogService, OperateLogServiceImpl::getDroppedCount)
+                .description("操作日志缓冲区已满时丢弃的数量")
+                .register(registry);
+    }
+
+}
@@ -20,6 +20,13 @@ public interface OperateLogService {
      */
     void createOperateLog(OperateLogCreateReqDTO createReqDTO);
 
+    /**
+     * 【异步】记录操作日志，放入缓冲区批量写入
+     *
+     * @param createReqDTO 创建请求
+     */
+    void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO);
+
     /**
      * 获得操作日志分页列表
      *
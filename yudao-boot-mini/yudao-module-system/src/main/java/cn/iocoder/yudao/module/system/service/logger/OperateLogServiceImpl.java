@@ -1,20 +1,45 @@
 package cn.iocoder.yudao.module.system.service.logger;
 
+import cn.hutool.core.util.ObjUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.common.biz.system.logger.dto.OperateLogCreateReqDTO;
+import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.OperateLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
 import cn.iocoder.yudao.module.system.dal.mysql.logger.OperateLogMapper;
+import cn.iocoder.yudao.module.system.enums.logger.OperateLogBufferFullPolicyEnum;
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
 /**
  * 操作日志 Service 实现类
  *
+ * 异步记录的操作日志，放入有界的环形缓冲区（{@link BatchBuffer}），由后台线程批量插入，避免每条日志占用一个 @Async 线程、一个数据库连接。
+ * 缓冲区已满时，按照 {@link OperateLogBufferFullPolicyEnum} 处理。积压、丢弃、写入的数量，通过 OperateLogMeterBinder 注册为 Metrics 指标
+ *
  * @author 芋道源码
  */
 @Service
@@ -22,15 +47,125 @@ import org.springframework.validation.annotation.Validated;
 @Slf4j
 public class OperateLogServiceImpl implements OperateLogService {
 
+    /**
+     * 操作日志每批写入的最大数量
+     */
+    private static final int BUFFER_BATCH_SIZE = 500;
+    /**
+     * 丢弃日志时，每丢弃多少条打印一次告警
+     */
+    private static final int DROPPED_LOG_INTERVAL = 1000;
+
     @Resource
     private OperateLogMapper operateLogMapper;
 
+    /**
+     * 缓冲区的容量
+     */
+    @Value("${yudao.operate-log.buffer-capacity:10000}")
+    private Integer bufferCapacity;
+    /**
+     * 缓冲区已满时的处理策略
+     */
+    @Value("${yudao.operate-log.buffer-full-policy:CALLER_RUNS}")
+    private OperateLogBufferFullPolicyEnum bufferFullPolicy;
+    /**
+     * {@link OperateLogBufferFullPolicyEnum#BLOCK} 策略下，最长的阻塞时长
+     */
+    @Value("${yudao.operate-log.buffer-block-timeout:1s}")
+    private Duration bufferBlockTimeout;
+
+    /**
+     * 操作日志缓冲区
+     *
+     * KEY：租户编号。后台线程没有租户上下文，需要在投递时记录下来
+     * VALUE：操作日志
+     */
+    private BatchBuffer<KeyValue<Long, OperateLogDO>> operateLogBuffer;
+
+    /**
+     * 丢弃的日志数量
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        operateLogBuffer = new BatchBuffer<>("operate-log", bufferCapacity, BUFFER_BATCH_SIZE,
+                this::createOperateLogBatch);
+        operateLogBuffer.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        operateLogBuffer.shutdown();
+    }
+
     @Override
     public void createOperateLog(OperateLogCreateReqDTO createReqDTO) {
         OperateLogDO log = BeanUtils.toBean(createReqDTO, OperateLogDO.class);
         operateLogMapper.insert(log);
     }
 
+    @Override
+    public void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO) {
+        OperateLogDO operateLog = BeanUtils.toBean(createReqDTO, OperateLogDO.class);
+        // 后台线程没有登录用户，需要在这里记录下操作时间、操作人
+        operateLog.setCreateTime(LocalDateTime.now());
+        Long loginUserId = SecurityFrameworkUtils.getLoginUserId();
+        if (loginUserId != null) {
+            operateLog.setCreator(loginUserId.toString());
+            operateLog.setUpdater(loginUserId.toString());
+        }
+        KeyValue<Long, OperateLogDO> item = new KeyValue<>(TenantContextHolder.getTenantId(), operateLog);
+        if (operateLogBuffer.offer(item)) {
+            return;
+        }
+
+        // 缓冲区已满，按照策略处理
+        switch (bufferFullPolicy) {
+            case CALLER_RUNS:
+                operateLogMapper.insert(operateLog);
+                break;
+            case BLOCK:
+                try {
+                    if (!operateLogBuffer.offer(item, bufferBlockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                        drop(operateLog);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(operateLog);
+                }
+                break;
+            default:
+                drop(operateLog);
+        }
+    }
+
+    private void drop(OperateLogDO operateLog) {
+        droppedCount.increment();
+        long count = droppedCount.sum();
+        if (count == 1 || count % DROPPED_LOG_INTERVAL == 0) {
+            log.warn("[drop][操作日志缓冲区已满，累计丢弃({}) 条，当前积压({}) 条，最近丢弃 type({}) subType({}) bizId({})]",
+                    count, operateLogBuffer.getQueueSize(),
+                    operateLog.getType(), operateLog.getSubType(), operateLog.getBizId());
+        }
+    }
+
+    @VisibleForTesting
+    void createOperateLogBatch(List<KeyValue<Long, OperateLogDO>> operateLogs) {
+        // 按照租户分组。未开启多租户时，租户编号为空，使用 0 作为分组
+        Map<Long, List<KeyValue<Long, OperateLogDO>>> tenantOperateLogs = new LinkedHashMap<>();
+        operateLogs.forEach(operateLog -> tenantOperateLogs
+                .computeIfAbsent(ObjUtil.defaultIfNull(operateLog.getKey(), 0L), key -> new ArrayList<>())
+                .add(operateLog));
+        // 逐个租户，批量插入
+        tenantOperateLogs.values().forEach(list -> {
+            Long tenantId = list.get(0).getKey();
+            List<OperateLogDO> insertList = convertList(list, KeyValue::getValue);
+            TenantUtils.execute(tenantId, () -> operateLogMapper.insertBatch(insertList));
+        });
+    }
+
     @Override
     public PageResult<OperateLogDO> getOperateLogPage(OperateLogPageReqVO pageReqVO) {
         return operateLogMapper.selectPage(pageReqVO);
@@ -41,4 +176,25 @@ public class OperateLogServiceImpl implements OperateLogService {
         return operateLogMapper.selectPage(pageReqDTO);
     }
 
+    /**
+     * @return 缓冲区当前积压的日志数量
+     */
+    public int getBufferQueueSize() {
+        return operateLogBuffer.getQueueSize();
+    }
+
+    /**
+     * @return 累计丢弃的日志数量
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return 累计写入的日志数量
+     */
+    public long getWrittenCount() {
+        return operateLogBuffer.getHandledCount();
+    }
+
 }
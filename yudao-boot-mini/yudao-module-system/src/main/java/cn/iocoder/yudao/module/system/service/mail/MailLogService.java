@@ -1,11 +1,13 @@
 package cn.iocoder.yudao.module.system.service.mail;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.mail.vo.log.MailLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailAccountDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailLogDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailTemplateDO;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,6 +51,22 @@ public interface MailLogService {
                        MailAccountDO account, MailTemplateDO template ,
                        String templateContent, Map<String, Object> templateParams, Boolean isSend);
 
+    /**
+     * 批量创建邮件日志，内容相同
+     *
+     * @param receivers 收件人数组，key 为用户编号，value 为收件人邮件
+     * @param userType 用户类型
+     * @param account 邮件账号信息
+     * @param template 模版信息
+     * @param templateContent 模版内容
+     * @param templateParams 模版参数
+     * @param isSend 是否发送
+     * @return 日志编号数组，与 receivers 顺序一致
+     */
+    List<Long> createMailLogList(List<KeyValue<Long, String>> receivers, Integer userType,
+                                 MailAccountDO account, MailTemplateDO template,
+                                 String templateContent, Map<String, Object> templateParams, Boolean isSend);
+
     /**
      * 更新邮件发送结果
      *
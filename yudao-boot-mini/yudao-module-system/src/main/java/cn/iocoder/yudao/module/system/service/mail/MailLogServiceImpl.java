@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.service.mail;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.mail.vo.log.MailLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailAccountDO;
@@ -12,10 +13,12 @@ import org.springframework.validation.annotation.Validated;
 
 import jakarta.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import static cn.hutool.core.exceptions.ExceptionUtil.getRootCauseMessage;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 
 /**
  * 邮件日志 Service 实现类
@@ -27,6 +30,11 @@ import static cn.hutool.core.exceptions.ExceptionUtil.getRootCauseMessage;
 @Validated
 public class MailLogServiceImpl implements MailLogService {
 
+    /**
+     * 批量插入时，每批的数量
+     */
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     @Resource
     private MailLogMapper mailLogMapper;
 
@@ -44,6 +52,26 @@ public class MailLogServiceImpl implements MailLogService {
     public Long createMailLog(Long userId, Integer userType, String toMail,
                               MailAccountDO account, MailTemplateDO template,
                               String templateContent, Map<String, Object> templateParams, Boolean isSend) {
+        MailLogDO logDO = buildMailLog(userId, userType, toMail, account, template, templateContent, templateParams, isSend);
+        // 插入数据库
+        mailLogMapper.insert(logDO);
+        return logDO.getId();
+    }
+
+    @Override
+    public List<Long> createMailLogList(List<KeyValue<Long, String>> receivers, Integer userType,
+                                        MailAccountDO account, MailTemplateDO template,
+                                        String templateContent, Map<String, Object> templateParams, Boolean isSend) {
+        List<MailLogDO> logs = convertList(receivers, receiver -> buildMailLog(receiver.getKey(), userType,
+                receiver.getValue(), account, template, templateContent, templateParams, isSend));
+        // 批量插入数据库
+        mailLogMapper.insertBatch(logs, INSERT_BATCH_SIZE);
+        return convertList(logs, MailLogDO::getId);
+    }
+
+    private static MailLogDO buildMailLog(Long userId, Integer userType, String toMail,
+                                          MailAccountDO account, MailTemplateDO template,
+                                          String templateContent, Map<String, Object> templateParams, Boolean isSend) {
         MailLogDO.MailLogDOBuilder logDOBuilder = MailLogDO.builder();
         // 根据是否要发送，设置状态
         logDOBuilder.sendStatus(Objects.equals(isSend, true) ? MailSendStatusEnum.INIT.getStatus()
@@ -54,11 +82,7 @@ public class MailLogServiceImpl implements MailLogService {
                 // 模板相关字段
                 .templateId(template.getId()).templateCode(template.getCode()).templateNickname(template.getNickname())
                 .templateTitle(template.getTitle()).templateContent(templateContent).templateParams(templateParams);
-
-        // 插入数据库
-        MailLogDO logDO = logDOBuilder.build();
-        mailLogMapper.insert(logDO);
-        return logDO.getId();
+        return logDOBuilder.build();
     }
 
     @Override
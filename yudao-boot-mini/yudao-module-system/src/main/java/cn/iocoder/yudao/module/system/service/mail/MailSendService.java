@@ -1,7 +1,10 @@
 package cn.iocoder.yudao.module.system.service.mail;
 
+import cn.iocoder.yudao.module.system.mq.message.mail.MailSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.mail.MailSendMessage;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,6 +52,35 @@ public interface MailSendService {
     Long sendSingleMail(String mail, Long userId, Integer userType,
                         String templateCode, Map<String, Object> templateParams);
 
+    /**
+     * 批量发送邮件给管理后台的用户
+     *
+     * 使用 userIds 批量加载对应管理员的邮箱，没有邮箱的用户会被忽略
+     *
+     * @param userIds 用户编码数组
+     * @param templateCode 邮件模版编码
+     * @param templateParams 邮件模版参数
+     * @return 发送日志编号数组
+     */
+    List<Long> sendBatchMailToAdmin(Collection<Long> userIds,
+                                    String templateCode, Map<String, Object> templateParams);
+
+    /**
+     * 批量发送邮件，所有收件人的邮件内容相同
+     *
+     * 相比循环调用 {@link #sendSingleMail(String, Long, Integer, String, Map)}，模版只校验、渲染一次，
+     * 发送日志批量插入，并合并成 {@link MailSendBatchMessage} 消息，由 Consumer 按照邮箱账号限流发送
+     *
+     * @param mails 邮箱数组
+     * @param userIds 用户编码数组，与 mails 一一对应；允许为 null
+     * @param userType 用户类型
+     * @param templateCode 邮件模版编码
+     * @param templateParams 邮件模版参数
+     * @return 发送日志编号数组，与 mails 顺序一致
+     */
+    List<Long> sendBatchMail(List<String> mails, List<Long> userIds, Integer userType,
+                             String templateCode, Map<String, Object> templateParams);
+
     /**
      * 执行真正的邮件发送
      * 注意，该方法仅仅提供给 MQ Consumer 使用
@@ -57,4 +89,12 @@ public interface MailSendService {
      */
     void doSendMail(MailSendMessage message);
 
+    /**
+     * 执行真正的邮件批量发送，按照邮箱账号限制并发数、发送速率
+     * 注意，该方法仅仅提供给 MQ Consumer 使用
+     *
+     * @param message 批量邮件
+     */
+    void doSendBatchMail(MailSendBatchMessage message);
+
 }
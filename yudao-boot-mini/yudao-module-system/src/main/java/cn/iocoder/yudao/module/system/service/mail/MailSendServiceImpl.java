@@ -1,23 +1,28 @@
 package cn.iocoder.yudao.module.system.service.mail;
 
+import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.util.concurrent.KeyedThrottleExecutor;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailAccountDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailTemplateDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.mq.message.mail.MailSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.mail.MailSendMessage;
 import cn.iocoder.yudao.module.system.mq.producer.mail.MailProducer;
 import cn.iocoder.yudao.module.system.service.member.MemberService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.dromara.hutool.extra.mail.*;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.Map;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
@@ -33,6 +38,23 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 @Slf4j
 public class MailSendServiceImpl implements MailSendService {
 
+    /**
+     * 每条 {@link MailSendBatchMessage} 消息的最大收件人数
+     */
+    private static final int SEND_MESSAGE_BATCH_SIZE = 500;
+    /**
+     * 批量发送的线程数
+     */
+    private static final int SEND_THREADS = 8;
+    /**
+     * 每个邮箱账号的最大并发数
+     */
+    private static final int SEND_CONCURRENCY_PER_ACCOUNT = 4;
+    /**
+     * 每个邮箱账号的每秒最大发送数
+     */
+    private static final double SEND_PERMITS_PER_SECOND = 10;
+
     @Resource
     private AdminUserService adminUserService;
     @Resource
@@ -48,6 +70,17 @@ public class MailSendServiceImpl implements MailSendService {
     @Resource
     private MailProducer mailProducer;
 
+    /**
+     * 批量发送的执行器，key 为邮箱账号编号
+     */
+    private final KeyedThrottleExecutor<Long> mailSendExecutor = new KeyedThrottleExecutor<>("mail-send",
+            SEND_THREADS, SEND_CONCURRENCY_PER_ACCOUNT, SEND_PERMITS_PER_SECOND);
+
+    @PreDestroy
+    public void destroy() {
+        mailSendExecutor.shutdown();
+    }
+
     @Override
     public Long sendSingleMailToAdmin(String mail, Long userId,
                                       String templateCode, Map<String, Object> templateParams) {
@@ -99,20 +132,94 @@ public class MailSendServiceImpl implements MailSendService {
         return sendLogId;
     }
 
+    @Override
+    public List<Long> sendBatchMailToAdmin(Collection<Long> userIds,
+                                           String templateCode, Map<String, Object> templateParams) {
+        // 批量加载用户编号对应的邮箱，忽略没有邮箱的用户
+        List<AdminUserDO> users = adminUserService.getUserList(userIds);
+        List<String> mails = new ArrayList<>(users.size());
+        List<Long> sendUserIds = new ArrayList<>(users.size());
+        users.forEach(user -> {
+            if (StrUtil.isEmpty(user.getEmail())) {
+                log.warn("[sendBatchMailToAdmin][用户({}) 没有邮箱，忽略发送模版({})]", user.getId(), templateCode);
+                return;
+            }
+            mails.add(user.getEmail());
+            sendUserIds.add(user.getId());
+        });
+        // 执行发送
+        return sendBatchMail(mails, sendUserIds, UserTypeEnum.ADMIN.getValue(), templateCode, templateParams);
+    }
+
+    @Override
+    public List<Long> sendBatchMail(List<String> mails, List<Long> userIds, Integer userType,
+                                    String templateCode, Map<String, Object> templateParams) {
+        // 校验邮箱模版、账号是否合法。整个批次只校验一次
+        MailTemplateDO template = validateMailTemplate(templateCode);
+        MailAccountDO account = validateMailAccount(template.getAccountId());
+
+        // 校验邮箱是否存在
+        Assert.isTrue(userIds == null || userIds.size() == mails.size(), "邮箱与用户编号的数量不一致");
+        List<KeyValue<Long, String>> receivers = new ArrayList<>(mails.size());
+        for (int i = 0; i < mails.size(); i++) {
+            receivers.add(new KeyValue<>(userIds != null ? userIds.get(i) : null, validateMail(mails.get(i))));
+        }
+        validateTemplateParams(template, templateParams);
+        if (receivers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 批量创建发送日志。如果模板被禁用，则不发送邮件，只记录日志
+        Boolean isSend = CommonStatusEnum.ENABLE.getStatus().equals(template.getStatus());
+        String title = mailTemplateService.formatMailTemplateContent(template.getTitle(), templateParams);
+        String content = mailTemplateService.formatMailTemplateContent(template.getContent(), templateParams);
+        List<Long> sendLogIds = mailLogService.createMailLogList(receivers, userType,
+                account, template, content, templateParams, isSend);
+
+        // 发送 MQ 消息，异步执行发送邮件。按照 SEND_MESSAGE_BATCH_SIZE 拆分，避免单条消息过大
+        if (isSend) {
+            for (int i = 0; i < sendLogIds.size(); i += SEND_MESSAGE_BATCH_SIZE) {
+                int end = Math.min(i + SEND_MESSAGE_BATCH_SIZE, sendLogIds.size());
+                List<KeyValue<Long, String>> batchReceivers = new ArrayList<>(end - i);
+                for (int j = i; j < end; j++) {
+                    batchReceivers.add(new KeyValue<>(sendLogIds.get(j), receivers.get(j).getValue()));
+                }
+                mailProducer.sendMailSendBatchMessage(account.getId(), template.getNickname(),
+                        title, content, batchReceivers);
+            }
+        }
+        return sendLogIds;
+    }
+
     @Override
     public void doSendMail(MailSendMessage message) {
         // 1. 创建发送账号
         MailAccountDO account = validateMailAccount(message.getAccountId());
         MailAccount mailAccount  = buildMailAccount(account, message.getNickname());
         // 2. 发送邮件
+        doSendMail(mailAccount, message.getLogId(), message.getMail(), message.getTitle(), message.getContent());
+    }
+
+    @Override
+    public void doSendBatchMail(MailSendBatchMessage message) {
+        // 1. 创建发送账号。整个批次只创建一次
+        MailAccountDO account = validateMailAccount(message.getAccountId());
+        MailAccount mailAccount = buildMailAccount(account, message.getNickname());
+        // 2. 逐封提交到执行器，由执行器按照邮箱账号限制并发数、发送速率。提交不会阻塞当前的 @Async 线程
+        for (KeyValue<Long, String> receiver : message.getReceivers()) {
+            mailSendExecutor.execute(message.getAccountId(), () -> doSendMail(mailAccount, receiver.getKey(),
+                    receiver.getValue(), message.getTitle(), message.getContent()));
+        }
+    }
+
+    private void doSendMail(MailAccount mailAccount, Long logId, String mail, String title, String content) {
         try {
-            String messageId = MailUtil.send(mailAccount, message.getMail(),
-                    message.getTitle(), message.getContent(), true);
-            // 3. 更新结果（成功）
-            mailLogService.updateMailSendResult(message.getLogId(), messageId, null);
+            String messageId = MailUtil.send(mailAccount, mail, title, content, true);
+            // 更新结果（成功）
+            mailLogService.updateMailSendResult(logId, messageId, null);
         } catch (Exception e) {
-            // 3. 更新结果（异常）
-            mailLogService.updateMailSendResult(message.getLogId(), null, e);
+            // 更新结果（异常）
+            mailLogService.updateMailSendResult(logId, null, e);
         }
     }
 
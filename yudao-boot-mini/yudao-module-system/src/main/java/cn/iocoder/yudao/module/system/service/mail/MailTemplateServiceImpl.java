@@ -1,16 +1,16 @@
 package cn.iocoder.yudao.module.system.service.mail;
 
 import cn.hutool.core.util.ObjUtil;
-import cn.hutool.core.util.ReUtil;
-import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.common.util.string.CompiledTemplate;
 import cn.iocoder.yudao.module.system.controller.admin.mail.vo.template.MailTemplatePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.mail.vo.template.MailTemplateSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.mail.MailTemplateDO;
 import cn.iocoder.yudao.module.system.dal.mysql.mail.MailTemplateMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.Resource;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +21,6 @@ import org.springframework.validation.annotation.Validated;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.MAIL_TEMPLATE_CODE_EXISTS;
@@ -39,9 +38,17 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.MAIL_TEMPL
 public class MailTemplateServiceImpl implements MailTemplateService {
 
     /**
-     * 正则表达式，匹配 {} 中的变量
+     * 编译后模板的最大缓存数量
      */
-    private static final Pattern PATTERN_PARAMS = Pattern.compile("\\{(.*?)}");
+    private static final int COMPILED_TEMPLATE_MAXIMUM_SIZE = 1000;
+
+    /**
+     * 编译后的邮件模版缓存，标题、内容共用
+     *
+     * KEY：模版标题或内容。{@link RedisKeyConstants#MAIL_TEMPLATE} 失效时一并清空
+     */
+    private final Map<String, CompiledTemplate> compiledTemplateCache = CacheBuilder.newBuilder()
+            .maximumSize(COMPILED_TEMPLATE_MAXIMUM_SIZE).<String, CompiledTemplate>build().asMap();
 
     @Resource
     private MailTemplateMapper mailTemplateMapper;
@@ -71,6 +78,7 @@ public class MailTemplateServiceImpl implements MailTemplateService {
         MailTemplateDO updateObj = BeanUtils.toBean(updateReqVO, MailTemplateDO.class)
                 .setParams(parseTemplateContentParams(updateReqVO.getContent()));
         mailTemplateMapper.updateById(updateObj);
+        compiledTemplateCache.clear();
     }
 
     @VisibleForTesting
@@ -95,6 +103,7 @@ public class MailTemplateServiceImpl implements MailTemplateService {
 
         // 删除
         mailTemplateMapper.deleteById(id);
+        compiledTemplateCache.clear();
     }
 
     @Override
@@ -102,6 +111,7 @@ public class MailTemplateServiceImpl implements MailTemplateService {
             allEntries = true) // allEntries 清空所有缓存，因为 id 不是直接的缓存 code，不好清理
     public void deleteMailTemplateList(List<Long> ids) {
         mailTemplateMapper.deleteByIds(ids);
+        compiledTemplateCache.clear();
     }
 
     private void validateMailTemplateExists(Long id) {
@@ -129,7 +139,7 @@ public class MailTemplateServiceImpl implements MailTemplateService {
 
     @Override
     public String formatMailTemplateContent(String content, Map<String, Object> params) {
-        return StrUtil.format(content, params);
+        return getCompiledTemplate(content).format(params);
     }
 
     @Override
@@ -144,7 +154,14 @@ public class MailTemplateServiceImpl implements MailTemplateService {
      * @return 参数列表
      */
     private List<String> parseTemplateContentParams(String content) {
-        return ReUtil.findAllGroup1(PATTERN_PARAMS, content);
+        return getCompiledTemplate(content).getParams();
+    }
+
+    private CompiledTemplate getCompiledTemplate(String content) {
+        if (content == null) {
+            return CompiledTemplate.compile(null);
+        }
+        return compiledTemplateCache.computeIfAbsent(content, CompiledTemplate::compile);
     }
 
 }
@@ -30,6 +30,19 @@ public interface NotifyMessageService {
     Long createNotifyMessage(Long userId, Integer userType,
                              NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams);
 
+    /**
+     * 批量创建站内信，内容相同
+     *
+     * @param userIds 用户编号数组
+     * @param userType 用户类型
+     * @param template 模版信息
+     * @param templateContent 模版内容
+     * @param templateParams 模版参数
+     * @return 站内信编号数组，与 userIds 顺序一致
+     */
+    List<Long> createNotifyMessageList(Collection<Long> userIds, Integer userType,
+                                       NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams);
+
     /**
      * 获得站内信分页
      *
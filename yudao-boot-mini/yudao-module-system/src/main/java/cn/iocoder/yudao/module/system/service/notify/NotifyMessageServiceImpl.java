@@ -1,19 +1,26 @@
 package cn.iocoder.yudao.module.system.service.notify;
 
+import cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessageMyPageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessagePageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyMessageDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
 import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyMessageMapper;
+import cn.iocoder.yudao.module.system.dal.redis.notify.NotifyMessageUnreadCountRedisDAO;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.annotation.Resource;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
 /**
  * 站内信 Service 实现类
  *
@@ -23,9 +30,17 @@ import java.util.Map;
 @Validated
 public class NotifyMessageServiceImpl implements NotifyMessageService {
 
+    /**
+     * 批量插入时，每批的数量
+     */
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     @Resource
     private NotifyMessageMapper notifyMessageMapper;
 
+    @Resource
+    private NotifyMessageUnreadCountRedisDAO notifyMessageUnreadCountRedisDAO;
+
     @Override
     public Long createNotifyMessage(Long userId, Integer userType,
                                     NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams) {
@@ -34,15 +49,31 @@ public class NotifyMessageServiceImpl implements NotifyMessageService {
                 .setTemplateType(template.getType()).setTemplateNickname(template.getNickname())
                 .setTemplateContent(templateContent).setTemplateParams(templateParams).setReadStatus(false);
         notifyMessageMapper.insert(message);
+        executeAfterCommit(() -> notifyMessageUnreadCountRedisDAO.delete(userId, userType));
         return message.getId();
     }
 
     @Override
+    public List<Long> createNotifyMessageList(Collection<Long> userIds, Integer userType,
+                                              NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        List<NotifyMessageDO> messages = convertList(userIds, userId -> new NotifyMessageDO()
+                .setUserId(userId).setUserType(userType)
+                .setTemplateId(template.getId()).setTemplateCode(template.getCode())
+                .setTemplateType(template.getType()).setTemplateNickname(template.getNickname())
+                .setTemplateContent(templateContent).setTemplateParams(templateParams).setReadStatus(false));
+        notifyMessageMapper.insertBatch(messages, INSERT_BATCH_SIZE);
+        executeAfterCommit(() -> notifyMessageUnreadCountRedisDAO.deleteList(userIds, userType));
+        return convertList(messages, NotifyMessageDO::getId);
+    }
+
+    @Override
+    @SlaveRead
     public PageResult<NotifyMessageDO> getNotifyMessagePage(NotifyMessagePageReqVO pageReqVO) {
         return notifyMessageMapper.selectPage(pageReqVO);
     }
 
     @Override
+    @SlaveRead
     public PageResult<NotifyMessageDO> getMyMyNotifyMessagePage(NotifyMessageMyPageReqVO pageReqVO, Long userId, Integer userType) {
         return notifyMessageMapper.selectPage(pageReqVO, userId, userType);
     }
@@ -53,23 +84,69 @@ public class NotifyMessageServiceImpl implements NotifyMessageService {
     }
 
     @Override
+    @SlaveRead
     public List<NotifyMessageDO> getUnreadNotifyMessageList(Long userId, Integer userType, Integer size) {
+        // 缓存的未读数量为 0 时，无需查询数据库。未读数量变化时，缓存会在事务提交后删除，所以不会长期保留旧的 0
+        Long unreadCount = notifyMessageUnreadCountRedisDAO.get(userId, userType);
+        if (unreadCount != null && unreadCount <= 0) {
+            return Collections.emptyList();
+        }
         return notifyMessageMapper.selectUnreadListByUserIdAndUserType(userId, userType, size);
     }
 
     @Override
     public Long getUnreadNotifyMessageCount(Long userId, Integer userType) {
-        return notifyMessageMapper.selectUnreadCountByUserIdAndUserType(userId, userType);
+        // 1. 优先从缓存中获取
+        Long unreadCount = notifyMessageUnreadCountRedisDAO.get(userId, userType);
+        if (unreadCount != null) {
+            return unreadCount;
+        }
+        // 2.1 缓存不存在（首次查询、被删除、或者已过期）时，先读取版本号
+        String version = notifyMessageUnreadCountRedisDAO.getVersion(userId, userType);
+        // 2.2 从主库统计
+        // 注意：这里不使用 @SlaveRead，避免从库延迟，导致缓存了旧的数量，直到过期
+        unreadCount = notifyMessageMapper.selectUnreadCountByUserIdAndUserType(userId, userType);
+        // 2.3 写入缓存。如果统计期间未读数量发生变化（版本号变化），则不写入，下次查询重新统计
+        notifyMessageUnreadCountRedisDAO.setIfVersion(userId, userType, version, unreadCount);
+        return unreadCount;
     }
 
     @Override
     public int updateNotifyMessageRead(Collection<Long> ids, Long userId, Integer userType) {
-        return notifyMessageMapper.updateListRead(ids, userId, userType);
+        int count = notifyMessageMapper.updateListRead(ids, userId, userType);
+        if (count > 0) {
+            executeAfterCommit(() -> notifyMessageUnreadCountRedisDAO.delete(userId, userType));
+        }
+        return count;
     }
 
     @Override
     public int updateAllNotifyMessageRead(Long userId, Integer userType) {
-        return notifyMessageMapper.updateListRead(userId, userType);
+        int count = notifyMessageMapper.updateListRead(userId, userType);
+        executeAfterCommit(() -> notifyMessageUnreadCountRedisDAO.delete(userId, userType));
+        return count;
+    }
+
+    /**
+     * 在事务提交后执行：避免事务回滚后，未读数量的缓存与数据库不一致
+     *
+     * 未读数量变化时，删除缓存，而不是增减：缓存可能是在事务提交之后、本方法执行之前统计的，已经包含本次变化，增减会重复计算
+     *
+     * @param runnable 执行逻辑
+     */
+    private static void executeAfterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+
+        });
     }
 
 }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.service.notify;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -47,9 +48,29 @@ public interface NotifySendService {
     Long sendSingleNotify( Long userId, Integer userType,
                            String templateCode, Map<String, Object> templateParams);
 
-    default void sendBatchNotify(List<String> mobiles, List<Long> userIds, Integer userType,
-                                 String templateCode, Map<String, Object> templateParams) {
-        throw new UnsupportedOperationException("暂时不支持该操作，感兴趣可以实现该功能哟！");
-    }
+    /**
+     * 批量发送站内信给管理后台的用户
+     *
+     * @param userIds 用户编号数组
+     * @param templateCode 站内信模板编号
+     * @param templateParams 站内信模板参数
+     * @return 站内信编号数组
+     */
+    List<Long> sendBatchNotifyToAdmin(Collection<Long> userIds,
+                                      String templateCode, Map<String, Object> templateParams);
+
+    /**
+     * 批量发送站内信给用户，所有用户的站内信内容相同
+     *
+     * 相比循环调用 {@link #sendSingleNotify(Long, Integer, String, Map)}，模版只校验、渲染一次，站内信批量插入
+     *
+     * @param userIds 用户编号数组
+     * @param userType 用户类型
+     * @param templateCode 站内信模板编号
+     * @param templateParams 站内信模板参数
+     * @return 站内信编号数组。模版关闭时，返回空数组
+     */
+    List<Long> sendBatchNotify(Collection<Long> userIds, Integer userType,
+                               String templateCode, Map<String, Object> templateParams);
 
 }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.service.notify;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
@@ -9,8 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.annotation.Resource;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
@@ -57,6 +57,33 @@ public class NotifySendServiceImpl implements NotifySendService {
         return notifyMessageService.createNotifyMessage(userId, userType, template, content, templateParams);
     }
 
+    @Override
+    public List<Long> sendBatchNotifyToAdmin(Collection<Long> userIds, String templateCode, Map<String, Object> templateParams) {
+        return sendBatchNotify(userIds, UserTypeEnum.ADMIN.getValue(), templateCode, templateParams);
+    }
+
+    @Override
+    public List<Long> sendBatchNotify(Collection<Long> userIds, Integer userType,
+                                      String templateCode, Map<String, Object> templateParams) {
+        // 校验模版
+        NotifyTemplateDO template = validateNotifyTemplate(templateCode);
+        if (Objects.equals(template.getStatus(), CommonStatusEnum.DISABLE.getStatus())) {
+            log.info("[sendBatchNotify][模版({})已经关闭，无法给用户({} 个/{})发送]", templateCode,
+                    CollUtil.size(userIds), userType);
+            return Collections.emptyList();
+        }
+        // 校验参数
+        validateTemplateParams(template, templateParams);
+        if (CollUtil.isEmpty(userIds)) {
+            return Collections.emptyList();
+        }
+
+        // 发送站内信：内容只渲染一次，批量插入
+        String content = notifyTemplateService.formatNotifyTemplateContent(template.getContent(), templateParams);
+        return notifyMessageService.createNotifyMessageList(new LinkedHashSet<>(userIds), userType,
+                template, content, templateParams);
+    }
+
     @VisibleForTesting
     public NotifyTemplateDO validateNotifyTemplate(String templateCode) {
         // 获得站内信模板。考虑到效率，从缓存中获取
@@ -1,15 +1,15 @@
 package cn.iocoder.yudao.module.system.service.notify;
 
-import cn.hutool.core.util.ReUtil;
-import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.common.util.string.CompiledTemplate;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.template.NotifyTemplatePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.template.NotifyTemplateSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
 import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyTemplateMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -19,7 +19,6 @@ import org.springframework.validation.annotation.Validated;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.NOTIFY_TEMPLATE_CODE_DUPLICATE;
@@ -36,9 +35,17 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.NOTIFY_TEM
 public class NotifyTemplateServiceImpl implements NotifyTemplateService {
 
     /**
-     * 正则表达式，匹配 {} 中的变量
+     * 编译后模板的最大缓存数量
      */
-    private static final Pattern PATTERN_PARAMS = Pattern.compile("\\{(.*?)}");
+    private static final int COMPILED_TEMPLATE_MAXIMUM_SIZE = 1000;
+
+    /**
+     * 编译后的站内信模版缓存
+     *
+     * KEY：模版内容，因此模版修改后自然使用新的编译结果；{@link RedisKeyConstants#NOTIFY_TEMPLATE} 失效时一并清空
+     */
+    private final Map<String, CompiledTemplate> compiledTemplateCache = CacheBuilder.newBuilder()
+            .maximumSize(COMPILED_TEMPLATE_MAXIMUM_SIZE).<String, CompiledTemplate>build().asMap();
 
     @Resource
     private NotifyTemplateMapper notifyTemplateMapper;
@@ -68,11 +75,12 @@ public class NotifyTemplateServiceImpl implements NotifyTemplateService {
         NotifyTemplateDO updateObj = BeanUtils.toBean(updateReqVO, NotifyTemplateDO.class);
         updateObj.setParams(parseTemplateContentParams(updateObj.getContent()));
         notifyTemplateMapper.updateById(updateObj);
+        compiledTemplateCache.clear();
     }
 
     @VisibleForTesting
     public List<String> parseTemplateContentParams(String content) {
-        return ReUtil.findAllGroup1(PATTERN_PARAMS, content);
+        return getCompiledTemplate(content).getParams();
     }
 
     @Override
@@ -83,6 +91,7 @@ public class NotifyTemplateServiceImpl implements NotifyTemplateService {
         validateNotifyTemplateExists(id);
         // 删除
         notifyTemplateMapper.deleteById(id);
+        compiledTemplateCache.clear();
     }
 
     @Override
@@ -90,6 +99,7 @@ public class NotifyTemplateServiceImpl implements NotifyTemplateService {
             allEntries = true) // allEntries 清空所有缓存，因为 id 不是直接的缓存 code，不好清理
     public void deleteNotifyTemplateList(List<Long> ids) {
         notifyTemplateMapper.deleteByIds(ids);
+        compiledTemplateCache.clear();
     }
 
     private void validateNotifyTemplateExists(Long id) {
@@ -139,7 +149,14 @@ public class NotifyTemplateServiceImpl implements NotifyTemplateService {
      */
     @Override
     public String formatNotifyTemplateContent(String content, Map<String, Object> params) {
-        return StrUtil.format(content, params);
+        return getCompiledTemplate(content).format(params);
+    }
+
+    private CompiledTemplate getCompiledTemplate(String content) {
+        if (content == null) {
+            return CompiledTemplate.compile(null);
+        }
+        return compiledTemplateCache.computeIfAbsent(content, CompiledTemplate::compile);
     }
 
 }
@@ -61,6 +61,8 @@ public class MenuServiceImpl implements MenuService {
         MenuDO menu = BeanUtils.toBean(createReqVO, MenuDO.class);
         initMenuProperty(menu);
         menuMapper.insert(menu);
+        // 刷新权限索引
+        permissionService.refreshPermissionIndex();
         // 返回
         return menu.getId();
     }
@@ -83,6 +85,8 @@ public class MenuServiceImpl implements MenuService {
         MenuDO updateObj = BeanUtils.toBean(updateReqVO, MenuDO.class);
         initMenuProperty(updateObj);
         menuMapper.updateById(updateObj);
+        // 刷新权限索引
+        permissionService.refreshPermissionIndex();
     }
 
     @Override
@@ -0,0 +1,215 @@
+package cn.iocoder.yudao.module.system.service.permission;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+import cn.iocoder.yudao.module.system.enums.permission.RoleCodeEnum;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 权限索引，即某个租户下「权限标识 → 角色」「用户 → 角色」的内存快照
+ *
+ * 1. 开启状态的角色，按照顺序编号为 0 ~ n-1，用户拥有的角色、拥有权限标识的角色，都使用 {@link BitSet} 表示
+ * 2. 判断是否有权限，只需判断两个 {@link BitSet} 是否有交集，无需访问 Redis
+ *
+ * 注意：角色、菜单、角色菜单的索引创建后不允许修改，变化时需要重新创建；用户的角色，按需加载，变化时单独失效，
+ * 并设置过期时间，兜底失效消息丢失的情况
+ *
+ * @author 芋道源码
+ */
+public final class PermissionIndex {
+
+    /**
+     * 用户的角色的最大缓存数量
+     */
+    private static final long USER_ROLE_MAXIMUM_SIZE = 100000;
+    /**
+     * 用户的角色的缓存过期时间，单位：分钟
+     */
+    private static final long USER_ROLE_EXPIRE_MINUTES = 10;
+
+    /**
+     * 版本号，用于判断构建期间，是否发生了变更
+     */
+    @Getter
+    private final long version;
+
+    /**
+     * 开启状态的角色数组
+     */
+    private final RoleDO[] roles;
+    /**
+     * 角色编号与数组位置的映射
+     */
+    private final Map<Long, Integer> roleIndexes;
+    /**
+     * 超级管理员的角色
+     */
+    private final BitSet superAdminRoles;
+    /**
+     * 权限标识与拥有它的角色的映射
+     */
+    private final Map<String, BitSet> permissionRoles;
+
+    /**
+     * 用户拥有的（开启状态）角色的缓存
+     *
+     * KEY：用户编号
+     */
+    private final Cache<Long, BitSet> userRoles = CacheBuilder.newBuilder()
+            .maximumSize(USER_ROLE_MAXIMUM_SIZE)
+            .expireAfterWrite(USER_ROLE_EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .build();
+    /**
+     * 用户的角色的版本号，每次失效时递增，用于判断加载期间，是否发生了失效
+     */
+    private final AtomicLong userRolesVersion = new AtomicLong();
+
+    private PermissionIndex(long version, RoleDO[] roles, Map<Long, Integer> roleIndexes,
+                            BitSet superAdminRoles, Map<String, BitSet> permissionRoles) {
+        this.version = version;
+        this.roles = roles;
+        this.roleIndexes = roleIndexes;
+        this.superAdminRoles = superAdminRoles;
+        this.permissionRoles = permissionRoles;
+    }
+
+    /**
+     * 创建权限索引
+     *
+     * @param version 版本号
+     * @param roleList 角色列表
+     * @param menuList 菜单列表
+     * @param roleMenuList 角色菜单列表
+     * @return 权限索引
+     */
+    public static PermissionIndex build(long version, List<RoleDO> roleList,
+                                        List<MenuDO> menuList, List<RoleMenuDO> roleMenuList) {
+        // 1. 角色：只保留开启状态的
+        List<RoleDO> enableRoles = new ArrayList<>(roleList.size());
+        roleList.forEach(role -> {
+            if (CommonStatusEnum.ENABLE.getStatus().equals(role.getStatus())) {
+                enableRoles.add(role);
+            }
+        });
+        RoleDO[] roles = enableRoles.toArray(new RoleDO[0]);
+        Map<Long, Integer> roleIndexes = new HashMap<>(roles.length * 4 / 3 + 1);
+        BitSet superAdminRoles = new BitSet(roles.length);
+        for (int i = 0; i < roles.length; i++) {
+            roleIndexes.put(roles[i].getId(), i);
+            if (RoleCodeEnum.isSuperAdmin(roles[i].getCode())) {
+                superAdminRoles.set(i);
+            }
+        }
+
+        // 2. 菜单 → 角色
+        Map<Long, BitSet> menuRoles = new HashMap<>();
+        roleMenuList.forEach(roleMenu -> {
+            Integer index = roleIndexes.get(roleMenu.getRoleId());
+            if (index != null) {
+                menuRoles.computeIfAbsent(roleMenu.getMenuId(), key -> new BitSet(roles.length)).set(index);
+            }
+        });
+
+        // 3. 权限标识 → 角色。采用严格模式，权限标识找不到对应的菜单时，不在映射中，即认为没有权限
+        Map<String, BitSet> permissionRoles = new HashMap<>();
+        menuList.forEach(menu -> {
+            if (StrUtil.isEmpty(menu.getPermission())) {
+                return;
+            }
+            BitSet bitSet = permissionRoles.computeIfAbsent(menu.getPermission(), key -> new BitSet(roles.length));
+            BitSet menuRoleBitSet = menuRoles.get(menu.getId());
+            if (menuRoleBitSet != null) {
+                bitSet.or(menuRoleBitSet);
+            }
+        });
+        return new PermissionIndex(version, roles, roleIndexes, superAdminRoles, permissionRoles);
+    }
+
+    /**
+     * 获得用户拥有的角色，不存在时使用 loader 加载
+     *
+     * @param userId 用户编号
+     * @param loader 用户拥有的角色编号的加载器
+     * @return 角色（只包括开启状态的）
+     */
+    public BitSet getUserRoles(Long userId, Function<Long, Set<Long>> loader) {
+        BitSet bitSet = userRoles.getIfPresent(userId);
+        if (bitSet != null) {
+            return bitSet;
+        }
+        // 1. 加载
+        long version = userRolesVersion.get();
+        BitSet newBitSet = new BitSet(roles.length);
+        for (Long roleId : loader.apply(userId)) {
+            Integer index = roleIndexes.get(roleId);
+            if (index != null) {
+                newBitSet.set(index);
+            }
+        }
+        bitSet = userRoles.asMap().putIfAbsent(userId, newBitSet);
+        if (bitSet != null) {
+            return bitSet;
+        }
+        // 2. 加载期间，如果发生了失效，则移除，下次访问时重新加载。避免失效后，又缓存加载到的旧数据
+        if (userRolesVersion.get() != version) {
+            userRoles.asMap().remove(userId, newBitSet);
+        }
+        return newBitSet;
+    }
+
+    /**
+     * 判断指定角色，是否拥有任一权限标识。超级管理员拥有所有权限
+     *
+     * 注意：调用方不允许修改 userRoles
+     *
+     * @param userRoles 角色
+     * @param permissions 权限标识数组
+     * @return 是否拥有
+     */
+    public boolean hasAnyPermissions(BitSet userRoles, String... permissions) {
+        // 情况一：遍历判断每个权限，如果有一满足，说明有权限
+        for (String permission : permissions) {
+            BitSet bitSet = permissionRoles.get(permission);
+            if (bitSet != null && bitSet.intersects(userRoles)) {
+                return true;
+            }
+        }
+        // 情况二：如果是超管，也说明有权限
+        return superAdminRoles.intersects(userRoles);
+    }
+
+    /**
+     * 获得指定角色对应的角色列表
+     *
+     * @param userRoles 角色
+     * @return 角色列表
+     */
+    public List<RoleDO> getRoleList(BitSet userRoles) {
+        List<RoleDO> result = new ArrayList<>(userRoles.cardinality());
+        for (int i = userRoles.nextSetBit(0); i >= 0; i = userRoles.nextSetBit(i + 1)) {
+            result.add(roles[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 使指定用户的角色缓存失效
+     *
+     * @param userId 用户编号
+     */
+    public void invalidateUserRoles(Long userId) {
+        userRolesVersion.incrementAndGet();
+        userRoles.invalidate(userId);
+    }
+
+}
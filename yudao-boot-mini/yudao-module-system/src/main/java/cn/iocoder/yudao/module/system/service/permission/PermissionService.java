@@ -124,6 +124,22 @@ public interface PermissionService {
      */
     Set<Long> getUserRoleIdListByUserIdFromCache(Long userId);
 
+    // ========== 权限索引的相关方法  ==========
+
+    /**
+     * 刷新权限索引：事务提交后，使所有节点的权限索引失效
+     *
+     * 角色、菜单变化时，需要调用该方法
+     */
+    void refreshPermissionIndex();
+
+    /**
+     * 使当前节点的权限索引失效，下次访问时重新加载
+     *
+     * @param userId 用户编号。非空时，只失效该用户的角色；为空时，失效整个权限索引
+     */
+    void invalidatePermissionIndex(Long userId);
+
     // ========== 用户-部门的相关方法  ==========
 
     /**
@@ -3,11 +3,12 @@ package cn.iocoder.yudao.module.system.service.permission;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ArrayUtil;
+import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.extra.spring.SpringUtil;
-import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
 import cn.iocoder.yudao.framework.common.biz.system.permission.dto.DeptDataPermissionRespDTO;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
@@ -16,6 +17,7 @@ import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import com.baomidou.dynamic.datasource.annotation.DSTransactional;
@@ -28,9 +30,13 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.annotation.Resource;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
@@ -59,6 +65,21 @@ public class PermissionServiceImpl implements PermissionService {
     @Resource
     private AdminUserService userService;
 
+    @Resource
+    private PermissionProducer permissionProducer;
+
+    /**
+     * 权限索引的缓存
+     *
+     * KEY：租户编号。未开启多租户时，为 0
+     * VALUE：权限索引。角色、菜单、授权变化时，通过 {@link PermissionProducer} 广播，使所有节点失效后重新加载
+     */
+    private final Map<Long, PermissionIndex> permissionIndexes = new ConcurrentHashMap<>();
+    /**
+     * 权限索引的版本号，每次整体失效时递增
+     */
+    private final AtomicLong permissionIndexVersion = new AtomicLong();
+
     @Override
     public boolean hasAnyPermissions(Long userId, String... permissions) {
         // 如果为空，说明已经有权限
@@ -67,47 +88,14 @@ public class PermissionServiceImpl implements PermissionService {
         }
 
         // 获得当前登录的角色。如果为空，说明没有权限
-        List<RoleDO> roles = getEnableUserRoleListByUserIdFromCache(userId);
-        if (CollUtil.isEmpty(roles)) {
+        PermissionIndex index = getPermissionIndex();
+        BitSet roles = getEnableUserRoles(index, userId);
+        if (roles.isEmpty()) {
             return false;
         }
 
-        // 情况一：遍历判断每个权限，如果有一满足，说明有权限
-        for (String permission : permissions) {
-            if (hasAnyPermission(roles, permission)) {
-                return true;
-            }
-        }
-
-        // 情况二：如果是超管，也说明有权限
-        return roleService.hasAnySuperAdmin(convertSet(roles, RoleDO::getId));
-    }
-
-    /**
-     * 判断指定角色，是否拥有该 permission 权限
-     *
-     * @param roles 指定角色数组
-     * @param permission 权限标识
-     * @return 是否拥有
-     */
-    private boolean hasAnyPermission(List<RoleDO> roles, String permission) {
-        List<Long> menuIds = menuService.getMenuIdListByPermissionFromCache(permission);
-        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
-        if (CollUtil.isEmpty(menuIds)) {
-            return false;
-        }
-
-        // 判断是否有权限
-        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
-        for (Long menuId : menuIds) {
-            // 获得拥有该菜单的角色编号集合
-            Set<Long> menuRoleIds = getSelf().getMenuRoleIdListByMenuIdFromCache(menuId);
-            // 如果有交集，说明有权限
-            if (CollUtil.containsAny(menuRoleIds, roleIds)) {
-                return true;
-            }
-        }
-        return false;
+        // 基于权限索引判断，无需访问 Redis
+        return index.hasAnyPermissions(roles, permissions);
     }
 
     @Override
@@ -157,6 +145,9 @@ public class PermissionServiceImpl implements PermissionService {
         if (CollUtil.isNotEmpty(deleteMenuIds)) {
             roleMenuMapper.deleteListByRoleIdAndMenuIds(roleId, deleteMenuIds);
         }
+
+        // 刷新权限索引
+        refreshPermissionIndex(null);
     }
 
     @Override
@@ -172,12 +163,17 @@ public class PermissionServiceImpl implements PermissionService {
         userRoleMapper.deleteListByRoleId(roleId);
         // 标记删除 RoleMenu
         roleMenuMapper.deleteListByRoleId(roleId);
+
+        // 刷新权限索引
+        refreshPermissionIndex(null);
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST, key = "#menuId")
     public void processMenuDeleted(Long menuId) {
         roleMenuMapper.deleteListByMenuId(menuId);
+        // 刷新权限索引
+        refreshPermissionIndex(null);
     }
 
     @Override
@@ -225,12 +221,17 @@ public class PermissionServiceImpl implements PermissionService {
         if (!CollectionUtil.isEmpty(deleteMenuIds)) {
             userRoleMapper.deleteListByUserIdAndRoleIdIds(userId, deleteMenuIds);
         }
+
+        // 刷新权限索引
+        refreshPermissionIndex(userId);
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.USER_ROLE_ID_LIST, key = "#userId")
     public void processUserDeleted(Long userId) {
         userRoleMapper.deleteListByUserId(userId);
+        // 刷新权限索引
+        refreshPermissionIndex(userId);
     }
 
     @Override
@@ -257,12 +258,89 @@ public class PermissionServiceImpl implements PermissionService {
      */
     @VisibleForTesting
     List<RoleDO> getEnableUserRoleListByUserIdFromCache(Long userId) {
-        // 获得用户拥有的角色编号
-        Set<Long> roleIds = getSelf().getUserRoleIdListByUserIdFromCache(userId);
-        // 获得角色数组，并移除被禁用的
-        List<RoleDO> roles = roleService.getRoleListFromCache(roleIds);
-        roles.removeIf(role -> !CommonStatusEnum.ENABLE.getStatus().equals(role.getStatus()));
-        return roles;
+        PermissionIndex index = getPermissionIndex();
+        return index.getRoleList(getEnableUserRoles(index, userId));
+    }
+
+    /**
+     * 获得用户拥有的角色（只包括开启状态的），基于权限索引
+     *
+     * @param index 权限索引
+     * @param userId 用户编号
+     * @return 角色
+     */
+    private BitSet getEnableUserRoles(PermissionIndex index, Long userId) {
+        return index.getUserRoles(userId, id -> getSelf().getUserRoleIdListByUserIdFromCache(id));
+    }
+
+    // ========== 权限索引的相关方法  ==========
+
+    /**
+     * 获得当前租户的权限索引，不存在时从 DB 加载
+     *
+     * @return 权限索引
+     */
+    private PermissionIndex getPermissionIndex() {
+        Long tenantId = ObjectUtil.defaultIfNull(TenantContextHolder.getTenantId(), 0L);
+        PermissionIndex index = permissionIndexes.get(tenantId);
+        if (index != null) {
+            return index;
+        }
+        // 1. 从 DB 加载
+        long version = permissionIndexVersion.get();
+        index = PermissionIndex.build(version, roleService.getRoleList(), menuService.getMenuList(),
+                roleMenuMapper.selectList());
+        PermissionIndex oldIndex = permissionIndexes.putIfAbsent(tenantId, index);
+        if (oldIndex != null) {
+            return oldIndex;
+        }
+        // 2. 加载期间，如果权限发生变更，则移除，下次访问时重新加载。避免缓存加载到的旧数据
+        if (permissionIndexVersion.get() != version) {
+            permissionIndexes.remove(tenantId, index);
+        }
+        log.info("[getPermissionIndex][租户({}) 加载权限索引，版本({})]", tenantId, version);
+        return index;
+    }
+
+    @Override
+    public void refreshPermissionIndex() {
+        refreshPermissionIndex(null);
+    }
+
+    /**
+     * 刷新权限索引：使本节点的权限索引失效，并通知其它节点
+     *
+     * 存在事务时，在事务提交后执行，避免其它线程在提交前重建，读取到旧的数据
+     *
+     * @param userId 用户编号。为空时，刷新整个权限索引
+     */
+    private void refreshPermissionIndex(Long userId) {
+        invalidatePermissionIndex(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            permissionProducer.sendPermissionRefreshMessage(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                invalidatePermissionIndex(userId);
+                permissionProducer.sendPermissionRefreshMessage(userId);
+            }
+
+        });
+    }
+
+    @Override
+    public void invalidatePermissionIndex(Long userId) {
+        // 情况一：只失效该用户的角色。用户编号全局唯一，所以遍历所有租户即可
+        if (userId != null) {
+            permissionIndexes.values().forEach(index -> index.invalidateUserRoles(userId));
+            return;
+        }
+        // 情况二：失效整个权限索引。菜单是全局的，所以失效所有租户
+        permissionIndexVersion.incrementAndGet();
+        permissionIndexes.clear();
     }
 
     // ========== 用户-部门的相关方法  ==========
@@ -301,14 +379,17 @@ public class PermissionServiceImpl implements PermissionService {
             // 情况二，DEPT_CUSTOM
             if (Objects.equals(role.getDataScope(), DataScopeEnum.DEPT_CUSTOM.getScope())) {
                 CollUtil.addAll(result.getDeptIds(), role.getDataScopeDeptIds());
+                CollUtil.addAll(result.getSingleDeptIds(), role.getDataScopeDeptIds());
                 // 自定义可见部门时，保证可以看到自己所在的部门。否则，一些场景下可能会有问题。
                 // 例如说，登录时，基于 t_user 的 username 查询会可能被 dept_id 过滤掉
                 CollUtil.addAll(result.getDeptIds(), userDeptId.get());
+                CollUtil.addAll(result.getSingleDeptIds(), userDeptId.get());
                 continue;
             }
             // 情况三，DEPT_ONLY
             if (Objects.equals(role.getDataScope(), DataScopeEnum.DEPT_ONLY.getScope())) {
                 CollectionUtils.addIfNotNull(result.getDeptIds(), userDeptId.get());
+                CollectionUtils.addIfNotNull(result.getSingleDeptIds(), userDeptId.get());
                 continue;
             }
             // 情况四，DEPT_DEPT_AND_CHILD
@@ -316,6 +397,7 @@ public class PermissionServiceImpl implements PermissionService {
                 CollUtil.addAll(result.getDeptIds(), deptService.getChildDeptIdListFromCache(userDeptId.get()));
                 // 添加本身部门编号
                 CollUtil.addAll(result.getDeptIds(), userDeptId.get());
+                CollectionUtils.addIfNotNull(result.getRootDeptIds(), userDeptId.get());
                 continue;
             }
             // 情况五，SELF
@@ -4,11 +4,11 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ObjUtil;
 import cn.hutool.core.util.ObjectUtil;
-import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.redis.core.TimeoutRedisCacheManager;
 import cn.iocoder.yudao.module.system.controller.admin.permission.vo.role.RolePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.permission.vo.role.RoleSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
@@ -51,6 +51,9 @@ public class RoleServiceImpl implements RoleService {
     @Resource
     private RoleMapper roleMapper;
 
+    @Resource
+    private TimeoutRedisCacheManager cacheManager;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     @LogRecord(type = SYSTEM_ROLE_TYPE, subType = SYSTEM_ROLE_CREATE_SUB_TYPE, bizNo = "{{#role.id}}",
@@ -65,6 +68,8 @@ public class RoleServiceImpl implements RoleService {
                 .setStatus(ObjUtil.defaultIfNull(createReqVO.getStatus(), CommonStatusEnum.ENABLE.getStatus()))
                 .setDataScope(DataScopeEnum.ALL.getScope()); // 默认可查看所有数据。原因是，可能一些项目不需要项目权限
         roleMapper.insert(role);
+        // 刷新权限索引
+        permissionService.refreshPermissionIndex();
 
         // 3. 记录操作日志上下文
         LogRecordContext.putVariable("role", role);
@@ -84,6 +89,8 @@ public class RoleServiceImpl implements RoleService {
         // 2. 更新到数据库
         RoleDO updateObj = BeanUtils.toBean(updateReqVO, RoleDO.class);
         roleMapper.updateById(updateObj);
+        // 刷新权限索引
+        permissionService.refreshPermissionIndex();
 
         // 3. 记录操作日志上下文
         LogRecordContext.putVariable(DiffParseFunction.OLD_OBJECT, BeanUtils.toBean(role, RoleSaveReqVO.class));
@@ -102,6 +109,8 @@ public class RoleServiceImpl implements RoleService {
         updateObject.setDataScope(dataScope);
         updateObject.setDataScopeDeptIds(dataScopeDeptIds);
         roleMapper.updateById(updateObject);
+        // 刷新权限索引
+        permissionService.refreshPermissionIndex();
     }
 
     @Override
@@ -220,9 +229,10 @@ public class RoleServiceImpl implements RoleService {
         if (CollectionUtil.isEmpty(ids)) {
             return Collections.emptyList();
         }
-        // 这里采用 for 循环从缓存中获取，主要考虑 Spring CacheManager 无法批量操作的问题
-        RoleServiceImpl self = getSelf();
-        return CollectionUtils.convertList(ids, self::getRoleFromCache);
+        // 批量从缓存中获取（MGET），未命中的批量从 DB 加载并回填，与 getRoleFromCache 共用同一份缓存
+        Map<Long, RoleDO> roleMap = cacheManager.getAll(RedisKeyConstants.ROLE, ids,
+                missIds -> convertMap(roleMapper.selectByIds(missIds), RoleDO::getId));
+        return CollectionUtils.convertList(ids, roleMap::get);
     }
 
     @Override
@@ -235,11 +245,7 @@ public class RoleServiceImpl implements RoleService {
         if (CollectionUtil.isEmpty(ids)) {
             return false;
         }
-        RoleServiceImpl self = getSelf();
-        return ids.stream().anyMatch(id -> {
-            RoleDO role = self.getRoleFromCache(id);
-            return role != null && RoleCodeEnum.isSuperAdmin(role.getCode());
-        });
+        return getRoleListFromCache(ids).stream().anyMatch(role -> RoleCodeEnum.isSuperAdmin(role.getCode()));
     }
 
     @Override
@@ -262,13 +268,4 @@ public class RoleServiceImpl implements RoleService {
         });
     }
 
-    /**
-     * 获得自身的代理对象，解决 AOP 生效问题
-     *
-     * @return 自己
-     */
-    private RoleServiceImpl getSelf() {
-        return SpringUtil.getBean(getClass());
-    }
-
 }
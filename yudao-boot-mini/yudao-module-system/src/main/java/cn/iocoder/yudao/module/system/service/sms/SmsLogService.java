@@ -1,11 +1,13 @@
 package cn.iocoder.yudao.module.system.service.sms;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.sms.vo.log.SmsLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsLogDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsTemplateDO;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,6 +33,20 @@ public interface SmsLogService {
     Long createSmsLog(String mobile, Long userId, Integer userType, Boolean isSend,
                       SmsTemplateDO template, String templateContent, Map<String, Object> templateParams);
 
+    /**
+     * 批量创建短信日志，内容相同
+     *
+     * @param receivers 接收人数组，key 为用户编号，value 为手机号
+     * @param userType 用户类型
+     * @param isSend 是否发送
+     * @param template 短信模板
+     * @param templateContent 短信内容
+     * @param templateParams 短信参数
+     * @return 发送日志编号数组，与 receivers 顺序一致
+     */
+    List<Long> createSmsLogList(List<KeyValue<Long, String>> receivers, Integer userType, Boolean isSend,
+                                SmsTemplateDO template, String templateContent, Map<String, Object> templateParams);
+
     /**
      * 更新日志的发送结果
      *
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.service.sms;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.sms.vo.log.SmsLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsLogDO;
@@ -12,9 +13,12 @@ import org.springframework.stereotype.Service;
 
 import jakarta.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
 /**
  * 短信日志 Service 实现类
  *
@@ -24,12 +28,35 @@ import java.util.Objects;
 @Service
 public class SmsLogServiceImpl implements SmsLogService {
 
+    /**
+     * 批量插入时，每批的数量
+     */
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     @Resource
     private SmsLogMapper smsLogMapper;
 
     @Override
     public Long createSmsLog(String mobile, Long userId, Integer userType, Boolean isSend,
                              SmsTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        SmsLogDO logDO = buildSmsLog(mobile, userId, userType, isSend, template, templateContent, templateParams);
+        // 插入数据库
+        smsLogMapper.insert(logDO);
+        return logDO.getId();
+    }
+
+    @Override
+    public List<Long> createSmsLogList(List<KeyValue<Long, String>> receivers, Integer userType, Boolean isSend,
+                                       SmsTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        List<SmsLogDO> logs = convertList(receivers, receiver -> buildSmsLog(receiver.getValue(), receiver.getKey(),
+                userType, isSend, template, templateContent, templateParams));
+        // 批量插入数据库
+        smsLogMapper.insertBatch(logs, INSERT_BATCH_SIZE);
+        return convertList(logs, SmsLogDO::getId);
+    }
+
+    private static SmsLogDO buildSmsLog(String mobile, Long userId, Integer userType, Boolean isSend,
+                                        SmsTemplateDO template, String templateContent, Map<String, Object> templateParams) {
         SmsLogDO.SmsLogDOBuilder logBuilder = SmsLogDO.builder();
         // 根据是否要发送，设置状态
         logBuilder.sendStatus(Objects.equals(isSend, true) ? SmsSendStatusEnum.INIT.getStatus()
@@ -44,11 +71,7 @@ public class SmsLogServiceImpl implements SmsLogService {
         logBuilder.channelId(template.getChannelId()).channelCode(template.getChannelCode());
         // 设置接收相关字段
         logBuilder.receiveStatus(SmsReceiveStatusEnum.INIT.getStatus());
-
-        // 插入数据库
-        SmsLogDO logDO = logBuilder.build();
-        smsLogMapper.insert(logDO);
-        return logDO.getId();
+        return logBuilder.build();
     }
 
     @Override
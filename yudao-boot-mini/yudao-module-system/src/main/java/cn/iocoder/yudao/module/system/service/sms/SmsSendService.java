@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.system.service.sms;
 
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -53,10 +55,34 @@ public interface SmsSendService {
     Long sendSingleSms(String mobile, Long userId, Integer userType,
                        String templateCode, Map<String, Object> templateParams);
 
-    default void sendBatchSms(List<String> mobiles, List<Long> userIds, Integer userType,
-                              String templateCode, Map<String, Object> templateParams) {
-        throw new UnsupportedOperationException("暂时不支持该操作，感兴趣可以实现该功能哟！");
-    }
+    /**
+     * 批量发送短信给管理后台的用户
+     *
+     * 使用 userIds 批量加载对应管理员的手机号，没有手机号的用户会被忽略
+     *
+     * @param userIds 用户编号数组
+     * @param templateCode 短信模板编号
+     * @param templateParams 短信模板参数
+     * @return 发送日志编号数组
+     */
+    List<Long> sendBatchSmsToAdmin(Collection<Long> userIds,
+                                   String templateCode, Map<String, Object> templateParams);
+
+    /**
+     * 批量发送短信，所有接收人的短信内容相同
+     *
+     * 相比循环调用 {@link #sendSingleSms(String, Long, Integer, String, Map)}，模板只校验、渲染一次，
+     * 发送日志批量插入，并合并成 {@link SmsSendBatchMessage} 消息，由 Consumer 按照渠道限流发送
+     *
+     * @param mobiles 手机号数组
+     * @param userIds 用户编号数组，与 mobiles 一一对应；允许为 null
+     * @param userType 用户类型
+     * @param templateCode 短信模板编号
+     * @param templateParams 短信模板参数
+     * @return 发送日志编号数组，与 mobiles 顺序一致
+     */
+    List<Long> sendBatchSms(List<String> mobiles, List<Long> userIds, Integer userType,
+                            String templateCode, Map<String, Object> templateParams);
 
     /**
      * 执行真正的短信发送
@@ -66,6 +92,14 @@ public interface SmsSendService {
      */
     void doSendSms(SmsSendMessage message);
 
+    /**
+     * 执行真正的短信批量发送，按照渠道限制并发数、发送速率
+     * 注意，该方法仅仅提供给 MQ Consumer 使用
+     *
+     * @param message 批量短信
+     */
+    void doSendBatchSms(SmsSendBatchMessage message);
+
     /**
      * 接收短信的接收结果
      *
@@ -7,6 +7,7 @@ import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.util.concurrent.KeyedThrottleExecutor;
 import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.SmsClient;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsReceiveRespDTO;
@@ -14,6 +15,7 @@ import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespD
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsChannelDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsTemplateDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendBatchMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 import cn.iocoder.yudao.module.system.mq.producer.sms.SmsProducer;
 import cn.iocoder.yudao.module.system.service.member.MemberService;
@@ -22,9 +24,9 @@ import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -39,6 +41,23 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 @Slf4j
 public class SmsSendServiceImpl implements SmsSendService {
 
+    /**
+     * 每条 {@link SmsSendBatchMessage} 消息的最大接收人数
+     */
+    private static final int SEND_MESSAGE_BATCH_SIZE = 500;
+    /**
+     * 批量发送的线程数
+     */
+    private static final int SEND_THREADS = 16;
+    /**
+     * 每个短信渠道的最大并发数
+     */
+    private static final int SEND_CONCURRENCY_PER_CHANNEL = 8;
+    /**
+     * 每个短信渠道的每秒最大发送数
+     */
+    private static final double SEND_PERMITS_PER_SECOND = 50;
+
     @Resource
     private AdminUserService adminUserService;
     @Resource
@@ -53,6 +72,17 @@ public class SmsSendServiceImpl implements SmsSendService {
     @Resource
     private SmsProducer smsProducer;
 
+    /**
+     * 批量发送的执行器，key 为短信渠道编号
+     */
+    private final KeyedThrottleExecutor<Long> smsSendExecutor = new KeyedThrottleExecutor<>("sms-send",
+            SEND_THREADS, SEND_CONCURRENCY_PER_CHANNEL, SEND_PERMITS_PER_SECOND);
+
+    @PreDestroy
+    public void destroy() {
+        smsSendExecutor.shutdown();
+    }
+
     @Override
     @DataPermission(enable = false) // 发送短信时，无需考虑数据权限
     public Long sendSingleSmsToAdmin(String mobile, Long userId, String templateCode, Map<String, Object> templateParams) {
@@ -104,6 +134,66 @@ public class SmsSendServiceImpl implements SmsSendService {
         return sendLogId;
     }
 
+    @Override
+    @DataPermission(enable = false) // 发送短信时，无需考虑数据权限
+    public List<Long> sendBatchSmsToAdmin(Collection<Long> userIds, String templateCode, Map<String, Object> templateParams) {
+        // 批量加载用户编号对应的手机号，忽略没有手机号的用户
+        List<AdminUserDO> users = adminUserService.getUserList(userIds);
+        List<String> mobiles = new ArrayList<>(users.size());
+        List<Long> sendUserIds = new ArrayList<>(users.size());
+        users.forEach(user -> {
+            if (StrUtil.isEmpty(user.getMobile())) {
+                log.warn("[sendBatchSmsToAdmin][用户({}) 没有手机号，忽略发送模板({})]", user.getId(), templateCode);
+                return;
+            }
+            mobiles.add(user.getMobile());
+            sendUserIds.add(user.getId());
+        });
+        // 执行发送
+        return sendBatchSms(mobiles, sendUserIds, UserTypeEnum.ADMIN.getValue(), templateCode, templateParams);
+    }
+
+    @Override
+    public List<Long> sendBatchSms(List<String> mobiles, List<Long> userIds, Integer userType,
+                                   String templateCode, Map<String, Object> templateParams) {
+        // 校验短信模板、渠道是否合法。整个批次只校验一次
+        SmsTemplateDO template = validateSmsTemplate(templateCode);
+        SmsChannelDO smsChannel = validateSmsChannel(template.getChannelId());
+
+        // 校验手机号码是否存在
+        Assert.isTrue(userIds == null || userIds.size() == mobiles.size(), "手机号与用户编号的数量不一致");
+        List<KeyValue<Long, String>> receivers = new ArrayList<>(mobiles.size());
+        for (int i = 0; i < mobiles.size(); i++) {
+            receivers.add(new KeyValue<>(userIds != null ? userIds.get(i) : null, validateMobile(mobiles.get(i))));
+        }
+        // 构建有序的模板参数
+        List<KeyValue<String, Object>> newTemplateParams = buildTemplateParams(template, templateParams);
+        if (receivers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 批量创建发送日志。如果模板被禁用，则不发送短信，只记录日志
+        Boolean isSend = CommonStatusEnum.ENABLE.getStatus().equals(template.getStatus())
+                && CommonStatusEnum.ENABLE.getStatus().equals(smsChannel.getStatus());
+        String content = smsTemplateService.formatSmsTemplateContent(template.getContent(), templateParams);
+        List<Long> sendLogIds = smsLogService.createSmsLogList(receivers, userType, isSend,
+                template, content, templateParams);
+
+        // 发送 MQ 消息，异步执行发送短信。按照 SEND_MESSAGE_BATCH_SIZE 拆分，避免单条消息过大
+        if (isSend) {
+            for (int i = 0; i < sendLogIds.size(); i += SEND_MESSAGE_BATCH_SIZE) {
+                int end = Math.min(i + SEND_MESSAGE_BATCH_SIZE, sendLogIds.size());
+                List<KeyValue<Long, String>> batchReceivers = new ArrayList<>(end - i);
+                for (int j = i; j < end; j++) {
+                    batchReceivers.add(new KeyValue<>(sendLogIds.get(j), receivers.get(j).getValue()));
+                }
+                smsProducer.sendSmsSendBatchMessage(template.getChannelId(), template.getApiTemplateId(),
+                        newTemplateParams, batchReceivers);
+            }
+        }
+        return sendLogIds;
+    }
+
     @VisibleForTesting
     SmsChannelDO validateSmsChannel(Long channelId) {
         // 获得短信模板。考虑到效率，从缓存中获取
@@ -160,15 +250,32 @@ public class SmsSendServiceImpl implements SmsSendService {
         SmsClient smsClient = smsChannelService.getSmsClient(message.getChannelId());
         Assert.notNull(smsClient, "短信客户端({}) 不存在", message.getChannelId());
         // 发送短信
+        doSendSms(smsClient, message.getLogId(), message.getMobile(),
+                message.getApiTemplateId(), message.getTemplateParams());
+    }
+
+    @Override
+    public void doSendBatchSms(SmsSendBatchMessage message) {
+        // 获得渠道对应的 SmsClient 客户端。整个批次只获取一次
+        SmsClient smsClient = smsChannelService.getSmsClient(message.getChannelId());
+        Assert.notNull(smsClient, "短信客户端({}) 不存在", message.getChannelId());
+        // 逐条提交到执行器，由执行器按照渠道限制并发数、发送速率。提交不会阻塞当前的 @Async 线程
+        for (KeyValue<Long, String> receiver : message.getReceivers()) {
+            smsSendExecutor.execute(message.getChannelId(), () -> doSendSms(smsClient, receiver.getKey(),
+                    receiver.getValue(), message.getApiTemplateId(), message.getTemplateParams()));
+        }
+    }
+
+    private void doSendSms(SmsClient smsClient, Long logId, String mobile,
+                           String apiTemplateId, List<KeyValue<String, Object>> templateParams) {
         try {
-            SmsSendRespDTO sendResponse = smsClient.sendSms(message.getLogId(), message.getMobile(),
-                    message.getApiTemplateId(), message.getTemplateParams());
-            smsLogService.updateSmsSendResult(message.getLogId(), sendResponse.getSuccess(),
+            SmsSendRespDTO sendResponse = smsClient.sendSms(logId, mobile, apiTemplateId, templateParams);
+            smsLogService.updateSmsSendResult(logId, sendResponse.getSuccess(),
                     sendResponse.getApiCode(), sendResponse.getApiMsg(),
                     sendResponse.getApiRequestId(), sendResponse.getSerialNo());
         } catch (Throwable ex) {
-            log.error("[doSendSms][发送短信异常，日志编号({})]", message.getLogId(), ex);
-            smsLogService.updateSmsSendResult(message.getLogId(), false,
+            log.error("[doSendSms][发送短信异常，日志编号({})]", logId, ex);
+            smsLogService.updateSmsSendResult(logId, false,
                     "EXCEPTION", ExceptionUtil.getRootCauseMessage(ex), null, null);
         }
     }
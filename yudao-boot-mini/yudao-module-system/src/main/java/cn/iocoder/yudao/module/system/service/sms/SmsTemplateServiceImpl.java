@@ -2,11 +2,10 @@ package cn.iocoder.yudao.module.system.service.sms;
 
 import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.lang.Assert;
-import cn.hutool.core.util.ReUtil;
-import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.common.util.string.CompiledTemplate;
 import cn.iocoder.yudao.module.system.controller.admin.sms.vo.template.SmsTemplatePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.sms.vo.template.SmsTemplateSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsChannelDO;
@@ -17,6 +16,7 @@ import cn.iocoder.yudao.module.system.framework.sms.core.client.SmsClient;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsTemplateRespDTO;
 import cn.iocoder.yudao.module.system.framework.sms.core.enums.SmsTemplateAuditStatusEnum;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -26,7 +26,6 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
@@ -42,9 +41,17 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 public class SmsTemplateServiceImpl implements SmsTemplateService {
 
     /**
-     * 正则表达式，匹配 {} 中的变量
+     * 编译后模板的最大缓存数量
      */
-    private static final Pattern PATTERN_PARAMS = Pattern.compile("\\{(.*?)}");
+    private static final int COMPILED_TEMPLATE_MAXIMUM_SIZE = 1000;
+
+    /**
+     * 编译后的模板缓存，避免每次发送都重新解析模板
+     *
+     * KEY：模板内容。内容变化时 KEY 随之变化，所以不会读到旧的编译结果；模板缓存失效时一并清空，避免无用的编译结果堆积
+     */
+    private final Map<String, CompiledTemplate> compiledTemplateCache = CacheBuilder.newBuilder()
+            .maximumSize(COMPILED_TEMPLATE_MAXIMUM_SIZE).<String, CompiledTemplate>build().asMap();
 
     @Resource
     private SmsTemplateMapper smsTemplateMapper;
@@ -88,6 +95,7 @@ public class SmsTemplateServiceImpl implements SmsTemplateService {
         updateObj.setParams(parseTemplateContentParams(updateObj.getContent()));
         updateObj.setChannelCode(channelDO.getCode());
         smsTemplateMapper.updateById(updateObj);
+        compiledTemplateCache.clear();
     }
 
     @Override
@@ -98,6 +106,7 @@ public class SmsTemplateServiceImpl implements SmsTemplateService {
         validateSmsTemplateExists(id);
         // 更新
         smsTemplateMapper.deleteById(id);
+        compiledTemplateCache.clear();
     }
 
     @Override
@@ -105,6 +114,7 @@ public class SmsTemplateServiceImpl implements SmsTemplateService {
             allEntries = true) // allEntries 清空所有缓存，因为 id 不是直接的缓存 code，不好清理
     public void deleteSmsTemplateList(List<Long> ids) {
         smsTemplateMapper.deleteByIds(ids);
+        compiledTemplateCache.clear();
     }
 
     private void validateSmsTemplateExists(Long id) {
@@ -195,12 +205,19 @@ public class SmsTemplateServiceImpl implements SmsTemplateService {
 
     @Override
     public String formatSmsTemplateContent(String content, Map<String, Object> params) {
-        return StrUtil.format(content, params);
+        return getCompiledTemplate(content).format(params);
     }
 
     @VisibleForTesting
     List<String> parseTemplateContentParams(String content) {
-        return ReUtil.findAllGroup1(PATTERN_PARAMS, content);
+        return getCompiledTemplate(content).getParams();
+    }
+
+    private CompiledTemplate getCompiledTemplate(String content) {
+        if (content == null) {
+            return CompiledTemplate.compile(null);
+        }
+        return compiledTemplateCache.computeIfAbsent(content, CompiledTemplate::compile);
     }
 
 }
@@ -56,6 +56,16 @@ public interface AdminUserService {
      */
     void updateUserLogin(Long id, String loginIp);
 
+    /**
+     * 异步更新用户的最后登陆信息，由后台线程批量写入
+     *
+     * 同一批次内，同一用户的多次登录只更新最后一次；缓冲区已满时，退化为同步更新
+     *
+     * @param id 用户编号
+     * @param loginIp 登陆 IP
+     */
+    void updateUserLoginAsync(Long id, String loginIp);
+
     /**
      * 修改用户个人信息
      *
@@ -214,4 +224,15 @@ public interface AdminUserService {
      */
     boolean isPasswordMatch(String rawPassword, String encodedPassword);
 
+    /**
+     * 如果密码的加密复杂度，低于当前配置的，则异步重新加密并更新
+     *
+     * 需要在密码校验通过后调用，从而支持调整 PasswordEncoder 的加密复杂度
+     *
+     * @param id 用户编号
+     * @param rawPassword 未加密的密码
+     * @param encodedPassword 加密后的密码
+     */
+    void upgradePasswordIfNecessary(Long id, String rawPassword, String encodedPassword);
+
 }
@@ -1,16 +1,23 @@
 package cn.iocoder.yudao.module.system.service.user;
 
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.bean.copier.CopyOptions;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
 import cn.hutool.core.util.ObjUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.common.util.validation.ValidationUtils;
 import cn.iocoder.yudao.framework.datapermission.core.util.DataPermissionUtils;
+import cn.iocoder.yudao.framework.security.config.SecurityProperties;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
 import cn.iocoder.yudao.module.system.controller.admin.auth.vo.AuthRegisterReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.user.vo.profile.UserProfileUpdatePasswordReqVO;
@@ -29,11 +36,16 @@ import cn.iocoder.yudao.module.system.service.dept.PostService;
 import cn.iocoder.yudao.module.system.service.permission.PermissionService;
 import cn.iocoder.yudao.module.system.service.tenant.TenantService;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
 import com.mzt.logapi.context.LogRecordContext;
 import com.mzt.logapi.service.impl.DiffParseFunction;
 import com.mzt.logapi.starter.annotation.LogRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -42,7 +54,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants.SERVICE_UNAVAILABLE;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
@@ -61,6 +78,25 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     static final String USER_REGISTER_ENABLED_KEY = "system.user.register-enabled";
 
+    /**
+     * 导入用户时，批量查询、写入的每批数量
+     */
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    /**
+     * 最后登录信息缓冲区的容量
+     */
+    private static final int LOGIN_BUFFER_CAPACITY = 10000;
+    /**
+     * 最后登录信息每批更新的最大数量
+     */
+    private static final int LOGIN_BUFFER_BATCH_SIZE = 500;
+
+    /**
+     * BCrypt 加密后密码的格式，第一个分组为加密复杂度
+     */
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
     @Resource
     private AdminUserMapper userMapper;
 
@@ -73,6 +109,8 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Resource
     private PasswordEncoder passwordEncoder;
     @Resource
+    private SecurityProperties securityProperties;
+    @Resource
     @Lazy // 延迟，避免循环依赖报错
     private TenantService tenantService;
 
@@ -82,6 +120,32 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Resource
     private ConfigApi configApi;
 
+    /**
+     * 最后登录信息的缓冲区，登录高峰期批量更新
+     */
+    private final BatchBuffer<AdminUserDO> userLoginBuffer = new BatchBuffer<>("user-login",
+            LOGIN_BUFFER_CAPACITY, LOGIN_BUFFER_BATCH_SIZE, this::updateUserLoginBatch);
+
+    /**
+     * 密码校验的线程池
+     */
+    private ThreadPoolExecutor passwordExecutor;
+
+    @PostConstruct
+    public void init() {
+        userLoginBuffer.start();
+        passwordExecutor = new ThreadPoolExecutor(securityProperties.getPasswordVerifyThreads(),
+                securityProperties.getPasswordVerifyThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(securityProperties.getPasswordVerifyQueueCapacity()),
+                new NamedThreadFactory("password-verify-", true), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        userLoginBuffer.shutdown();
+        passwordExecutor.shutdown();
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     @LogRecord(type = SYSTEM_USER_TYPE, subType = SYSTEM_USER_CREATE_SUB_TYPE, bizNo = "{{#user.id}}",
@@ -180,6 +244,30 @@ public class AdminUserServiceImpl implements AdminUserService {
         userMapper.updateById(new AdminUserDO().setId(id).setLoginIp(loginIp).setLoginDate(LocalDateTime.now()));
     }
 
+    @Override
+    public void updateUserLoginAsync(Long id, String loginIp) {
+        AdminUserDO updateObj = new AdminUserDO().setId(id).setLoginIp(loginIp).setLoginDate(LocalDateTime.now());
+        updateObj.setTenantId(TenantContextHolder.getTenantId()); // 后台线程没有租户上下文，需要记录下来
+        if (!userLoginBuffer.offer(updateObj)) {
+            userMapper.updateById(new AdminUserDO().setId(id).setLoginIp(loginIp).setLoginDate(updateObj.getLoginDate()));
+        }
+    }
+
+    private void updateUserLoginBatch(List<AdminUserDO> updateObjs) {
+        // 按照租户分组，同一用户只保留最后一次登录
+        Map<Long, Map<Long, AdminUserDO>> tenantUpdateObjs = new HashMap<>();
+        updateObjs.forEach(updateObj -> tenantUpdateObjs
+                .computeIfAbsent(ObjUtil.defaultIfNull(updateObj.getTenantId(), 0L), key -> new LinkedHashMap<>())
+                .put(updateObj.getId(), updateObj));
+        // 逐个租户，批量更新
+        tenantUpdateObjs.values().forEach(userMap -> {
+            Long tenantId = CollUtil.getFirst(userMap.values()).getTenantId();
+            List<AdminUserDO> list = convertList(userMap.values(), updateObj -> new AdminUserDO().setId(updateObj.getId())
+                    .setLoginIp(updateObj.getLoginIp()).setLoginDate(updateObj.getLoginDate())); // 不更新 tenantId 字段
+            TenantUtils.execute(tenantId, () -> userMapper.updateBatch(list));
+        });
+    }
+
     @Override
     public void updateUserProfile(Long id, UserProfileUpdateReqVO reqVO) {
         // 校验正确性
@@ -469,47 +557,173 @@ public class AdminUserServiceImpl implements AdminUserService {
             throw exception(USER_IMPORT_INIT_PASSWORD);
         }
 
-        // 2. 遍历，逐个创建 or 更新
+        // 2. 批量预加载：已存在的用户（用户名、手机、邮箱）、部门。关闭数据权限，避免唯一校验不正确
+        ImportUserContext context = DataPermissionUtils.executeIgnore(() -> buildImportUserContext(importUsers));
+        // 初始化密码只加密一次，且仅在存在新增用户时加密。原因是：BCrypt 加密的开销较大
+        Supplier<String> encodedInitPassword = Suppliers.memoize(() -> encodePassword(initPassword));
+        // 校验器只创建一次。原因是：ValidationUtils.validate(Object) 每次都会创建 ValidatorFactory，开销较大
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        // 3. 遍历，逐个在内存中校验，并计算创建 or 更新
         UserImportRespVO respVO = UserImportRespVO.builder().createUsernames(new ArrayList<>())
                 .updateUsernames(new ArrayList<>()).failureUsernames(new LinkedHashMap<>()).build();
+        Map<String, AdminUserDO> createUsers = new LinkedHashMap<>(); // key：用户名
+        Map<Long, AdminUserDO> updateUsers = new LinkedHashMap<>(); // key：用户编号
         importUsers.forEach(importUser -> {
-            // 2.1.1 校验字段是否符合要求
+            // 3.1.1 校验字段是否符合要求
             try {
-                ValidationUtils.validate(BeanUtils.toBean(importUser, UserSaveReqVO.class).setPassword(initPassword));
+                ValidationUtils.validate(validator, BeanUtils.toBean(importUser, UserSaveReqVO.class).setPassword(initPassword));
             } catch (ConstraintViolationException ex){
                 respVO.getFailureUsernames().put(importUser.getUsername(), ex.getMessage());
                 return;
             }
-            // 2.1.2 校验，判断是否有不符合的原因
+            // 3.1.2 校验，判断是否有不符合的原因
             try {
-                validateUserForCreateOrUpdate(null, null, importUser.getMobile(), importUser.getEmail(),
-                        importUser.getDeptId(), null);
+                validateImportUser(importUser, context);
             } catch (ServiceException ex) {
                 respVO.getFailureUsernames().put(importUser.getUsername(), ex.getMessage());
                 return;
             }
 
-            // 2.2.1 判断如果不存在，在进行插入
-            AdminUserDO existUser = userMapper.selectByUsername(importUser.getUsername());
+            // 3.2.1 判断如果不存在，在进行插入
+            AdminUserDO existUser = context.users.get(importUser.getUsername());
             if (existUser == null) {
-                userMapper.insert(BeanUtils.toBean(importUser, AdminUserDO.class)
-                        .setPassword(encodePassword(initPassword)).setPostIds(new HashSet<>())); // 设置默认密码及空岗位编号数组
+                AdminUserDO createUser = BeanUtils.toBean(importUser, AdminUserDO.class)
+                        .setPassword(encodedInitPassword.get()).setPostIds(new HashSet<>()); // 设置默认密码及空岗位编号数组
+                createUsers.put(importUser.getUsername(), createUser);
+                context.add(createUser);
                 respVO.getCreateUsernames().add(importUser.getUsername());
                 return;
             }
-            // 2.2.2 如果存在，判断是否允许更新
+            // 3.2.2 如果存在，判断是否允许更新
             if (!isUpdateSupport) {
                 respVO.getFailureUsernames().put(importUser.getUsername(), USER_USERNAME_EXISTS.getMsg());
                 return;
             }
             AdminUserDO updateUser = BeanUtils.toBean(importUser, AdminUserDO.class);
-            updateUser.setId(existUser.getId());
-            userMapper.updateById(updateUser);
+            if (existUser.getId() == null) {
+                // 情况一：本次导入中新增的用户，直接合并到待插入的记录
+                BeanUtil.copyProperties(updateUser, existUser, CopyOptions.create().ignoreNullValue());
+            } else {
+                // 情况二：已存在的用户，合并到待更新的记录。与 updateById 一致，忽略 null 字段
+                AdminUserDO pendingUpdateUser = updateUsers.get(existUser.getId());
+                if (pendingUpdateUser != null) {
+                    BeanUtil.copyProperties(updateUser, pendingUpdateUser, CopyOptions.create().ignoreNullValue());
+                } else {
+                    updateUsers.put(existUser.getId(), updateUser.setId(existUser.getId()));
+                }
+            }
+            context.add(updateUser);
             respVO.getUpdateUsernames().add(importUser.getUsername());
         });
+
+        // 4. 分批写入
+        if (CollUtil.isNotEmpty(createUsers)) {
+            userMapper.insertBatch(createUsers.values(), IMPORT_BATCH_SIZE);
+        }
+        if (CollUtil.isNotEmpty(updateUsers)) {
+            userMapper.updateBatch(updateUsers.values(), IMPORT_BATCH_SIZE);
+        }
         return respVO;
     }
 
+    /**
+     * 构建导入用户的上下文：分批 IN 查询，预加载已存在的用户、手机、邮箱，以及部门
+     *
+     * @param importUsers 导入用户列表
+     * @return 上下文
+     */
+    private ImportUserContext buildImportUserContext(List<UserImportExcelVO> importUsers) {
+        ImportUserContext context = new ImportUserContext();
+        // 已存在的用户
+        Set<String> usernames = convertSet(importUsers, UserImportExcelVO::getUsername,
+                user -> StrUtil.isNotBlank(user.getUsername()));
+        CollUtil.split(usernames, IMPORT_BATCH_SIZE).forEach(subUsernames ->
+                userMapper.selectListByUsernames(subUsernames).forEach(context::add));
+        // 已存在的手机
+        Set<String> mobiles = convertSet(importUsers, UserImportExcelVO::getMobile,
+                user -> StrUtil.isNotBlank(user.getMobile()));
+        CollUtil.split(mobiles, IMPORT_BATCH_SIZE).forEach(subMobiles ->
+                userMapper.selectListByMobiles(subMobiles).forEach(context::add));
+        // 已存在的邮箱
+        Set<String> emails = convertSet(importUsers, UserImportExcelVO::getEmail,
+                user -> StrUtil.isNotBlank(user.getEmail()));
+        CollUtil.split(emails, IMPORT_BATCH_SIZE).forEach(subEmails ->
+                userMapper.selectListByEmails(subEmails).forEach(context::add));
+        // 部门
+        Set<Long> deptIds = convertSet(importUsers, UserImportExcelVO::getDeptId, user -> user.getDeptId() != null);
+        context.depts.putAll(deptService.getDeptMap(deptIds));
+        return context;
+    }
+
+    /**
+     * 在内存中校验导入用户，与 {@link #validateUserForCreateOrUpdate(Long, String, String, String, Long, Set)} 的规则一致
+     *
+     * @param importUser 导入用户
+     * @param context 上下文
+     */
+    private static void validateImportUser(UserImportExcelVO importUser, ImportUserContext context) {
+        // 校验手机号唯一
+        if (StrUtil.isNotBlank(importUser.getMobile()) && context.mobiles.contains(importUser.getMobile())) {
+            throw exception(USER_MOBILE_EXISTS);
+        }
+        // 校验邮箱唯一
+        if (StrUtil.isNotBlank(importUser.getEmail()) && context.emails.contains(importUser.getEmail())) {
+            throw exception(USER_EMAIL_EXISTS);
+        }
+        // 校验部门处于开启状态
+        if (importUser.getDeptId() != null) {
+            DeptDO dept = context.depts.get(importUser.getDeptId());
+            if (dept == null) {
+                throw exception(DEPT_NOT_FOUND);
+            }
+            if (!CommonStatusEnum.ENABLE.getStatus().equals(dept.getStatus())) {
+                throw exception(DEPT_NOT_ENABLE, dept.getName());
+            }
+        }
+    }
+
+    /**
+     * 导入用户的上下文，在一次导入中，按照行的顺序累加，从而保证与逐行写入时的校验结果一致
+     */
+    private static class ImportUserContext {
+
+        /**
+         * 用户名与用户的映射，包括已存在的用户，以及本次导入新增的用户（编号为空）
+         */
+        private final Map<String, AdminUserDO> users = new HashMap<>();
+        /**
+         * 已占用的手机
+         */
+        private final Set<String> mobiles = new HashSet<>();
+        /**
+         * 已占用的邮箱
+         */
+        private final Set<String> emails = new HashSet<>();
+        /**
+         * 部门编号与部门的映射
+         */
+        private final Map<Long, DeptDO> depts = new HashMap<>();
+
+        /**
+         * 添加用户，占用其用户名、手机、邮箱
+         *
+         * @param user 用户
+         */
+        private void add(AdminUserDO user) {
+            if (StrUtil.isNotBlank(user.getUsername())) {
+                users.putIfAbsent(user.getUsername(), user);
+            }
+            if (StrUtil.isNotBlank(user.getMobile())) {
+                mobiles.add(user.getMobile());
+            }
+            if (StrUtil.isNotBlank(user.getEmail())) {
+                emails.add(user.getEmail());
+            }
+        }
+
+    }
+
     @Override
     public List<AdminUserDO> getUserListByStatus(Integer status) {
         return userMapper.selectListByStatus(status);
@@ -517,7 +731,68 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     @Override
     public boolean isPasswordMatch(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        // 提交到密码校验线程池。队列已满时，直接返回服务繁忙，避免请求堆积
+        Future<Boolean> future;
+        try {
+            future = passwordExecutor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException ex) {
+            log.warn("[isPasswordMatch][密码校验线程池已满({})，拒绝请求]", passwordExecutor.getQueue().size());
+            throw exception(SERVICE_UNAVAILABLE);
+        }
+        // 等待校验结果。超时时，取消校验，并返回服务繁忙
+        try {
+            return future.get(securityProperties.getPasswordVerifyTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            log.warn("[isPasswordMatch][密码校验超时({} ms)，拒绝请求]", securityProperties.getPasswordVerifyTimeoutMillis());
+            throw exception(SERVICE_UNAVAILABLE);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw exception(SERVICE_UNAVAILABLE);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @Override
+    public void upgradePasswordIfNecessary(Long id, String rawPassword, String encodedPassword) {
+        if (!isPasswordEncoderOutdated(encodedPassword)) {
+            return;
+        }
+        Long tenantId = TenantContextHolder.getTenantId(); // 线程池没有租户上下文，需要记录下来
+        try {
+            passwordExecutor.execute(() -> TenantUtils.execute(tenantId, () -> {
+                // 只有密码未被修改时，才更新，避免覆盖并发修改的新密码
+                int count = userMapper.updateByIdAndPassword(id, encodedPassword,
+                        new AdminUserDO().setPassword(encodePassword(rawPassword)));
+                if (count > 0) {
+                    log.info("[upgradePasswordIfNecessary][用户({}) 的密码已按照新的复杂度重新加密]", id);
+                }
+            }));
+        } catch (RejectedExecutionException ex) {
+            // 线程池繁忙时，跳过即可，下次登录时会再次尝试
+            log.warn("[upgradePasswordIfNecessary][密码校验线程池已满，跳过用户({}) 的重新加密]", id);
+        }
+    }
+
+    /**
+     * 判断加密后的密码，是否低于当前配置的加密复杂度
+     *
+     * 只升不降：配置的复杂度调低时，不重新加密，避免降低已有密码的安全性
+     *
+     * @param encodedPassword 加密后的密码，BCrypt 格式为 $2a$10$...
+     * @return 是否低于。非 BCrypt 格式时，返回 false
+     */
+    private boolean isPasswordEncoderOutdated(String encodedPassword) {
+        Matcher matcher = BCRYPT_PATTERN.matcher(StrUtil.nullToEmpty(encodedPassword));
+        if (!matcher.find()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) < securityProperties.getPasswordEncoderLength();
     }
 
     /**
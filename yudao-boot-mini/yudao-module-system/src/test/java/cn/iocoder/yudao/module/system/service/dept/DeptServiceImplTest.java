@@ -0,0 +1,226 @@
+package cn.iocoder.yudao.module.system.service.dept;
+
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptClosureDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptClosureMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link DeptServiceImpl} 的单元测试
+ *
+ * 重点测试：
+ * 1. 修改父部门时，只移动子树的部门闭包，结果与全量重建一致
+ * 2. 部门树快照在 Map 之外加载，不阻塞其它租户
+ *
+ * @author 芋道源码
+ */
+public class DeptServiceImplTest {
+
+    private DeptServiceImpl deptService;
+
+    /**
+     * 部门闭包表
+     */
+    private final List<DeptClosureDO> closures = new ArrayList<>();
+    /**
+     * 插入的闭包数量
+     */
+    private int insertCount;
+
+    /**
+     * 加载部门时阻塞的租户编号
+     */
+    private volatile Long blockedTenantId;
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch loadReleased = new CountDownLatch(1);
+    /**
+     * 加载部门的次数
+     */
+    private final AtomicInteger selectCount = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        deptService = new DeptServiceImpl();
+        setField("deptMapper", buildDeptMapper());
+        setField("deptClosureMapper", buildDeptClosureMapper());
+        setField("deptClosureEnable", true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loadReleased.countDown();
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testMoveDeptClosure() {
+        // 准备参数：1 -> (2 -> (4 -> 5), 3)，7 -> 8
+        Map<Long, Long> parentIds = new LinkedHashMap<>();
+        parentIds.put(1L, DeptDO.PARENT_ID_ROOT);
+        parentIds.put(2L, 1L);
+        parentIds.put(3L, 1L);
+        parentIds.put(4L, 2L);
+        parentIds.put(5L, 4L);
+        parentIds.put(7L, DeptDO.PARENT_ID_ROOT);
+        parentIds.put(8L, 7L);
+        closures.addAll(buildClosures(parentIds));
+
+        // 调用：将 2 移动到 3 下
+        deptService.moveDeptClosure(2L, 3L);
+        parentIds.put(2L, 3L);
+
+        // 断言：与全量重建一致
+        assertEquals(toStrings(buildClosures(parentIds)), toStrings(closures));
+        // 断言：只插入子树（2、4、5）与新祖先（3、1）的记录
+        assertEquals(6, insertCount);
+    }
+
+    @Test
+    public void testMoveDeptClosure_toRoot() {
+        // 准备参数：1 -> 2 -> 3
+        Map<Long, Long> parentIds = new LinkedHashMap<>();
+        parentIds.put(1L, DeptDO.PARENT_ID_ROOT);
+        parentIds.put(2L, 1L);
+        parentIds.put(3L, 2L);
+        closures.addAll(buildClosures(parentIds));
+
+        // 调用：将 2 移动为根部门
+        deptService.moveDeptClosure(2L, DeptDO.PARENT_ID_ROOT);
+        parentIds.put(2L, DeptDO.PARENT_ID_ROOT);
+
+        // 断言：与全量重建一致，且无需插入
+        assertEquals(toStrings(buildClosures(parentIds)), toStrings(closures));
+        assertEquals(0, insertCount);
+    }
+
+    @Test
+    public void testGetDeptTreeSnapshot_notBlockOtherTenant() throws Exception {
+        // 准备参数：租户 1 加载部门时阻塞。租户 17 与租户 1 位于 ConcurrentHashMap 的同一个桶
+        blockedTenantId = 1L;
+        CompletableFuture<DeptTreeSnapshot> blocked = CompletableFuture.supplyAsync(() ->
+                TenantUtils.execute(1L, () -> deptService.getDeptTreeSnapshot()));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        // 调用：租户 17 加载
+        CompletableFuture<DeptTreeSnapshot> other = CompletableFuture.supplyAsync(() ->
+                TenantUtils.execute(17L, () -> deptService.getDeptTreeSnapshot()));
+
+        // 断言：不被租户 1 阻塞
+        assertEquals(1, other.get(5, TimeUnit.SECONDS).size());
+        assertFalse(blocked.isDone());
+        loadReleased.countDown();
+        assertEquals(1, blocked.get(5, TimeUnit.SECONDS).size());
+        // 断言：已缓存，不再加载
+        TenantUtils.execute(1L, () -> deptService.getDeptTreeSnapshot());
+        assertEquals(2, selectCount.get());
+    }
+
+    @Test
+    public void testGetDeptTreeSnapshot_invalidateWhileLoading() throws Exception {
+        // 准备参数：租户 1 加载部门时阻塞
+        blockedTenantId = 1L;
+        CompletableFuture<DeptTreeSnapshot> blocked = CompletableFuture.supplyAsync(() ->
+                TenantUtils.execute(1L, () -> deptService.getDeptTreeSnapshot()));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        // 调用：加载期间，部门发生变化
+        TenantUtils.execute(1L, () -> deptService.invalidateDeptTree());
+        loadReleased.countDown();
+        assertNotNull(blocked.get(5, TimeUnit.SECONDS));
+
+        // 断言：不保留可能过期的快照，重新加载
+        blockedTenantId = null;
+        TenantUtils.execute(1L, () -> deptService.getDeptTreeSnapshot());
+        assertEquals(2, selectCount.get());
+    }
+
+    /**
+     * 与 {@link DeptServiceImpl#rebuildDeptClosure()} 相同，基于 parentId 计算全量的闭包
+     */
+    private static List<DeptClosureDO> buildClosures(Map<Long, Long> parentIds) {
+        List<DeptClosureDO> result = new ArrayList<>();
+        parentIds.keySet().forEach(id -> {
+            Long ancestorId = id;
+            for (int depth = 0; ancestorId != null && !DeptDO.PARENT_ID_ROOT.equals(ancestorId); depth++) {
+                result.add(new DeptClosureDO(null, ancestorId, id, depth));
+                ancestorId = parentIds.get(ancestorId);
+            }
+        });
+        return result;
+    }
+
+    private static Set<String> toStrings(List<DeptClosureDO> closures) {
+        return closures.stream().map(closure -> closure.getAncestorId() + "->" + closure.getDescendantId()
+                + ":" + closure.getDepth()).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private DeptMapper buildDeptMapper() {
+        return (DeptMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DeptMapper.class}, (proxy, method, args) -> {
+                    if ("selectList".equals(method.getName()) && args == null) {
+                        selectCount.incrementAndGet();
+                        Long tenantId = TenantContextHolder.getTenantId();
+                        if (Objects.equals(tenantId, blockedTenantId)) {
+                            loadStarted.countDown();
+                            assertTrue(loadReleased.await(5, TimeUnit.SECONDS));
+                        }
+                        DeptDO dept = new DeptDO();
+                        dept.setId(tenantId * 100);
+                        dept.setParentId(DeptDO.PARENT_ID_ROOT);
+                        return Collections.singletonList(dept);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeptClosureMapper buildDeptClosureMapper() {
+        return (DeptClosureMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DeptClosureMapper.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "selectListByAncestorId":
+                            return closures.stream().filter(closure -> closure.getAncestorId().equals(args[0]))
+                                    .collect(Collectors.toList());
+                        case "selectListByDescendantId":
+                            return closures.stream().filter(closure -> closure.getDescendantId().equals(args[0]))
+                                    .collect(Collectors.toList());
+                        case "deleteByDescendantIdsAndAncestorIdsNotIn":
+                            Collection<Long> subtreeIds = (Collection<Long>) args[0];
+                            int size = closures.size();
+                            closures.removeIf(closure -> subtreeIds.contains(closure.getDescendantId())
+                                    && !subtreeIds.contains(closure.getAncestorId()));
+                            return size - closures.size();
+                        case "insertBatch":
+                            Collection<DeptClosureDO> entities = (Collection<DeptClosureDO>) args[0];
+                            closures.addAll(entities);
+                            insertCount += entities.size();
+                            return true;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = DeptServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(deptService, value);
+    }
+
+}
@@ -0,0 +1,142 @@
+package cn.iocoder.yudao.module.system.service.dept;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link DeptTreeSnapshot} 的单元测试
+ *
+ * 对比原有的「逐层查询 parentId」实现，保证结果一致
+ *
+ * @author 芋道源码
+ */
+public class DeptTreeSnapshotTest {
+
+    @Test
+    public void testGetChildDeptList() {
+        // 准备参数：1 -> (2 -> (4, 5), 3 -> 6)
+        List<DeptDO> depts = Arrays.asList(buildDept(1L, DeptDO.PARENT_ID_ROOT), buildDept(2L, 1L),
+                buildDept(3L, 1L), buildDept(4L, 2L), buildDept(5L, 2L), buildDept(6L, 3L));
+        DeptTreeSnapshot snapshot = DeptTreeSnapshot.build(depts);
+
+        // 断言：先序遍历
+        assertEquals(Arrays.asList(2L, 4L, 5L, 3L, 6L), getIds(snapshot.getChildDeptList(Collections.singleton(1L))));
+        assertEquals(Arrays.asList(4L, 5L), getIds(snapshot.getChildDeptList(Collections.singleton(2L))));
+        assertEquals(Collections.emptyList(), getIds(snapshot.getChildDeptList(Collections.singleton(4L))));
+        assertEquals(Collections.emptyList(), getIds(snapshot.getChildDeptList(Collections.singleton(100L))));
+        // 断言：祖先、后代同时传入时，不重复
+        assertEquals(Arrays.asList(2L, 4L, 5L, 3L, 6L), getIds(snapshot.getChildDeptList(Arrays.asList(1L, 2L))));
+        assertEquals(new HashSet<>(Arrays.asList(4L, 5L)), snapshot.getChildDeptIds(2L));
+    }
+
+    @Test
+    public void testGetChildDeptList_filter() {
+        // 准备参数：1 -> (2 -> (4, 5), 3 -> 6)
+        List<DeptDO> depts = Arrays.asList(buildDept(1L, DeptDO.PARENT_ID_ROOT), buildDept(2L, 1L),
+                buildDept(3L, 1L), buildDept(4L, 2L), buildDept(5L, 2L), buildDept(6L, 3L));
+        DeptTreeSnapshot snapshot = DeptTreeSnapshot.build(depts);
+
+        // 断言：部门 2 不可见时，它的子部门 4、5 也不可见
+        assertEquals(Arrays.asList(3L, 6L), getIds(snapshot.getChildDeptList(Collections.singleton(1L),
+                dept -> dept.getId() != 2L)));
+        // 断言：直接传入不可见的部门 2 时，仍然返回其可见的子部门，与逐层查询 parentId 一致
+        assertEquals(Arrays.asList(3L, 6L, 4L, 5L), getIds(snapshot.getChildDeptList(Arrays.asList(1L, 2L),
+                dept -> dept.getId() != 2L)));
+    }
+
+    @Test
+    public void testGetChildDeptList_readOnly() {
+        DeptTreeSnapshot snapshot = DeptTreeSnapshot.build(Arrays.asList(buildDept(1L, DeptDO.PARENT_ID_ROOT), buildDept(2L, 1L)));
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.getChildDeptList(Collections.singleton(1L)).clear());
+    }
+
+    @Test
+    public void testBuild_cycle() {
+        // 准备参数：1 为根部门；2、3 互为父部门，无法从根部门遍历到
+        DeptTreeSnapshot snapshot = DeptTreeSnapshot.build(Arrays.asList(buildDept(1L, DeptDO.PARENT_ID_ROOT),
+                buildDept(2L, 3L), buildDept(3L, 2L)));
+
+        assertEquals(1, snapshot.size());
+        assertTrue(snapshot.getChildDeptList(Collections.singleton(2L)).isEmpty());
+    }
+
+    @Test
+    public void testGetChildDeptList_sameAsLevelQuery() {
+        Random random = new Random(1024);
+        for (int round = 0; round < 200; round++) {
+            // 准备参数：随机部门树，以及随机的数据权限
+            int size = 1 + random.nextInt(60);
+            List<DeptDO> depts = new ArrayList<>(size);
+            for (long id = 1; id <= size; id++) {
+                // 父部门编号小于自身，保证无环；少量部门的父部门为根
+                long parentId = id == 1 || random.nextInt(10) == 0 ? DeptDO.PARENT_ID_ROOT : 1 + random.nextInt((int) id - 1);
+                depts.add(buildDept(id, parentId));
+            }
+            Set<Long> visibleIds = new HashSet<>();
+            depts.forEach(dept -> {
+                if (random.nextInt(5) != 0) {
+                    visibleIds.add(dept.getId());
+                }
+            });
+            Predicate<DeptDO> filter = dept -> visibleIds.contains(dept.getId());
+            List<Long> ids = new ArrayList<>();
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                ids.add(1L + random.nextInt(size));
+            }
+            DeptTreeSnapshot snapshot = DeptTreeSnapshot.build(depts);
+
+            // 调用，并断言
+            List<DeptDO> expected = getChildDeptListByLevel(depts, ids, filter);
+            List<DeptDO> actual = snapshot.getChildDeptList(ids, filter);
+            assertEquals(convertSet(expected, DeptDO::getId), convertSet(actual, DeptDO::getId),
+                    "round(" + round + ") ids(" + ids + ")");
+            assertEquals(actual.size(), convertSet(actual, DeptDO::getId).size()); // 不重复
+        }
+    }
+
+    /**
+     * 原有的实现：逐层查询 parentId，filter 模拟数据权限对每次查询的过滤
+     */
+    private static List<DeptDO> getChildDeptListByLevel(List<DeptDO> depts, Collection<Long> ids, Predicate<DeptDO> filter) {
+        List<DeptDO> children = new ArrayList<>();
+        Collection<Long> parentIds = ids;
+        for (int i = 0; i < Short.MAX_VALUE; i++) {
+            Collection<Long> currentParentIds = parentIds;
+            List<DeptDO> level = new ArrayList<>();
+            depts.forEach(dept -> {
+                if (currentParentIds.contains(dept.getParentId()) && filter.test(dept)) {
+                    level.add(dept);
+                }
+            });
+            if (level.isEmpty()) {
+                break;
+            }
+            children.addAll(level);
+            parentIds = convertSet(level, DeptDO::getId);
+        }
+        return children;
+    }
+
+    private static DeptDO buildDept(Long id, Long parentId) {
+        DeptDO dept = new DeptDO();
+        dept.setId(id);
+        dept.setParentId(parentId);
+        dept.setName("dept-" + id);
+        return dept;
+    }
+
+    private static List<Long> getIds(List<DeptDO> depts) {
+        List<Long> ids = new ArrayList<>(depts.size());
+        depts.forEach(dept -> ids.add(dept.getId()));
+        return ids;
+    }
+
+}
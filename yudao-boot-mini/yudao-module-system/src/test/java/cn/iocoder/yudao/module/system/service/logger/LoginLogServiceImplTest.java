@@ -0,0 +1,113 @@
+package cn.iocoder.yudao.module.system.service.logger;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.system.api.logger.dto.LoginLogCreateReqDTO;
+import cn.iocoder.yudao.module.system.dal.dataobject.logger.LoginLogDO;
+import cn.iocoder.yudao.module.system.dal.mysql.logger.LoginLogMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link LoginLogServiceImpl} 的单元测试
+ *
+ * 重点测试：后台线程批量写入时，按照投递时的租户分组写入
+ *
+ * @author 芋道源码
+ */
+public class LoginLogServiceImplTest {
+
+    private LoginLogServiceImpl loginLogService;
+
+    /**
+     * 写入的登录日志。KEY：写入时的租户编号；VALUE：用户名列表
+     */
+    private final Map<Long, List<String>> insertedLogs = Collections.synchronizedMap(new LinkedHashMap<>());
+    /**
+     * 批量写入的次数
+     */
+    private int insertBatchCount;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        loginLogService = new LoginLogServiceImpl();
+        Field field = LoginLogServiceImpl.class.getDeclaredField("loginLogMapper");
+        field.setAccessible(true);
+        field.set(loginLogService, buildLoginLogMapper());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testCreateLoginLogBatch_multiTenant() {
+        // 准备参数：两个租户交错的一批数据，且当前线程没有租户上下文
+        List<KeyValue<Long, LoginLogDO>> loginLogs = Arrays.asList(
+                new KeyValue<>(1L, buildLoginLog("a1")), new KeyValue<>(2L, buildLoginLog("b1")),
+                new KeyValue<>(1L, buildLoginLog("a2")), new KeyValue<>(2L, buildLoginLog("b2")));
+
+        // 调用
+        loginLogService.createLoginLogBatch(loginLogs);
+
+        // 断言：每个租户一次批量写入，且在各自的租户下写入
+        assertEquals(2, insertBatchCount);
+        assertEquals(Arrays.asList("a1", "a2"), insertedLogs.get(1L));
+        assertEquals(Arrays.asList("b1", "b2"), insertedLogs.get(2L));
+        // 断言：执行完成后，恢复原有的租户上下文
+        assertNull(TenantContextHolder.getTenantId());
+    }
+
+    @Test
+    public void testCreateLoginLogAsync_multiTenant() {
+        // 调用：在不同租户下投递，关闭时写入剩余数据
+        loginLogService.init();
+        TenantUtils.execute(1L, () -> loginLogService.createLoginLogAsync(buildReqDTO("a1")));
+        TenantUtils.execute(2L, () -> loginLogService.createLoginLogAsync(buildReqDTO("b1")));
+        TenantUtils.execute(1L, () -> loginLogService.createLoginLogAsync(buildReqDTO("a2")));
+        loginLogService.destroy();
+
+        // 断言：没有丢失，且在各自的租户下写入
+        assertEquals(Arrays.asList("a1", "a2"), insertedLogs.get(1L));
+        assertEquals(Collections.singletonList("b1"), insertedLogs.get(2L));
+    }
+
+    private LoginLogMapper buildLoginLogMapper() {
+        return (LoginLogMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{LoginLogMapper.class}, (proxy, method, args) -> {
+                    if ("insertBatch".equals(method.getName())) {
+                        // 模拟 TenantLineInnerInterceptor：没有租户上下文时，无法写入
+                        Long tenantId = TenantContextHolder.getRequiredTenantId();
+                        @SuppressWarnings("unchecked")
+                        Collection<LoginLogDO> entities = (Collection<LoginLogDO>) args[0];
+                        entities.forEach(entity -> insertedLogs.computeIfAbsent(tenantId, key -> new ArrayList<>())
+                                .add(entity.getUsername()));
+                        insertBatchCount++;
+                        return true;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static LoginLogDO buildLoginLog(String username) {
+        LoginLogDO loginLog = new LoginLogDO();
+        loginLog.setUsername(username);
+        return loginLog;
+    }
+
+    private static LoginLogCreateReqDTO buildReqDTO(String username) {
+        LoginLogCreateReqDTO reqDTO = new LoginLogCreateReqDTO();
+        reqDTO.setUsername(username);
+        return reqDTO;
+    }
+
+}
@@ -0,0 +1,132 @@
+package cn.iocoder.yudao.module.system.service.logger;
+
+import cn.iocoder.yudao.framework.common.biz.system.logger.dto.OperateLogCreateReqDTO;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.system.dal.dataobject.logger.OperateLogDO;
+import cn.iocoder.yudao.module.system.dal.mysql.logger.OperateLogMapper;
+import cn.iocoder.yudao.module.system.enums.logger.OperateLogBufferFullPolicyEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link OperateLogServiceImpl} 的单元测试
+ *
+ * 重点测试：后台线程批量写入时，按照投递时的租户分组写入
+ *
+ * @author 芋道源码
+ */
+public class OperateLogServiceImplTest {
+
+    private OperateLogServiceImpl operateLogService;
+
+    /**
+     * 写入的操作日志。KEY：写入时的租户编号；VALUE：操作名列表
+     */
+    private final Map<Long, List<String>> insertedLogs = Collections.synchronizedMap(new LinkedHashMap<>());
+    /**
+     * 批量写入的次数
+     */
+    private int insertBatchCount;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        operateLogService = new OperateLogServiceImpl();
+        setField("operateLogMapper", buildOperateLogMapper());
+        setField("bufferCapacity", 10000);
+        setField("bufferFullPolicy", OperateLogBufferFullPolicyEnum.CALLER_RUNS);
+        setField("bufferBlockTimeout", Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testCreateOperateLogBatch_multiTenant() {
+        // 准备参数：两个租户交错的一批数据，且当前线程没有租户上下文
+        List<KeyValue<Long, OperateLogDO>> operateLogs = Arrays.asList(
+                new KeyValue<>(1L, buildOperateLog("a1")), new KeyValue<>(2L, buildOperateLog("b1")),
+                new KeyValue<>(1L, buildOperateLog("a2")), new KeyValue<>(2L, buildOperateLog("b2")));
+
+        // 调用
+        operateLogService.createOperateLogBatch(operateLogs);
+
+        // 断言：每个租户一次批量写入，且在各自的租户下写入
+        assertEquals(2, insertBatchCount);
+        assertEquals(Arrays.asList("a1", "a2"), insertedLogs.get(1L));
+        assertEquals(Arrays.asList("b1", "b2"), insertedLogs.get(2L));
+        // 断言：执行完成后，恢复原有的租户上下文
+        assertNull(TenantContextHolder.getTenantId());
+    }
+
+    @Test
+    public void testCreateOperateLogAsync_multiTenant() {
+        // 准备参数
+        operateLogService.init();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new OperateLogMeterBinder(operateLogService).bindTo(registry);
+
+        // 调用：在不同租户下投递，关闭时写入剩余数据
+        TenantUtils.execute(1L, () -> operateLogService.createOperateLogAsync(buildReqDTO("a1")));
+        TenantUtils.execute(2L, () -> operateLogService.createOperateLogAsync(buildReqDTO("b1")));
+        TenantUtils.execute(1L, () -> operateLogService.createOperateLogAsync(buildReqDTO("a2")));
+        operateLogService.destroy();
+
+        // 断言：没有丢失，且在各自的租户下写入
+        assertEquals(Arrays.asList("a1", "a2"), insertedLogs.get(1L));
+        assertEquals(Collections.singletonList("b1"), insertedLogs.get(2L));
+        // 断言：指标
+        assertEquals(3, registry.get("operate.log.written").functionCounter().count());
+        assertEquals(0, registry.get("operate.log.dropped").functionCounter().count());
+        assertEquals(0, registry.get("operate.log.buffer.size").gauge().value());
+    }
+
+    private OperateLogMapper buildOperateLogMapper() {
+        return (OperateLogMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OperateLogMapper.class}, (proxy, method, args) -> {
+                    if ("insertBatch".equals(method.getName())) {
+                        // 模拟 TenantLineInnerInterceptor：没有租户上下文时，无法写入
+                        Long tenantId = TenantContextHolder.getRequiredTenantId();
+                        @SuppressWarnings("unchecked")
+                        Collection<OperateLogDO> entities = (Collection<OperateLogDO>) args[0];
+                        entities.forEach(entity -> insertedLogs.computeIfAbsent(tenantId, key -> new ArrayList<>())
+                                .add(entity.getAction()));
+                        insertBatchCount++;
+                        return true;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = OperateLogServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(operateLogService, value);
+    }
+
+    private static OperateLogDO buildOperateLog(String action) {
+        OperateLogDO operateLog = new OperateLogDO();
+        operateLog.setAction(action);
+        return operateLog;
+    }
+
+    private static OperateLogCreateReqDTO buildReqDTO(String action) {
+        OperateLogCreateReqDTO reqDTO = new OperateLogCreateReqDTO();
+        reqDTO.setAction(action);
+        return reqDTO;
+    }
+
+}
@@ -0,0 +1,53 @@
+package cn.iocoder.yudao.module.system.service.notify;
+
+import cn.iocoder.yudao.module.system.dal.redis.notify.NotifyMessageUnreadCountRedisDAO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 内存实现的 {@link NotifyMessageUnreadCountRedisDAO}，用于单元测试
+ *
+ * 每个方法通过 synchronized 保证原子性，与 Redis 的 Lua 脚本一致
+ *
+ * @author 芋道源码
+ */
+class InMemoryNotifyMessageUnreadCountRedisDAO extends NotifyMessageUnreadCountRedisDAO {
+
+    private final Map<String, Long> counts = new HashMap<>();
+    private final Map<String, Long> versions = new HashMap<>();
+
+    @Override
+    public synchronized Long get(Long userId, Integer userType) {
+        return counts.get(formatKey(userId, userType));
+    }
+
+    @Override
+    public synchronized String getVersion(Long userId, Integer userType) {
+        Long version = versions.get(formatKey(userId, userType));
+        return version != null ? String.valueOf(version) : "";
+    }
+
+    @Override
+    public synchronized boolean setIfVersion(Long userId, Integer userType, String version, long count) {
+        if (!getVersion(userId, userType).equals(version)) {
+            return false;
+        }
+        return counts.putIfAbsent(formatKey(userId, userType), count) == null;
+    }
+
+    @Override
+    public synchronized void deleteList(Collection<Long> userIds, Integer userType) {
+        userIds.forEach(userId -> {
+            String key = formatKey(userId, userType);
+            counts.remove(key);
+            versions.merge(key, 1L, Long::sum);
+        });
+    }
+
+    private static String formatKey(Long userId, Integer userType) {
+        return userType + ":" + userId;
+    }
+
+}
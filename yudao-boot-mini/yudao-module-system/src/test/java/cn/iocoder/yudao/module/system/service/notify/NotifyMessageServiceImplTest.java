@@ -0,0 +1,200 @@
+package cn.iocoder.yudao.module.system.service.notify;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyMessageDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
+import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyMessageMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link NotifyMessageServiceImpl} 的单元测试
+ *
+ * 重点测试：未读数量的缓存未命中时，与并发的发送、已读交错，不会缓存旧的数量，也不会重复计算
+ *
+ * @author 芋道源码
+ */
+public class NotifyMessageServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Integer USER_TYPE = 2;
+
+    private NotifyMessageServiceImpl notifyMessageService;
+    private InMemoryNotifyMessageUnreadCountRedisDAO unreadCountRedisDAO;
+
+    /**
+     * 站内信表
+     */
+    private final List<NotifyMessageDO> messages = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * 统计未读数量的次数
+     */
+    private final AtomicInteger countQueryCount = new AtomicInteger();
+
+    /**
+     * 统计未读数量后、返回前阻塞，用于模拟交错
+     */
+    private volatile boolean blockCount;
+    private final CountDownLatch countStarted = new CountDownLatch(1);
+    private final CountDownLatch countReleased = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        notifyMessageService = new NotifyMessageServiceImpl();
+        unreadCountRedisDAO = new InMemoryNotifyMessageUnreadCountRedisDAO();
+        setField("notifyMessageMapper", buildNotifyMessageMapper());
+        setField("notifyMessageUnreadCountRedisDAO", unreadCountRedisDAO);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        countReleased.countDown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testGetUnreadNotifyMessageCount_cached() {
+        // 准备参数
+        createMessage();
+
+        // 调用：第二次查询命中缓存
+        assertEquals(Long.valueOf(1L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        assertEquals(Long.valueOf(1L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        assertEquals(1, countQueryCount.get());
+
+        // 调用：发送、已读后，重新统计
+        createMessage();
+        assertEquals(Long.valueOf(2L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        notifyMessageService.updateNotifyMessageRead(Collections.singletonList(messages.get(0).getId()), USER_ID, USER_TYPE);
+        assertEquals(Long.valueOf(1L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        assertEquals(3, countQueryCount.get());
+    }
+
+    @Test
+    public void testGetUnreadNotifyMessageCount_createWhileCounting() throws Exception {
+        // 准备参数：统计出 1 条后阻塞
+        createMessage();
+        blockCount = true;
+        CompletableFuture<Long> counting = CompletableFuture.supplyAsync(() ->
+                notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        assertTrue(countStarted.await(5, TimeUnit.SECONDS));
+
+        // 调用：统计期间，发送一条并提交
+        createMessage();
+        countReleased.countDown();
+        assertEquals(Long.valueOf(1L), counting.get(5, TimeUnit.SECONDS));
+
+        // 断言：不缓存统计期间已变化的旧数量，下次重新统计
+        assertNull(unreadCountRedisDAO.get(USER_ID, USER_TYPE));
+        blockCount = false;
+        assertEquals(Long.valueOf(2L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+    }
+
+    @Test
+    public void testGetUnreadNotifyMessageCount_countBeforeAfterCommit() {
+        // 准备参数：已缓存 1 条
+        createMessage();
+        assertEquals(Long.valueOf(1L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+
+        // 调用：事务中发送一条，已提交但 afterCommit 尚未执行时，缓存已失效（例如说过期）并重新统计
+        TransactionSynchronizationManager.initSynchronization();
+        createMessage();
+        unreadCountRedisDAO.deleteList(Collections.singletonList(USER_ID), USER_TYPE);
+        assertEquals(Long.valueOf(2L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        // 调用：执行 afterCommit
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // 断言：不重复计算本次发送
+        assertEquals(Long.valueOf(2L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+    }
+
+    @Test
+    public void testGetUnreadNotifyMessageList_zeroCached() {
+        // 准备参数：缓存未读数量为 0
+        assertEquals(Long.valueOf(0L), notifyMessageService.getUnreadNotifyMessageCount(USER_ID, USER_TYPE));
+        assertTrue(notifyMessageService.getUnreadNotifyMessageList(USER_ID, USER_TYPE, 10).isEmpty());
+
+        // 调用：发送一条后
+        createMessage();
+
+        // 断言：缓存的 0 已删除，可以查询到
+        assertEquals(1, notifyMessageService.getUnreadNotifyMessageList(USER_ID, USER_TYPE, 10).size());
+    }
+
+    private void createMessage() {
+        NotifyTemplateDO template = new NotifyTemplateDO();
+        template.setId(1L);
+        template.setCode("test");
+        notifyMessageService.createNotifyMessage(USER_ID, USER_TYPE, template, "content", new HashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotifyMessageMapper buildNotifyMessageMapper() {
+        return (NotifyMessageMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{NotifyMessageMapper.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "insert":
+                            NotifyMessageDO message = (NotifyMessageDO) args[0];
+                            message.setId((long) messages.size() + 1);
+                            messages.add(message);
+                            return 1;
+                        case "selectUnreadCountByUserIdAndUserType":
+                            countQueryCount.incrementAndGet();
+                            long count = selectUnreadList().size();
+                            if (blockCount) {
+                                countStarted.countDown();
+                                assertTrue(countReleased.await(5, TimeUnit.SECONDS));
+                            }
+                            return count;
+                        case "selectUnreadListByUserIdAndUserType":
+                            return selectUnreadList();
+                        case "updateListRead":
+                            Collection<Long> ids = (Collection<Long>) args[0];
+                            int updated = 0;
+                            for (NotifyMessageDO item : selectUnreadList()) {
+                                if (ids.contains(item.getId())) {
+                                    item.setReadStatus(true);
+                                    updated++;
+                                }
+                            }
+                            return updated;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private List<NotifyMessageDO> selectUnreadList() {
+        synchronized (messages) {
+            List<NotifyMessageDO> result = new ArrayList<>();
+            messages.forEach(message -> {
+                if (Objects.equals(message.getUserId(), USER_ID) && !message.getReadStatus()) {
+                    result.add(message);
+                }
+            });
+            return result;
+        }
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = NotifyMessageServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(notifyMessageService, value);
+    }
+
+}
@@ -0,0 +1,108 @@
+package cn.iocoder.yudao.module.system.service.permission;
+
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.MenuDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.permission.RoleMenuDO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PermissionIndex} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class PermissionIndexTest {
+
+    private PermissionIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        // 准备参数：角色 1 拥有 system:user:query 权限；角色 2 未拥有任何权限
+        RoleDO role1 = buildRole(1L, "common");
+        RoleDO role2 = buildRole(2L, "other");
+        MenuDO menu = new MenuDO();
+        menu.setId(10L);
+        menu.setPermission("system:user:query");
+        RoleMenuDO roleMenu = new RoleMenuDO();
+        roleMenu.setRoleId(1L);
+        roleMenu.setMenuId(10L);
+        index = PermissionIndex.build(1L, Arrays.asList(role1, role2),
+                Collections.singletonList(menu), Collections.singletonList(roleMenu));
+    }
+
+    @Test
+    public void testGetUserRoles_cache() {
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // 调用：多次获取，只加载一次
+        for (int i = 0; i < 3; i++) {
+            BitSet roles = index.getUserRoles(100L, userId -> {
+                loadCount.incrementAndGet();
+                return Collections.singleton(1L);
+            });
+            assertTrue(index.hasAnyPermissions(roles, "system:user:query"));
+        }
+        assertEquals(1, loadCount.get());
+
+        // 调用：失效后，重新加载
+        index.invalidateUserRoles(100L);
+        BitSet roles = index.getUserRoles(100L, userId -> {
+            loadCount.incrementAndGet();
+            return Collections.singleton(2L);
+        });
+        assertEquals(2, loadCount.get());
+        assertFalse(index.hasAnyPermissions(roles, "system:user:query"));
+    }
+
+    @Test
+    public void testGetUserRoles_invalidateWhileLoading() {
+        // 调用：加载期间，用户的角色发生变更并失效。此时加载到的是旧数据
+        BitSet staleRoles = index.getUserRoles(100L, userId -> {
+            index.invalidateUserRoles(userId);
+            return Collections.singleton(1L);
+        });
+        // 断言：本次返回旧数据，但不缓存
+        assertTrue(index.hasAnyPermissions(staleRoles, "system:user:query"));
+
+        // 调用：下次访问时，重新加载到新数据
+        AtomicInteger loadCount = new AtomicInteger();
+        BitSet roles = index.getUserRoles(100L, userId -> {
+            loadCount.incrementAndGet();
+            return Collections.singleton(2L);
+        });
+        assertEquals(1, loadCount.get());
+        assertFalse(index.hasAnyPermissions(roles, "system:user:query"));
+        assertEquals(Collections.singletonList(2L), getRoleIds(index.getRoleList(roles)));
+    }
+
+    @Test
+    public void testGetUserRoles_loaderException() {
+        // 调用：加载失败时，抛出原异常，且不缓存
+        IllegalStateException ex = new IllegalStateException("redis down");
+        assertSame(ex, assertThrows(IllegalStateException.class,
+                () -> index.getUserRoles(100L, userId -> { throw ex; })));
+        BitSet roles = index.getUserRoles(100L, userId -> Collections.singleton(1L));
+        assertEquals(Collections.singletonList(1L), getRoleIds(index.getRoleList(roles)));
+    }
+
+    private static RoleDO buildRole(Long id, String code) {
+        RoleDO role = new RoleDO();
+        role.setId(id);
+        role.setCode(code);
+        role.setStatus(CommonStatusEnum.ENABLE.getStatus());
+        return role;
+    }
+
+    private static List<Long> getRoleIds(List<RoleDO> roles) {
+        List<Long> ids = new ArrayList<>(roles.size());
+        roles.forEach(role -> ids.add(role.getId()));
+        return ids;
+    }
+
+}
@@ -0,0 +1,185 @@
+package cn.iocoder.yudao.module.system.service.user;
+
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
+import cn.iocoder.yudao.module.system.controller.admin.user.vo.user.UserImportExcelVO;
+import cn.iocoder.yudao.module.system.controller.admin.user.vo.user.UserImportRespVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.dal.mysql.user.AdminUserMapper;
+import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Function;
+
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link AdminUserServiceImpl} 的单元测试
+ *
+ * 重点测试：批量导入用户时，文件内的重复行与逐行写入的结果一致，且正确区分创建、更新、失败
+ *
+ * @author 芋道源码
+ */
+public class AdminUserServiceImplTest {
+
+    private static final String INIT_PASSWORD = "123456";
+
+    private AdminUserServiceImpl userService;
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    /**
+     * 已存在的用户
+     */
+    private final List<AdminUserDO> existUsers = new ArrayList<>();
+    /**
+     * 批量插入、批量更新的用户
+     */
+    private final List<AdminUserDO> insertedUsers = new ArrayList<>();
+    private final List<AdminUserDO> updatedUsers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        existUsers.add(AdminUserDO.builder().id(10L).username("exist01").nickname("已存在")
+                .mobile("15600000099").email("taken@iocoder.cn").build());
+        userService = new AdminUserServiceImpl();
+        setField("userMapper", buildUserMapper());
+        setField("deptService", buildDeptService());
+        setField("passwordEncoder", passwordEncoder);
+        setField("configApi", (ConfigApi) key -> INIT_PASSWORD);
+    }
+
+    @Test
+    public void testImportUserList_updateSupport() {
+        // 准备参数
+        List<UserImportExcelVO> importUsers = Arrays.asList(
+                buildImportUser("new01", "新用户", "15600000001", 1L), // 创建
+                buildImportUser("exist01", "改名", null, 1L), // 更新已存在的用户
+                buildImportUser("new01", "重复", null, null), // 文件内重复：合并到待创建的用户
+                buildImportUser("new02", "手机重复", "15600000001", 1L), // 手机与文件内的前一行重复
+                buildImportUser("new03", "手机已存在", "15600000099", 1L), // 手机已存在
+                buildImportUser("new04", "部门禁用", null, 2L), // 部门禁用
+                buildImportUser("ab", "账号过短", null, 1L), // 字段校验不通过
+                buildImportUser("exist01", "再次改名", null, null)); // 文件内重复：合并到待更新的用户
+
+        // 调用
+        UserImportRespVO respVO = userService.importUserList(importUsers, true);
+
+        // 断言：创建、更新、失败
+        assertEquals(Collections.singletonList("new01"), respVO.getCreateUsernames());
+        assertEquals(Arrays.asList("exist01", "new01", "exist01"), respVO.getUpdateUsernames());
+        assertEquals(new HashSet<>(Arrays.asList("new02", "new03", "new04", "ab")), respVO.getFailureUsernames().keySet());
+        assertEquals(USER_MOBILE_EXISTS.getMsg(), respVO.getFailureUsernames().get("new02"));
+        assertEquals(USER_MOBILE_EXISTS.getMsg(), respVO.getFailureUsernames().get("new03"));
+        // 断言：批量插入一条，合并了文件内的重复行，忽略 null 字段
+        assertEquals(1, insertedUsers.size());
+        AdminUserDO insertedUser = insertedUsers.get(0);
+        assertEquals("new01", insertedUser.getUsername());
+        assertEquals("重复", insertedUser.getNickname());
+        assertEquals("15600000001", insertedUser.getMobile());
+        assertEquals(Long.valueOf(1L), insertedUser.getDeptId());
+        assertTrue(passwordEncoder.matches(INIT_PASSWORD, insertedUser.getPassword()));
+        // 断言：批量更新一条，合并了文件内的重复行
+        assertEquals(1, updatedUsers.size());
+        assertEquals(Long.valueOf(10L), updatedUsers.get(0).getId());
+        assertEquals("再次改名", updatedUsers.get(0).getNickname());
+        assertEquals(Long.valueOf(1L), updatedUsers.get(0).getDeptId());
+    }
+
+    @Test
+    public void testImportUserList_notUpdateSupport() {
+        // 准备参数
+        List<UserImportExcelVO> importUsers = Arrays.asList(
+                buildImportUser("new01", "新用户", "15600000001", 1L),
+                buildImportUser("exist01", "改名", null, 1L),
+                buildImportUser("new01", "重复", null, null));
+
+        // 调用
+        UserImportRespVO respVO = userService.importUserList(importUsers, false);
+
+        // 断言：已存在、文件内重复的用户名，都导入失败
+        assertEquals(Collections.singletonList("new01"), respVO.getCreateUsernames());
+        assertEquals(Collections.emptyList(), respVO.getUpdateUsernames());
+        assertEquals(new HashSet<>(Arrays.asList("exist01", "new01")), respVO.getFailureUsernames().keySet());
+        assertEquals(USER_USERNAME_EXISTS.getMsg(), respVO.getFailureUsernames().get("new01"));
+        assertEquals(1, insertedUsers.size());
+        assertEquals("新用户", insertedUsers.get(0).getNickname());
+        assertTrue(updatedUsers.isEmpty());
+    }
+
+    private static UserImportExcelVO buildImportUser(String username, String nickname, String mobile, Long deptId) {
+        return UserImportExcelVO.builder().username(username).nickname(nickname).mobile(mobile).deptId(deptId)
+                .status(CommonStatusEnum.ENABLE.getStatus()).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private AdminUserMapper buildUserMapper() {
+        return (AdminUserMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{AdminUserMapper.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "selectListByUsernames":
+                            return filterExistUsers((Collection<String>) args[0], AdminUserDO::getUsername);
+                        case "selectListByMobiles":
+                            return filterExistUsers((Collection<String>) args[0], AdminUserDO::getMobile);
+                        case "selectListByEmails":
+                            return filterExistUsers((Collection<String>) args[0], AdminUserDO::getEmail);
+                        case "insertBatch":
+                            insertedUsers.addAll((Collection<AdminUserDO>) args[0]);
+                            return true;
+                        case "updateBatch":
+                            updatedUsers.addAll((Collection<AdminUserDO>) args[0]);
+                            return true;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private List<AdminUserDO> filterExistUsers(Collection<String> values,
+                                               Function<AdminUserDO, String> field) {
+        List<AdminUserDO> result = new ArrayList<>();
+        existUsers.forEach(user -> {
+            if (values.contains(field.apply(user))) {
+                result.add(user);
+            }
+        });
+        return result;
+    }
+
+    private DeptService buildDeptService() {
+        Map<Long, DeptDO> depts = new HashMap<>();
+        depts.put(1L, buildDept(1L, "研发部门", CommonStatusEnum.ENABLE.getStatus()));
+        depts.put(2L, buildDept(2L, "已撤销部门", CommonStatusEnum.DISABLE.getStatus()));
+        return (DeptService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DeptService.class}, (proxy, method, args) -> {
+                    if ("getDeptMap".equals(method.getName())) {
+                        Map<Long, DeptDO> result = new HashMap<>();
+                        ((Collection<?>) args[0]).forEach(id -> result.put((Long) id, depts.get(id)));
+                        return result;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static DeptDO buildDept(Long id, String name, Integer status) {
+        DeptDO dept = new DeptDO();
+        dept.setId(id);
+        dept.setName(name);
+        dept.setStatus(status);
+        return dept;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = AdminUserServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(userService, value);
+    }
+
+}
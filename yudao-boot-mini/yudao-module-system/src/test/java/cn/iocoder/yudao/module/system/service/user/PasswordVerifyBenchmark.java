@@ -0,0 +1,86 @@
+package cn.iocoder.yudao.module.system.service.user;
+
+import cn.iocoder.yudao.framework.security.config.SecurityProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密码校验的基准测试
+ *
+ * 模拟登录高峰期，大量请求线程（默认 32 个，即 Tomcat 线程）同时校验密码：
+ * 1. direct：在请求线程直接执行 BCrypt 校验，即原有实现
+ * 2. pool：通过 {@link AdminUserServiceImpl#isPasswordMatch(String, String)}，提交到 CPU 核数大小的密码校验线程池
+ *
+ * 两者的吞吐量应接近（BCrypt 是 CPU 密集型），区别在于 pool 只占用固定数量的 CPU，不会影响其它请求
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class PasswordVerifyBenchmark {
+
+    private static final String PASSWORD = "admin123";
+
+    /**
+     * BCrypt 加密复杂度
+     */
+    @Param({"4", "10"})
+    public int strength;
+
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+    private AdminUserServiceImpl userService;
+
+    @Setup
+    public void setUp() throws Exception {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.setPasswordEncoderLength(strength);
+        securityProperties.setPasswordVerifyQueueCapacity(1000); // 保证不拒绝，只对比吞吐量
+        userService = new AdminUserServiceImpl();
+        setField(userService, "passwordEncoder", passwordEncoder);
+        setField(userService, "securityProperties", securityProperties);
+        userService.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        userService.destroy();
+    }
+
+    @Benchmark
+    public boolean direct() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+
+    @Benchmark
+    public boolean pool() {
+        return userService.isPasswordMatch(PASSWORD, encodedPassword);
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,239 @@
+package cn.iocoder.yudao.module.system.service.user;
+
+import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
+import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.common.util.validation.ValidationUtils;
+import cn.iocoder.yudao.module.infra.api.config.ConfigApi;
+import cn.iocoder.yudao.module.system.controller.admin.user.vo.user.UserImportExcelVO;
+import cn.iocoder.yudao.module.system.controller.admin.user.vo.user.UserImportRespVO;
+import cn.iocoder.yudao.module.system.controller.admin.user.vo.user.UserSaveReqVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.dal.mysql.user.AdminUserMapper;
+import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import jakarta.validation.ConstraintViolationException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+
+/**
+ * 用户导入的基准测试，每次调用为导入一个 rows 行的文件，其中一半为已存在的用户（更新），一半为新用户（创建）
+ *
+ * 数据库通过 {@link AdminUserMapper}、{@link DeptService} 的代理模拟，每条 SQL 耗时 rttMicros 微秒：
+ * 1. rowByRow：逐行校验手机、邮箱、部门，查询用户名，再 insert 或 updateById，且每个新用户加密一次初始密码，即原有实现
+ * 2. bulk：通过 {@link AdminUserServiceImpl#importUserList(List, boolean)}，分批 IN 预加载后在内存中校验，再分批写入
+ *
+ * BCrypt 使用最低的复杂度 4，避免加密耗时掩盖 SQL 次数的差异。TearDown 时输出每次导入平均的 SQL 条数
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author 芋道源码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UserImportBenchmark {
+
+    private static final String INIT_PASSWORD = "123456";
+    private static final Long DEPT_ID = 1L;
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"200"})
+    public long rttMicros;
+
+    private final AtomicLong idGenerator = new AtomicLong();
+    /**
+     * 执行的 SQL 条数
+     */
+    private final LongAdder statementCount = new LongAdder();
+    /**
+     * 导入的次数
+     */
+    private final LongAdder importCount = new LongAdder();
+
+    /**
+     * 已存在的用户。KEY：用户名
+     */
+    private final Map<String, AdminUserDO> existUsers = new HashMap<>();
+    private List<UserImportExcelVO> importUsers;
+
+    private long rttNanos;
+    private AdminUserMapper userMapper;
+    private DeptService deptService;
+    private PasswordEncoder passwordEncoder;
+    private AdminUserServiceImpl userService;
+
+    @Setup
+    public void setUp() throws Exception {
+        rttNanos = TimeUnit.MICROSECONDS.toNanos(rttMicros);
+        importUsers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String username = "user" + i;
+            if (i % 2 == 0) {
+                existUsers.put(username, AdminUserDO.builder().id(idGenerator.incrementAndGet()).username(username).build());
+            }
+            importUsers.add(UserImportExcelVO.builder().username(username).nickname("用户" + i).deptId(DEPT_ID)
+                    .email(username + "@iocoder.cn").mobile(String.valueOf(15600000000L + i))
+                    .sex(1).status(CommonStatusEnum.ENABLE.getStatus()).build());
+        }
+        userMapper = buildUserMapper();
+        deptService = buildDeptService();
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        userService = new AdminUserServiceImpl();
+        setField("userMapper", userMapper);
+        setField("deptService", deptService);
+        setField("passwordEncoder", passwordEncoder);
+        setField("configApi", (ConfigApi) key -> INIT_PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n[tearDown] 导入(%d) 次，SQL(%d) 条，平均每次导入 %.1f 条%n", importCount.sum(),
+                statementCount.sum(), (double) statementCount.sum() / Math.max(1, importCount.sum()));
+    }
+
+    @Benchmark
+    public UserImportRespVO rowByRow() {
+        UserImportRespVO respVO = UserImportRespVO.builder().createUsernames(new ArrayList<>())
+                .updateUsernames(new ArrayList<>()).failureUsernames(new LinkedHashMap<>()).build();
+        for (UserImportExcelVO importUser : importUsers) {
+            // 1.1 校验字段是否符合要求
+            try {
+                ValidationUtils.validate(BeanUtils.toBean(importUser, UserSaveReqVO.class).setPassword(INIT_PASSWORD));
+            } catch (ConstraintViolationException ex) {
+                respVO.getFailureUsernames().put(importUser.getUsername(), ex.getMessage());
+                continue;
+            }
+            // 1.2 校验手机、邮箱唯一，部门开启：各一次查询
+            if (userMapper.selectByMobile(importUser.getMobile()) != null) {
+                respVO.getFailureUsernames().put(importUser.getUsername(), USER_MOBILE_EXISTS.getMsg());
+                continue;
+            }
+            if (userMapper.selectByEmail(importUser.getEmail()) != null) {
+                respVO.getFailureUsernames().put(importUser.getUsername(), USER_EMAIL_EXISTS.getMsg());
+                continue;
+            }
+            deptService.validateDeptList(Collections.singleton(importUser.getDeptId()));
+
+            // 2. 逐行创建 or 更新
+            AdminUserDO existUser = userMapper.selectByUsername(importUser.getUsername());
+            if (existUser == null) {
+                userMapper.insert(BeanUtils.toBean(importUser, AdminUserDO.class)
+                        .setPassword(passwordEncoder.encode(INIT_PASSWORD)).setPostIds(new HashSet<>()));
+                respVO.getCreateUsernames().add(importUser.getUsername());
+                continue;
+            }
+            AdminUserDO updateUser = BeanUtils.toBean(importUser, AdminUserDO.class);
+            updateUser.setId(existUser.getId());
+            userMapper.updateById(updateUser);
+            respVO.getUpdateUsernames().add(importUser.getUsername());
+        }
+        importCount.increment();
+        return respVO;
+    }
+
+    @Benchmark
+    public UserImportRespVO bulk() {
+        UserImportRespVO respVO = userService.importUserList(importUsers, true);
+        importCount.increment();
+        return respVO;
+    }
+
+    private void execute() {
+        statementCount.increment();
+        LockSupport.parkNanos(rttNanos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AdminUserMapper buildUserMapper() {
+        return (AdminUserMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{AdminUserMapper.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "selectByUsername":
+                            execute();
+                            return existUsers.get((String) args[0]);
+                        case "selectByMobile":
+                        case "selectByEmail":
+                            execute();
+                            return null;
+                        case "selectListByUsernames":
+                            execute();
+                            List<AdminUserDO> users = new ArrayList<>();
+                            ((Collection<String>) args[0]).forEach(username -> {
+                                if (existUsers.containsKey(username)) {
+                                    users.add(existUsers.get(username));
+                                }
+                            });
+                            return users;
+                        case "selectListByMobiles":
+                        case "selectListByEmails":
+                            execute();
+                            return Collections.emptyList();
+                        case "insert":
+                        case "updateById":
+                            execute();
+                            return 1;
+                        case "insertBatch":
+                        case "updateBatch":
+                            // 每批一条 SQL
+                            int size = ((Collection<?>) args[0]).size();
+                            int batchSize = args.length > 1 ? (int) args[1] : size;
+                            for (int i = 0; i < size; i += batchSize) {
+                                execute();
+                            }
+                            return true;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private DeptService buildDeptService() {
+        DeptDO dept = new DeptDO();
+        dept.setId(DEPT_ID);
+        dept.setName("研发部门");
+        dept.setStatus(CommonStatusEnum.ENABLE.getStatus());
+        return (DeptService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DeptService.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "validateDeptList":
+                            execute();
+                            return null;
+                        case "getDeptMap":
+                            execute();
+                            return Collections.singletonMap(DEPT_ID, dept);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = AdminUserServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(userService, value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserImportBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
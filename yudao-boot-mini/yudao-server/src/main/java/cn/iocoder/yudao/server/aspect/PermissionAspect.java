@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.server.aspect;
 
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient;
 import cn.iocoder.yudao.server.annotation.RequiresPermission;
 import cn.iocoder.yudao.server.dto.UserPermissionDTO;
 import cn.iocoder.yudao.server.dto.PermissionDTO;
@@ -15,7 +16,6 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -53,8 +53,9 @@ public class PermissionAspect {
     @Autowired
     private PermissionCacheService permissionCacheService;
     
-    private final RestTemplate restTemplate = new RestTemplate();
-    private static final String MOCK_API_BASE = "http://localhost:48082";
+    // 🌐 Mock School API 共享客户端（连接池、超时、舱壁、熔断）
+    @Autowired
+    private SchoolApiHttpClient schoolApiHttpClient;
     
     /**
      * 🔍 权限验证环绕通知
@@ -230,6 +231,10 @@ public class PermissionAspect {
                     log.warn("⚠️ [PERMISSION-AOP] Mock API返回空结果，第{}次重试", attempt);
                 }
                 
+            } catch (SchoolApiHttpClient.SchoolApiUnavailableException e) {
+                // 舱壁已满、熔断器打开：重试也会快速失败，不再退避等待
+                log.warn("⚡ [PERMISSION-AOP] Mock API不可用，停止重试: {}", e.getMessage());
+                break;
             } catch (Exception e) {
                 log.warn("⚠️ [PERMISSION-AOP] Mock API调用失败，第{}次尝试: {}", attempt, e.getMessage());
                 
@@ -684,33 +689,18 @@ public class PermissionAspect {
      */
     private UserInfo getUserInfoFromMockApi(String authToken) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", authToken);
-            HttpEntity<Map<String, String>> entity = new HttpEntity<>(new HashMap<>(), headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                MOCK_API_BASE + "/mock-school-api/auth/user-info",
-                HttpMethod.POST,
-                entity,
-                Map.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                Map<String, Object> body = response.getBody();
-                if (body != null && Boolean.TRUE.equals(body.get("success"))) {
-                    Map<String, Object> data = (Map<String, Object>) body.get("data");
-                    if (data != null) {
-                        UserInfo userInfo = new UserInfo();
-                        userInfo.username = (String) data.get("username");
-                        userInfo.roleCode = (String) data.get("roleCode");
-                        userInfo.roleName = (String) data.get("roleName");
-                        
-                        log.debug("✅ [PERMISSION-AOP] Mock API认证成功: {} ({})", userInfo.username, userInfo.roleCode);
-                        return userInfo;
-                    }
-                }
+            Map<String, Object> data = schoolApiHttpClient.getUserInfo(authToken);
+            if (data != null) {
+                UserInfo userInfo = new UserInfo();
+                userInfo.username = (String) data.get("username");
+                userInfo.roleCode = (String) data.get("roleCode");
+                userInfo.roleName = (String) data.get("roleName");
+                
+                log.debug("✅ [PERMISSION-AOP] Mock API认证成功: {} ({})", userInfo.username, userInfo.roleCode);
+                return userInfo;
             }
+        } catch (SchoolApiHttpClient.SchoolApiUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("🔗 [PERMISSION-AOP] Mock API调用异常: {}", e.getMessage());
         }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.server.config;
 
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,12 +22,7 @@ import java.util.HashSet;
 import java.util.Set;
 import cn.iocoder.yudao.server.security.CampusAuthContextHolder;
 import cn.iocoder.yudao.server.security.AccessControlListManager;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.*;
 import java.util.Map;
-import java.util.HashMap;
-import java.time.Duration;
 
 /**
  * 全局认证拦截器配置类 - P0级安全修复
@@ -78,13 +74,9 @@ public class GlobalAuthenticationConfig implements WebMvcConfigurer {
         @Autowired
         private ObjectMapper objectMapper;
 
-        // Mock School API调用工具
-        private static final String MOCK_API_BASE = "http://localhost:48082";
-        // 配置RestTemplate超时设置，防止线程永久阻塞
-        private final RestTemplate restTemplate = new RestTemplateBuilder()
-                .setConnectTimeout(Duration.ofSeconds(5))    // 连接超时5秒
-                .setReadTimeout(Duration.ofSeconds(10))      // 读取超时10秒
-                .build();
+        // Mock School API 共享客户端：连接池 + 超时 + 舱壁 + 熔断，Mock API 变慢时请求线程快速失败
+        @Autowired
+        private SchoolApiHttpClient schoolApiHttpClient;
 
         // 🚨 公开端点白名单（严格控制，只有必要的认证端点）
         private static final Set<String> PUBLIC_ENDPOINTS = new HashSet<>(Arrays.asList(
@@ -558,57 +550,41 @@ public class GlobalAuthenticationConfig implements WebMvcConfigurer {
          */
         private CampusAuthContextHolder.UserInfo getUserInfoFromMockApi(String authToken) {
             try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.set("Authorization", authToken);
-
-                HttpEntity<Map<String, String>> entity = new HttpEntity<>(new HashMap<>(), headers);
-
-                ResponseEntity<Map> response = restTemplate.exchange(
-                    MOCK_API_BASE + "/mock-school-api/auth/user-info",
-                    HttpMethod.POST,
-                    entity,
-                    Map.class
-                );
-
-                if (response.getStatusCode() == HttpStatus.OK) {
-                    Map<String, Object> body = response.getBody();
-                    if (body != null && Boolean.TRUE.equals(body.get("success"))) {
-                        Map<String, Object> data = (Map<String, Object>) body.get("data");
-                        if (data != null) {
-                            CampusAuthContextHolder.UserInfo userInfo = new CampusAuthContextHolder.UserInfo();
-                            userInfo.setUsername((String) data.get("username"));
-                            userInfo.setRoleCode((String) data.get("roleCode"));
-                            userInfo.setRoleName((String) data.get("roleName"));
-
-                            // 提取详细信息
-                            String studentId = (String) data.get("studentId");
-                            if (studentId == null) {
-                                studentId = (String) data.get("employeeId");
-                            }
-                            userInfo.setStudentId(studentId);
-                            userInfo.setEmployeeId(studentId);
-                            userInfo.setGradeId((String) data.get("gradeId"));
-                            userInfo.setClassId((String) data.get("classId"));
-
-                            // 处理departmentId类型转换
-                            Object deptId = data.get("departmentId");
-                            if (deptId instanceof String) {
-                                try {
-                                    userInfo.setDepartmentId(Long.parseLong((String) deptId));
-                                } catch (NumberFormatException e) {
-                                    userInfo.setDepartmentId(null);
-                                }
-                            } else if (deptId instanceof Long) {
-                                userInfo.setDepartmentId((Long) deptId);
-                            }
-
-                            log.debug("✅ [MOCK_API_AUTH] 用户认证成功: {} ({})",
-                                    userInfo.getUsername(), userInfo.getRoleCode());
-                            return userInfo;
+                Map<String, Object> data = schoolApiHttpClient.getUserInfo(authToken);
+                if (data != null) {
+                    CampusAuthContextHolder.UserInfo userInfo = new CampusAuthContextHolder.UserInfo();
+                    userInfo.setUsername((String) data.get("username"));
+                    userInfo.setRoleCode((String) data.get("roleCode"));
+                    userInfo.setRoleName((String) data.get("roleName"));
+
+                    // 提取详细信息
+                    String studentId = (String) data.get("studentId");
+                    if (studentId == null) {
+                        studentId = (String) data.get("employeeId");
+                    }
+                    userInfo.setStudentId(studentId);
+                    userInfo.setEmployeeId(studentId);
+                    userInfo.setGradeId((String) data.get("gradeId"));
+                    userInfo.setClassId((String) data.get("classId"));
+
+                    // 处理departmentId类型转换
+                    Object deptId = data.get("departmentId");
+                    if (deptId instanceof String) {
+                        try {
+                            userInfo.setDepartmentId(Long.parseLong((String) deptId));
+                        } catch (NumberFormatException e) {
+                            userInfo.setDepartmentId(null);
                         }
+                    } else if (deptId instanceof Long) {
+                        userInfo.setDepartmentId((Long) deptId);
                     }
+
+                    log.debug("✅ [MOCK_API_AUTH] 用户认证成功: {} ({})",
+                            userInfo.getUsername(), userInfo.getRoleCode());
+                    return userInfo;
                 }
+            } catch (SchoolApiHttpClient.SchoolApiUnavailableException e) {
+                log.warn("⚡ [MOCK_API_AUTH] Mock API不可用，快速失败: {}", e.getMessage());
             } catch (Exception e) {
                 log.error("🔗 [MOCK_API_AUTH] Mock API调用异常: {}", e.getMessage());
             }
@@ -3,8 +3,10 @@ package cn.iocoder.yudao.server.controller;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient;
 import cn.iocoder.yudao.server.annotation.RequiresPermission;
 import cn.iocoder.yudao.server.service.NotificationPermissionValidator;
+import cn.iocoder.yudao.server.service.push.CampusPushService;
 import cn.iocoder.yudao.server.service.todo.TodoNotificationService;
 import cn.iocoder.yudao.server.dal.dataobject.todo.TodoNotificationDO;
 import cn.iocoder.yudao.server.util.SecurityEnhancementUtil;
@@ -22,7 +24,6 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -54,8 +55,9 @@ import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 @Slf4j
 public class NewTodoNotificationController {
 
-    private static final String MOCK_API_BASE = "http://localhost:48082";
-    private final RestTemplate restTemplate = new RestTemplate();
+    // 🌐 Mock School API 共享客户端（连接池、超时、舱壁、熔断）
+    @Autowired
+    private SchoolApiHttpClient schoolApiHttpClient;
 
     // 🚨 P0安全修复：注入权限验证器
     @Autowired
@@ -64,6 +66,10 @@ public class NewTodoNotificationController {
     // 🔧 SQL注入修复：注入MyBatis Plus服务
     @Autowired
     private TodoNotificationService todoNotificationService;
+
+    // 📡 待办变化的实时推送
+    @Autowired
+    private CampusPushService campusPushService;
     
     // 🛡️ 高风险安全漏洞修复：注入安全验证器
     private final ResourceOwnershipValidator ownershipValidator;
@@ -154,10 +160,7 @@ public class NewTodoNotificationController {
             }
             
             // ACL权限检查 - 验证用户是否有读取待办的权限
-            if (!aclManager.hasPermission(userInfo, "TODO_READ_ALL") && 
-                !aclManager.hasPermission(userInfo, "TODO_READ_ACADEMIC") &&
-                !aclManager.hasPermission(userInfo, "TODO_READ_CLASS") &&
-                !aclManager.hasPermission(userInfo, "TODO_READ_PERSONAL")) {
+            if (!hasTodoReadPermission(userInfo)) {
                 log.warn("🚨 [SECURITY_VIOLATION] ACL权限检查失败 - 用户无读取待办权限: user={}, role={}", 
                         userInfo.getUsername(), userInfo.getRoleCode());
                 return CommonResult.error(403, "权限不足，无法查看待办列表");
@@ -179,80 +182,20 @@ public class NewTodoNotificationController {
             log.debug("🔍 [NEW-TODO-LIST] MyBatis Plus查询完成: 总数={}, 当前页数据={}",
                     pageResult.getTotal(), pageResult.getList().size());
 
-            // 🎯 Step 4: 转换为前端所需的Map格式
-            List<Map<String, Object>> todos = pageResult.getList().stream()
-                .map(todoRecord -> {
-                    Map<String, Object> todo = new HashMap<>();
-                    todo.put("id", todoRecord.getId());
-                    todo.put("title", todoRecord.getTitle());
-                    todo.put("content", todoRecord.getContent());
-                    todo.put("summary", todoRecord.getSummary());
-                    // 保存原始的Integer值，用于后续处理
-                    todo.put("priorityCode", todoRecord.getPriority());
-                    todo.put("statusCode", todoRecord.getStatus());
-                    // 转换为String格式
-                    todo.put("priority", getPriorityName(todoRecord.getPriority()));
-                    todo.put("due_date", todoRecord.getDeadline() != null ? 
-                        todoRecord.getDeadline().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
-                    todo.put("status", getStatusName(todoRecord.getStatus()));
-                    todo.put("assigner_name", todoRecord.getPublisherName());
-                    todo.put("target_scope", todoRecord.getTargetScope());
-                    todo.put("target_student_ids", todoRecord.getTargetStudentIds());
-                    todo.put("target_grade_ids", todoRecord.getTargetGradeIds());
-                    todo.put("target_class_ids", todoRecord.getTargetClassIds());
-                    todo.put("create_time", todoRecord.getCreateTime() != null ?
-                        todoRecord.getCreateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
-                    todo.put("level", 5); // 待办通知固定为level 5
-                    return todo;
-                })
-                .collect(java.util.stream.Collectors.toList());
-
-            long total = pageResult.getTotal();
-
-            // 🔄 Step 5: 获取用户的待办状态映射
-            List<Long> todoIdList = todos.stream()
-                .map(todo -> Long.parseLong(todo.get("id").toString()))
+            // 🔄 Step 4: 获取用户的待办状态映射
+            List<Long> todoIdList = pageResult.getList().stream()
+                .map(TodoNotificationDO::getId)
                 .collect(java.util.stream.Collectors.toList());
 
             Map<Long, cn.iocoder.yudao.server.dal.dataobject.todo.TodoCompletionDO> statusMap =
                 todoNotificationService.getUserTodoStatusMap(todoIdList, 1L, userInfo.getUsername());
 
-            // 检查每个待办的个人状态
-            for (Map<String, Object> todo : todos) {
-                Long todoId = Long.parseLong(todo.get("id").toString());
-
-                // 从状态映射中获取用户状态
-                cn.iocoder.yudao.server.dal.dataobject.todo.TodoCompletionDO userStatus = statusMap.get(todoId);
-                boolean isCompleted = userStatus != null && userStatus.isCompleted();
-                boolean isRead = userStatus != null && userStatus.isRead();
-                boolean isHidden = userStatus != null && userStatus.isHidden();
-
-                // 📊 构建前端所需的数据格式
-                todo.put("level", 5); // 固定Level 5
-                todo.put("dueDate", todo.get("due_date"));
-
-                // 根据用户状态覆盖status字段
-                if (isHidden) {
-                    todo.put("status", "hidden");
-                } else if (isCompleted) {
-                    todo.put("status", "completed");
-                } else if (isRead) {
-                    todo.put("status", "read");
-                }
+            // 🎯 Step 5: 转换为前端所需的Map格式
+            List<Map<String, Object>> todos = pageResult.getList().stream()
+                .map(todoRecord -> buildTodo(todoRecord, statusMap.get(todoRecord.getId())))
+                .collect(java.util.stream.Collectors.toList());
 
-                todo.put("assignerName", todo.get("assigner_name"));
-                todo.put("isCompleted", isCompleted);
-                todo.put("isRead", isRead);
-                todo.put("isHidden", isHidden);
-                todo.put("userStatus", userStatus != null ? userStatus.getStatus() : 0);
-                todo.put("targetStudentIds", todo.get("target_student_ids"));
-                todo.put("targetGrades", todo.get("target_grade_ids"));
-                todo.put("targetClasses", todo.get("target_class_ids"));
-
-                // 清理数据库字段
-                todo.remove("assigner_name");
-                todo.remove("due_date");
-            }
+            long total = pageResult.getTotal();
 
             // ✅ Step 6: 构建响应结果
             Map<String, Object> result = new HashMap<>();
@@ -752,6 +695,15 @@ public class NewTodoNotificationController {
             result.put("targetDepartmentIds", targetDepartmentIds);
             
             log.info("✅ [NEW-TODO-PUBLISH] 待办通知发布成功 - id: {}, title: {}, 目标定向已保存", notificationId, title);
+
+            // 📡 Step 8: 推送给在线订阅者 - 读取刚插入的记录，字段与my-list一致（新发布的待办，用户状态均为空）；
+            // 可见性与列表一致：先校验读取待办的权限，再按范围过滤
+            TodoNotificationDO todoRecord = todoNotificationService.getTodoById(notificationId);
+            if (todoRecord != null) {
+                campusPushService.pushTodo(CampusPushService.EVENT_PUBLISHED, buildTodo(todoRecord, null),
+                        subscriber -> hasTodoReadPermission(subscriber)
+                                && todoNotificationService.isVisible(todoRecord.getTargetScope(), subscriber));
+            }
             return success(result);
             
         } catch (Exception e) {
@@ -869,61 +821,106 @@ public class NewTodoNotificationController {
 
     // ========================= 私有辅助方法 =========================
 
+    /**
+     * 🛡️ 判断用户是否有读取待办的权限，待办列表与实时推送共用
+     */
+    private boolean hasTodoReadPermission(AccessControlListManager.UserInfo userInfo) {
+        return aclManager.hasPermission(userInfo, "TODO_READ_ALL")
+                || aclManager.hasPermission(userInfo, "TODO_READ_ACADEMIC")
+                || aclManager.hasPermission(userInfo, "TODO_READ_CLASS")
+                || aclManager.hasPermission(userInfo, "TODO_READ_PERSONAL");
+    }
+
+    /**
+     * 🎯 构建前端所需的单条待办，待办列表与实时推送共用，保证字段一致
+     *
+     * @param todoRecord 待办
+     * @param userStatus 用户的待办状态，可以为空
+     */
+    private Map<String, Object> buildTodo(TodoNotificationDO todoRecord,
+                                          cn.iocoder.yudao.server.dal.dataobject.todo.TodoCompletionDO userStatus) {
+        boolean isCompleted = userStatus != null && userStatus.isCompleted();
+        boolean isRead = userStatus != null && userStatus.isRead();
+        boolean isHidden = userStatus != null && userStatus.isHidden();
+
+        Map<String, Object> todo = new HashMap<>();
+        todo.put("id", todoRecord.getId());
+        todo.put("title", todoRecord.getTitle());
+        todo.put("content", todoRecord.getContent());
+        todo.put("summary", todoRecord.getSummary());
+        // 保存原始的Integer值，用于后续处理
+        todo.put("priorityCode", todoRecord.getPriority());
+        todo.put("statusCode", todoRecord.getStatus());
+        // 转换为String格式
+        todo.put("priority", getPriorityName(todoRecord.getPriority()));
+        todo.put("dueDate", todoRecord.getDeadline() != null ?
+            todoRecord.getDeadline().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
+        // 根据用户状态覆盖status字段
+        if (isHidden) {
+            todo.put("status", "hidden");
+        } else if (isCompleted) {
+            todo.put("status", "completed");
+        } else if (isRead) {
+            todo.put("status", "read");
+        } else {
+            todo.put("status", getStatusName(todoRecord.getStatus()));
+        }
+        todo.put("assignerName", todoRecord.getPublisherName());
+        todo.put("target_scope", todoRecord.getTargetScope());
+        todo.put("target_student_ids", todoRecord.getTargetStudentIds());
+        todo.put("target_grade_ids", todoRecord.getTargetGradeIds());
+        todo.put("target_class_ids", todoRecord.getTargetClassIds());
+        todo.put("create_time", todoRecord.getCreateTime() != null ?
+            todoRecord.getCreateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
+        todo.put("level", 5); // 待办通知固定为level 5
+        // 📊 用户的个人状态
+        todo.put("isCompleted", isCompleted);
+        todo.put("isRead", isRead);
+        todo.put("isHidden", isHidden);
+        todo.put("userStatus", userStatus != null ? userStatus.getStatus() : 0);
+        todo.put("targetStudentIds", todoRecord.getTargetStudentIds());
+        todo.put("targetGrades", todoRecord.getTargetGradeIds());
+        todo.put("targetClasses", todoRecord.getTargetClassIds());
+        return todo;
+    }
+
     /**
      * 🔐 从Mock API获取用户信息 - 完全复制TempNotificationController成功模式
      */
     private AccessControlListManager.UserInfo getUserInfoFromMockApi(String authToken) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", authToken);
-
-            HttpEntity<Map<String, String>> entity = new HttpEntity<>(new HashMap<>(), headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                MOCK_API_BASE + "/mock-school-api/auth/user-info",
-                HttpMethod.POST,
-                entity,
-                Map.class
-            );
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                Map<String, Object> body = response.getBody();
-                if (body != null && Boolean.TRUE.equals(body.get("success"))) {
-                    Map<String, Object> data = (Map<String, Object>) body.get("data");
-                    if (data != null) {
-                        AccessControlListManager.UserInfo userInfo = new AccessControlListManager.UserInfo();
-                        userInfo.setUsername((String) data.get("username"));
-                        userInfo.setRoleCode((String) data.get("roleCode"));
-                        userInfo.setRoleName((String) data.get("roleName"));
+            Map<String, Object> data = schoolApiHttpClient.getUserInfo(authToken);
+            if (data != null) {
+                AccessControlListManager.UserInfo userInfo = new AccessControlListManager.UserInfo();
+                userInfo.setUsername((String) data.get("username"));
+                userInfo.setRoleCode((String) data.get("roleCode"));
+                userInfo.setRoleName((String) data.get("roleName"));
                         
-                        // 🔐 提取学生详细信息 - 用于精确权限过滤
-                        String studentId = (String) data.get("studentId"); // 优先使用studentId
-                        if (studentId == null) {
-                            studentId = (String) data.get("employeeId"); // 向后兼容employeeId
-                        }
-                        userInfo.setStudentId(studentId);
-                        userInfo.setEmployeeId(studentId); // 设置employeeId
-                        userInfo.setGradeId((String) data.get("gradeId"));
-                        userInfo.setClassId((String) data.get("classId"));
-                        
-                        // 处理departmentId类型转换
-                        Object deptId = data.get("departmentId");
-                        if (deptId instanceof String) {
-                            try {
-                                userInfo.setDepartmentId(Long.parseLong((String) deptId));
-                            } catch (NumberFormatException e) {
-                                userInfo.setDepartmentId(null);
-                            }
-                        } else if (deptId instanceof Long) {
-                            userInfo.setDepartmentId((Long) deptId);
-                        }
+                // 🔐 提取学生详细信息 - 用于精确权限过滤
+                String studentId = (String) data.get("studentId"); // 优先使用studentId
+                if (studentId == null) {
+                    studentId = (String) data.get("employeeId"); // 向后兼容employeeId
+                }
+                userInfo.setStudentId(studentId);
+                userInfo.setEmployeeId(studentId); // 设置employeeId
+                userInfo.setGradeId((String) data.get("gradeId"));
+                userInfo.setClassId((String) data.get("classId"));
                         
-                        log.info("✅ [NEW-TODO-AUTH] Mock API认证成功: {} ({}) - 学号:{}, 年级:{}, 班级:{}", 
-                                userInfo.getUsername(), userInfo.getRoleCode(), userInfo.getStudentId(), userInfo.getGradeId(), userInfo.getClassId());
-                        return userInfo;
+                // 处理departmentId类型转换
+                Object deptId = data.get("departmentId");
+                if (deptId instanceof String) {
+                    try {
+                        userInfo.setDepartmentId(Long.parseLong((String) deptId));
+                    } catch (NumberFormatException e) {
+                        userInfo.setDepartmentId(null);
                     }
+                } else if (deptId instanceof Long) {
+                    userInfo.setDepartmentId((Long) deptId);
                 }
+                        
+                log.info("✅ [NEW-TODO-AUTH] Mock API认证成功: {} ({}) - 学号:{}, 年级:{}, 班级:{}", 
+                        userInfo.getUsername(), userInfo.getRoleCode(), userInfo.getStudentId(), userInfo.getGradeId(), userInfo.getClassId());
+                return userInfo;
             }
         } catch (Exception e) {
             log.error("🔗 [NEW-TODO-AUTH] Mock API调用异常: {}", e.getMessage(), e);
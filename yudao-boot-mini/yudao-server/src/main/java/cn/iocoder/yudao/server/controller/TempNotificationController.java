@@ -2,6 +2,7 @@ package cn.iocoder.yudao.server.controller;
 
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnore;
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient;
 import cn.iocoder.yudao.server.util.NotificationScopeManager;
 import cn.iocoder.yudao.server.util.SafeSQLExecutor;
 import cn.iocoder.yudao.server.util.SecurityEnhancementUtil;
@@ -9,6 +10,7 @@ import cn.iocoder.yudao.server.security.ResourceOwnershipValidator;
 import java.util.Arrays;
 import cn.iocoder.yudao.server.security.IdorProtectionValidator;
 import cn.iocoder.yudao.server.security.AccessControlListManager;
+import cn.iocoder.yudao.server.service.push.CampusPushService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.PermitAll;
@@ -18,7 +20,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -41,20 +42,25 @@ import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 @Slf4j
 public class TempNotificationController {
 
-    private static final String MOCK_API_BASE = "http://localhost:48082";
-    private final RestTemplate restTemplate = new RestTemplate();
-    
     // 注入高风险漏洞修复安全验证器
     private final ResourceOwnershipValidator ownershipValidator;
     private final IdorProtectionValidator idorValidator;
     private final AccessControlListManager aclManager;
+    // 📡 通知变化的实时推送
+    private final CampusPushService campusPushService;
+    // 🌐 Mock School API 共享客户端（连接池、超时、舱壁、熔断）
+    private final SchoolApiHttpClient schoolApiHttpClient;
     
     public TempNotificationController(ResourceOwnershipValidator ownershipValidator,
                                     IdorProtectionValidator idorValidator,
-                                    AccessControlListManager aclManager) {
+                                    AccessControlListManager aclManager,
+                                    CampusPushService campusPushService,
+                                    SchoolApiHttpClient schoolApiHttpClient) {
         this.ownershipValidator = ownershipValidator;
         this.idorValidator = idorValidator;
         this.aclManager = aclManager;
+        this.campusPushService = campusPushService;
+        this.schoolApiHttpClient = schoolApiHttpClient;
         log.info("🛡️ [SECURITY_INIT] 高风险漏洞修复安全验证器已初始化完成");
     }
 
@@ -220,43 +226,23 @@ public class TempNotificationController {
      */
     private AccessControlListManager.UserInfo getUserInfoFromMockApi(String authToken) {
         try {
-            String url = MOCK_API_BASE + "/mock-school-api/auth/user-info";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", authToken);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // user-info接口是POST方法，需要发送空JSON body
-            HttpEntity<String> entity = new HttpEntity<>("{}", headers);
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                log.info("🔍 [API] Mock API响应: {}", body);
-                
-                // 检查返回码，Mock API返回的是Integer 200
-                Object codeObj = body.get("code");
-                boolean isSuccess = (codeObj instanceof Integer && (Integer) codeObj == 200) || 
-                                  (codeObj instanceof String && "200".equals(codeObj));
+            // Mock API 不可用时，由共享客户端快速失败，或者降级使用最近一次的用户信息
+            Map<String, Object> data = schoolApiHttpClient.getUserInfo(authToken);
+            if (data != null) {
+                AccessControlListManager.UserInfo userInfo = new AccessControlListManager.UserInfo();
+                userInfo.setUsername((String) data.get("username"));
+                userInfo.setRoleCode((String) data.get("roleCode"));
+                userInfo.setRoleName((String) data.get("roleName"));
+                userInfo.setEmployeeId((String) data.get("employeeId"));
                 
-                if (isSuccess && body.get("data") != null) {
-                    Map<String, Object> data = (Map<String, Object>) body.get("data");
-                    AccessControlListManager.UserInfo userInfo = new AccessControlListManager.UserInfo();
-                    userInfo.setUsername((String) data.get("username"));
-                    userInfo.setRoleCode((String) data.get("roleCode"));
-                    userInfo.setRoleName((String) data.get("roleName"));
-                    userInfo.setEmployeeId((String) data.get("employeeId"));
-                    
-                    log.info("✅ [API] 用户信息解析成功: user={}, role={}", userInfo.getUsername(), userInfo.getRoleCode());
-                    return userInfo;
-                } else {
-                    log.warn("❌ [API] Mock API响应失败: code={}, success={}", 
-                            body.get("code"), body.get("success"));
-                }
+                log.info("✅ [API] 用户信息解析成功: user={}, role={}", userInfo.getUsername(), userInfo.getRoleCode());
+                return userInfo;
+            } else {
+                log.warn("❌ [API] Mock API响应失败: Token无效");
             }
         } catch (Exception e) {
             log.error("🔗 [API] Mock API调用异常: {}", e.getMessage(), e);
-            log.error("🔗 [API] 调用URL: {}, Token: {}", MOCK_API_BASE + "/mock-school-api/auth/user-info", 
+            log.error("🔗 [API] Token: {}", 
                      authToken != null ? authToken.substring(0, Math.min(20, authToken.length())) + "..." : "null");
         }
         return null;
@@ -414,13 +400,13 @@ public class TempNotificationController {
             // Step 3: 测试Mock API调用
             log.info("🧪 [DEBUG] 开始测试Mock API调用");
             try {
-                String url = MOCK_API_BASE + "/mock-school-api/auth/user-info";
                 HttpHeaders headers = new HttpHeaders();
                 headers.set("Authorization", authToken);
                 headers.setContentType(MediaType.APPLICATION_JSON);
                 
                 HttpEntity<String> entity = new HttpEntity<>("{}", headers);
-                ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
+                ResponseEntity<Map> response = schoolApiHttpClient.exchange(
+                        SchoolApiHttpClient.Endpoint.USER_INFO, HttpMethod.POST, entity, Map.class);
                 
                 log.info("🧪 [DEBUG] Mock API响应状态: {}", response.getStatusCode());
                 result.put("mockApiStatus", response.getStatusCode().toString());
@@ -718,6 +704,24 @@ public class TempNotificationController {
             
             log.info("💾🛡️ [DATABASE-SECURE] 安全通知发布成功 - ID: {}, 标题: {}, 用户: {}", 
                     notificationId, safeTitle, userInfo.getUsername());
+
+            // 📡 Step 7: 推送给在线订阅者 - 已发布推送给可见用户，待审批只推送给校长
+            Map<String, Object> notification = new HashMap<>();
+            notification.put("id", notificationId);
+            notification.put("title", safeTitle);
+            notification.put("content", safeContent);
+            notification.put("level", level);
+            notification.put("status", status);
+            notification.put("publisherName", userInfo.getUsername());
+            notification.put("publisherRole", userInfo.getRoleCode());
+            notification.put("targetScope", targetScope);
+            notification.put("createTime", LocalDateTime.now().withNano(0).toString());
+            if (status == 3) {
+                pushNotificationIfVisible(CampusPushService.EVENT_PUBLISHED, notification);
+            } else {
+                campusPushService.pushNotification(CampusPushService.EVENT_PENDING_APPROVAL, notification,
+                        subscriber -> "PRINCIPAL".equals(subscriber.getRoleCode()));
+            }
             
             // 📊 安全审计记录
             SecurityEnhancementUtil.auditSecurityEvent("NOTIFICATION_PUBLISHED", 
@@ -1068,21 +1072,7 @@ public class TempNotificationController {
                 
                 if (fields.length >= 11) { // 🔧 GRADE-ARCH-FIX: 现在需要至少11个字段（包含新的目标字段）
                     try {
-                        Map<String, Object> notification = new HashMap<>();
-                        notification.put("id", parseIntSafely(fields[0]));
-                        notification.put("title", fields[1]);
-                        notification.put("content", fields[2]);
-                        notification.put("level", parseIntSafely(fields[3]));
-                        notification.put("status", parseIntSafely(fields[4]));
-                        notification.put("publisherName", fields[5]);
-                        notification.put("publisherRole", fields[6]);
-                        notification.put("targetScope", fields[7]); // 🎯 SCOPE-BATCH-1: 目标范围字段
-                        notification.put("targetGrade", !"NULL".equals(fields[8]) && !fields[8].trim().isEmpty() ? fields[8] : null); // 🔧 GRADE-ARCH-FIX: 目标年级
-                        notification.put("targetClass", !"NULL".equals(fields[9]) && !fields[9].trim().isEmpty() ? fields[9] : null); // 🔧 目标班级
-                        notification.put("targetDepartment", !"NULL".equals(fields[10]) && !fields[10].trim().isEmpty() ? fields[10] : null); // 🔧 目标部门
-                        notification.put("createTime", fields.length > 11 && !"NULL".equals(fields[11]) ? fields[11] : null);
-                        
-                        notifications.add(notification);
+                        notifications.add(toNotificationRow(fields));
                         log.info("💾 [DB-QUERY] 成功解析通知: id={}, title={}, scope={}, grade={}", 
                                 fields[0], fields[1], fields[7], !"NULL".equals(fields[8]) ? fields[8] : "null");
                     } catch (Exception e) {
@@ -1102,6 +1092,58 @@ public class TempNotificationController {
         }
     }
 
+    /**
+     * 从数据库查询单条通知 - 字段与通知列表一致，用于实时推送
+     */
+    private Map<String, Object> getNotificationFromDatabase(Long id) {
+        try {
+            String baseSql = "SELECT id, title, content, level, status, publisher_name, publisher_role, target_scope, " +
+                "target_grade, target_class, target_department, " +
+                "DATE_FORMAT(create_time, '%Y-%m-%dT%H:%i:%s') as create_time " +
+                "FROM notification_info WHERE id = " + id;
+            MySQLExecutionResult result = executeMySQL(SafeSQLExecutor.ensureNotDeleted(baseSql), true);
+            if (!result.success || result.stdLines.size() < 2) {
+                log.warn("💾 [DB-QUERY] 查询通知失败或不存在: id={}", id);
+                return null;
+            }
+            // 第一行为表头
+            String[] fields = result.stdLines.get(1).split("\t", -1);
+            return fields.length >= 11 ? toNotificationRow(fields) : null;
+        } catch (Exception e) {
+            log.error("💥 [DB-QUERY] 查询通知异常: id={}", id, e);
+            return null;
+        }
+    }
+
+    /**
+     * 将查询结果的一行（按Tab分割）转换为通知
+     */
+    private Map<String, Object> toNotificationRow(String[] fields) {
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("id", parseIntSafely(fields[0]));
+        notification.put("title", fields[1]);
+        notification.put("content", fields[2]);
+        notification.put("level", parseIntSafely(fields[3]));
+        notification.put("status", parseIntSafely(fields[4]));
+        notification.put("publisherName", fields[5]);
+        notification.put("publisherRole", fields[6]);
+        notification.put("targetScope", fields[7]); // 🎯 SCOPE-BATCH-1: 目标范围字段
+        notification.put("targetGrade", !"NULL".equals(fields[8]) && !fields[8].trim().isEmpty() ? fields[8] : null); // 🔧 GRADE-ARCH-FIX: 目标年级
+        notification.put("targetClass", !"NULL".equals(fields[9]) && !fields[9].trim().isEmpty() ? fields[9] : null); // 🔧 目标班级
+        notification.put("targetDepartment", !"NULL".equals(fields[10]) && !fields[10].trim().isEmpty() ? fields[10] : null); // 🔧 目标部门
+        notification.put("createTime", fields.length > 11 && !"NULL".equals(fields[11]) ? fields[11] : null);
+        return notification;
+    }
+
+    /**
+     * 📡 推送通知给在线订阅者 - 复用通知列表的安全过滤规则判断可见性
+     */
+    private void pushNotificationIfVisible(String event, Map<String, Object> notification) {
+        campusPushService.pushNotification(event, notification,
+                subscriber -> !filterNotificationsByRoleWithSecurity(
+                        Collections.singletonList(notification), subscriber).isEmpty());
+    }
+
     /**
      * 安全的整数解析
      */
@@ -1540,6 +1582,12 @@ public class TempNotificationController {
 
             log.info("✅🛡️ [APPROVE-SECURE] 安全通知批准成功 - ID: {}, 审批者: {}", 
                     request.notificationId, userInfo.getUsername());
+
+            // 📡 Step 5: 推送给在线订阅者 - 需重新查询通知，获得完整的目标范围字段
+            Map<String, Object> approvedNotification = getNotificationFromDatabase(request.notificationId);
+            if (approvedNotification != null) {
+                pushNotificationIfVisible(CampusPushService.EVENT_APPROVED, approvedNotification);
+            }
             
             // 📊 安全审计记录
             SecurityEnhancementUtil.auditSecurityEvent("NOTIFICATION_APPROVED", 
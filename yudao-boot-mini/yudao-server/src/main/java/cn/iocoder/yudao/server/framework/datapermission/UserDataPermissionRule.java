@@ -28,6 +28,11 @@ public class UserDataPermissionRule implements DataPermissionRule {
      * 用户ID列名
      */
     private static final String USER_COLUMN_NAME = "creator";
+
+    /**
+     * 未登录时的规则指纹
+     */
+    private static final String FINGERPRINT_NONE = "none";
     
     /**
      * 需要应用此规则的表名，可通过配置文件灵活配置
@@ -62,4 +67,11 @@ public class UserDataPermissionRule implements DataPermissionRule {
             new LongValue(loginUser.getId())
         );
     }
+
+    @Override
+    public Object getFingerprint() {
+        // 条件只与登录用户编号相关
+        LoginUser loginUser = SecurityFrameworkUtils.getLoginUser();
+        return loginUser != null ? loginUser.getId() : FINGERPRINT_NONE;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package cn.iocoder.yudao.server.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 安全审计事件
+ *
+ * 🔐 使用固定字段的类型化记录，替代每次新建 HashMap：
+ * - 请求线程只负责填充字段，序列化、格式化时间、生成审计ID都在后台写入线程完成
+ * - 序列化时忽略 null 字段，输出的 JSON 与原 Map 结构保持一致
+ *
+ * @author Security Team
+ */
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SecurityAuditEvent {
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+
+        AUTH_SUCCESS,
+        AUTH_FAILURE,
+        TOKEN_VALIDATION_FAILURE,
+        SECURITY_ATTACK,
+        BASIC_TOKEN_OPERATION,
+        PERMISSION_CHECK,
+        SECURITY_ALERT,
+
+    }
+
+    private Type eventType;
+    /**
+     * 是否为失败（异常）事件。失败事件保证写入，不会被采样或丢弃
+     */
+    @JsonIgnore
+    private boolean failure;
+    /**
+     * 事件发生的时间戳，单位：毫秒
+     */
+    @JsonIgnore
+    private long occurredAt = System.currentTimeMillis();
+
+    // ========== 后台写入线程填充 ==========
+
+    private String timestamp;
+    private String sessionId;
+
+    // ========== 请求线程填充 ==========
+
+    @JsonProperty("clientIP")
+    private String clientIp;
+    private String userAgent;
+    private String userId;
+    private String endpoint;
+    private String method;
+    private String reason;
+    private String token;
+    private String alertType;
+    private String attackType;
+    private String details;
+    private String severity;
+    private String operation;
+    private String resource;
+    private String action;
+    private Boolean success;
+    private Boolean allowed;
+    /**
+     * 采样率。成功事件按照该比例采样写入，统计时需要除以该值还原
+     */
+    private Double sampleRate;
+
+}
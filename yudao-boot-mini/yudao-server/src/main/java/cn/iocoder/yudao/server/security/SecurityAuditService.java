@@ -1,16 +1,27 @@
 package cn.iocoder.yudao.server.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 安全审计日志服务 - P0级安全修复
@@ -28,6 +39,12 @@ import java.util.concurrent.atomic.AtomicLong;
  * - 统计分析和趋势监控
  * - 符合安全合规要求
  * 
+ * ⚡ 异步写入管道：
+ * - 请求线程只填充类型化的 {@link SecurityAuditEvent}，放入无锁队列（ConcurrentLinkedQueue + 计数器实现有界）
+ * - 后台线程批量序列化为 JSON 行，通过 SECURITY_AUDIT Logger 写入独立的滚动文件（见 logback-spring.xml）
+ * - 成功事件按照 security.audit.success-sample-rate 采样，队列满时丢弃
+ * - 失败事件不采样；队列满、或写入线程未运行时，在调用线程同步写入，不会丢失
+ * 
  * @author Security Team
  * @version 1.0
  * @since 2025-01-05
@@ -37,9 +54,39 @@ public class SecurityAuditService {
 
     private static final Logger log = LoggerFactory.getLogger(SecurityAuditService.class);
     private static final Logger auditLog = LoggerFactory.getLogger("SECURITY_AUDIT");
-    
+
+    /**
+     * 后台线程每批写入的最大事件数
+     */
+    private static final int WRITE_BATCH_SIZE = 256;
+    /**
+     * 队列为空时，后台线程的休眠时长
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /**
+     * 关闭时，等待后台线程结束的时长，单位：毫秒
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * 成功事件的采样率，取值 0 ~ 1
+     */
+    @Value("${security.audit.success-sample-rate:0.1}")
+    private double successSampleRate;
+    /**
+     * 审计队列的容量。队列满时，成功事件丢弃，失败事件在调用线程同步写入
+     */
+    @Value("${security.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // 审计队列
+    private final Queue<SecurityAuditEvent> auditQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger auditQueueSize = new AtomicInteger();
+    private volatile Thread writerThread;
+    private volatile boolean running;
     
     // 统计计数器
     private final AtomicLong totalSecurityEvents = new AtomicLong(0);
@@ -47,6 +94,36 @@ public class SecurityAuditService {
     private final AtomicLong authenticationFailures = new AtomicLong(0);
     private final AtomicLong suspiciousActivities = new AtomicLong(0);
     private final AtomicLong tokenValidationFailures = new AtomicLong(0);
+    private final AtomicLong sampledOutEvents = new AtomicLong(0);
+    private final AtomicLong droppedEvents = new AtomicLong(0);
+    private final AtomicLong syncWrittenEvents = new AtomicLong(0);
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "security-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("🔐 [SECURITY_AUDIT] 审计写入线程已启动: sampleRate={}, queueCapacity={}", successSampleRate, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // 写入剩余的事件
+        int count = drainAndWrite(Integer.MAX_VALUE);
+        log.info("🔐 [SECURITY_AUDIT] 审计写入线程已关闭: 剩余写入={}, 采样忽略={}, 丢弃={}, 同步写入={}",
+                count, sampledOutEvents.get(), droppedEvents.get(), syncWrittenEvents.get());
+    }
     
     /**
      * 📝 记录认证成功事件
@@ -56,15 +133,12 @@ public class SecurityAuditService {
             authenticationAttempts.incrementAndGet();
             totalSecurityEvents.incrementAndGet();
             
-            Map<String, Object> event = createBaseSecurityEvent("AUTH_SUCCESS", clientIP, userAgent);
-            event.put("userId", maskSensitiveData(userId));
-            event.put("endpoint", request.getRequestURI());
-            event.put("method", request.getMethod());
+            publish(createBaseSecurityEvent(SecurityAuditEvent.Type.AUTH_SUCCESS, false, clientIP, userAgent)
+                    .setUserId(maskSensitiveData(userId))
+                    .setEndpoint(request.getRequestURI())
+                    .setMethod(request.getMethod()));
             
-            String eventJson = objectMapper.writeValueAsString(event);
-            auditLog.info("✅ [AUTH_SUCCESS] {}", eventJson);
-            
-            log.info("✅ [SECURITY_AUDIT] 认证成功: user={}, ip={}", maskSensitiveData(userId), clientIP);
+            log.debug("✅ [SECURITY_AUDIT] 认证成功: user={}, ip={}", maskSensitiveData(userId), clientIP);
             
         } catch (Exception e) {
             log.error("❌ [SECURITY_AUDIT] 记录认证成功事件失败", e);
@@ -80,14 +154,11 @@ public class SecurityAuditService {
             authenticationFailures.incrementAndGet();
             totalSecurityEvents.incrementAndGet();
             
-            Map<String, Object> event = createBaseSecurityEvent("AUTH_FAILURE", clientIP, userAgent);
-            event.put("userId", maskSensitiveData(userId));
-            event.put("reason", reason);
-            event.put("endpoint", request.getRequestURI());
-            event.put("method", request.getMethod());
-            
-            String eventJson = objectMapper.writeValueAsString(event);
-            auditLog.warn("❌ [AUTH_FAILURE] {}", eventJson);
+            publish(createBaseSecurityEvent(SecurityAuditEvent.Type.AUTH_FAILURE, true, clientIP, userAgent)
+                    .setUserId(maskSensitiveData(userId))
+                    .setReason(reason)
+                    .setEndpoint(request.getRequestURI())
+                    .setMethod(request.getMethod()));
             
             log.warn("❌ [SECURITY_AUDIT] 认证失败: user={}, reason={}, ip={}", 
                     maskSensitiveData(userId), reason, clientIP);
@@ -105,14 +176,11 @@ public class SecurityAuditService {
             tokenValidationFailures.incrementAndGet();
             totalSecurityEvents.incrementAndGet();
             
-            Map<String, Object> event = createBaseSecurityEvent("TOKEN_VALIDATION_FAILURE", clientIP, userAgent);
-            event.put("token", maskToken(token));
-            event.put("reason", reason);
-            event.put("endpoint", request.getRequestURI());
-            event.put("method", request.getMethod());
-            
-            String eventJson = objectMapper.writeValueAsString(event);
-            auditLog.warn("🚨 [TOKEN_FAILURE] {}", eventJson);
+            publish(createBaseSecurityEvent(SecurityAuditEvent.Type.TOKEN_VALIDATION_FAILURE, true, clientIP, userAgent)
+                    .setToken(maskToken(token))
+                    .setReason(reason)
+                    .setEndpoint(request.getRequestURI())
+                    .setMethod(request.getMethod()));
             
             log.warn("🚨 [SECURITY_AUDIT] Token验证失败: reason={}, ip={}", reason, clientIP);
             
@@ -129,15 +197,12 @@ public class SecurityAuditService {
             suspiciousActivities.incrementAndGet();
             totalSecurityEvents.incrementAndGet();
             
-            Map<String, Object> event = createBaseSecurityEvent("SECURITY_ATTACK", clientIP, userAgent);
-            event.put("attackType", attackType);
-            event.put("details", details);
-            event.put("endpoint", request != null ? request.getRequestURI() : "unknown");
-            event.put("method", request != null ? request.getMethod() : "unknown");
-            event.put("severity", determineSeverity(attackType));
-            
-            String eventJson = objectMapper.writeValueAsString(event);
-            auditLog.error("🚨 [SECURITY_ATTACK] {}", eventJson);
+            publish(createBaseSecurityEvent(SecurityAuditEvent.Type.SECURITY_ATTACK, true, clientIP, userAgent)
+                    .setAttackType(attackType)
+                    .setDetails(details)
+                    .setEndpoint(request != null ? request.getRequestURI() : "unknown")
+                    .setMethod(request != null ? request.getMethod() : "unknown")
+                    .setSeverity(determineSeverity(attackType)));
             
             log.error("🚨 [SECURITY_AUDIT] 安全攻击检测: type={}, ip={}, details={}", 
                     attackType, clientIP, details);
@@ -159,18 +224,11 @@ public class SecurityAuditService {
         try {
             totalSecurityEvents.incrementAndGet();
             
-            Map<String, Object> event = createBaseSecurityEvent("BASIC_TOKEN_OPERATION", "system", "system");
-            event.put("operation", operation); // ENCRYPT, DECRYPT, STORE, RETRIEVE
-            event.put("userId", maskSensitiveData(userId));
-            event.put("success", success);
-            event.put("details", details);
-            
-            String eventJson = objectMapper.writeValueAsString(event);
-            if (success) {
-                auditLog.info("🔐 [BASIC_TOKEN_OP] {}", eventJson);
-            } else {
-                auditLog.warn("🚨 [BASIC_TOKEN_OP] {}", eventJson);
-            }
+            publish(createBaseSecurityEvent(SecurityAuditEvent.Type.BASIC_TOKEN_OPERATION, !success, "system", "system")
+                    .setOperation(operation) // ENCRYPT, DECRYPT, STORE, RETRIEVE
+                    .setUserId(maskSensitiveData(userId))
+                    .setSuccess(success)
+                    .setDetails(details));
             
             log.debug("🔐 [SECURITY_AUDIT] Basic Token操作: op={}, user={}, success={}", 
                     operation, maskSensitiveData(userId), success);
@@ -187,19 +245,12 @@ public class SecurityAuditService {
         try {
             totalSecurityEvents.incrementAndGet();
             
-            Map<String, Object> event = createBaseSecurityEvent("PERMISSION_CHECK", "system", "system");
-            event.put("userId", maskSensitiveData(userId));
-            event.put("resource", resource);
-            event.put("action", action);
-            event.put("allowed", allowed);
-            event.put("reason", reason);
-            
-            String eventJson = objectMapper.writeValueAsString(event);
-            if (allowed) {
-                auditLog.debug("✅ [PERMISSION_CHECK] {}", eventJson);
-            } else {
-                auditLog.warn("❌ [PERMISSION_CHECK] {}", eventJson);
-            }
+            publish(createBaseSecurityEvent(SecurityAuditEvent.Type.PERMISSION_CHECK, !allowed, "system", "system")
+                    .setUserId(maskSensitiveData(userId))
+                    .setResource(resource)
+                    .setAction(action)
+                    .setAllowed(allowed)
+                    .setReason(reason));
             
         } catch (Exception e) {
             log.error("❌ [SECURITY_AUDIT] 记录权限检查事件失败", e);
@@ -217,6 +268,10 @@ public class SecurityAuditService {
         stats.put("authenticationFailures", authenticationFailures.get());
         stats.put("suspiciousActivities", suspiciousActivities.get());
         stats.put("tokenValidationFailures", tokenValidationFailures.get());
+        stats.put("auditQueueSize", auditQueueSize.get());
+        stats.put("auditSampledOutEvents", sampledOutEvents.get());
+        stats.put("auditDroppedEvents", droppedEvents.get());
+        stats.put("auditSyncWrittenEvents", syncWrittenEvents.get());
         
         // 计算成功率
         long totalAuth = authenticationAttempts.get();
@@ -231,19 +286,119 @@ public class SecurityAuditService {
     
     /**
      * 📋 创建基础安全事件结构
+     *
+     * 注意：脱敏在请求线程完成，避免原始 Token 等敏感数据滞留在队列中
      */
-    private Map<String, Object> createBaseSecurityEvent(String eventType, String clientIP, String userAgent) {
-        Map<String, Object> event = new HashMap<>();
-        
-        event.put("eventType", eventType);
-        event.put("timestamp", LocalDateTime.now().format(timeFormatter));
-        event.put("clientIP", clientIP);
-        event.put("userAgent", maskUserAgent(userAgent));
-        event.put("sessionId", generateSessionId());
-        
-        return event;
+    private SecurityAuditEvent createBaseSecurityEvent(SecurityAuditEvent.Type eventType, boolean failure,
+                                                       String clientIP, String userAgent) {
+        return new SecurityAuditEvent()
+                .setEventType(eventType)
+                .setFailure(failure)
+                .setClientIp(clientIP)
+                .setUserAgent(maskUserAgent(userAgent));
     }
-    
+
+    /**
+     * 📤 投递审计事件
+     *
+     * 1. 成功事件：按照采样率采样，队列已满时丢弃
+     * 2. 失败事件：队列已满时，在调用线程同步写入，以背压代替丢失
+     * 3. 写入线程未运行时，都在调用线程同步写入
+     */
+    private void publish(SecurityAuditEvent event) {
+        if (!event.isFailure()) {
+            if (successSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= successSampleRate) {
+                sampledOutEvents.incrementAndGet();
+                return;
+            }
+            event.setSampleRate(successSampleRate);
+        }
+        if (!running) {
+            write(event);
+            return;
+        }
+        if (offer(event)) {
+            return;
+        }
+        // 队列已满
+        if (event.isFailure()) {
+            syncWrittenEvents.incrementAndGet();
+            write(event);
+        } else {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * 📥 放入审计队列：先占用容量再入队，保证并发投递时也不超过 queueCapacity
+     *
+     * @return 是否成功。队列已满时，返回 false
+     */
+    private boolean offer(SecurityAuditEvent event) {
+        if (auditQueueSize.incrementAndGet() > queueCapacity) {
+            auditQueueSize.decrementAndGet();
+            return false;
+        }
+        auditQueue.offer(event);
+        // 入队前 running 仍为 true，但 shutdown 可能已完成最后一次写入，事件会滞留在队列中。
+        // 所以入队后再次检查：shutdown 先设置 running = false 再写入剩余事件，两者至少有一方能处理到该事件
+        if (!running) {
+            drainAndWrite(Integer.MAX_VALUE);
+        }
+        return true;
+    }
+
+    /**
+     * 🔄 后台写入线程：批量取出事件写入，队列为空时短暂休眠
+     */
+    private void runWriter() {
+        while (running) {
+            try {
+                if (drainAndWrite(WRITE_BATCH_SIZE) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (Throwable e) {
+                log.error("❌ [SECURITY_AUDIT] 审计写入线程异常", e);
+            }
+        }
+    }
+
+    private int drainAndWrite(int maxCount) {
+        int count = 0;
+        SecurityAuditEvent event;
+        while (count < maxCount && (event = auditQueue.poll()) != null) {
+            auditQueueSize.decrementAndGet();
+            write(event);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * ✍️ 写入单个审计事件为一行 JSON：在这里完成时间格式化、生成审计ID
+     */
+    private void write(SecurityAuditEvent event) {
+        try {
+            event.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getOccurredAt()), ZoneId.systemDefault())
+                    .format(timeFormatter));
+            event.setSessionId(generateSessionId(event.getOccurredAt()));
+
+            String eventJson = objectMapper.writeValueAsString(event);
+            if (event.getEventType() == SecurityAuditEvent.Type.SECURITY_ATTACK
+                    || event.getEventType() == SecurityAuditEvent.Type.SECURITY_ALERT) {
+                auditLog.error(eventJson);
+            } else if (event.isFailure()) {
+                auditLog.warn(eventJson);
+            } else if (event.getEventType() == SecurityAuditEvent.Type.PERMISSION_CHECK) {
+                auditLog.debug(eventJson);
+            } else {
+                auditLog.info(eventJson);
+            }
+        } catch (Exception e) {
+            log.error("❌ [SECURITY_AUDIT] 写入审计事件失败: type={}", event.getEventType(), e);
+        }
+    }
+
     /**
      * 🛡️ 脱敏敏感数据
      */
@@ -308,16 +463,14 @@ public class SecurityAuditService {
      */
     private void sendSecurityAlert(String attackType, String clientIP, String details) {
         try {
-            Map<String, Object> alert = new HashMap<>();
-            alert.put("alertType", "HIGH_RISK_SECURITY_ATTACK");
-            alert.put("attackType", attackType);
-            alert.put("clientIP", clientIP);
-            alert.put("details", details);
-            alert.put("timestamp", LocalDateTime.now().format(timeFormatter));
-            alert.put("severity", "HIGH");
-            
-            String alertJson = objectMapper.writeValueAsString(alert);
-            auditLog.error("🚨🚨🚨 [SECURITY_ALERT] {}", alertJson);
+            publish(new SecurityAuditEvent()
+                    .setEventType(SecurityAuditEvent.Type.SECURITY_ALERT)
+                    .setFailure(true)
+                    .setAlertType("HIGH_RISK_SECURITY_ATTACK")
+                    .setAttackType(attackType)
+                    .setClientIp(clientIP)
+                    .setDetails(details)
+                    .setSeverity("HIGH"));
             
             // 这里可以集成外部告警系统
             // alertService.sendAlert(alert);
@@ -330,9 +483,9 @@ public class SecurityAuditService {
     /**
      * 🎲 生成会话ID
      */
-    private String generateSessionId() {
-        return "AUDIT_" + System.currentTimeMillis() + "_" + 
-               Integer.toHexString((int)(Math.random() * 0xFFFF));
+    private String generateSessionId(long occurredAt) {
+        return "AUDIT_" + occurredAt + "_" + 
+               Integer.toHexString(ThreadLocalRandom.current().nextInt(0xFFFF));
     }
     
     /**
@@ -344,7 +497,8 @@ public class SecurityAuditService {
             String reportJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(stats);
             
             log.info("📊 [SECURITY_REPORT] 安全统计报告:\n{}", reportJson);
-            auditLog.info("📊 [SECURITY_REPORT] {}", objectMapper.writeValueAsString(stats));
+            // 审计文件为 JSON Lines 格式，只写入 JSON 本身
+            auditLog.info(objectMapper.writeValueAsString(stats));
             
         } catch (Exception e) {
             log.error("❌ [SECURITY_AUDIT] 生成安全报告失败", e);
@@ -0,0 +1,157 @@
+package cn.iocoder.yudao.server.service.push;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
+import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManager;
+import cn.iocoder.yudao.server.security.AccessControlListManager;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * 校园通知、待办的实时推送服务
+ *
+ * 客户端建立 WebSocket 连接后，发送 campus-subscribe 消息完成订阅（见 CampusSubscribeWebSocketMessageListener），连接关闭时取消订阅。
+ * 之后通知发布、审批通过，待办发布时，只把变化的那一条推送给能看到它的订阅者，客户端无需再轮询列表接口，只在重连时全量拉取一次。
+ *
+ * 注意：
+ * 1. 订阅者登记在本节点内存中，推送也只发给本节点的连接。当前 yudao.websocket.sender-type 为 local，单节点部署
+ * 2. 推送在独立线程中执行，不阻塞发布、审批请求；队列满时丢弃，客户端重连时会全量拉取
+ *
+ * @author 芋道源码
+ */
+@Service
+@Slf4j
+public class CampusPushService {
+
+    /**
+     * 通知变化的 WebSocket 消息类型
+     */
+    public static final String MESSAGE_TYPE_NOTIFICATION = "campus-notification";
+    /**
+     * 待办变化的 WebSocket 消息类型
+     */
+    public static final String MESSAGE_TYPE_TODO = "campus-todo";
+
+    public static final String EVENT_PUBLISHED = "published";
+    public static final String EVENT_PENDING_APPROVAL = "pending-approval";
+    public static final String EVENT_APPROVED = "approved";
+
+    /**
+     * 推送任务队列的容量
+     */
+    private static final int PUSH_QUEUE_CAPACITY = 1000;
+
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired(required = false) // 由于 yudao.websocket.enable 配置项，可以关闭 WebSocket 的功能，所以这里只能不强制注入
+    private WebSocketMessageSender webSocketMessageSender;
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired(required = false)
+    private WebSocketSessionManager webSocketSessionManager;
+
+    /**
+     * 订阅者
+     *
+     * key：Session 编号
+     * value：订阅者的用户信息，用于判断可见性
+     */
+    private final ConcurrentMap<String, AccessControlListManager.UserInfo> subscribers = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor pushExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(PUSH_QUEUE_CAPACITY), new NamedThreadFactory("campus-push-", true),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    /**
+     * 订阅推送
+     *
+     * @param session WebSocket Session
+     * @param userInfo 用户信息
+     */
+    public void subscribe(WebSocketSession session, AccessControlListManager.UserInfo userInfo) {
+        subscribers.put(session.getId(), userInfo);
+        log.info("📡 [CAMPUS-PUSH] 订阅成功: session={}, user={} ({}), 当前订阅数={}",
+                session.getId(), userInfo.getUsername(), userInfo.getRoleCode(), subscribers.size());
+    }
+
+    /**
+     * 取消订阅
+     *
+     * @param session WebSocket Session
+     */
+    public void unsubscribe(WebSocketSession session) {
+        if (subscribers.remove(session.getId()) != null) {
+            log.info("📡 [CAMPUS-PUSH] 取消订阅: session={}, 当前订阅数={}", session.getId(), subscribers.size());
+        }
+    }
+
+    /**
+     * 推送通知的变化
+     *
+     * @param event 事件，例如说 {@link #EVENT_PUBLISHED}
+     * @param notification 通知，字段与通知列表接口的单条记录一致
+     * @param visible 订阅者是否可以看到该通知
+     */
+    public void pushNotification(String event, Map<String, Object> notification,
+                                 Predicate<AccessControlListManager.UserInfo> visible) {
+        push(MESSAGE_TYPE_NOTIFICATION, event, notification, visible);
+    }
+
+    /**
+     * 推送待办的变化
+     *
+     * @param event 事件，例如说 {@link #EVENT_PUBLISHED}
+     * @param todo 待办，字段与待办列表接口的单条记录一致
+     * @param visible 订阅者是否可以看到该待办
+     */
+    public void pushTodo(String event, Map<String, Object> todo,
+                         Predicate<AccessControlListManager.UserInfo> visible) {
+        push(MESSAGE_TYPE_TODO, event, todo, visible);
+    }
+
+    private void push(String messageType, String event, Map<String, Object> data,
+                      Predicate<AccessControlListManager.UserInfo> visible) {
+        if (webSocketMessageSender == null || subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> message = new HashMap<>();
+        message.put("event", event);
+        message.put("data", data);
+        String content = JsonUtils.toJsonString(message);
+        pushExecutor.execute(() -> {
+            int count = 0;
+            for (Map.Entry<String, AccessControlListManager.UserInfo> entry : subscribers.entrySet()) {
+                // 连接已关闭，移除订阅。兜底，正常情况下连接关闭时已经取消订阅
+                if (webSocketSessionManager != null && webSocketSessionManager.getSession(entry.getKey()) == null) {
+                    subscribers.remove(entry.getKey());
+                    continue;
+                }
+                try {
+                    if (!visible.test(entry.getValue())) {
+                        continue;
+                    }
+                    webSocketMessageSender.send(entry.getKey(), messageType, content);
+                    count++;
+                } catch (Exception ex) {
+                    log.error("📡 [CAMPUS-PUSH] 推送失败: session={}, type={}, event={}",
+                            entry.getKey(), messageType, event, ex);
+                }
+            }
+            log.info("📡 [CAMPUS-PUSH] 推送完成: type={}, event={}, id={}, 推送数={}",
+                    messageType, event, data.get("id"), count);
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pushExecutor.shutdown();
+    }
+
+}
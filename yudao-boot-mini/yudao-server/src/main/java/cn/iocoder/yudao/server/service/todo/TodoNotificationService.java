@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.server.service.todo;
 
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.datasource.core.annotation.SlaveRead;
 import cn.iocoder.yudao.server.dal.dataobject.todo.TodoNotificationDO;
 import cn.iocoder.yudao.server.dal.dataobject.todo.TodoCompletionDO;
 import cn.iocoder.yudao.server.dal.mysql.todo.TodoNotificationMapper;
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +47,7 @@ public class TodoNotificationService {
      * @param userInfo 用户信息
      * @return 分页结果
      */
+    @SlaveRead
     public PageResult<TodoNotificationDO> getMyTodos(int page, int pageSize, 
                                                     Integer status, Integer priority, 
                                                     AccessControlListManager.UserInfo userInfo) {
@@ -109,45 +112,55 @@ public class TodoNotificationService {
      */
     private void applyScopeFilter(LambdaQueryWrapper<TodoNotificationDO> wrapper, 
                                  AccessControlListManager.UserInfo userInfo) {
-        
-        String roleCode = userInfo.getRoleCode();
-        
-        if ("SYSTEM_ADMIN".equals(roleCode) || "PRINCIPAL".equals(roleCode)) {
+        Set<String> visibleScopes = getVisibleScopes(userInfo.getRoleCode());
+        if (visibleScopes == null) {
             // 系统管理员和校长可以看到所有待办
             log.debug("🔓 [SCOPE_FILTER] 管理员权限，无需过滤");
             return;
         }
-        
+        wrapper.in(TodoNotificationDO::getTargetScope, visibleScopes);
+        log.debug("🔒 [SCOPE_FILTER] 角色 {} 权限过滤应用 - 可见范围: {}", userInfo.getRoleCode(), visibleScopes);
+    }
+
+    /**
+     * 判断用户是否可以看到指定范围的待办，与 {@link #applyScopeFilter} 的过滤规则一致
+     *
+     * 用于待办发布后的实时推送，避免推送给列表中看不到该待办的用户
+     *
+     * @param targetScope 待办的目标范围
+     * @param userInfo 用户信息
+     * @return 是否可见
+     */
+    public boolean isVisible(String targetScope, AccessControlListManager.UserInfo userInfo) {
+        Set<String> visibleScopes = getVisibleScopes(userInfo.getRoleCode());
+        return visibleScopes == null || visibleScopes.contains(targetScope);
+    }
+
+    /**
+     * 获得角色可以看到的待办范围
+     *
+     * @param roleCode 角色编码
+     * @return 范围集合。返回 null 时，表示可以看到所有范围
+     */
+    private static Set<String> getVisibleScopes(String roleCode) {
+        if ("SYSTEM_ADMIN".equals(roleCode) || "PRINCIPAL".equals(roleCode)) {
+            return null;
+        }
         if ("ACADEMIC_ADMIN".equals(roleCode)) {
             // 教务主任可以看到全校、部门和年级级别的待办
-            wrapper.and(w -> w.eq(TodoNotificationDO::getTargetScope, "SCHOOL_WIDE")
-                            .or().eq(TodoNotificationDO::getTargetScope, "DEPARTMENT")
-                            .or().eq(TodoNotificationDO::getTargetScope, "GRADE"));
-            log.debug("🔒 [SCOPE_FILTER] 教务主任权限过滤应用");
-            return;
+            return Set.of("SCHOOL_WIDE", "DEPARTMENT", "GRADE");
         }
-
         if ("TEACHER".equals(roleCode) || "CLASS_TEACHER".equals(roleCode)) {
             // 🔧 修复：教师和班主任可以看到全校、部门、年级和班级级别的待办
-            wrapper.and(w -> w.eq(TodoNotificationDO::getTargetScope, "SCHOOL_WIDE")
-                            .or().eq(TodoNotificationDO::getTargetScope, "DEPARTMENT")
-                            .or().eq(TodoNotificationDO::getTargetScope, "GRADE")
-                            .or().eq(TodoNotificationDO::getTargetScope, "CLASS"));
-            log.debug("🔒 [SCOPE_FILTER] 教师权限过滤应用 - 包含SCHOOL_WIDE");
-            return;
+            return Set.of("SCHOOL_WIDE", "DEPARTMENT", "GRADE", "CLASS");
         }
-
         if ("STUDENT".equals(roleCode)) {
             // 🔧 修复：学生可以看到全校和班级级别的待办
-            wrapper.and(w -> w.eq(TodoNotificationDO::getTargetScope, "SCHOOL_WIDE")
-                            .or().eq(TodoNotificationDO::getTargetScope, "CLASS"));
-            log.debug("🔒 [SCOPE_FILTER] 学生权限过滤应用 - 包含SCHOOL_WIDE");
-            return;
+            return Set.of("SCHOOL_WIDE", "CLASS");
         }
-        
         // 默认情况：只能看到班级级别的待办
-        wrapper.eq(TodoNotificationDO::getTargetScope, "CLASS");
         log.warn("⚠️  [SCOPE_FILTER] 未知角色 {}，应用默认权限过滤", roleCode);
+        return Set.of("CLASS");
     }
 
     // ==================== 用户状态管理功能 ====================
@@ -0,0 +1,18 @@
+package cn.iocoder.yudao.server.websocket;
+
+import lombok.Data;
+
+/**
+ * 校园推送的订阅消息：client -> server
+ *
+ * @author 芋道源码
+ */
+@Data
+public class CampusSubscribeMessage {
+
+    /**
+     * Mock School API 签发的 JWT Token，允许带 Bearer 前缀
+     */
+    private String token;
+
+}
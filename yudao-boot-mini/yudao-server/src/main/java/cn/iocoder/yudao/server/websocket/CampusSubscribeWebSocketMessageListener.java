@@ -0,0 +1,112 @@
+package cn.iocoder.yudao.server.websocket;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.websocket.core.listener.WebSocketMessageListener;
+import cn.iocoder.yudao.framework.websocket.core.sender.WebSocketMessageSender;
+import cn.iocoder.yudao.module.infra.integration.SchoolApiHttpClient;
+import cn.iocoder.yudao.server.security.AccessControlListManager;
+import cn.iocoder.yudao.server.service.push.CampusPushService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+
+/**
+ * 校园推送的订阅监听器
+ *
+ * 校园用户使用 Mock School API 的 JWT Token 认证，无法在 WebSocket 握手时被 TokenAuthenticationFilter 识别，
+ * 所以连接建立后，由客户端发送 campus-subscribe 消息，这里校验 Token 后登记到 {@link CampusPushService}；连接关闭时取消登记
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class CampusSubscribeWebSocketMessageListener implements WebSocketMessageListener<CampusSubscribeMessage> {
+
+    /**
+     * 订阅结果的 WebSocket 消息类型
+     */
+    private static final String MESSAGE_TYPE_SUBSCRIBE_RESULT = "campus-subscribe-result";
+
+    @Resource
+    private CampusPushService campusPushService;
+    /**
+     * 订阅在 WebSocket 线程执行，使用共享客户端，Mock API 不可用时快速失败
+     */
+    @Resource
+    private SchoolApiHttpClient schoolApiHttpClient;
+
+    @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
+    @Autowired(required = false) // 由于 yudao.websocket.enable 配置项，可以关闭 WebSocket 的功能，所以这里只能不强制注入
+    private WebSocketMessageSender webSocketMessageSender;
+
+    @Override
+    public void onMessage(WebSocketSession session, CampusSubscribeMessage message) {
+        // 1. 校验 Token，获得用户信息
+        AccessControlListManager.UserInfo userInfo = null;
+        if (message != null && StrUtil.isNotBlank(message.getToken())) {
+            String token = message.getToken().startsWith("Bearer ") ? message.getToken() : "Bearer " + message.getToken();
+            userInfo = getUserInfoFromMockApi(token);
+        }
+        if (userInfo == null) {
+            log.warn("❌ [CAMPUS-SUBSCRIBE] Token验证失败: session={}", session.getId());
+            sendResult(session, false);
+            return;
+        }
+
+        // 2. 登记订阅
+        campusPushService.subscribe(session, userInfo);
+        sendResult(session, true);
+    }
+
+    @Override
+    public void onClose(WebSocketSession session) {
+        campusPushService.unsubscribe(session);
+    }
+
+    @Override
+    public String getType() {
+        return "campus-subscribe";
+    }
+
+    private void sendResult(WebSocketSession session, boolean success) {
+        if (webSocketMessageSender != null) {
+            webSocketMessageSender.sendObject(session.getId(), MESSAGE_TYPE_SUBSCRIBE_RESULT, Map.of("success", success));
+        }
+    }
+
+    private AccessControlListManager.UserInfo getUserInfoFromMockApi(String authToken) {
+        try {
+            Map<String, Object> data = schoolApiHttpClient.getUserInfo(authToken);
+            if (data == null) {
+                return null;
+            }
+            AccessControlListManager.UserInfo userInfo = new AccessControlListManager.UserInfo();
+            userInfo.setUsername((String) data.get("username"));
+            userInfo.setRoleCode((String) data.get("roleCode"));
+            userInfo.setRoleName((String) data.get("roleName"));
+            String studentId = (String) data.get("studentId");
+            if (studentId == null) {
+                studentId = (String) data.get("employeeId");
+            }
+            userInfo.setStudentId(studentId);
+            userInfo.setEmployeeId(studentId);
+            userInfo.setGradeId((String) data.get("gradeId"));
+            userInfo.setClassId((String) data.get("classId"));
+            Object deptId = data.get("departmentId");
+            if (deptId instanceof Number) {
+                userInfo.setDepartmentId(((Number) deptId).longValue());
+            } else if (deptId instanceof String && StrUtil.isNumeric((String) deptId)) {
+                userInfo.setDepartmentId(Long.parseLong((String) deptId));
+            }
+            return userInfo;
+        } catch (Exception e) {
+            log.error("🔗 [CAMPUS-SUBSCRIBE] Mock API调用异常: {}", e.getMessage());
+            return null;
+        }
+    }
+
+}
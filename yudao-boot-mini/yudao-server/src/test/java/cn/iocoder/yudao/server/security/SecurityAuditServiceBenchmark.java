@@ -0,0 +1,129 @@
+package cn.iocoder.yudao.server.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 安全审计日志的基准测试
+ *
+ * 模拟请求线程（默认 8 个）记录审计事件，对比：
+ * 1. mode = sync：不启动写入线程，在请求线程序列化并写入，即原有实现
+ * 2. mode = async：请求线程只投递事件，由后台线程批量写入
+ *
+ * SECURITY_AUDIT Logger 通过 %msg%n 格式输出到空的 OutputStream，保留序列化、编码的开销，但不写磁盘；其它日志关闭。
+ * TearDown 时输出采样忽略、丢弃、同步写入的数量，用于观察队列满时失败事件的背压
+ *
+ * 运行方式：直接执行 main 方法
+ *
+ * @author Security Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class SecurityAuditServiceBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    @Param({"10000"})
+    public int queueCapacity;
+
+    private SecurityAuditService securityAuditService;
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        configureLogger();
+        securityAuditService = new SecurityAuditService();
+        setField("successSampleRate", 0.1D);
+        setField("queueCapacity", queueCapacity);
+        if ("async".equals(mode)) {
+            securityAuditService.start();
+        }
+        request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequestURI":
+                            return "/admin-api/system/auth/login";
+                        case "getMethod":
+                            return "POST";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @TearDown
+    public void tearDown() {
+        securityAuditService.shutdown();
+        Map<String, Object> stats = securityAuditService.getSecurityStatistics();
+        System.out.printf("%n[tearDown] mode(%s) 事件(%s) 采样忽略(%s) 丢弃(%s) 同步写入(%s)%n", mode,
+                stats.get("totalSecurityEvents"), stats.get("auditSampledOutEvents"),
+                stats.get("auditDroppedEvents"), stats.get("auditSyncWrittenEvents"));
+    }
+
+    @Benchmark
+    public void success() {
+        securityAuditService.logAuthenticationSuccess("admin-user-1024", "10.0.0.1",
+                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36", request);
+    }
+
+    @Benchmark
+    public void failure() {
+        securityAuditService.logTokenValidationFailure("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiIxMDI0In0.signature",
+                "Token已过期", "10.0.0.1", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36", request);
+    }
+
+    /**
+     * 关闭其它日志；SECURITY_AUDIT Logger 输出到空的 OutputStream
+     */
+    private static void configureLogger() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.OFF);
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        Logger auditLogger = context.getLogger("SECURITY_AUDIT");
+        auditLogger.detachAndStopAllAppenders();
+        auditLogger.addAppender(appender);
+        auditLogger.setLevel(Level.INFO);
+        auditLogger.setAdditive(false);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = SecurityAuditService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(securityAuditService, value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SecurityAuditServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}